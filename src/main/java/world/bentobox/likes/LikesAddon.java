@@ -16,11 +16,14 @@ import world.bentobox.bentobox.managers.PlaceholdersManager;
 import world.bentobox.likes.commands.admin.AdminCommand;
 import world.bentobox.likes.commands.user.PlayerCommand;
 import world.bentobox.likes.config.Settings;
+import world.bentobox.likes.database.objects.VoterSet;
 import world.bentobox.likes.listeners.ResetListener;
 import world.bentobox.likes.managers.LikesManager;
 import world.bentobox.likes.placeholders.LikesAddonPlaceholder;
 import world.bentobox.likes.placeholders.LikesAddonPlaceholderType;
 import world.bentobox.likes.requests.LikesRequestHandler;
+import world.bentobox.likes.requests.NeighboursRequestHandler;
+import world.bentobox.likes.requests.PlayerVotesRequestHandler;
 import world.bentobox.likes.requests.TopTenRequestHandler;
 import world.bentobox.warps.Warp;
 
@@ -90,9 +93,46 @@ public class LikesAddon extends Addon
 			return;
 		}
 
+		// Large voter containers are moved off heap only if it is enabled.
+		VoterSet.setOffHeap(this.settings.isOffHeapVoters());
+
 		// Initialize data manager
 		this.manager = new LikesManager(this);
 
+		// Likes of each GameMode are loaded on first use, unless they are loaded in background now.
+		if (this.settings.isPrewarm())
+		{
+			this.manager.prewarm();
+		}
+
+		// Daily, weekly and monthly tops must move when day changes.
+		Bukkit.getScheduler().runTaskTimer(this.getPlugin(),
+			this.manager::updateTimeWindows,
+			WINDOW_UPDATE_PERIOD,
+			WINDOW_UPDATE_PERIOD);
+
+		// Changed likes data are written periodically in background.
+		if (this.settings.getSaveInterval() > 0)
+		{
+			long savePeriod = this.settings.getSaveInterval() * TICKS_PER_SECOND;
+
+			Bukkit.getScheduler().runTaskTimer(this.getPlugin(),
+				this.manager::flush,
+				savePeriod,
+				savePeriod);
+		}
+
+		// Vote history is compacted in small steps in background.
+		if (this.settings.getHistoryCompactionInterval() > 0)
+		{
+			long compactionPeriod = this.settings.getHistoryCompactionInterval() * SECONDS_PER_MINUTE * TICKS_PER_SECOND;
+
+			Bukkit.getScheduler().runTaskTimer(this.getPlugin(),
+				this.manager::compactHistory,
+				compactionPeriod,
+				compactionPeriod);
+		}
+
 		// If your addon wants to hook into other GameModes, f.e. use flags, then you should
 		// hook these flags into each GameMode.
 
@@ -162,6 +202,8 @@ public class LikesAddon extends Addon
 		// Register Request Handlers
 		this.registerRequestHandler(new LikesRequestHandler(this));
 		this.registerRequestHandler(new TopTenRequestHandler(this));
+		this.registerRequestHandler(new NeighboursRequestHandler(this));
+		this.registerRequestHandler(new PlayerVotesRequestHandler(this));
 	}
 
 
@@ -187,6 +229,10 @@ public class LikesAddon extends Addon
 			this.logError("Likes settings could not load! Addon disabled.");
 			this.setState(State.DISABLED);
 		}
+		else
+		{
+			VoterSet.setOffHeap(this.settings.isOffHeapVoters());
+		}
 	}
 
 
@@ -307,4 +353,19 @@ public class LikesAddon extends Addon
 	 * Local variable that stores if vaultHook is present.
 	 */
 	private Warp warpHook;
+
+	/**
+	 * Period in ticks how often time window tops check if day has changed.
+	 */
+	private static final long WINDOW_UPDATE_PERIOD = 20 * 60;
+
+	/**
+	 * Number of server ticks in one second.
+	 */
+	private static final long TICKS_PER_SECOND = 20;
+
+	/**
+	 * Number of seconds in one minute.
+	 */
+	private static final long SECONDS_PER_MINUTE = 60;
 }
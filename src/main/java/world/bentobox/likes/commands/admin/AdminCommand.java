@@ -48,6 +48,9 @@ public class AdminCommand extends CompositeCommand
 
 		new PlayerViewCommand((LikesAddon) this.getAddon(), this);
 		new EditSettingsCommand((LikesAddon) this.getAddon(), this);
+		new ExportCommand((LikesAddon) this.getAddon(), this);
+		new ImportCommand((LikesAddon) this.getAddon(), this);
+		new PurgeCommand((LikesAddon) this.getAddon(), this);
 	}
 
 
@@ -50,6 +50,7 @@ public class PlayerCommand extends CompositeCommand
 
 		new PlayerTopCommand((LikesAddon) this.getAddon(), this);
 		new PlayerViewCommand((LikesAddon) this.getAddon(), this);
+		new PlayerVotesCommand((LikesAddon) this.getAddon(), this);
 	}
 
 
@@ -231,6 +231,336 @@ public class Settings implements ConfigObject
 	}
 
 
+	/**
+	 * Method Settings#getDefaultRanking returns the defaultRanking of this object.
+	 *
+	 * @return the defaultRanking (type String) of this object.
+	 */
+	public String getDefaultRanking()
+	{
+		return defaultRanking;
+	}
+
+
+	/**
+	 * Method Settings#setDefaultRanking sets new value for the defaultRanking of this object.
+	 * @param defaultRanking new value for this object.
+	 *
+	 */
+	public void setDefaultRanking(String defaultRanking)
+	{
+		this.defaultRanking = defaultRanking;
+	}
+
+
+	/**
+	 * Method Settings#getGameModeRanking returns the gameModeRanking of this object.
+	 *
+	 * @return the gameModeRanking (type Map<String, String>) of this object.
+	 */
+	public Map<String, String> getGameModeRanking()
+	{
+		return gameModeRanking;
+	}
+
+
+	/**
+	 * Method Settings#setGameModeRanking sets new value for the gameModeRanking of this object.
+	 * @param gameModeRanking new value for this object.
+	 *
+	 */
+	public void setGameModeRanking(Map<String, String> gameModeRanking)
+	{
+		this.gameModeRanking = gameModeRanking;
+	}
+
+
+	/**
+	 * Method Settings#getBayesianPriorVotes returns the bayesianPriorVotes of this object.
+	 *
+	 * @return the bayesianPriorVotes (type double) of this object.
+	 */
+	public double getBayesianPriorVotes()
+	{
+		return bayesianPriorVotes;
+	}
+
+
+	/**
+	 * Method Settings#setBayesianPriorVotes sets new value for the bayesianPriorVotes of this object.
+	 * @param bayesianPriorVotes new value for this object.
+	 *
+	 */
+	public void setBayesianPriorVotes(double bayesianPriorVotes)
+	{
+		this.bayesianPriorVotes = bayesianPriorVotes;
+	}
+
+
+	/**
+	 * Method Settings#getBayesianPriorRatio returns the bayesianPriorRatio of this object.
+	 *
+	 * @return the bayesianPriorRatio (type double) of this object.
+	 */
+	public double getBayesianPriorRatio()
+	{
+		return bayesianPriorRatio;
+	}
+
+
+	/**
+	 * Method Settings#setBayesianPriorRatio sets new value for the bayesianPriorRatio of this object.
+	 * @param bayesianPriorRatio new value for this object.
+	 *
+	 */
+	public void setBayesianPriorRatio(double bayesianPriorRatio)
+	{
+		this.bayesianPriorRatio = bayesianPriorRatio;
+	}
+
+
+	/**
+	 * Method Settings#getTrendingHalfLife returns the trendingHalfLife of this object.
+	 *
+	 * @return the trendingHalfLife (type double) of this object.
+	 */
+	public double getTrendingHalfLife()
+	{
+		return trendingHalfLife;
+	}
+
+
+	/**
+	 * Method Settings#setTrendingHalfLife sets new value for the trendingHalfLife of this object.
+	 * @param trendingHalfLife new value for this object.
+	 *
+	 */
+	public void setTrendingHalfLife(double trendingHalfLife)
+	{
+		this.trendingHalfLife = trendingHalfLife;
+	}
+
+
+	/**
+	 * Method Settings#getSaveInterval returns the saveInterval of this object.
+	 *
+	 * @return the saveInterval (type long) of this object.
+	 */
+	public long getSaveInterval()
+	{
+		return saveInterval;
+	}
+
+
+	/**
+	 * Method Settings#setSaveInterval sets new value for the saveInterval of this object.
+	 * @param saveInterval new value for this object.
+	 *
+	 */
+	public void setSaveInterval(long saveInterval)
+	{
+		this.saveInterval = saveInterval;
+	}
+
+
+	/**
+	 * Method Settings#getSaveBatchSize returns the saveBatchSize of this object.
+	 *
+	 * @return the saveBatchSize (type int) of this object.
+	 */
+	public int getSaveBatchSize()
+	{
+		return saveBatchSize;
+	}
+
+
+	/**
+	 * Method Settings#setSaveBatchSize sets new value for the saveBatchSize of this object.
+	 * @param saveBatchSize new value for this object.
+	 *
+	 */
+	public void setSaveBatchSize(int saveBatchSize)
+	{
+		this.saveBatchSize = saveBatchSize;
+	}
+
+
+	/**
+	 * Method Settings#isVoteJournal returns the voteJournal of this object.
+	 *
+	 * @return the voteJournal (type boolean) of this object.
+	 */
+	public boolean isVoteJournal()
+	{
+		return voteJournal;
+	}
+
+
+	/**
+	 * Method Settings#setVoteJournal sets new value for the voteJournal of this object.
+	 * @param voteJournal new value for this object.
+	 *
+	 */
+	public void setVoteJournal(boolean voteJournal)
+	{
+		this.voteJournal = voteJournal;
+	}
+
+
+	/**
+	 * Method Settings#isBinarySnapshot returns the binarySnapshot of this object.
+	 *
+	 * @return the binarySnapshot (type boolean) of this object.
+	 */
+	public boolean isBinarySnapshot()
+	{
+		return binarySnapshot;
+	}
+
+
+	/**
+	 * Method Settings#setBinarySnapshot sets new value for the binarySnapshot of this object.
+	 * @param binarySnapshot new value for this object.
+	 *
+	 */
+	public void setBinarySnapshot(boolean binarySnapshot)
+	{
+		this.binarySnapshot = binarySnapshot;
+	}
+
+
+	/**
+	 * Method Settings#isPrewarm returns the prewarm of this object.
+	 *
+	 * @return the prewarm (type boolean) of this object.
+	 */
+	public boolean isPrewarm()
+	{
+		return prewarm;
+	}
+
+
+	/**
+	 * Method Settings#setPrewarm sets new value for the prewarm of this object.
+	 * @param prewarm new value for this object.
+	 *
+	 */
+	public void setPrewarm(boolean prewarm)
+	{
+		this.prewarm = prewarm;
+	}
+
+
+	/**
+	 * Method Settings#isOffHeapVoters returns the offHeapVoters of this object.
+	 *
+	 * @return the offHeapVoters (type boolean) of this object.
+	 */
+	public boolean isOffHeapVoters()
+	{
+		return offHeapVoters;
+	}
+
+
+	/**
+	 * Method Settings#setOffHeapVoters sets new value for the offHeapVoters of this object.
+	 * @param offHeapVoters new value for this object.
+	 *
+	 */
+	public void setOffHeapVoters(boolean offHeapVoters)
+	{
+		this.offHeapVoters = offHeapVoters;
+	}
+
+
+	/**
+	 * Method Settings#getHistoryMaxEntries returns the historyMaxEntries of this object.
+	 *
+	 * @return the historyMaxEntries (type int) of this object.
+	 */
+	public int getHistoryMaxEntries()
+	{
+		return historyMaxEntries;
+	}
+
+
+	/**
+	 * Method Settings#setHistoryMaxEntries sets new value for the historyMaxEntries of this object.
+	 * @param historyMaxEntries new value for this object.
+	 *
+	 */
+	public void setHistoryMaxEntries(int historyMaxEntries)
+	{
+		this.historyMaxEntries = historyMaxEntries;
+	}
+
+
+	/**
+	 * Method Settings#getHistoryMaxAge returns the historyMaxAge of this object.
+	 *
+	 * @return the historyMaxAge (type int) of this object.
+	 */
+	public int getHistoryMaxAge()
+	{
+		return historyMaxAge;
+	}
+
+
+	/**
+	 * Method Settings#setHistoryMaxAge sets new value for the historyMaxAge of this object.
+	 * @param historyMaxAge new value for this object.
+	 *
+	 */
+	public void setHistoryMaxAge(int historyMaxAge)
+	{
+		this.historyMaxAge = historyMaxAge;
+	}
+
+
+	/**
+	 * Method Settings#getHistoryCompactionInterval returns the historyCompactionInterval of this object.
+	 *
+	 * @return the historyCompactionInterval (type long) of this object.
+	 */
+	public long getHistoryCompactionInterval()
+	{
+		return historyCompactionInterval;
+	}
+
+
+	/**
+	 * Method Settings#setHistoryCompactionInterval sets new value for the historyCompactionInterval of this object.
+	 * @param historyCompactionInterval new value for this object.
+	 *
+	 */
+	public void setHistoryCompactionInterval(long historyCompactionInterval)
+	{
+		this.historyCompactionInterval = historyCompactionInterval;
+	}
+
+
+	/**
+	 * Method Settings#getHistoryCompactionBatch returns the historyCompactionBatch of this object.
+	 *
+	 * @return the historyCompactionBatch (type int) of this object.
+	 */
+	public int getHistoryCompactionBatch()
+	{
+		return historyCompactionBatch;
+	}
+
+
+	/**
+	 * Method Settings#setHistoryCompactionBatch sets new value for the historyCompactionBatch of this object.
+	 * @param historyCompactionBatch new value for this object.
+	 *
+	 */
+	public void setHistoryCompactionBatch(int historyCompactionBatch)
+	{
+		this.historyCompactionBatch = historyCompactionBatch;
+	}
+
+
 // ---------------------------------------------------------------------
 // Section: Variables
 // ---------------------------------------------------------------------
@@ -287,6 +617,107 @@ public class Settings implements ConfigObject
 	private Set<String> disabledGameModes = new HashSet<>();
 
 
+	@ConfigComment("")
+	@ConfigComment("Allows to choose formula that is used to calculate island rank.")
+	@ConfigComment("Available values:")
+	@ConfigComment(" NET - likes minus dislikes.")
+	@ConfigComment(" WILSON - lower bound of Wilson score interval for like ratio, multiplied by 1000.")
+	@ConfigComment(" BAYESIAN - like ratio with added prior votes, multiplied by 1000.")
+	@ConfigComment(" RATIO - likes divided by all votes, multiplied by 1000.")
+	@ConfigEntry(path = "ranking.default")
+	private String defaultRanking = "NET";
+
+	@ConfigComment("")
+	@ConfigComment("Allows to set different rank formula for some GameModes. Example:")
+	@ConfigComment("gamemodes:")
+	@ConfigComment("  BSkyBlock: WILSON")
+	@ConfigEntry(path = "ranking.gamemodes")
+	private Map<String, String> gameModeRanking = new HashMap<>();
+
+	@ConfigComment("")
+	@ConfigComment("Number of virtual votes that BAYESIAN formula adds to each island.")
+	@ConfigEntry(path = "ranking.bayesian.prior-votes")
+	private double bayesianPriorVotes = 10;
+
+	@ConfigComment("")
+	@ConfigComment("Like ratio of virtual votes that BAYESIAN formula adds to each island.")
+	@ConfigEntry(path = "ranking.bayesian.prior-ratio")
+	private double bayesianPriorRatio = 0.5;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define how fast likes lose their weight in trending top.")
+	@ConfigComment("Value is half-life in hours: after this time like is worth half of new like.")
+	@ConfigEntry(path = "trending.half-life")
+	private double trendingHalfLife = 24;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define how often changed likes data are saved to database.")
+	@ConfigComment("Value is in seconds. Only islands that got votes since previous save are written,")
+	@ConfigComment("in background thread. 0 means that data are saved only on server shutdown.")
+	@ConfigEntry(path = "storage.save-interval")
+	private long saveInterval = 60;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define how many islands are written to database by single background task.")
+	@ConfigEntry(path = "storage.batch-size")
+	private int saveBatchSize = 100;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to write each vote to small journal file right away. Journal is replayed")
+	@ConfigComment("on start, so votes are not lost if server crashes before the next save.")
+	@ConfigEntry(path = "storage.journal")
+	private boolean voteJournal = true;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to store all likes data in compact binary snapshot on shutdown. Snapshot")
+	@ConfigComment("is read on next start instead of the database, which is much faster for big")
+	@ConfigComment("servers. Database is still updated, and it is used if snapshot is missing.")
+	@ConfigEntry(path = "storage.binary-snapshot")
+	private boolean binarySnapshot = false;
+
+	@ConfigComment("")
+	@ConfigComment("Likes data of each GameMode are loaded in background when they are used for the")
+	@ConfigComment("first time, and tops of GameMode are empty until its data are loaded.")
+	@ConfigComment("Allows to load data of all enabled GameModes in background right after start,")
+	@ConfigComment("so first command or placeholder already shows loaded data. Data of disabled")
+	@ConfigComment("GameModes are never loaded in bulk.")
+	@ConfigEntry(path = "storage.prewarm")
+	private boolean prewarm = true;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to store voters of islands with many votes in direct memory, outside of")
+	@ConfigComment("Java heap. It reduces heap size and garbage collection pauses on very large")
+	@ConfigComment("servers. Direct memory is limited by -XX:MaxDirectMemorySize JVM option.")
+	@ConfigComment("Buffers are reused, but buffers of unloaded islands are freed only by garbage")
+	@ConfigComment("collection. With -XX:+DisableExplicitGC JVM cannot force it when direct memory")
+	@ConfigComment("runs out, so set -XX:MaxDirectMemorySize with enough headroom.")
+	@ConfigEntry(path = "storage.off-heap-voters")
+	private boolean offHeapVoters = false;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to limit how many history entries are kept for each island.")
+	@ConfigComment("Oldest entries are removed by history compaction. 0 means no limit.")
+	@ConfigEntry(path = "history.max-entries")
+	private int historyMaxEntries = 1000;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define after how many days history entries are removed.")
+	@ConfigComment("0 means that entries are kept forever.")
+	@ConfigEntry(path = "history.max-age")
+	private int historyMaxAge = 0;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define how often history is compacted in background. Value is in")
+	@ConfigComment("minutes. Compaction removes like and dislike that were later removed by the same")
+	@ConfigComment("player, and applies limits above. 0 disables compaction.")
+	@ConfigEntry(path = "history.compaction-interval")
+	private long historyCompactionInterval = 10;
+
+	@ConfigComment("")
+	@ConfigComment("Allows to define how many changed islands are compacted in single run.")
+	@ConfigEntry(path = "history.compaction-batch")
+	private int historyCompactionBatch = 500;
+
 // ---------------------------------------------------------------------
 // Section: Enums
 // ---------------------------------------------------------------------
@@ -299,7 +730,11 @@ public class Settings implements ConfigObject
 	{
 		LIKES,
 		DISLIKES,
-		RANK;
+		RANK,
+		DAILY,
+		WEEKLY,
+		MONTHLY,
+		TRENDING;
 
 
 		/**
@@ -328,4 +763,43 @@ public class Settings implements ConfigObject
 			}
 		}
 	}
+
+
+	/**
+	 * Allows to select formula that is used to calculate island rank.
+	 */
+	public enum RANKING_MODE
+	{
+		NET,
+		WILSON,
+		BAYESIAN,
+		RATIO;
+
+
+		/**
+		 * This method returns stored parameter from string.
+		 * @param parameter String of object that must be returned
+		 * @return RANKING_MODE object or null.
+		 */
+		public static RANKING_MODE getMode(String parameter)
+		{
+			return parameter == null ? null : BY_NAME.get(parameter.toUpperCase());
+		}
+
+		/**
+		 * This map allows to access all enum values via their string.
+		 */
+		private final static Map<String, RANKING_MODE> BY_NAME = new HashMap<>();
+
+		/**
+		 * This static method populated BY_NAME map.
+		 */
+		static
+		{
+			for (RANKING_MODE mode : RANKING_MODE.values())
+			{
+				BY_NAME.put(mode.name(), mode);
+			}
+		}
+	}
 }
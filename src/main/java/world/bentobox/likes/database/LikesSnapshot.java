@@ -0,0 +1,1061 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.UUID;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import world.bentobox.bentobox.api.logs.LogEntry;
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.database.objects.VoteMap;
+import world.bentobox.likes.database.objects.VoterSet;
+
+
+/**
+ * Compact binary snapshot of all likes objects. It is much smaller and faster to read than
+ * JSON documents, because voters are stored as two longs instead of 36 char strings, and
+ * counters are stored as variable length integers.
+ * <p>
+ * File layout: magic, format version, and then sections of GameModes. Each section
+ * starts with GameMode name and byte length of section body, so reader can skip
+ * GameModes it does not need. Snapshot that is written in slices by {@link Writer} may
+ * contain several sections of the same GameMode. Section body contains object count and objects:
+ * {@code uniqueId, likes, dislikes, likedBy, dislikedBy, history, journalSequence,
+ * dailyLikes, likeTimes}. Strings are varint length and UTF-8 bytes. Daily likes are
+ * varint size and varint day and like change pairs, and like times are varint size and
+ * UUID pair with varint time for each voter.
+ * <p>
+ * Header also contains identity of {@link VoterDictionary}. Snapshot that is written for
+ * next start of this server stores voter sets as varint size and delta encoded voter
+ * ids, and it can be read only with the same dictionary. Portable snapshot has identity
+ * 0 and stores voter sets as varint size and UUID pairs.
+ */
+public class LikesSnapshot
+{
+	/**
+	 * Utility class does not need constructor.
+	 */
+	private LikesSnapshot()
+	{
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Write methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method writes given objects to portable snapshot file, that stores voters as
+	 * UUIDs and can be read on any server. Data are written to temporary file first and
+	 * then moved over old snapshot, so crash does not leave half written snapshot.
+	 * @param file Snapshot file.
+	 * @param likesObjects Objects that must be stored.
+	 * @throws IOException if file cannot be written.
+	 */
+	public static void write(Path file, Collection<LikesObject> likesObjects) throws IOException
+	{
+		write(file, likesObjects, null, gameMode -> false, PORTABLE_IDENTITY);
+	}
+
+
+	/**
+	 * This method writes given objects to snapshot file, and copies sections of accepted
+	 * GameModes from previous snapshot without parsing them. It allows to rewrite snapshot
+	 * when only part of GameModes is loaded in memory. Sections of GameModes that are
+	 * present in given objects are never copied. Voters are stored as ids of current
+	 * voter dictionary, so dictionary must be saved before snapshot is used.
+	 * @param file Snapshot file.
+	 * @param likesObjects Objects that must be stored.
+	 * @param previous Previous snapshot file, or null.
+	 * @param copyFilter Predicate that returns {@code true} for GameModes which sections
+	 * must be copied from previous snapshot.
+	 * @throws IOException if file cannot be written or previous snapshot cannot be read.
+	 */
+	public static void write(Path file,
+		Collection<LikesObject> likesObjects,
+		Path previous,
+		Predicate<String> copyFilter) throws IOException
+	{
+		write(file, likesObjects, previous, copyFilter, VoterDictionary.getInstance().getIdentity());
+	}
+
+
+	/**
+	 * This method writes given objects to snapshot file, and copies sections of accepted
+	 * GameModes from previous snapshot.
+	 * @param file Snapshot file.
+	 * @param likesObjects Objects that must be stored.
+	 * @param previous Previous snapshot file, or null.
+	 * @param copyFilter Predicate that returns {@code true} for GameModes which sections
+	 * must be copied from previous snapshot.
+	 * @param identity Identity of voter dictionary, or {@link #PORTABLE_IDENTITY}.
+	 * @throws IOException if file cannot be written or previous snapshot cannot be read.
+	 */
+	private static void write(Path file,
+		Collection<LikesObject> likesObjects,
+		Path previous,
+		Predicate<String> copyFilter,
+		long identity) throws IOException
+	{
+		try (Writer writer = new Writer(file, identity, 0))
+		{
+			Set<String> gameModes = writer.write(likesObjects);
+
+			if (previous != null && Files.exists(previous))
+			{
+				copySections(previous, writer.output, identity, gameMode ->
+					!gameModes.contains(gameMode) && copyFilter.test(gameMode));
+			}
+
+			writer.finish();
+		}
+	}
+
+
+	/**
+	 * This method opens portable snapshot file, that stores voters as UUIDs and can be
+	 * read on any server, for writing in slices. Only single slice must be kept in memory
+	 * at once. Snapshot replaces given file when writer is finished. Temporary file of
+	 * unfinished portable writer is kept, so writing can be resumed from its checkpoint.
+	 * @param file Snapshot file.
+	 * @return Writer that must be finished and closed.
+	 * @throws IOException if file cannot be written.
+	 */
+	public static Writer openPortable(Path file) throws IOException
+	{
+		Writer writer = new Writer(file, PORTABLE_IDENTITY, 0);
+		writer.resumable = true;
+
+		return writer;
+	}
+
+
+	/**
+	 * This method checks if unfinished portable snapshot can be resumed from given
+	 * checkpoint.
+	 * @param file Snapshot file.
+	 * @param checkpoint Length of temporary file that was returned by
+	 * {@link Writer#checkpoint()}.
+	 * @return {@code true} if temporary file exists and is not shorter than checkpoint.
+	 */
+	public static boolean canResume(Path file, long checkpoint)
+	{
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+		try
+		{
+			return checkpoint > 0 && Files.exists(temporary) && Files.size(temporary) >= checkpoint;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+
+
+	/**
+	 * This method opens temporary file of unfinished portable snapshot again. Data after
+	 * given checkpoint are dropped, and new slices are appended after it.
+	 * @param file Snapshot file.
+	 * @param checkpoint Length of temporary file that was returned by
+	 * {@link Writer#checkpoint()}.
+	 * @return Writer that must be finished and closed.
+	 * @throws IOException if temporary file is missing, shorter than checkpoint, or cannot
+	 * be written.
+	 */
+	public static Writer resumePortable(Path file, long checkpoint) throws IOException
+	{
+		if (checkpoint <= 0)
+		{
+			throw new IOException("Invalid snapshot checkpoint " + checkpoint + ".");
+		}
+
+		Writer writer = new Writer(file, PORTABLE_IDENTITY, checkpoint);
+		writer.resumable = true;
+
+		return writer;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Read methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method checks if snapshot file has known format and can be read with current
+	 * voter dictionary.
+	 * @param file Snapshot file.
+	 * @return {@code true} if snapshot can be read, {@code false} otherwise.
+	 */
+	public static boolean isReadable(Path file)
+	{
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			readHeader(input);
+			return true;
+		}
+		catch (IOException e)
+		{
+			return false;
+		}
+	}
+
+
+	/**
+	 * This method reads all objects from snapshot file in single pass.
+	 * @param file Snapshot file.
+	 * @param consumer Consumer that receives each object.
+	 * @return Number of read objects.
+	 * @throws IOException if file cannot be read or is damaged.
+	 */
+	public static int read(Path file, Consumer<LikesObject> consumer) throws IOException
+	{
+		return read(file, gameMode -> true, consumer);
+	}
+
+
+	/**
+	 * This method reads objects of accepted GameModes from snapshot file in single pass.
+	 * Sections of other GameModes are skipped without parsing.
+	 * @param file Snapshot file.
+	 * @param gameModeFilter Predicate that returns {@code true} for GameModes that must be read.
+	 * @param consumer Consumer that receives each object.
+	 * @return Number of read objects.
+	 * @throws IOException if file cannot be read or is damaged.
+	 */
+	public static int read(Path file, Predicate<String> gameModeFilter, Consumer<LikesObject> consumer) throws IOException
+	{
+		int count = 0;
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			boolean voterIds = readHeader(input) != PORTABLE_IDENTITY;
+
+			while (true)
+			{
+				String gameMode;
+
+				try
+				{
+					gameMode = readString(input);
+				}
+				catch (EOFException e)
+				{
+					// All sections are read.
+					break;
+				}
+
+				long sectionLength = readVarLong(input);
+
+				if (!gameModeFilter.test(gameMode))
+				{
+					skipFully(input, sectionLength);
+					continue;
+				}
+
+				long objectCount = readVarLong(input);
+
+				for (long index = 0; index < objectCount; index++)
+				{
+					LikesObject likesObject = readObject(input, voterIds);
+					likesObject.setGameMode(gameMode.isEmpty() ? null : gameMode);
+
+					consumer.accept(likesObject);
+					count++;
+				}
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * This method reads all objects from snapshot file. File is scanned once to find
+	 * GameMode sections, and then sections are parsed in parallel on fork-join pool.
+	 * @param file Snapshot file.
+	 * @return List with all objects.
+	 * @throws IOException if file cannot be read or is damaged.
+	 */
+	public static List<LikesObject> readParallel(Path file) throws IOException
+	{
+		return readParallel(file, gameMode -> true);
+	}
+
+
+	/**
+	 * This method reads objects of accepted GameModes from snapshot file. File is scanned
+	 * once to find GameMode sections, and then accepted sections are parsed in parallel
+	 * on fork-join pool.
+	 * @param file Snapshot file.
+	 * @param gameModeFilter Predicate that returns {@code true} for GameModes that must be read.
+	 * @return List with objects of accepted GameModes.
+	 * @throws IOException if file cannot be read or is damaged.
+	 */
+	public static List<LikesObject> readParallel(Path file, Predicate<String> gameModeFilter) throws IOException
+	{
+		List<Section> sections = new ArrayList<>();
+		boolean voterIds;
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			voterIds = readHeader(input) != PORTABLE_IDENTITY;
+
+			long position = Integer.BYTES + varLongSize(VERSION) + Long.BYTES;
+
+			while (true)
+			{
+				String gameMode;
+
+				try
+				{
+					gameMode = readString(input);
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+
+				long sectionLength = readVarLong(input);
+				int nameLength = gameMode.getBytes(StandardCharsets.UTF_8).length;
+
+				position += varLongSize(nameLength) + nameLength + varLongSize(sectionLength);
+
+				if (gameModeFilter.test(gameMode))
+				{
+					sections.add(new Section(gameMode, position));
+				}
+
+				skipFully(input, sectionLength);
+				position += sectionLength;
+			}
+		}
+
+		try
+		{
+			return sections.parallelStream().
+				flatMap(section -> readSection(file, section.gameMode, section.offset, voterIds).stream()).
+				collect(Collectors.toList());
+		}
+		catch (UncheckedIOException e)
+		{
+			throw e.getCause();
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Copies accepted sections from given snapshot to output stream byte by byte.
+	 * Sections can be copied only if both snapshots store voters the same way.
+	 * @param file Snapshot file which sections must be copied.
+	 * @param output Output stream positioned after other sections.
+	 * @param identity Voter dictionary identity of output snapshot.
+	 * @param gameModeFilter Predicate that returns {@code true} for GameModes that must be copied.
+	 * @throws IOException if snapshot cannot be read, is damaged or has other identity.
+	 */
+	private static void copySections(Path file, DataOutputStream output, long identity, Predicate<String> gameModeFilter)
+		throws IOException
+	{
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if (readHeader(input) != identity)
+			{
+				throw new IOException("Previous likes snapshot uses other voter dictionary.");
+			}
+
+			byte[] buffer = new byte[COPY_BUFFER_SIZE];
+
+			while (true)
+			{
+				String gameMode;
+
+				try
+				{
+					gameMode = readString(input);
+				}
+				catch (EOFException e)
+				{
+					break;
+				}
+
+				long sectionLength = readVarLong(input);
+
+				if (!gameModeFilter.test(gameMode))
+				{
+					skipFully(input, sectionLength);
+					continue;
+				}
+
+				writeString(output, gameMode);
+				writeVarLong(output, sectionLength);
+
+				for (long remaining = sectionLength; remaining > 0; )
+				{
+					int read = input.read(buffer, 0, (int) Math.min(buffer.length, remaining));
+
+					if (read < 0)
+					{
+						throw new EOFException("Likes snapshot section is cut.");
+					}
+
+					output.write(buffer, 0, read);
+					remaining -= read;
+				}
+			}
+		}
+	}
+
+
+	/**
+	 * Reads single GameMode section from given offset.
+	 * @param file Snapshot file.
+	 * @param gameMode GameMode of section.
+	 * @param offset Offset of section body.
+	 * @param voterIds {@code true} if voters are stored as dictionary ids.
+	 * @return Objects in section.
+	 * @throws UncheckedIOException if section cannot be read.
+	 */
+	private static List<LikesObject> readSection(Path file, String gameMode, long offset, boolean voterIds)
+	{
+		try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+		{
+			channel.position(offset);
+
+			DataInputStream input = new DataInputStream(new BufferedInputStream(Channels.newInputStream(channel)));
+			int objectCount = Math.toIntExact(readVarLong(input));
+
+			List<LikesObject> likesObjects = new ArrayList<>(objectCount);
+
+			for (int index = 0; index < objectCount; index++)
+			{
+				LikesObject likesObject = readObject(input, voterIds);
+				likesObject.setGameMode(gameMode.isEmpty() ? null : gameMode);
+				likesObjects.add(likesObject);
+			}
+
+			return likesObjects;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException(e);
+		}
+	}
+
+
+	/**
+	 * @param value Value that must be written as varint.
+	 * @return Number of bytes that {@link #writeVarLong(OutputStream, long)} writes.
+	 */
+	private static int varLongSize(long value)
+	{
+		long zigZag = (value << 1) ^ (value >> 63);
+		int size = 1;
+
+		while ((zigZag & ~0x7FL) != 0)
+		{
+			zigZag >>>= 7;
+			size++;
+		}
+
+		return size;
+	}
+
+
+	/**
+	 * Writes single object without GameMode, as it is stored in section header.
+	 * @param output Output stream.
+	 * @param likesObject Object that must be written.
+	 * @param voterIds {@code true} if voters must be stored as dictionary ids.
+	 * @throws IOException if stream cannot be written.
+	 */
+	private static void writeObject(DataOutputStream output, LikesObject likesObject, boolean voterIds)
+		throws IOException
+	{
+		writeString(output, likesObject.getUniqueId());
+		writeVarLong(output, likesObject.getLikes());
+		writeVarLong(output, likesObject.getDislikes());
+		writeVoters(output, likesObject.getLikedBy(), voterIds);
+		writeVoters(output, likesObject.getDislikedBy(), voterIds);
+
+		List<LogEntry> history = likesObject.getHistory() == null ? new LinkedList<>() : likesObject.getHistory();
+		writeVarLong(output, history.size());
+
+		for (LogEntry entry : history)
+		{
+			writeString(output, entry.getType());
+			writeVarLong(output, entry.getTimestamp());
+
+			Map<String, Object> data = entry.getData() == null ? new HashMap<>() : entry.getData();
+			writeVarLong(output, data.size());
+
+			for (Map.Entry<String, Object> value : data.entrySet())
+			{
+				writeString(output, value.getKey());
+				writeString(output, String.valueOf(value.getValue()));
+			}
+		}
+
+		writeVarLong(output, likesObject.getJournalSequence());
+
+		writeVarLong(output, likesObject.getDailyLikes().size());
+
+		for (Map.Entry<Long, Integer> dailyLikes : likesObject.getDailyLikes().entrySet())
+		{
+			writeVarLong(output, dailyLikes.getKey());
+			writeVarLong(output, dailyLikes.getValue());
+		}
+
+		writeVarLong(output, likesObject.getLikeTimes().size());
+
+		for (Map.Entry<UUID, Long> likeTime : likesObject.getLikeTimes().entrySet())
+		{
+			output.writeLong(likeTime.getKey().getMostSignificantBits());
+			output.writeLong(likeTime.getKey().getLeastSignificantBits());
+			writeVarLong(output, likeTime.getValue());
+		}
+	}
+
+
+	/**
+	 * Reads single object without GameMode.
+	 * @param input Input stream.
+	 * @param voterIds {@code true} if voters are stored as dictionary ids.
+	 * @return Read object.
+	 * @throws IOException if stream cannot be read.
+	 */
+	private static LikesObject readObject(DataInputStream input, boolean voterIds) throws IOException
+	{
+		LikesObject likesObject = new LikesObject();
+		likesObject.setUniqueId(readString(input));
+		likesObject.setLikes(readVarLong(input));
+		likesObject.setDislikes(readVarLong(input));
+		likesObject.setLikedBy(readVoters(input, voterIds));
+		likesObject.setDislikedBy(readVoters(input, voterIds));
+
+		List<LogEntry> history = new LinkedList<>();
+		long historySize = readVarLong(input);
+
+		for (long index = 0; index < historySize; index++)
+		{
+			LogEntry.Builder builder = new LogEntry.Builder(readString(input)).
+				timestamp(readVarLong(input));
+
+			long dataSize = readVarLong(input);
+			Map<String, Object> data = new HashMap<>();
+
+			for (long dataIndex = 0; dataIndex < dataSize; dataIndex++)
+			{
+				data.put(readString(input), readString(input));
+			}
+
+			history.add(builder.data(data).build());
+		}
+
+		likesObject.setHistory(history);
+		likesObject.setJournalSequence(readVarLong(input));
+
+		Map<Long, Integer> dailyLikes = new HashMap<>();
+		long dailyLikesSize = readVarLong(input);
+
+		for (long index = 0; index < dailyLikesSize; index++)
+		{
+			dailyLikes.put(readVarLong(input), Math.toIntExact(readVarLong(input)));
+		}
+
+		likesObject.setDailyLikes(dailyLikes);
+
+		Map<UUID, Long> likeTimes = new HashMap<>();
+		long likeTimesSize = readVarLong(input);
+
+		for (long index = 0; index < likeTimesSize; index++)
+		{
+			likeTimes.put(new UUID(input.readLong(), input.readLong()), readVarLong(input));
+		}
+
+		likesObject.setLikeTimes(likeTimes);
+
+		return likesObject;
+	}
+
+
+	/**
+	 * Writes voter set as size and either delta encoded ids in ascending order, or UUID
+	 * bit pairs.
+	 * @param output Output stream.
+	 * @param voters Voter set.
+	 * @param voterIds {@code true} if voters must be stored as dictionary ids.
+	 * @throws IOException if stream cannot be written.
+	 */
+	private static void writeVoters(DataOutputStream output, Set<UUID> voters, boolean voterIds) throws IOException
+	{
+		writeVarLong(output, voters.size());
+
+		if (voterIds)
+		{
+			PrimitiveIterator.OfInt ids = voters instanceof VoteMap.Voters ?
+				((VoteMap.Voters) voters).idIterator() : new VoterSet(voters).idIterator();
+			int previous = 0;
+
+			while (ids.hasNext())
+			{
+				int id = ids.nextInt();
+				writeVarLong(output, id - previous);
+				previous = id;
+			}
+		}
+		else
+		{
+			for (UUID voter : voters)
+			{
+				output.writeLong(voter.getMostSignificantBits());
+				output.writeLong(voter.getLeastSignificantBits());
+			}
+		}
+	}
+
+
+	/**
+	 * Reads voter set.
+	 * @param input Input stream.
+	 * @param voterIds {@code true} if voters are stored as dictionary ids.
+	 * @return Voter set.
+	 * @throws IOException if stream cannot be read or contains unknown id.
+	 */
+	private static Set<UUID> readVoters(DataInputStream input, boolean voterIds) throws IOException
+	{
+		int size = Math.toIntExact(readVarLong(input));
+		VoterSet voters = new VoterSet();
+
+		if (voterIds)
+		{
+			int dictionarySize = VoterDictionary.getInstance().size();
+			long id = 0;
+
+			for (int index = 0; index < size; index++)
+			{
+				id += readVarLong(input);
+
+				if (id < 0 || id >= dictionarySize)
+				{
+					throw new IOException("Likes snapshot contains unknown voter id " + id + ".");
+				}
+
+				voters.addId((int) id);
+			}
+		}
+		else
+		{
+			VoterDictionary dictionary = VoterDictionary.getInstance();
+
+			for (int index = 0; index < size; index++)
+			{
+				voters.addId(dictionary.intern(input.readLong(), input.readLong()));
+			}
+		}
+
+		return voters;
+	}
+
+
+	/**
+	 * Reads and checks snapshot header.
+	 * @param input Input stream positioned at file start.
+	 * @return Voter dictionary identity of snapshot, or {@link #PORTABLE_IDENTITY}.
+	 * @throws IOException if format is unknown or snapshot uses other dictionary.
+	 */
+	private static long readHeader(DataInputStream input) throws IOException
+	{
+		if (input.readInt() != MAGIC || readVarLong(input) != VERSION)
+		{
+			throw new IOException("Unknown likes snapshot format.");
+		}
+
+		long identity = input.readLong();
+
+		if (identity != PORTABLE_IDENTITY && identity != VoterDictionary.getInstance().getIdentity())
+		{
+			throw new IOException("Likes snapshot uses other voter dictionary.");
+		}
+
+		return identity;
+	}
+
+
+	/**
+	 * Skips given number of bytes.
+	 * @param input Input stream.
+	 * @param length Number of bytes that must be skipped.
+	 * @throws IOException if stream ends before all bytes are skipped.
+	 */
+	private static void skipFully(InputStream input, long length) throws IOException
+	{
+		while (length > 0)
+		{
+			long skipped = input.skip(length);
+
+			if (skipped <= 0)
+			{
+				if (input.read() < 0)
+				{
+					throw new EOFException();
+				}
+
+				skipped = 1;
+			}
+
+			length -= skipped;
+		}
+	}
+
+
+	/**
+	 * Writes string as varint length and UTF-8 bytes.
+	 * @param output Output stream.
+	 * @param value String value, null is written as empty string.
+	 * @throws IOException if stream cannot be written.
+	 */
+	private static void writeString(OutputStream output, String value) throws IOException
+	{
+		byte[] bytes = (value == null ? "" : value).getBytes(StandardCharsets.UTF_8);
+		writeVarLong(output, bytes.length);
+		output.write(bytes);
+	}
+
+
+	/**
+	 * Reads string that was written by {@link #writeString(OutputStream, String)}.
+	 * @param input Input stream.
+	 * @return String value.
+	 * @throws IOException if stream cannot be read.
+	 */
+	private static String readString(DataInputStream input) throws IOException
+	{
+		byte[] bytes = new byte[Math.toIntExact(readVarLong(input))];
+		input.readFully(bytes);
+		return new String(bytes, StandardCharsets.UTF_8);
+	}
+
+
+	/**
+	 * Writes long as zig-zag variable length integer: 7 bits per byte, high bit marks
+	 * that more bytes follow. Small counters take single byte.
+	 * @param output Output stream.
+	 * @param value Value that must be written.
+	 * @throws IOException if stream cannot be written.
+	 */
+	private static void writeVarLong(OutputStream output, long value) throws IOException
+	{
+		long zigZag = (value << 1) ^ (value >> 63);
+
+		while ((zigZag & ~0x7FL) != 0)
+		{
+			output.write((int) ((zigZag & 0x7F) | 0x80));
+			zigZag >>>= 7;
+		}
+
+		output.write((int) zigZag);
+	}
+
+
+	/**
+	 * Reads long that was written by {@link #writeVarLong(OutputStream, long)}.
+	 * @param input Input stream.
+	 * @return Read value.
+	 * @throws IOException if stream cannot be read or value is too long.
+	 */
+	private static long readVarLong(InputStream input) throws IOException
+	{
+		long zigZag = 0;
+
+		for (int shift = 0; shift < Long.SIZE; shift += 7)
+		{
+			int next = input.read();
+
+			if (next < 0)
+			{
+				throw new EOFException();
+			}
+
+			zigZag |= (long) (next & 0x7F) << shift;
+
+			if ((next & 0x80) == 0)
+			{
+				return (zigZag >>> 1) ^ -(zigZag & 1);
+			}
+		}
+
+		throw new IOException("Malformed variable length number in likes snapshot.");
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Writer of snapshot file. Each written slice is stored as separate sections, so
+	 * objects do not have to be collected before writing. Data are written to temporary
+	 * file, which replaces snapshot only when writer is finished. Closing unfinished
+	 * writer deletes temporary file.
+	 */
+	public static final class Writer implements Closeable
+	{
+		/**
+		 * Default constructor. Writes snapshot header to new temporary file, or truncates
+		 * existing temporary file to given checkpoint.
+		 * @param file Snapshot file.
+		 * @param identity Identity of voter dictionary, or {@link #PORTABLE_IDENTITY}.
+		 * @param checkpoint Length of existing temporary file that is continued, or 0.
+		 * @throws IOException if file cannot be written.
+		 */
+		private Writer(Path file, long identity, long checkpoint) throws IOException
+		{
+			this.file = file;
+			this.temporary = file.resolveSibling(file.getFileName() + ".tmp");
+			this.voterIds = identity != PORTABLE_IDENTITY;
+
+			if (checkpoint > 0)
+			{
+				try (FileChannel channel = FileChannel.open(this.temporary, StandardOpenOption.WRITE))
+				{
+					if (channel.size() < checkpoint)
+					{
+						throw new IOException("Snapshot file is shorter than its checkpoint.");
+					}
+
+					channel.truncate(checkpoint);
+				}
+
+				this.output = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(this.temporary, StandardOpenOption.APPEND)));
+			}
+			else
+			{
+				this.output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(this.temporary)));
+
+				this.output.writeInt(MAGIC);
+				writeVarLong(this.output, VERSION);
+				this.output.writeLong(identity);
+			}
+		}
+
+
+		/**
+		 * This method writes given objects as one section per GameMode.
+		 * @param likesObjects Objects that must be stored.
+		 * @return GameModes of written sections. Objects without GameMode are stored in
+		 * section with empty name.
+		 * @throws IOException if file cannot be written.
+		 */
+		public Set<String> write(Collection<LikesObject> likesObjects) throws IOException
+		{
+			Map<String, List<LikesObject>> gameModeObjects = new HashMap<>();
+
+			likesObjects.forEach(likesObject ->
+				gameModeObjects.computeIfAbsent(likesObject.getGameMode() == null ? "" : likesObject.getGameMode(),
+					gameMode -> new ArrayList<>()).add(likesObject));
+
+			for (Map.Entry<String, List<LikesObject>> entry : gameModeObjects.entrySet())
+			{
+				this.sectionBytes.reset();
+
+				writeVarLong(this.section, entry.getValue().size());
+
+				for (LikesObject likesObject : entry.getValue())
+				{
+					writeObject(this.section, likesObject, this.voterIds);
+				}
+
+				this.section.flush();
+
+				writeString(this.output, entry.getKey());
+				writeVarLong(this.output, this.sectionBytes.size());
+				this.sectionBytes.writeTo(this.output);
+			}
+
+			return gameModeObjects.keySet();
+		}
+
+
+		/**
+		 * This method writes buffered data to temporary file.
+		 * @return Length of temporary file, that can be passed to
+		 * {@link #resumePortable(Path, long)}.
+		 * @throws IOException if file cannot be written.
+		 */
+		public long checkpoint() throws IOException
+		{
+			this.output.flush();
+			return Files.size(this.temporary);
+		}
+
+
+		/**
+		 * This method closes temporary file and moves it over snapshot file.
+		 * @throws IOException if file cannot be written or moved.
+		 */
+		public void finish() throws IOException
+		{
+			this.output.close();
+			Files.move(this.temporary, this.file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			this.finished = true;
+		}
+
+
+		/**
+		 * This method closes writer. Temporary file of unfinished writer is deleted,
+		 * unless writing can be resumed.
+		 * @throws IOException if file cannot be closed or deleted.
+		 */
+		@Override
+		public void close() throws IOException
+		{
+			if (!this.finished)
+			{
+				this.output.close();
+
+				if (!this.resumable)
+				{
+					Files.deleteIfExists(this.temporary);
+				}
+			}
+		}
+
+
+		/**
+		 * Snapshot file.
+		 */
+		private final Path file;
+
+		/**
+		 * Temporary file that is written.
+		 */
+		private final Path temporary;
+
+		/**
+		 * {@code true} if voters are stored as dictionary ids.
+		 */
+		private final boolean voterIds;
+
+		/**
+		 * Output stream of temporary file.
+		 */
+		private final DataOutputStream output;
+
+		/**
+		 * Reusable buffer of section body, as section length is written before it.
+		 */
+		private final ByteArrayOutputStream sectionBytes = new ByteArrayOutputStream();
+
+		/**
+		 * Data stream over section buffer.
+		 */
+		private final DataOutputStream section = new DataOutputStream(this.sectionBytes);
+
+		/**
+		 * {@code true} if temporary file is moved over snapshot file.
+		 */
+		private boolean finished;
+
+		/**
+		 * {@code true} if temporary file of unfinished writer is kept.
+		 */
+		private boolean resumable;
+	}
+
+
+	/**
+	 * Location of single GameMode section in snapshot file.
+	 */
+	private static class Section
+	{
+		/**
+		 * Default constructor.
+		 * @param gameMode GameMode of section.
+		 * @param offset Offset of section body in file.
+		 */
+		private Section(String gameMode, long offset)
+		{
+			this.gameMode = gameMode;
+			this.offset = offset;
+		}
+
+
+		/**
+		 * GameMode of section.
+		 */
+		private final String gameMode;
+
+		/**
+		 * Offset of section body in file.
+		 */
+		private final long offset;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Magic number at the start of snapshot file: "LIKS".
+	 */
+	private static final int MAGIC = 0x4C494B53;
+
+	/**
+	 * Current snapshot format version.
+	 */
+	private static final long VERSION = 4;
+
+	/**
+	 * Dictionary identity of snapshot that stores voters as UUIDs.
+	 */
+	private static final long PORTABLE_IDENTITY = 0;
+
+	/**
+	 * Size of buffer that is used to copy sections of previous snapshot.
+	 */
+	private static final int COPY_BUFFER_SIZE = 8192;
+}
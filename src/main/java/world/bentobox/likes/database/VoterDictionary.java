@@ -0,0 +1,415 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database;
+
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.UUID;
+
+
+/**
+ * Global dictionary that assigns small int id to each voter UUID. Voter sets store these
+ * ids instead of UUIDs, so popular voter is stored once, and not in every island that was
+ * voted for. Ids are assigned in order voters are seen and never change or get reused.
+ * <p>
+ * Dictionary is persisted in append-only file: magic, format version, random identity
+ * of dictionary, and then UUID bit pairs in id order. Binary snapshot stores ids with
+ * dictionary identity, so snapshot is used only together with the same dictionary.
+ * Pair that was cut by crash is ignored on load, as it was not saved before snapshot.
+ * <p>
+ * UUIDs are kept in single long array and indexed by open addressing table of ids, so
+ * each voter takes about 24 bytes. All methods are synchronized, as objects are read
+ * and serialized in async threads.
+ */
+public final class VoterDictionary
+{
+	/**
+	 * Constructor creates empty dictionary with new identity.
+	 */
+	private VoterDictionary()
+	{
+		this.reset(newIdentity());
+	}
+
+
+	/**
+	 * @return Dictionary instance.
+	 */
+	public static VoterDictionary getInstance()
+	{
+		return INSTANCE;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns id of given voter, and assigns new id if voter is not known.
+	 * @param voter Voter UUID.
+	 * @return Voter id.
+	 */
+	public int intern(UUID voter)
+	{
+		return this.intern(voter.getMostSignificantBits(), voter.getLeastSignificantBits());
+	}
+
+
+	/**
+	 * This method returns id of given voter, and assigns new id if voter is not known.
+	 * @param most Most significant bits of voter UUID.
+	 * @param least Least significant bits of voter UUID.
+	 * @return Voter id.
+	 */
+	public synchronized int intern(long most, long least)
+	{
+		int slot = this.slotOf(most, least);
+
+		if (this.table[slot] != 0)
+		{
+			return this.table[slot] - 1;
+		}
+
+		int id = this.size;
+
+		if (this.bits.length == id * 2)
+		{
+			this.bits = Arrays.copyOf(this.bits, Math.max(id * 4, INITIAL_CAPACITY * 2));
+		}
+
+		this.bits[id * 2] = most;
+		this.bits[id * 2 + 1] = least;
+		this.table[slot] = id + 1;
+		this.size++;
+
+		if (this.size > this.table.length * MAX_LOAD_PERCENT / 100)
+		{
+			this.rehash(this.table.length * 2);
+		}
+
+		return id;
+	}
+
+
+	/**
+	 * @param voter Voter UUID.
+	 * @return Id of given voter, or -1 if voter is not known.
+	 */
+	public synchronized int find(UUID voter)
+	{
+		return this.table[this.slotOf(voter.getMostSignificantBits(), voter.getLeastSignificantBits())] - 1;
+	}
+
+
+	/**
+	 * @param id Voter id.
+	 * @return UUID of voter with given id.
+	 * @throws IndexOutOfBoundsException if id is not assigned.
+	 */
+	public synchronized UUID get(int id)
+	{
+		if (id < 0 || id >= this.size)
+		{
+			throw new IndexOutOfBoundsException("Unknown voter id " + id);
+		}
+
+		return new UUID(this.bits[id * 2], this.bits[id * 2 + 1]);
+	}
+
+
+	/**
+	 * @return Number of known voters. Ids are from 0 to this number.
+	 */
+	public synchronized int size()
+	{
+		return this.size;
+	}
+
+
+	/**
+	 * @return Random identity of dictionary, that is stored in dictionary file.
+	 */
+	public synchronized long getIdentity()
+	{
+		return this.identity;
+	}
+
+
+	/**
+	 * This method loads dictionary from given file. If dictionary already has voters,
+	 * they are kept, and file is used only if it is the same dictionary. Otherwise file
+	 * is rewritten with next save.
+	 * @param file Dictionary file.
+	 * @throws IOException if file cannot be read or is not dictionary file.
+	 */
+	public synchronized void load(Path file) throws IOException
+	{
+		if (!Files.exists(file))
+		{
+			this.savedSize = 0;
+			return;
+		}
+
+		long fileSize = Files.size(file);
+
+		try (DataInputStream input = new DataInputStream(new BufferedInputStream(Files.newInputStream(file))))
+		{
+			if (fileSize < HEADER_SIZE || input.readInt() != MAGIC || input.readInt() != VERSION)
+			{
+				this.savedSize = 0;
+				throw new IOException("Unknown voter dictionary format.");
+			}
+
+			long fileIdentity = input.readLong();
+			int fileVoters = Math.toIntExact((fileSize - HEADER_SIZE) / (Long.BYTES * 2));
+			// File with cut pair is rewritten, so new voters are not appended after it.
+			boolean complete = (fileSize - HEADER_SIZE) % (Long.BYTES * 2) == 0;
+
+			if (this.size > 0)
+			{
+				// Voters were added before load. File can be appended only if it is prefix
+				// of this dictionary.
+				this.savedSize = complete && fileIdentity == this.identity && fileVoters <= this.size ? fileVoters : 0;
+				return;
+			}
+
+			this.reset(fileIdentity);
+
+			for (int index = 0; index < fileVoters; index++)
+			{
+				this.intern(input.readLong(), input.readLong());
+			}
+
+			this.savedSize = complete ? this.size : 0;
+		}
+	}
+
+
+	/**
+	 * This method writes voters that were added since last save to given file. New file
+	 * is written to temporary file first and moved over old one.
+	 * @param file Dictionary file.
+	 * @throws IOException if file cannot be written.
+	 */
+	public synchronized void save(Path file) throws IOException
+	{
+		if (this.savedSize > 0 && Files.exists(file))
+		{
+			if (this.savedSize < this.size)
+			{
+				try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(
+					Files.newOutputStream(file, StandardOpenOption.WRITE, StandardOpenOption.APPEND))))
+				{
+					this.writeVoters(output, this.savedSize);
+				}
+			}
+		}
+		else
+		{
+			Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+			try (DataOutputStream output = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(temporary))))
+			{
+				output.writeInt(MAGIC);
+				output.writeInt(VERSION);
+				output.writeLong(this.identity);
+				this.writeVoters(output, 0);
+			}
+
+			Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+
+		this.savedSize = this.size;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Writes voters from given id to the end.
+	 * @param output Output stream.
+	 * @param from First id that must be written.
+	 * @throws IOException if stream cannot be written.
+	 */
+	private void writeVoters(DataOutputStream output, int from) throws IOException
+	{
+		for (int id = from; id < this.size; id++)
+		{
+			output.writeLong(this.bits[id * 2]);
+			output.writeLong(this.bits[id * 2 + 1]);
+		}
+	}
+
+
+	/**
+	 * @param most Most significant bits of voter UUID.
+	 * @param least Least significant bits of voter UUID.
+	 * @return Table slot that contains given voter, or empty slot where it must be added.
+	 */
+	private int slotOf(long most, long least)
+	{
+		int mask = this.table.length - 1;
+		int slot = hash(most, least) & mask;
+
+		while (this.table[slot] != 0)
+		{
+			int id = this.table[slot] - 1;
+
+			if (this.bits[id * 2] == most && this.bits[id * 2 + 1] == least)
+			{
+				return slot;
+			}
+
+			slot = (slot + 1) & mask;
+		}
+
+		return slot;
+	}
+
+
+	/**
+	 * Rebuilds id table with given size.
+	 * @param tableSize New table size, power of two.
+	 */
+	private void rehash(int tableSize)
+	{
+		this.table = new int[tableSize];
+		int mask = tableSize - 1;
+
+		for (int id = 0; id < this.size; id++)
+		{
+			int slot = hash(this.bits[id * 2], this.bits[id * 2 + 1]) & mask;
+
+			while (this.table[slot] != 0)
+			{
+				slot = (slot + 1) & mask;
+			}
+
+			this.table[slot] = id + 1;
+		}
+	}
+
+
+	/**
+	 * Removes all voters and sets given identity.
+	 * @param identity Dictionary identity.
+	 */
+	private void reset(long identity)
+	{
+		this.identity = identity;
+		this.bits = new long[INITIAL_CAPACITY * 2];
+		this.table = new int[INITIAL_CAPACITY * 2];
+		this.size = 0;
+		this.savedSize = 0;
+	}
+
+
+	/**
+	 * @return Random non-zero identity. Zero marks snapshot that stores UUIDs.
+	 */
+	private static long newIdentity()
+	{
+		long identity;
+
+		do
+		{
+			identity = new Random().nextLong();
+		}
+		while (identity == 0);
+
+		return identity;
+	}
+
+
+	/**
+	 * @param most Most significant bits of voter UUID.
+	 * @param least Least significant bits of voter UUID.
+	 * @return Mixed hash of UUID bits.
+	 */
+	private static int hash(long most, long least)
+	{
+		long hash = (most ^ least) * 0x9E3779B97F4A7C15L;
+		return (int) (hash ^ (hash >>> 32));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Random identity of dictionary.
+	 */
+	private long identity;
+
+	/**
+	 * Voter UUID bits in id order: most significant bits at even index, least significant
+	 * bits right after them.
+	 */
+	private long[] bits;
+
+	/**
+	 * Open addressing table that contains voter id + 1, or 0 in empty slot.
+	 */
+	private int[] table;
+
+	/**
+	 * Number of known voters.
+	 */
+	private int size;
+
+	/**
+	 * Number of voters that are stored in dictionary file.
+	 */
+	private int savedSize;
+
+	/**
+	 * Dictionary instance.
+	 */
+	private static final VoterDictionary INSTANCE = new VoterDictionary();
+
+	/**
+	 * Magic number at the start of dictionary file.
+	 */
+	private static final int MAGIC = 0x4C4B5644;
+
+	/**
+	 * Format version of dictionary file.
+	 */
+	private static final int VERSION = 1;
+
+	/**
+	 * Size of file header: magic, version and identity.
+	 */
+	private static final int HEADER_SIZE = Integer.BYTES * 2 + Long.BYTES;
+
+	/**
+	 * Number of voters that fit in dictionary before it grows.
+	 */
+	private static final int INITIAL_CAPACITY = 1024;
+
+	/**
+	 * Maximal percent of used table slots.
+	 */
+	private static final int MAX_LOAD_PERCENT = 50;
+}
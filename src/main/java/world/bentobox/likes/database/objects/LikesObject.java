@@ -8,10 +8,13 @@ package world.bentobox.likes.database.objects;
 
 
 import com.google.gson.annotations.Expose;
+import com.google.gson.annotations.JsonAdapter;
 
-import java.util.HashSet;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedList;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 import java.util.UUID;
 
@@ -19,6 +22,8 @@ import world.bentobox.bentobox.api.logs.LogEntry;
 import world.bentobox.bentobox.database.objects.DataObject;
 import world.bentobox.bentobox.database.objects.adapters.Adapter;
 import world.bentobox.bentobox.database.objects.adapters.LogEntryListAdapter;
+import world.bentobox.likes.database.VoterDictionary;
+import world.bentobox.likes.database.objects.adapters.VoterSetAdapter;
 
 
 /**
@@ -31,7 +36,9 @@ public class LikesObject implements DataObject
 	 */
 	public LikesObject()
 	{
-		// Empty constructor
+		VoteMap votes = new VoteMap();
+		this.likedBy = votes.getVoters(Vote.LIKE);
+		this.dislikedBy = votes.getVoters(Vote.DISLIKE);
 	}
 
 
@@ -41,15 +48,12 @@ public class LikesObject implements DataObject
 
 
 	/**
-	 * This method adds like in current object.
+	 * This method adds like in current object. Dislike of the same user is removed.
 	 * @param user User who liked island.
 	 */
 	public void addLike(UUID user)
 	{
-		this.removeDislike(user);
-
-		this.likedBy.add(user);
-		this.likes++;
+		this.setVote(VoterDictionary.getInstance().intern(user), Vote.LIKE);
 	}
 
 
@@ -59,24 +63,17 @@ public class LikesObject implements DataObject
 	 */
 	public void removeLike(UUID user)
 	{
-		if (this.likedBy.remove(user))
-		{
-			// Reduce only if player is in likedBy set.
-			this.likes--;
-		}
+		this.removeVote(user, Vote.LIKE);
 	}
 
 
 	/**
-	 * This method adds dislike in current object.
+	 * This method adds dislike in current object. Like of the same user is removed.
 	 * @param user User who disliked island.
 	 */
 	public void addDislike(UUID user)
 	{
-		this.removeLike(user);
-
-		this.dislikedBy.add(user);
-		this.dislikes++;
+		this.setVote(VoterDictionary.getInstance().intern(user), Vote.DISLIKE);
 	}
 
 
@@ -86,11 +83,44 @@ public class LikesObject implements DataObject
 	 */
 	public void removeDislike(UUID user)
 	{
-		if (this.dislikedBy.remove(user))
-		{
-			// Reduce only if player is in dislikedBy set.
-			this.dislikes--;
-		}
+		this.removeVote(user, Vote.DISLIKE);
+	}
+
+
+	/**
+	 * This method sets vote of given voter with single lookup of previous vote. Likes
+	 * and dislikes counters are changed by transition from previous vote.
+	 * @param voter Voter id from {@link VoterDictionary}.
+	 * @param vote New vote, {@link Vote#NONE} removes vote.
+	 * @return Previous vote of voter.
+	 */
+	public Vote setVote(int voter, Vote vote)
+	{
+		return this.count(this.votes().put(voter, vote), vote);
+	}
+
+
+	/**
+	 * This method removes vote of given voter with single lookup, if voter has given vote.
+	 * @param voter Voter id from {@link VoterDictionary}.
+	 * @param vote Vote that must be removed.
+	 * @return Previous vote of voter. Vote was removed if it is equal to given vote.
+	 */
+	public Vote removeVote(int voter, Vote vote)
+	{
+		Vote previous = this.votes().remove(voter, vote);
+		return previous == vote ? this.count(previous, Vote.NONE) : previous;
+	}
+
+
+	/**
+	 * @param user User UUID which need to check.
+	 * @return Vote of given user.
+	 */
+	public Vote getVote(UUID user)
+	{
+		int voter = VoterDictionary.getInstance().find(user);
+		return voter < 0 ? Vote.NONE : this.votes().get(voter);
 	}
 
 
@@ -104,6 +134,58 @@ public class LikesObject implements DataObject
 	}
 
 
+	/**
+	 * This method adds like change to counter of given day. Counters of days before
+	 * given first day are removed, so only days of the longest time window are stored.
+	 * @param day Epoch day of like change.
+	 * @param delta Like count change.
+	 * @param firstDay The oldest epoch day which counter is kept.
+	 */
+	public void addDailyLikes(long day, int delta, long firstDay)
+	{
+		if (this.dailyLikes == null)
+		{
+			this.dailyLikes = new HashMap<>();
+		}
+
+		this.dailyLikes.merge(day, delta, (likes, change) -> likes + change == 0 ? null : likes + change);
+		this.dailyLikes.keySet().removeIf(counterDay -> counterDay < firstDay);
+	}
+
+
+	/**
+	 * This method remembers time of like of given voter, so its trending weight can be
+	 * subtracted when like is removed. Likes older than given time are forgotten, as
+	 * their weight does not matter anymore.
+	 * @param voter Voter UUID.
+	 * @param time Like time in milliseconds.
+	 * @param oldest The oldest like time that is kept.
+	 * @return Time of previous like of the same voter, or null if it is not known.
+	 */
+	public Long setLikeTime(UUID voter, long time, long oldest)
+	{
+		if (this.likeTimes == null)
+		{
+			this.likeTimes = new HashMap<>();
+		}
+
+		Long previous = this.likeTimes.put(voter, time);
+		this.likeTimes.values().removeIf(likeTime -> likeTime < oldest);
+		return previous;
+	}
+
+
+	/**
+	 * This method forgets time of like of given voter.
+	 * @param voter Voter UUID.
+	 * @return Time of removed like, or null if it is not known.
+	 */
+	public Long removeLikeTime(UUID voter)
+	{
+		return this.likeTimes == null ? null : this.likeTimes.remove(voter);
+	}
+
+
 	/**
 	 * This method returns if given user is already liked this island.
 	 * @param user User UUID which need to check.
@@ -111,7 +193,7 @@ public class LikesObject implements DataObject
 	 */
 	public boolean hasLiked(UUID user)
 	{
-		return this.likedBy.contains(user);
+		return this.getVote(user) == Vote.LIKE;
 	}
 
 
@@ -122,7 +204,53 @@ public class LikesObject implements DataObject
 	 */
 	public boolean hasDisliked(UUID user)
 	{
-		return this.dislikedBy.contains(user);
+		return this.getVote(user) == Vote.DISLIKE;
+	}
+
+
+	/**
+	 * This method creates snapshot of current object. Votes and history are copied,
+	 * so snapshot can be serialized in other thread while current object is changed.
+	 * @return New LikesObject with the same data.
+	 */
+	public LikesObject copy()
+	{
+		LikesObject snapshot = new LikesObject();
+		snapshot.setUniqueId(this.uniqueId);
+		snapshot.setGameMode(this.gameMode);
+		snapshot.setLikes(this.likes);
+		snapshot.setDislikes(this.dislikes);
+		VoteMap votes = new VoteMap(this.votes());
+		snapshot.likedBy = votes.getVoters(Vote.LIKE);
+		snapshot.dislikedBy = votes.getVoters(Vote.DISLIKE);
+		snapshot.setHistory(new LinkedList<>(this.history));
+		snapshot.setJournalSequence(this.journalSequence);
+		snapshot.setDailyLikes(this.getDailyLikes());
+		snapshot.setLikeTimes(this.getLikeTimes());
+
+		return snapshot;
+	}
+
+
+	/**
+	 * This method creates read-only object without any votes. It is returned for islands
+	 * that do not have likes data, so reading them does not create and save new objects.
+	 * @param gameMode GameMode of view.
+	 * @return Immutable LikesObject with zero values.
+	 */
+	public static LikesObject emptyView(String gameMode)
+	{
+		return new EmptyView(gameMode);
+	}
+
+
+	/**
+	 * This method returns if current object is read-only view that cannot be changed.
+	 * @return {@code true} if object is read-only, {@code false} - otherwise.
+	 */
+	public boolean isReadOnly()
+	{
+		return false;
 	}
 
 
@@ -208,44 +336,46 @@ public class LikesObject implements DataObject
 	/**
 	 * Method LikesObject#getLikedBy returns the likedBy of this object.
 	 *
-	 * @return the likedBy (type Set<UUID>) of this object.
+	 * @return the likedBy (type Set<UUID>) of this object. Set is read-only view of votes.
 	 */
 	public Set<UUID> getLikedBy()
 	{
-		return likedBy;
+		return this.votes().getVoters(Vote.LIKE);
 	}
 
 
 	/**
-	 * Method LikesObject#setLikedBy sets new value for the likedBy of this object.
+	 * Method LikesObject#setLikedBy sets new value for the likedBy of this object. Given
+	 * voters are copied into votes, and their dislikes are replaced by likes.
 	 * @param likedBy new value for this object.
 	 *
 	 */
 	public void setLikedBy(Set<UUID> likedBy)
 	{
-		this.likedBy = likedBy;
+		this.votes().replaceAll(likedBy, Vote.LIKE);
 	}
 
 
 	/**
 	 * Method LikesObject#getDislikedBy returns the dislikedBy of this object.
 	 *
-	 * @return the dislikedBy (type Set<UUID>) of this object.
+	 * @return the dislikedBy (type Set<UUID>) of this object. Set is read-only view of votes.
 	 */
 	public Set<UUID> getDislikedBy()
 	{
-		return dislikedBy;
+		return this.votes().getVoters(Vote.DISLIKE);
 	}
 
 
 	/**
-	 * Method LikesObject#setDislikedBy sets new value for the dislikedBy of this object.
+	 * Method LikesObject#setDislikedBy sets new value for the dislikedBy of this object. Given
+	 * voters are copied into votes, and their likes are replaced by dislikes.
 	 * @param dislikedBy new value for this object.
 	 *
 	 */
 	public void setDislikedBy(Set<UUID> dislikedBy)
 	{
-		this.dislikedBy = dislikedBy;
+		this.votes().replaceAll(dislikedBy, Vote.DISLIKE);
 	}
 
 
@@ -294,7 +424,76 @@ public class LikesObject implements DataObject
 
 
 	/**
-	 * This method returns difference between likes and dislikes.
+	 * Method LikesObject#getJournalSequence returns the journalSequence of this object.
+	 *
+	 * @return the journalSequence (type long) of this object.
+	 */
+	public long getJournalSequence()
+	{
+		return journalSequence;
+	}
+
+
+	/**
+	 * Method LikesObject#setJournalSequence sets new value for the journalSequence of this object.
+	 * @param journalSequence new value for this object.
+	 *
+	 */
+	public void setJournalSequence(long journalSequence)
+	{
+		this.journalSequence = journalSequence;
+	}
+
+
+	/**
+	 * Method LikesObject#getDailyLikes returns the dailyLikes of this object.
+	 *
+	 * @return the dailyLikes (type Map<Long, Integer>) of this object. Map is read-only.
+	 */
+	public Map<Long, Integer> getDailyLikes()
+	{
+		return this.dailyLikes == null ? Collections.emptyMap() : Collections.unmodifiableMap(this.dailyLikes);
+	}
+
+
+	/**
+	 * Method LikesObject#setDailyLikes sets new value for the dailyLikes of this object.
+	 * Given counters are copied.
+	 * @param dailyLikes new value for this object.
+	 *
+	 */
+	public void setDailyLikes(Map<Long, Integer> dailyLikes)
+	{
+		this.dailyLikes = dailyLikes.isEmpty() ? null : new HashMap<>(dailyLikes);
+	}
+
+
+	/**
+	 * Method LikesObject#getLikeTimes returns the likeTimes of this object.
+	 *
+	 * @return the likeTimes (type Map<UUID, Long>) of this object. Map is read-only.
+	 */
+	public Map<UUID, Long> getLikeTimes()
+	{
+		return this.likeTimes == null ? Collections.emptyMap() : Collections.unmodifiableMap(this.likeTimes);
+	}
+
+
+	/**
+	 * Method LikesObject#setLikeTimes sets new value for the likeTimes of this object.
+	 * Given like times are copied.
+	 * @param likeTimes new value for this object.
+	 *
+	 */
+	public void setLikeTimes(Map<UUID, Long> likeTimes)
+	{
+		this.likeTimes = likeTimes.isEmpty() ? null : new HashMap<>(likeTimes);
+	}
+
+
+	/**
+	 * This method returns difference between likes and dislikes. Island rank that is used
+	 * in tops depends on configured formula, and is available via LikesManager#getRank.
 	 * @return Likes - dislikes.
 	 */
 	public long getRank()
@@ -303,6 +502,269 @@ public class LikesObject implements DataObject
 	}
 
 
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns vote map that is shared by likedBy and dislikedBy views. Gson
+	 * writes voter sets that are read from database directly into fields, so such sets
+	 * are moved into new vote map on first access. If both sets contain the same voter,
+	 * like is kept.
+	 * @return Votes of this object.
+	 */
+	private VoteMap votes()
+	{
+		if (this.likedBy instanceof VoteMap.Voters &&
+			this.dislikedBy instanceof VoteMap.Voters &&
+			((VoteMap.Voters) this.likedBy).getMap() == ((VoteMap.Voters) this.dislikedBy).getMap())
+		{
+			return ((VoteMap.Voters) this.likedBy).getMap();
+		}
+
+		Set<UUID> liked = this.likedBy;
+		Set<UUID> disliked = this.dislikedBy;
+
+		VoteMap votes = new VoteMap();
+		this.likedBy = votes.getVoters(Vote.LIKE);
+		this.dislikedBy = votes.getVoters(Vote.DISLIKE);
+
+		votes.replaceAll(disliked == null ? Collections.emptySet() : disliked, Vote.DISLIKE);
+		votes.replaceAll(liked == null ? Collections.emptySet() : liked, Vote.LIKE);
+
+		return votes;
+	}
+
+
+	/**
+	 * This method changes likes and dislikes counters by vote transition.
+	 * @param previous Previous vote.
+	 * @param vote New vote.
+	 * @return Previous vote.
+	 */
+	private Vote count(Vote previous, Vote vote)
+	{
+		if (previous != vote)
+		{
+			this.likes += (vote == Vote.LIKE ? 1 : 0) - (previous == Vote.LIKE ? 1 : 0);
+			this.dislikes += (vote == Vote.DISLIKE ? 1 : 0) - (previous == Vote.DISLIKE ? 1 : 0);
+		}
+
+		return previous;
+	}
+
+
+	/**
+	 * This method removes vote of given user, if user has given vote.
+	 * @param user User UUID.
+	 * @param vote Vote that must be removed.
+	 */
+	private void removeVote(UUID user, Vote vote)
+	{
+		int voter = VoterDictionary.getInstance().find(user);
+
+		if (voter >= 0)
+		{
+			this.removeVote(voter, vote);
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Enums
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Vote of single voter.
+	 */
+	public enum Vote
+	{
+		/**
+		 * Voter did not vote.
+		 */
+		NONE,
+		/**
+		 * Voter liked island.
+		 */
+		LIKE,
+		/**
+		 * Voter disliked island.
+		 */
+		DISLIKE
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Read-only LikesObject without votes. All methods that change object throw
+	 * UnsupportedOperationException.
+	 */
+	private static final class EmptyView extends LikesObject
+	{
+		/**
+		 * @param gameMode GameMode of view.
+		 */
+		private EmptyView(String gameMode)
+		{
+			super.setGameMode(gameMode);
+			super.setHistory(Collections.emptyList());
+		}
+
+
+		@Override
+		public boolean isReadOnly()
+		{
+			return true;
+		}
+
+
+		@Override
+		public void addLike(UUID user)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void removeLike(UUID user)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void addDislike(UUID user)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void removeDislike(UUID user)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public Vote setVote(int voter, Vote vote)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public Vote removeVote(int voter, Vote vote)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void addLogRecord(LogEntry entry)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setUniqueId(String uniqueId)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setLikes(long likes)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setDislikes(long dislikes)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setLikedBy(Set<UUID> likedBy)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setDislikedBy(Set<UUID> dislikedBy)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setGameMode(String gameMode)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setHistory(List<LogEntry> history)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setJournalSequence(long journalSequence)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void addDailyLikes(long day, int delta, long firstDay)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public Long setLikeTime(UUID voter, long time, long oldest)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public Long removeLikeTime(UUID voter)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setDailyLikes(Map<Long, Integer> dailyLikes)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+
+
+		@Override
+		public void setLikeTimes(Map<UUID, Long> likeTimes)
+		{
+			throw new UnsupportedOperationException("Empty likes view cannot be changed.");
+		}
+	}
+
+
 // ---------------------------------------------------------------------
 // Section: Variables
 // ---------------------------------------------------------------------
@@ -333,21 +795,48 @@ public class LikesObject implements DataObject
 	private String uniqueId;
 
 	/**
-	 * Set that contains all players who clicked on like for current island.
+	 * Set that contains all players who clicked on like for current island. It is view of
+	 * vote map that is shared with {@link #dislikedBy}.
 	 */
+	@JsonAdapter(VoterSetAdapter.class)
 	@Expose
-	private Set<UUID> likedBy = new HashSet<>();
+	private Set<UUID> likedBy;
 
 	/**
-	 * Set that contains all players who clicked on dislike for current island.
+	 * Set that contains all players who clicked on dislike for current island. It is view
+	 * of vote map that is shared with {@link #likedBy}.
 	 */
+	@JsonAdapter(VoterSetAdapter.class)
 	@Expose
-	private Set<UUID> dislikedBy = new HashSet<>();
+	private Set<UUID> dislikedBy;
 
 	/**
-	 * Stores history about likes changes.
+	 * Stores history about likes changes. History is kept in separate history store,
+	 * this list contains only history of older versions until it is moved there.
 	 */
 	@Adapter(LogEntryListAdapter.class)
 	@Expose
 	private List<LogEntry> history = new LinkedList<>();
+
+	/**
+	 * Sequence number of the last vote journal record that is applied to this object.
+	 * Journal records up to this number are already included in saved data.
+	 */
+	@Expose
+	private long journalSequence;
+
+	/**
+	 * Like changes of the last days, mapped by epoch day. They are restored into daily,
+	 * weekly and monthly tops when object is loaded. Null if there are no changes.
+	 */
+	@Expose
+	private Map<Long, Integer> dailyLikes;
+
+	/**
+	 * Times of recent likes, mapped by voter. They are restored into trending score when
+	 * object is loaded, and weight of like is subtracted when it is removed. Null if there
+	 * are no recent likes.
+	 */
+	@Expose
+	private Map<UUID, Long> likeTimes;
 }
@@ -0,0 +1,361 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database.objects;
+
+
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.UUID;
+
+import world.bentobox.likes.database.VoterDictionary;
+import world.bentobox.likes.database.objects.LikesObject.Vote;
+
+
+/**
+ * Vote state of each voter of single island. Likes and dislikes are stored in one
+ * {@link VoterSet} of vote keys: voter with id {@code n} is stored as {@code 2n} if they
+ * liked island, and as {@code 2n + 1} if they disliked it. Both keys of voter are in the
+ * same container, so previous vote is found and replaced with single lookup, and voter
+ * can never have like and dislike at the same time.
+ * <p>
+ * Array container takes 2 bytes per vote, as before, and bitmap container stores 2 bit
+ * state of each voter. Voter ids must be smaller than 2^30.
+ * <p>
+ * Likes and dislikes are available as read-only {@link Voters} views. This class is not
+ * synchronized.
+ */
+public final class VoteMap
+{
+	/**
+	 * Constructor creates empty vote map.
+	 */
+	VoteMap()
+	{
+		this.keys = new VoterSet();
+	}
+
+
+	/**
+	 * Constructor creates copy of given vote map.
+	 * @param other Vote map that must be copied.
+	 */
+	VoteMap(VoteMap other)
+	{
+		this.keys = new VoterSet(other.keys);
+		this.likeCount = other.likeCount;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param voter Voter id.
+	 * @return Vote of given voter.
+	 */
+	Vote get(int voter)
+	{
+		return VOTES[this.keys.getPair(key(voter))];
+	}
+
+
+	/**
+	 * This method sets vote of given voter. {@link Vote#NONE} removes vote.
+	 * @param voter Voter id.
+	 * @param vote New vote.
+	 * @return Previous vote of voter.
+	 */
+	Vote put(int voter, Vote vote)
+	{
+		return this.count(VOTES[this.keys.replacePair(key(voter), ANY, vote.ordinal())], vote);
+	}
+
+
+	/**
+	 * This method removes vote of given voter, if voter has given vote.
+	 * @param voter Voter id.
+	 * @param vote Vote that must be removed.
+	 * @return Previous vote of voter. Vote was removed if it is equal to given vote.
+	 */
+	Vote remove(int voter, Vote vote)
+	{
+		Vote previous = VOTES[this.keys.replacePair(key(voter), vote.ordinal(), Vote.NONE.ordinal())];
+		return previous == vote ? this.count(previous, Vote.NONE) : previous;
+	}
+
+
+	/**
+	 * This method sets given vote for all given voters, and removes it from all other
+	 * voters.
+	 * @param voters Voters that must have given vote.
+	 * @param vote Like or dislike.
+	 */
+	void replaceAll(Set<UUID> voters, Vote vote)
+	{
+		Voters current = this.getVoters(vote);
+
+		if (voters instanceof Voters && ((Voters) voters).getMap() == this)
+		{
+			if (voters == current)
+			{
+				return;
+			}
+
+			// Other view of this map would be changed while it is read.
+			voters = new VoterSet(voters);
+		}
+
+		PrimitiveIterator.OfInt ids = current.idIterator();
+		VoterSet removed = new VoterSet();
+
+		while (ids.hasNext())
+		{
+			removed.addId(ids.nextInt());
+		}
+
+		PrimitiveIterator.OfInt removedIds = removed.idIterator();
+
+		while (removedIds.hasNext())
+		{
+			this.remove(removedIds.nextInt(), vote);
+		}
+
+		VoterDictionary dictionary = VoterDictionary.getInstance();
+		voters.forEach(voter -> this.put(dictionary.intern(voter), vote));
+	}
+
+
+	/**
+	 * @param vote Like or dislike.
+	 * @return Read-only view of voters with given vote.
+	 */
+	Voters getVoters(Vote vote)
+	{
+		return vote == Vote.LIKE ? this.liked : this.disliked;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Updates like count after vote change.
+	 * @param previous Previous vote.
+	 * @param vote New vote.
+	 * @return Previous vote.
+	 */
+	private Vote count(Vote previous, Vote vote)
+	{
+		if (previous != vote)
+		{
+			this.likeCount += (vote == Vote.LIKE ? 1 : 0) - (previous == Vote.LIKE ? 1 : 0);
+		}
+
+		return previous;
+	}
+
+
+	/**
+	 * @param voter Voter id.
+	 * @return Key of like of given voter. Key of dislike is next one.
+	 */
+	private static int key(int voter)
+	{
+		if (voter < 0 || voter > MAX_VOTER)
+		{
+			throw new IllegalArgumentException("Voter id " + voter + " cannot be stored in vote map.");
+		}
+
+		return voter << 1;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Read-only set of voters that have the same vote. Set is live view of vote map.
+	 */
+	public final class Voters extends AbstractSet<UUID>
+	{
+		/**
+		 * @param vote Like or dislike.
+		 */
+		private Voters(Vote vote)
+		{
+			this.vote = vote;
+		}
+
+
+		/**
+		 * @return Number of voters in view.
+		 */
+		@Override
+		public int size()
+		{
+			return this.vote == Vote.LIKE ? VoteMap.this.likeCount : VoteMap.this.keys.size() - VoteMap.this.likeCount;
+		}
+
+
+		/**
+		 * @param object Object that must be checked.
+		 * @return {@code true} if given voter has vote of this view, {@code false} otherwise.
+		 */
+		@Override
+		public boolean contains(Object object)
+		{
+			if (!(object instanceof UUID))
+			{
+				return false;
+			}
+
+			int voter = VoterDictionary.getInstance().find((UUID) object);
+			return voter >= 0 && VoteMap.this.get(voter) == this.vote;
+		}
+
+
+		/**
+		 * @return Iterator over voters in id order. Iterator does not support removal.
+		 */
+		@Override
+		public Iterator<UUID> iterator()
+		{
+			PrimitiveIterator.OfInt ids = this.idIterator();
+
+			return new Iterator<UUID>()
+			{
+				@Override
+				public boolean hasNext()
+				{
+					return ids.hasNext();
+				}
+
+
+				@Override
+				public UUID next()
+				{
+					return VoterDictionary.getInstance().get(ids.nextInt());
+				}
+			};
+		}
+
+
+		/**
+		 * @return Iterator over voter ids in ascending order. Iterator does not support
+		 * removal.
+		 */
+		public PrimitiveIterator.OfInt idIterator()
+		{
+			PrimitiveIterator.OfInt keys = VoteMap.this.keys.idIterator();
+			int parity = this.vote.ordinal() - 1;
+
+			return new PrimitiveIterator.OfInt()
+			{
+				@Override
+				public boolean hasNext()
+				{
+					while (this.next < 0 && keys.hasNext())
+					{
+						int key = keys.nextInt();
+
+						if ((key & 1) == parity)
+						{
+							this.next = key >>> 1;
+						}
+					}
+
+					return this.next >= 0;
+				}
+
+
+				@Override
+				public int nextInt()
+				{
+					if (!this.hasNext())
+					{
+						throw new NoSuchElementException();
+					}
+
+					int voter = this.next;
+					this.next = -1;
+					return voter;
+				}
+
+
+				/**
+				 * Next voter id, or -1 if it is not found yet.
+				 */
+				private int next = -1;
+			};
+		}
+
+
+		/**
+		 * @return Vote map of this view.
+		 */
+		VoteMap getMap()
+		{
+			return VoteMap.this;
+		}
+
+
+		/**
+		 * Vote of voters in this view.
+		 */
+		private final Vote vote;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Vote keys of all voters.
+	 */
+	private final VoterSet keys;
+
+	/**
+	 * Number of likes. Number of dislikes is the rest of keys.
+	 */
+	private int likeCount;
+
+	/**
+	 * View of voters who liked island.
+	 */
+	private final Voters liked = new Voters(Vote.LIKE);
+
+	/**
+	 * View of voters who disliked island.
+	 */
+	private final Voters disliked = new Voters(Vote.DISLIKE);
+
+	/**
+	 * Votes by pair state.
+	 */
+	private static final Vote[] VOTES = Vote.values();
+
+	/**
+	 * Expected pair state that matches any state.
+	 */
+	private static final int ANY = -1;
+
+	/**
+	 * Largest voter id that has both vote keys in int range.
+	 */
+	private static final int MAX_VOTER = Integer.MAX_VALUE >> 1;
+}
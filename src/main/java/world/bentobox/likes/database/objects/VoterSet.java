@@ -0,0 +1,1780 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database.objects;
+
+
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.AbstractSet;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+
+import world.bentobox.likes.database.VoterDictionary;
+
+
+/**
+ * Compact set of voters. Voters are stored as ids from {@link VoterDictionary} in
+ * compressed bitmap that is split into containers by upper 16 bits of id, the same way
+ * as Roaring bitmaps do it. Container with few voters is sorted char array, and
+ * container with more than {@link #ARRAY_MAX} voters is 8 KB bitmap, so each voter takes
+ * at most 2 bytes. Membership, cardinality and intersection do not need UUID objects.
+ * <p>
+ * Set implements {@code Set<UUID>}, so it can be used everywhere where voter set was
+ * used before. Voters are iterated in id order, that is order in which they were first
+ * seen.
+ * <p>
+ * If off heap storage is enabled with {@link #setOffHeap(boolean)}, bitmaps and arrays
+ * with at least {@link #DIRECT_MIN} voters are stored in direct buffers, so heap holds
+ * only small containers. Each direct buffer has fixed 8 KB size and is returned to shared
+ * pool when its container is converted or removed, so buffers are reused instead of being
+ * left for garbage collector. Copies are always stored on heap, as they are used for
+ * short lived snapshots.
+ * <p>
+ * This class is not synchronized and does not accept null elements.
+ */
+public class VoterSet extends AbstractSet<UUID>
+{
+	/**
+	 * Constructor creates empty set. Containers are allocated when first voter is added.
+	 */
+	public VoterSet()
+	{
+		this.keys = EMPTY_KEYS;
+		this.containers = EMPTY_CONTAINERS;
+	}
+
+
+	/**
+	 * Constructor creates set with given voters.
+	 * @param voters Voters that must be added.
+	 */
+	public VoterSet(Collection<? extends UUID> voters)
+	{
+		if (voters instanceof VoterSet)
+		{
+			VoterSet other = (VoterSet) voters;
+
+			this.keys = Arrays.copyOf(other.keys, other.containerCount);
+			this.containers = new Container[other.containerCount];
+
+			for (int index = 0; index < other.containerCount; index++)
+			{
+				this.containers[index] = other.containers[index].copy();
+			}
+
+			this.containerCount = other.containerCount;
+			this.size = other.size;
+		}
+		else
+		{
+			this.keys = EMPTY_KEYS;
+			this.containers = EMPTY_CONTAINERS;
+			this.addAll(voters);
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Set methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @return Number of voters in set.
+	 */
+	@Override
+	public int size()
+	{
+		return this.size;
+	}
+
+
+	/**
+	 * @param object Object that must be checked.
+	 * @return {@code true} if given voter is in set, {@code false} otherwise.
+	 */
+	@Override
+	public boolean contains(Object object)
+	{
+		if (!(object instanceof UUID) || this.size == 0)
+		{
+			return false;
+		}
+
+		int id = VoterDictionary.getInstance().find((UUID) object);
+		return id >= 0 && this.containsId(id);
+	}
+
+
+	/**
+	 * @param voter Voter that must be added.
+	 * @return {@code true} if voter was not in set, {@code false} otherwise.
+	 */
+	@Override
+	public boolean add(UUID voter)
+	{
+		return this.addId(VoterDictionary.getInstance().intern(voter));
+	}
+
+
+	/**
+	 * @param object Voter that must be removed.
+	 * @return {@code true} if voter was in set, {@code false} otherwise.
+	 */
+	@Override
+	public boolean remove(Object object)
+	{
+		if (!(object instanceof UUID) || this.size == 0)
+		{
+			return false;
+		}
+
+		int id = VoterDictionary.getInstance().find((UUID) object);
+		return id >= 0 && this.removeId(id);
+	}
+
+
+	/**
+	 * This method removes all voters.
+	 */
+	@Override
+	public void clear()
+	{
+		for (int index = 0; index < this.containerCount; index++)
+		{
+			this.containers[index].release();
+		}
+
+		this.keys = EMPTY_KEYS;
+		this.containers = EMPTY_CONTAINERS;
+		this.containerCount = 0;
+		this.size = 0;
+		this.modifications++;
+	}
+
+
+	/**
+	 * @return Iterator over voters in id order. Iterator supports removal.
+	 */
+	@Override
+	public Iterator<UUID> iterator()
+	{
+		PrimitiveIterator.OfInt ids = this.idIterator();
+
+		return new Iterator<UUID>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return ids.hasNext();
+			}
+
+
+			@Override
+			public UUID next()
+			{
+				return VoterDictionary.getInstance().get(ids.nextInt());
+			}
+
+
+			@Override
+			public void remove()
+			{
+				ids.remove();
+			}
+		};
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Storage methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method enables or disables off heap storage of large containers. Containers
+	 * that already exist are moved when they change size next time.
+	 * @param offHeap {@code true} if large containers must be stored in direct buffers.
+	 */
+	public static void setOffHeap(boolean offHeap)
+	{
+		VoterSet.offHeap = offHeap;
+	}
+
+
+	/**
+	 * @return {@code true} if large containers are stored in direct buffers.
+	 */
+	public static boolean isOffHeap()
+	{
+		return VoterSet.offHeap;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Id methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param id Voter id.
+	 * @return {@code true} if voter with given id is in set, {@code false} otherwise.
+	 */
+	public boolean containsId(int id)
+	{
+		int index = this.containerIndex(high(id));
+		return index >= 0 && this.containers[index].contains(low(id));
+	}
+
+
+	/**
+	 * This method adds voter with given id. Container is converted to bitmap when it
+	 * gets more than {@link #ARRAY_MAX} voters, and moved off heap when it gets
+	 * {@link #DIRECT_MIN} voters, if off heap storage is enabled.
+	 * @param id Voter id.
+	 * @return {@code true} if voter was not in set, {@code false} otherwise.
+	 */
+	public boolean addId(int id)
+	{
+		char key = high(id);
+		int index = this.containerIndex(key);
+
+		if (index < 0)
+		{
+			index = -index - 1;
+			this.insertContainer(index, key, new ArrayContainer());
+		}
+
+		Container container = this.containers[index];
+		char value = low(id);
+
+		if (container.contains(value))
+		{
+			return false;
+		}
+
+		container = container.ensureSpace();
+		this.containers[index] = container;
+
+		container.add(value);
+		this.size++;
+		this.modifications++;
+
+		return true;
+	}
+
+
+	/**
+	 * This method removes voter with given id. Bitmap container is converted back to
+	 * array when it has {@link #ARRAY_MAX} voters or less, and off heap array is moved
+	 * back to heap when it has less than half of {@link #DIRECT_MIN} voters.
+	 * @param id Voter id.
+	 * @return {@code true} if voter was in set, {@code false} otherwise.
+	 */
+	public boolean removeId(int id)
+	{
+		int index = this.containerIndex(high(id));
+
+		if (index < 0 || !this.containers[index].remove(low(id)))
+		{
+			return false;
+		}
+
+		Container container = this.containers[index];
+
+		if (container.cardinality() == 0)
+		{
+			this.removeContainer(index);
+		}
+		else
+		{
+			this.containers[index] = container.shrink();
+		}
+
+		this.size--;
+		this.modifications++;
+
+		return true;
+	}
+
+
+	/**
+	 * This method returns number of voters that are in both sets. Containers are
+	 * intersected without building result set.
+	 * @param other Other voter set.
+	 * @return Size of intersection.
+	 */
+	public int intersectionSize(VoterSet other)
+	{
+		int count = 0;
+		int first = 0;
+		int second = 0;
+
+		while (first < this.containerCount && second < other.containerCount)
+		{
+			int comparison = Character.compare(this.keys[first], other.keys[second]);
+
+			if (comparison < 0)
+			{
+				first++;
+			}
+			else if (comparison > 0)
+			{
+				second++;
+			}
+			else
+			{
+				count += this.containers[first++].intersectionSize(other.containers[second++]);
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * @return Iterator over voter ids in ascending order. Iterator supports removal.
+	 */
+	public PrimitiveIterator.OfInt idIterator()
+	{
+		return new PrimitiveIterator.OfInt()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return this.next >= 0;
+			}
+
+
+			@Override
+			public int nextInt()
+			{
+				if (this.expectedModifications != VoterSet.this.modifications)
+				{
+					throw new ConcurrentModificationException();
+				}
+
+				if (this.next < 0)
+				{
+					throw new NoSuchElementException();
+				}
+
+				this.last = this.next;
+				this.next = VoterSet.this.nextId(this.last + 1L);
+				return this.last;
+			}
+
+
+			@Override
+			public void remove()
+			{
+				if (this.last < 0)
+				{
+					throw new IllegalStateException();
+				}
+
+				if (this.expectedModifications != VoterSet.this.modifications)
+				{
+					throw new ConcurrentModificationException();
+				}
+
+				VoterSet.this.removeId(this.last);
+				this.last = -1;
+				this.expectedModifications = VoterSet.this.modifications;
+			}
+
+
+			/**
+			 * Next id that will be returned, or -1.
+			 */
+			private int next = VoterSet.this.nextId(0);
+
+			/**
+			 * Id returned by last call of next, or -1.
+			 */
+			private int last = -1;
+
+			/**
+			 * Modification count that iterator expects.
+			 */
+			private int expectedModifications = VoterSet.this.modifications;
+		};
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Pair methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns state of id pair that starts at given even id. Both ids of pair
+	 * are in the same container, so state is found with single container lookup. Pair
+	 * methods expect that at most one id of each pair is in set.
+	 * @param id Even id.
+	 * @return 0 if none of pair ids is in set, 1 if given id is in set, 2 if id + 1 is in set.
+	 */
+	int getPair(int id)
+	{
+		int index = this.containerIndex(high(id));
+		return index < 0 ? 0 : this.containers[index].getPair(low(id));
+	}
+
+
+	/**
+	 * This method replaces state of id pair that starts at given even id with single
+	 * container lookup.
+	 * @param id Even id.
+	 * @param expected State that pair must have to be replaced, or -1 if any state.
+	 * @param state New state: 0 removes pair, 1 stores given id, 2 stores id + 1.
+	 * @return Previous state of pair.
+	 */
+	int replacePair(int id, int expected, int state)
+	{
+		char key = high(id);
+		int index = this.containerIndex(key);
+
+		if (index < 0)
+		{
+			if (state == 0 || expected > 0)
+			{
+				return 0;
+			}
+
+			index = -index - 1;
+			this.insertContainer(index, key, new ArrayContainer());
+		}
+
+		Container container = this.containers[index];
+
+		if (state != 0)
+		{
+			container = container.ensureSpace();
+			this.containers[index] = container;
+		}
+
+		int previous = container.replacePair(low(id), expected, state);
+
+		if (previous == state || expected >= 0 && previous != expected)
+		{
+			if (container.cardinality() == 0)
+			{
+				// Container was inserted for pair that did not change.
+				this.removeContainer(index);
+			}
+
+			return previous;
+		}
+
+		if (container.cardinality() == 0)
+		{
+			this.removeContainer(index);
+		}
+		else
+		{
+			this.containers[index] = container.shrink();
+		}
+
+		this.size += (state == 0 ? 0 : 1) - (previous == 0 ? 0 : 1);
+		this.modifications++;
+
+		return previous;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param from Smallest id that can be returned.
+	 * @return Smallest id in set that is not less than given id, or -1.
+	 */
+	private int nextId(long from)
+	{
+		if (from > MAX_ID)
+		{
+			return -1;
+		}
+
+		int id = (int) from;
+		int index = this.containerIndex(high(id));
+		int value = low(id);
+
+		if (index < 0)
+		{
+			index = -index - 1;
+			value = 0;
+		}
+
+		for (; index < this.containerCount; index++, value = 0)
+		{
+			int next = this.containers[index].nextValue(value);
+
+			if (next >= 0)
+			{
+				return this.keys[index] << Character.SIZE | next;
+			}
+		}
+
+		return -1;
+	}
+
+
+	/**
+	 * @param key Upper 16 bits of id.
+	 * @return Index of container with given key, or {@code -(insertion point) - 1}.
+	 */
+	private int containerIndex(char key)
+	{
+		return Arrays.binarySearch(this.keys, 0, this.containerCount, key);
+	}
+
+
+	/**
+	 * Inserts container at given index.
+	 * @param index Container index.
+	 * @param key Upper 16 bits of ids in container.
+	 * @param container Container.
+	 */
+	private void insertContainer(int index, char key, Container container)
+	{
+		if (this.containerCount == this.keys.length)
+		{
+			int capacity = Math.max(this.containerCount * 2, 1);
+			this.keys = Arrays.copyOf(this.keys, capacity);
+			this.containers = Arrays.copyOf(this.containers, capacity);
+		}
+
+		System.arraycopy(this.keys, index, this.keys, index + 1, this.containerCount - index);
+		System.arraycopy(this.containers, index, this.containers, index + 1, this.containerCount - index);
+		this.keys[index] = key;
+		this.containers[index] = container;
+		this.containerCount++;
+	}
+
+
+	/**
+	 * Removes container at given index and releases its memory.
+	 * @param index Container index.
+	 */
+	private void removeContainer(int index)
+	{
+		this.containers[index].release();
+
+		System.arraycopy(this.keys, index + 1, this.keys, index, this.containerCount - index - 1);
+		System.arraycopy(this.containers, index + 1, this.containers, index, this.containerCount - index - 1);
+		this.containerCount--;
+		this.containers[this.containerCount] = null;
+	}
+
+
+	/**
+	 * @param id Voter id.
+	 * @return Upper 16 bits of id.
+	 */
+	private static char high(int id)
+	{
+		return (char) (id >>> Character.SIZE);
+	}
+
+
+	/**
+	 * @param id Voter id.
+	 * @return Lower 16 bits of id.
+	 */
+	private static char low(int id)
+	{
+		return (char) id;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Containers
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Container of lower 16 bits of ids that share the same upper 16 bits.
+	 */
+	private abstract static class Container
+	{
+		/**
+		 * @param value Lower bits of id.
+		 * @return {@code true} if value is in container.
+		 */
+		abstract boolean contains(char value);
+
+		/**
+		 * Adds value that is not in container.
+		 * @param value Lower bits of id.
+		 */
+		abstract void add(char value);
+
+		/**
+		 * @param value Lower bits of id.
+		 * @return {@code true} if value was removed.
+		 */
+		abstract boolean remove(char value);
+
+		/**
+		 * @param value Even lower bits of id.
+		 * @return State of value pair, see {@link VoterSet#getPair(int)}.
+		 */
+		abstract int getPair(char value);
+
+		/**
+		 * Replaces state of value pair, see {@link VoterSet#replacePair(int, int, int)}.
+		 * @param value Even lower bits of id.
+		 * @param expected State that pair must have to be replaced, or -1 if any state.
+		 * @param state New state.
+		 * @return Previous state of pair.
+		 */
+		abstract int replacePair(char value, int expected, int state);
+
+		/**
+		 * @return Number of values in container.
+		 */
+		abstract int cardinality();
+
+		/**
+		 * @param from Smallest value that can be returned.
+		 * @return Smallest value that is not less than given one, or -1.
+		 */
+		abstract int nextValue(int from);
+
+		/**
+		 * @param other Other container.
+		 * @return Number of values that are in both containers.
+		 */
+		abstract int intersectionSize(Container other);
+
+		/**
+		 * @return Copy of container. Copy is always stored on heap.
+		 */
+		abstract Container copy();
+
+		/**
+		 * @return Container that can take one more value: this container, or new container
+		 * with the same values.
+		 */
+		abstract Container ensureSpace();
+
+		/**
+		 * @return Container that fits current number of values: this container, or new
+		 * container with the same values.
+		 */
+		abstract Container shrink();
+
+		/**
+		 * Returns off heap memory of container to buffer pool. Container must not be used
+		 * after it is released.
+		 */
+		void release()
+		{
+			// Heap containers are freed by garbage collector.
+		}
+	}
+
+
+	/**
+	 * Container that stores values in sorted char array.
+	 */
+	private static final class ArrayContainer extends Container
+	{
+		@Override
+		boolean contains(char value)
+		{
+			return Arrays.binarySearch(this.values, 0, this.cardinality, value) >= 0;
+		}
+
+
+		@Override
+		void add(char value)
+		{
+			this.insertAt(-Arrays.binarySearch(this.values, 0, this.cardinality, value) - 1, value);
+		}
+
+
+		@Override
+		boolean remove(char value)
+		{
+			int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+
+			if (index < 0)
+			{
+				return false;
+			}
+
+			this.removeAt(index);
+			return true;
+		}
+
+
+		@Override
+		int getPair(char value)
+		{
+			return this.pairState(Arrays.binarySearch(this.values, 0, this.cardinality, value), value);
+		}
+
+
+		@Override
+		int replacePair(char value, int expected, int state)
+		{
+			int index = Arrays.binarySearch(this.values, 0, this.cardinality, value);
+			int previous = this.pairState(index, value);
+
+			if (previous == state || expected >= 0 && previous != expected)
+			{
+				return previous;
+			}
+
+			if (index < 0)
+			{
+				index = -index - 1;
+			}
+
+			if (state == 0)
+			{
+				this.removeAt(index);
+			}
+			else if (previous == 0)
+			{
+				this.insertAt(index, (char) (value + state - 1));
+			}
+			else
+			{
+				// Other id of the same pair keeps sorted position.
+				this.values[index] = (char) (value + state - 1);
+			}
+
+			return previous;
+		}
+
+
+		/**
+		 * @param index Result of binary search for even value.
+		 * @param value Even value.
+		 * @return State of value pair.
+		 */
+		private int pairState(int index, char value)
+		{
+			if (index >= 0)
+			{
+				return 1;
+			}
+
+			index = -index - 1;
+			return index < this.cardinality && this.values[index] == value + 1 ? 2 : 0;
+		}
+
+
+		/**
+		 * Inserts value at given sorted position.
+		 * @param index Position of value.
+		 * @param value Value.
+		 */
+		private void insertAt(int index, char value)
+		{
+			if (this.cardinality == this.values.length)
+			{
+				int capacity = this.cardinality + Math.max(this.cardinality >> 1, MIN_ARRAY_CAPACITY);
+				this.values = Arrays.copyOf(this.values, Math.min(capacity, ARRAY_MAX));
+			}
+
+			System.arraycopy(this.values, index, this.values, index + 1, this.cardinality - index);
+			this.values[index] = value;
+			this.cardinality++;
+		}
+
+
+		/**
+		 * Removes value at given position.
+		 * @param index Position of value.
+		 */
+		private void removeAt(int index)
+		{
+			System.arraycopy(this.values, index + 1, this.values, index, this.cardinality - index - 1);
+			this.cardinality--;
+		}
+
+
+		@Override
+		int cardinality()
+		{
+			return this.cardinality;
+		}
+
+
+		@Override
+		int nextValue(int from)
+		{
+			int index = Arrays.binarySearch(this.values, 0, this.cardinality, (char) from);
+
+			if (index < 0)
+			{
+				index = -index - 1;
+			}
+
+			return index < this.cardinality ? this.values[index] : -1;
+		}
+
+
+		@Override
+		int intersectionSize(Container other)
+		{
+			int count = 0;
+
+			if (other instanceof ArrayContainer)
+			{
+				ArrayContainer array = (ArrayContainer) other;
+				int first = 0;
+				int second = 0;
+
+				while (first < this.cardinality && second < array.cardinality)
+				{
+					if (this.values[first] < array.values[second])
+					{
+						first++;
+					}
+					else if (this.values[first] > array.values[second])
+					{
+						second++;
+					}
+					else
+					{
+						count++;
+						first++;
+						second++;
+					}
+				}
+			}
+			else
+			{
+				for (int index = 0; index < this.cardinality; index++)
+				{
+					if (other.contains(this.values[index]))
+					{
+						count++;
+					}
+				}
+			}
+
+			return count;
+		}
+
+
+		@Override
+		Container copy()
+		{
+			ArrayContainer copy = new ArrayContainer();
+			copy.values = Arrays.copyOf(this.values, this.cardinality);
+			copy.cardinality = this.cardinality;
+			return copy;
+		}
+
+
+		@Override
+		Container ensureSpace()
+		{
+			if (this.cardinality == ARRAY_MAX)
+			{
+				Container bitmap = newBitmap();
+
+				for (int index = 0; index < this.cardinality; index++)
+				{
+					bitmap.add(this.values[index]);
+				}
+
+				return bitmap;
+			}
+
+			if (isDirectArray(this.cardinality))
+			{
+				DirectArrayContainer array = new DirectArrayContainer();
+
+				for (int index = 0; index < this.cardinality; index++)
+				{
+					array.set(index, this.values[index]);
+				}
+
+				array.cardinality = this.cardinality;
+				return array;
+			}
+
+			return this;
+		}
+
+
+		@Override
+		Container shrink()
+		{
+			return this;
+		}
+
+
+		/**
+		 * Sorted values.
+		 */
+		private char[] values = new char[MIN_ARRAY_CAPACITY];
+
+		/**
+		 * Number of values.
+		 */
+		private int cardinality;
+	}
+
+
+	/**
+	 * Container that stores values as bits of 65536 bit bitmap.
+	 */
+	private static final class BitmapContainer extends Container
+	{
+		@Override
+		boolean contains(char value)
+		{
+			return (this.words[value >>> 6] & (1L << value)) != 0;
+		}
+
+
+		@Override
+		void add(char value)
+		{
+			this.words[value >>> 6] |= 1L << value;
+			this.cardinality++;
+		}
+
+
+		@Override
+		boolean remove(char value)
+		{
+			if (!this.contains(value))
+			{
+				return false;
+			}
+
+			this.words[value >>> 6] &= ~(1L << value);
+			this.cardinality--;
+			return true;
+		}
+
+
+		@Override
+		int getPair(char value)
+		{
+			return (int) (this.words[value >>> 6] >>> value) & PAIR_MASK;
+		}
+
+
+		@Override
+		int replacePair(char value, int expected, int state)
+		{
+			int index = value >>> 6;
+			int previous = (int) (this.words[index] >>> value) & PAIR_MASK;
+
+			if (previous == state || expected >= 0 && previous != expected)
+			{
+				return previous;
+			}
+
+			// Even value, so both bits of pair are in the same word.
+			this.words[index] = this.words[index] & ~((long) PAIR_MASK << value) | (long) state << value;
+			this.cardinality += (state == 0 ? 0 : 1) - (previous == 0 ? 0 : 1);
+
+			return previous;
+		}
+
+
+		@Override
+		int cardinality()
+		{
+			return this.cardinality;
+		}
+
+
+		@Override
+		int nextValue(int from)
+		{
+			int index = from >>> 6;
+
+			if (index >= this.words.length)
+			{
+				return -1;
+			}
+
+			long word = this.words[index] & (-1L << from);
+
+			while (word == 0)
+			{
+				if (++index == this.words.length)
+				{
+					return -1;
+				}
+
+				word = this.words[index];
+			}
+
+			return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+		}
+
+
+		@Override
+		int intersectionSize(Container other)
+		{
+			if (other instanceof BitmapContainer)
+			{
+				long[] otherWords = ((BitmapContainer) other).words;
+				int count = 0;
+
+				for (int index = 0; index < this.words.length; index++)
+				{
+					count += Long.bitCount(this.words[index] & otherWords[index]);
+				}
+
+				return count;
+			}
+
+			return other.intersectionSize(this);
+		}
+
+
+		@Override
+		Container copy()
+		{
+			BitmapContainer copy = new BitmapContainer();
+			copy.words = this.words.clone();
+			copy.cardinality = this.cardinality;
+			return copy;
+		}
+
+
+		@Override
+		Container ensureSpace()
+		{
+			return this;
+		}
+
+
+		@Override
+		Container shrink()
+		{
+			return this.cardinality <= ARRAY_MAX ? toArray(this) : this;
+		}
+
+
+		/**
+		 * Bits of values.
+		 */
+		private long[] words = new long[BITMAP_WORDS];
+
+		/**
+		 * Number of set bits.
+		 */
+		private int cardinality;
+	}
+
+
+	/**
+	 * Container that stores values in sorted char array in direct buffer, outside of
+	 * heap. Heap holds only buffer object, so its size does not depend on number of
+	 * values. Buffer has room for {@link #ARRAY_MAX} values, so it is never reallocated
+	 * while container grows.
+	 */
+	private static final class DirectArrayContainer extends Container
+	{
+		/**
+		 * Constructor creates empty container with pooled buffer.
+		 */
+		private DirectArrayContainer()
+		{
+			this.values = acquire(false);
+		}
+
+
+		@Override
+		boolean contains(char value)
+		{
+			return this.search(value) >= 0;
+		}
+
+
+		@Override
+		void add(char value)
+		{
+			this.insertAt(-this.search(value) - 1, value);
+		}
+
+
+		@Override
+		boolean remove(char value)
+		{
+			int index = this.search(value);
+
+			if (index < 0)
+			{
+				return false;
+			}
+
+			this.removeAt(index);
+			return true;
+		}
+
+
+		@Override
+		int getPair(char value)
+		{
+			return this.pairState(this.search(value), value);
+		}
+
+
+		@Override
+		int replacePair(char value, int expected, int state)
+		{
+			int index = this.search(value);
+			int previous = this.pairState(index, value);
+
+			if (previous == state || expected >= 0 && previous != expected)
+			{
+				return previous;
+			}
+
+			if (index < 0)
+			{
+				index = -index - 1;
+			}
+
+			if (state == 0)
+			{
+				this.removeAt(index);
+			}
+			else if (previous == 0)
+			{
+				this.insertAt(index, (char) (value + state - 1));
+			}
+			else
+			{
+				this.set(index, (char) (value + state - 1));
+			}
+
+			return previous;
+		}
+
+
+		@Override
+		int cardinality()
+		{
+			return this.cardinality;
+		}
+
+
+		@Override
+		int nextValue(int from)
+		{
+			int index = this.search((char) from);
+
+			if (index < 0)
+			{
+				index = -index - 1;
+			}
+
+			return index < this.cardinality ? this.get(index) : -1;
+		}
+
+
+		@Override
+		int intersectionSize(Container other)
+		{
+			int count = 0;
+
+			for (int index = 0; index < this.cardinality; index++)
+			{
+				if (other.contains(this.get(index)))
+				{
+					count++;
+				}
+			}
+
+			return count;
+		}
+
+
+		@Override
+		Container copy()
+		{
+			ArrayContainer copy = new ArrayContainer();
+			copy.values = new char[this.cardinality];
+
+			for (int index = 0; index < this.cardinality; index++)
+			{
+				copy.values[index] = this.get(index);
+			}
+
+			copy.cardinality = this.cardinality;
+			return copy;
+		}
+
+
+		@Override
+		Container ensureSpace()
+		{
+			if (this.cardinality == ARRAY_MAX)
+			{
+				Container bitmap = newBitmap();
+
+				for (int index = 0; index < this.cardinality; index++)
+				{
+					bitmap.add(this.get(index));
+				}
+
+				this.release();
+				return bitmap;
+			}
+
+			return this;
+		}
+
+
+		@Override
+		Container shrink()
+		{
+			if (this.cardinality < DIRECT_MIN / 2)
+			{
+				Container array = this.copy();
+				this.release();
+				return array;
+			}
+
+			return this;
+		}
+
+
+		@Override
+		void release()
+		{
+			VoterSet.release(this.values);
+			this.values = null;
+		}
+
+
+		/**
+		 * @param index Position of value.
+		 * @return Value at given position.
+		 */
+		private char get(int index)
+		{
+			return this.values.getChar(index * Character.BYTES);
+		}
+
+
+		/**
+		 * @param index Position of value.
+		 * @param value Value.
+		 */
+		private void set(int index, char value)
+		{
+			this.values.putChar(index * Character.BYTES, value);
+		}
+
+
+		/**
+		 * @param value Value.
+		 * @return Position of value, or {@code -(insertion point) - 1}.
+		 */
+		private int search(char value)
+		{
+			int low = 0;
+			int high = this.cardinality - 1;
+
+			while (low <= high)
+			{
+				int middle = (low + high) >>> 1;
+				char middleValue = this.get(middle);
+
+				if (middleValue < value)
+				{
+					low = middle + 1;
+				}
+				else if (middleValue > value)
+				{
+					high = middle - 1;
+				}
+				else
+				{
+					return middle;
+				}
+			}
+
+			return -(low + 1);
+		}
+
+
+		/**
+		 * @param index Result of search for even value.
+		 * @param value Even value.
+		 * @return State of value pair.
+		 */
+		private int pairState(int index, char value)
+		{
+			if (index >= 0)
+			{
+				return 1;
+			}
+
+			index = -index - 1;
+			return index < this.cardinality && this.get(index) == value + 1 ? 2 : 0;
+		}
+
+
+		/**
+		 * Inserts value at given sorted position. Container must have less than
+		 * {@link #ARRAY_MAX} values.
+		 * @param index Position of value.
+		 * @param value Value.
+		 */
+		private void insertAt(int index, char value)
+		{
+			for (int position = this.cardinality; position > index; position--)
+			{
+				this.set(position, this.get(position - 1));
+			}
+
+			this.set(index, value);
+			this.cardinality++;
+		}
+
+
+		/**
+		 * Removes value at given position.
+		 * @param index Position of value.
+		 */
+		private void removeAt(int index)
+		{
+			this.cardinality--;
+
+			for (int position = index; position < this.cardinality; position++)
+			{
+				this.set(position, this.get(position + 1));
+			}
+		}
+
+
+		/**
+		 * Sorted values in native byte order.
+		 */
+		private ByteBuffer values;
+
+		/**
+		 * Number of values.
+		 */
+		private int cardinality;
+	}
+
+
+	/**
+	 * Container that stores values as bits of 65536 bit bitmap in direct buffer, outside
+	 * of heap.
+	 */
+	private static final class DirectBitmapContainer extends Container
+	{
+		@Override
+		boolean contains(char value)
+		{
+			return (this.word(value >>> 6) & (1L << value)) != 0;
+		}
+
+
+		@Override
+		void add(char value)
+		{
+			int index = value >>> 6;
+			this.setWord(index, this.word(index) | 1L << value);
+			this.cardinality++;
+		}
+
+
+		@Override
+		boolean remove(char value)
+		{
+			if (!this.contains(value))
+			{
+				return false;
+			}
+
+			int index = value >>> 6;
+			this.setWord(index, this.word(index) & ~(1L << value));
+			this.cardinality--;
+			return true;
+		}
+
+
+		@Override
+		int getPair(char value)
+		{
+			return (int) (this.word(value >>> 6) >>> value) & PAIR_MASK;
+		}
+
+
+		@Override
+		int replacePair(char value, int expected, int state)
+		{
+			int index = value >>> 6;
+			long word = this.word(index);
+			int previous = (int) (word >>> value) & PAIR_MASK;
+
+			if (previous == state || expected >= 0 && previous != expected)
+			{
+				return previous;
+			}
+
+			this.setWord(index, word & ~((long) PAIR_MASK << value) | (long) state << value);
+			this.cardinality += (state == 0 ? 0 : 1) - (previous == 0 ? 0 : 1);
+
+			return previous;
+		}
+
+
+		@Override
+		int cardinality()
+		{
+			return this.cardinality;
+		}
+
+
+		@Override
+		int nextValue(int from)
+		{
+			int index = from >>> 6;
+
+			if (index >= BITMAP_WORDS)
+			{
+				return -1;
+			}
+
+			long word = this.word(index) & (-1L << from);
+
+			while (word == 0)
+			{
+				if (++index == BITMAP_WORDS)
+				{
+					return -1;
+				}
+
+				word = this.word(index);
+			}
+
+			return index * Long.SIZE + Long.numberOfTrailingZeros(word);
+		}
+
+
+		@Override
+		int intersectionSize(Container other)
+		{
+			if (other instanceof DirectBitmapContainer)
+			{
+				DirectBitmapContainer bitmap = (DirectBitmapContainer) other;
+				int count = 0;
+
+				for (int index = 0; index < BITMAP_WORDS; index++)
+				{
+					count += Long.bitCount(this.word(index) & bitmap.word(index));
+				}
+
+				return count;
+			}
+
+			if (other instanceof BitmapContainer)
+			{
+				long[] otherWords = ((BitmapContainer) other).words;
+				int count = 0;
+
+				for (int index = 0; index < BITMAP_WORDS; index++)
+				{
+					count += Long.bitCount(this.word(index) & otherWords[index]);
+				}
+
+				return count;
+			}
+
+			return other.intersectionSize(this);
+		}
+
+
+		@Override
+		Container copy()
+		{
+			BitmapContainer copy = new BitmapContainer();
+
+			for (int index = 0; index < BITMAP_WORDS; index++)
+			{
+				copy.words[index] = this.word(index);
+			}
+
+			copy.cardinality = this.cardinality;
+			return copy;
+		}
+
+
+		@Override
+		Container ensureSpace()
+		{
+			return this;
+		}
+
+
+		@Override
+		Container shrink()
+		{
+			if (this.cardinality <= ARRAY_MAX)
+			{
+				Container array = toArray(this);
+				this.release();
+				return array;
+			}
+
+			return this;
+		}
+
+
+		@Override
+		void release()
+		{
+			VoterSet.release(this.words);
+			this.words = null;
+		}
+
+
+		/**
+		 * @param index Word index.
+		 * @return Word with given index.
+		 */
+		private long word(int index)
+		{
+			return this.words.getLong(index * Long.BYTES);
+		}
+
+
+		/**
+		 * @param index Word index.
+		 * @param word New word value.
+		 */
+		private void setWord(int index, long word)
+		{
+			this.words.putLong(index * Long.BYTES, word);
+		}
+
+
+		/**
+		 * Bits of values in native byte order.
+		 */
+		private ByteBuffer words = acquire(true);
+
+		/**
+		 * Number of set bits.
+		 */
+		private int cardinality;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Container methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @return New empty bitmap container, off heap if it is enabled.
+	 */
+	private static Container newBitmap()
+	{
+		return offHeap ? new DirectBitmapContainer() : new BitmapContainer();
+	}
+
+
+	/**
+	 * @param bitmap Bitmap container with {@link #ARRAY_MAX} values or less.
+	 * @return Array container with the same values, off heap if it is enabled and
+	 * container is large enough.
+	 */
+	private static Container toArray(Container bitmap)
+	{
+		int cardinality = bitmap.cardinality();
+		int index = 0;
+
+		if (isDirectArray(cardinality))
+		{
+			DirectArrayContainer array = new DirectArrayContainer();
+
+			for (int value = bitmap.nextValue(0); value >= 0; value = bitmap.nextValue(value + 1))
+			{
+				array.set(index++, (char) value);
+			}
+
+			array.cardinality = index;
+			return array;
+		}
+
+		ArrayContainer array = new ArrayContainer();
+		array.values = new char[cardinality];
+
+		for (int value = bitmap.nextValue(0); value >= 0; value = bitmap.nextValue(value + 1))
+		{
+			array.values[index++] = (char) value;
+		}
+
+		array.cardinality = index;
+		return array;
+	}
+
+
+	/**
+	 * @param cardinality Number of values in array container.
+	 * @return {@code true} if array container of given size must be stored off heap.
+	 */
+	private static boolean isDirectArray(int cardinality)
+	{
+		return offHeap && cardinality >= DIRECT_MIN;
+	}
+
+
+	/**
+	 * Takes direct buffer from pool, or allocates new one if pool is empty.
+	 * @param zeroed {@code true} if buffer must be filled with zeros.
+	 * @return Direct buffer of {@link #DIRECT_BYTES} bytes in native byte order.
+	 */
+	private static ByteBuffer acquire(boolean zeroed)
+	{
+		ByteBuffer buffer = BUFFER_POOL.poll();
+
+		if (buffer == null)
+		{
+			// New direct buffers are already zeroed.
+			return ByteBuffer.allocateDirect(DIRECT_BYTES).order(ByteOrder.nativeOrder());
+		}
+
+		if (zeroed)
+		{
+			for (int position = 0; position < DIRECT_BYTES; position += Long.BYTES)
+			{
+				buffer.putLong(position, 0L);
+			}
+		}
+
+		return buffer;
+	}
+
+
+	/**
+	 * Returns direct buffer to pool. If pool is full, buffer is left for garbage
+	 * collector.
+	 * @param buffer Buffer that is no longer used.
+	 */
+	private static void release(ByteBuffer buffer)
+	{
+		BUFFER_POOL.offer(buffer);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Sorted upper 16 bits of ids in each container.
+	 */
+	private char[] keys;
+
+	/**
+	 * Containers in key order.
+	 */
+	private Container[] containers;
+
+	/**
+	 * Number of used containers.
+	 */
+	private int containerCount;
+
+	/**
+	 * Number of voters in set.
+	 */
+	private int size;
+
+	/**
+	 * Number of structural changes, used by iterators to detect concurrent modification.
+	 */
+	private int modifications;
+
+	/**
+	 * Indicates if large containers are stored off heap.
+	 */
+	private static volatile boolean offHeap;
+
+	/**
+	 * Shared key array of empty sets.
+	 */
+	private static final char[] EMPTY_KEYS = new char[0];
+
+	/**
+	 * Shared container array of empty sets.
+	 */
+	private static final Container[] EMPTY_CONTAINERS = new Container[0];
+
+	/**
+	 * Maximal number of values in array container. Array of this size takes the same
+	 * memory as bitmap.
+	 */
+	private static final int ARRAY_MAX = 4096;
+
+	/**
+	 * Number of values from which array container is stored off heap, if it is enabled.
+	 * Smaller containers stay on heap, as every direct buffer takes full 8 KB.
+	 */
+	private static final int DIRECT_MIN = 1024;
+
+	/**
+	 * Size of each direct buffer. Full array and bitmap take the same memory.
+	 */
+	private static final int DIRECT_BYTES = ARRAY_MAX * Character.BYTES;
+
+	/**
+	 * Maximal number of free direct buffers that are kept for reuse.
+	 */
+	private static final int POOL_SIZE = 1024;
+
+	/**
+	 * Free direct buffers. Sets are created on loading threads too, so pool is shared
+	 * and thread safe.
+	 */
+	private static final BlockingQueue<ByteBuffer> BUFFER_POOL = new ArrayBlockingQueue<>(POOL_SIZE);
+
+	/**
+	 * Capacity of new array container.
+	 */
+	private static final int MIN_ARRAY_CAPACITY = 4;
+
+	/**
+	 * Bits of id pair in bitmap word.
+	 */
+	private static final int PAIR_MASK = 0b11;
+
+	/**
+	 * Number of longs in bitmap container.
+	 */
+	private static final int BITMAP_WORDS = (1 << Character.SIZE) / Long.SIZE;
+
+	/**
+	 * Largest voter id.
+	 */
+	private static final long MAX_ID = Integer.MAX_VALUE;
+}
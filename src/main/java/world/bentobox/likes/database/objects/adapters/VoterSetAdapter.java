@@ -0,0 +1,83 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database.objects.adapters;
+
+
+import com.google.gson.TypeAdapter;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.UUID;
+
+import world.bentobox.likes.database.objects.VoterSet;
+
+
+/**
+ * Gson adapter that stores voter set as JSON array of UUID strings, the same way as Gson
+ * stores HashSet of UUIDs, and reads it back into {@link VoterSet}. Documents that were
+ * written before voter sets were introduced are read without changes.
+ */
+public class VoterSetAdapter extends TypeAdapter<Set<UUID>>
+{
+	/**
+	 * Writes voter set as array of UUID strings.
+	 * @param output Json writer.
+	 * @param voters Voter set.
+	 * @throws IOException if writing fails.
+	 */
+	@Override
+	public void write(JsonWriter output, Set<UUID> voters) throws IOException
+	{
+		if (voters == null)
+		{
+			output.nullValue();
+			return;
+		}
+
+		output.beginArray();
+
+		for (UUID voter : voters)
+		{
+			output.value(voter.toString());
+		}
+
+		output.endArray();
+	}
+
+
+	/**
+	 * Reads array of UUID strings into voter set. Missing set is read as empty set.
+	 * @param input Json reader.
+	 * @return Voter set.
+	 * @throws IOException if reading fails.
+	 */
+	@Override
+	public Set<UUID> read(JsonReader input) throws IOException
+	{
+		if (input.peek() == JsonToken.NULL)
+		{
+			input.nextNull();
+			return new VoterSet();
+		}
+
+		VoterSet voters = new VoterSet();
+
+		input.beginArray();
+
+		while (input.hasNext())
+		{
+			voters.add(UUID.fromString(input.nextString()));
+		}
+
+		input.endArray();
+
+		return voters;
+	}
+}
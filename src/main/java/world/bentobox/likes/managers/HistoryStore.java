@@ -0,0 +1,1046 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import world.bentobox.bentobox.api.logs.LogEntry;
+import world.bentobox.likes.LikesAddon;
+
+
+/**
+ * Append-only store of island vote history. History entries are not kept inside likes
+ * objects, so objects stay small and are saved fast. Entries are appended to segment
+ * files, and new segment is started on each load and when current segment becomes too
+ * large. Segment file name contains its creation time, so segments are ordered by time.
+ * <p>
+ * Entries of single island are found through in-memory index that contains only file
+ * positions. Index is built on first history request, so servers that never open
+ * history do not pay for it.
+ * <p>
+ * Record layout: {@code int length, UTF islandId, UTF gameMode, UTF type, long timestamp,
+ * short dataSize, UTF key, UTF value...}. Record that was cut by crash is ignored.
+ * <p>
+ * Compaction removes entries that are not needed any more. It processes limited batch of
+ * islands that got new entries at a time, and rewrites only segments that contain removed
+ * entries.
+ * <p>
+ * This class is not synchronized. All methods except {@link #compact(CompactionTask)}
+ * must be called from the main thread.
+ */
+class HistoryStore
+{
+	/**
+	 * Default constructor.
+	 * @param addon Likes addon instance.
+	 * @param directory Directory where history segments are stored.
+	 */
+	HistoryStore(LikesAddon addon, Path directory)
+	{
+		this.addon = addon;
+		this.directory = directory;
+
+		if (Files.isDirectory(this.directory))
+		{
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+			{
+				stream.forEach(this.segments::add);
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not read likes history: " + e.getMessage());
+			}
+		}
+
+		this.segments.sort((first, second) -> Long.compare(segmentStart(first), segmentStart(second)));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method appends history entry of given island.
+	 * @param islandId Island id.
+	 * @param gameMode GameMode of island.
+	 * @param entry History entry.
+	 */
+	void append(String islandId, String gameMode, LogEntry entry)
+	{
+		if (this.broken)
+		{
+			return;
+		}
+
+		try
+		{
+			byte[] record = encode(islandId, gameMode, entry);
+
+			if (this.channel == null || this.channel.size() >= MAX_SEGMENT_SIZE)
+			{
+				this.startSegment();
+			}
+
+			long offset = this.channel.size();
+			ByteBuffer buffer = ByteBuffer.allocate(Integer.BYTES + record.length);
+			buffer.putInt(record.length);
+			buffer.put(record);
+			buffer.flip();
+
+			while (buffer.hasRemaining())
+			{
+				this.channel.write(buffer);
+			}
+
+			if (this.islandPositions != null)
+			{
+				this.addPosition(islandId, this.segments.size() - 1, offset);
+			}
+
+			this.dirtyIslands.add(islandId);
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not write likes history, history is disabled: " + e.getMessage());
+			this.broken = true;
+		}
+	}
+
+
+	/**
+	 * @param islandId Island id.
+	 * @return Number of history entries of given island.
+	 */
+	int getCount(String islandId)
+	{
+		long[] positions = this.getPositions().get(islandId);
+		return positions == null ? 0 : (int) positions[0];
+	}
+
+
+	/**
+	 * This method reads page of history entries of given island, newest entries first.
+	 * @param islandId Island id.
+	 * @param offset Number of newest entries that must be skipped.
+	 * @param limit Maximal number of entries.
+	 * @return List with history entries.
+	 */
+	List<LogEntry> getEntries(String islandId, int offset, int limit)
+	{
+		long[] positions = this.getPositions().get(islandId);
+
+		if (positions == null || offset < 0 || limit <= 0)
+		{
+			return Collections.emptyList();
+		}
+
+		List<LogEntry> entries = new ArrayList<>(limit);
+
+		for (int index = (int) positions[0] - offset; index > 0 && entries.size() < limit; index--)
+		{
+			LogEntry entry = this.readEntry(positions[index]);
+
+			if (entry != null)
+			{
+				entries.add(entry);
+			}
+		}
+
+		return entries;
+	}
+
+
+	/**
+	 * This method closes current segment.
+	 */
+	void close()
+	{
+		this.closeChannel();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Compaction
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method prepares next compaction run. Run processes limited batch of islands
+	 * that got new entries since they were compacted, and segments that are older than
+	 * given time. Only one run can be active at the same time.
+	 * @param cutoff Time in milliseconds. Older entries are removed. 0 keeps all entries.
+	 * @param maxEntries Number of entries kept for each island. 0 keeps all entries.
+	 * @param batchSize Maximal number of islands in single run.
+	 * @return Compaction task that must be passed to {@link #compact(CompactionTask)},
+	 * or null if there is nothing to compact.
+	 */
+	CompactionTask prepareCompaction(long cutoff, int maxEntries, int batchSize)
+	{
+		if (this.compacting)
+		{
+			return null;
+		}
+
+		int sealed = this.channel == null ? this.segments.size() : this.segments.size() - 1;
+
+		List<Path> expiredSegments = new ArrayList<>();
+
+		// Segment is expired if next segment was started before cutoff.
+		for (int index = 0; cutoff > 0 && index < sealed && index + 1 < this.segments.size() &&
+			segmentStart(this.segments.get(index + 1)) < cutoff; index++)
+		{
+			expiredSegments.add(this.segments.get(index));
+		}
+
+		Set<String> islands = new HashSet<>();
+		Iterator<String> iterator = this.dirtyIslands.iterator();
+
+		while (iterator.hasNext() && islands.size() < batchSize)
+		{
+			islands.add(iterator.next());
+			iterator.remove();
+		}
+
+		if (islands.isEmpty() && expiredSegments.isEmpty())
+		{
+			return null;
+		}
+
+		long currentSize;
+
+		try
+		{
+			currentSize = this.channel == null ? 0 : this.channel.size();
+		}
+		catch (IOException e)
+		{
+			currentSize = 0;
+		}
+
+		this.compacting = true;
+
+		return new CompactionTask(new ArrayList<>(this.segments.subList(expiredSegments.size(), sealed)),
+			expiredSegments,
+			this.channel == null ? null : this.segments.get(this.segments.size() - 1),
+			currentSize,
+			islands,
+			cutoff,
+			maxEntries);
+	}
+
+
+	/**
+	 * This method compacts history of islands in given task. Entries that are older than
+	 * cutoff, like or dislike that was later removed by the same player together with its
+	 * removal, and the oldest entries above limit are removed. Changed segments are written
+	 * to temporary files. Method reads only segments that are not written any more, so it
+	 * can be called from async thread.
+	 * @param task Compaction task.
+	 * @return Compaction result that must be passed to {@link #finishCompaction(CompactionResult)}.
+	 */
+	CompactionResult compact(CompactionTask task)
+	{
+		Map<String, List<CompactionRecord>> islandRecords = new HashMap<>();
+		Map<String, Integer> counts = new HashMap<>();
+		CompactionResult result = new CompactionResult(task.expiredSegments);
+
+		try
+		{
+			for (int index = 0; index <= task.segments.size(); index++)
+			{
+				// Current segment is only counted, it cannot be rewritten.
+				Path segment = index < task.segments.size() ? task.segments.get(index) : task.currentSegment;
+				long limit = index < task.segments.size() ? Long.MAX_VALUE : task.currentSize;
+				int segmentIndex = index < task.segments.size() ? index : -1;
+
+				if (segment == null)
+				{
+					continue;
+				}
+
+				this.readSegment(segment, limit, (islandId, gameMode, offset, entry) -> {
+					counts.merge(islandId, 1, Integer::sum);
+
+					if (task.islands.contains(islandId))
+					{
+						islandRecords.computeIfAbsent(islandId, key -> new ArrayList<>()).
+							add(new CompactionRecord(segmentIndex, offset, entry));
+					}
+				});
+			}
+
+			Map<Integer, Set<Integer>> deadOffsets = new HashMap<>();
+
+			islandRecords.values().forEach(records -> findDeadRecords(records, task).forEach(record ->
+				deadOffsets.computeIfAbsent(record.segment, key -> new HashSet<>()).add(record.offset)));
+
+			for (Map.Entry<Integer, Set<Integer>> entry : deadOffsets.entrySet())
+			{
+				Path segment = task.segments.get(entry.getKey());
+				Path temporary = segment.resolveSibling(segment.getFileName() + ".compact");
+
+				this.rewriteSegment(segment, temporary, entry.getValue());
+
+				result.rewrittenSegments.put(segment, temporary);
+				result.removedEntries += entry.getValue().size();
+			}
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not compact likes history: " + e.getMessage());
+		}
+
+		if (task.maxEntries > 0)
+		{
+			// Islands above limit that did not get new entries are compacted in next runs.
+			counts.forEach((islandId, count) -> {
+				if (count > task.maxEntries && !task.islands.contains(islandId))
+				{
+					result.islandsAboveLimit.add(islandId);
+				}
+			});
+		}
+
+		return result;
+	}
+
+
+	/**
+	 * This method replaces compacted segments and deletes expired ones. It must be called
+	 * from the main thread after {@link #compact(CompactionTask)}.
+	 * @param result Compaction result, or null if compaction failed.
+	 */
+	void finishCompaction(CompactionResult result)
+	{
+		this.compacting = false;
+
+		if (result == null)
+		{
+			return;
+		}
+
+		for (Path segment : result.expiredSegments)
+		{
+			try
+			{
+				Files.deleteIfExists(segment);
+				this.segments.remove(segment);
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not delete likes history segment " + segment + ": " + e.getMessage());
+			}
+		}
+
+		for (Map.Entry<Path, Path> entry : result.rewrittenSegments.entrySet())
+		{
+			try
+			{
+				Files.move(entry.getValue(), entry.getKey(),
+					StandardCopyOption.REPLACE_EXISTING,
+					StandardCopyOption.ATOMIC_MOVE);
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not replace likes history segment " + entry.getKey() + ": " + e.getMessage());
+			}
+		}
+
+		if (!result.expiredSegments.isEmpty() || !result.rewrittenSegments.isEmpty())
+		{
+			// Positions have changed, index is built again on next request.
+			this.islandPositions = null;
+		}
+
+		this.dirtyIslands.addAll(result.islandsAboveLimit);
+
+		if (result.removedEntries > 0 || !result.expiredSegments.isEmpty())
+		{
+			this.addon.log("Compacted likes history: removed " + result.removedEntries + " entries and " +
+				result.expiredSegments.size() + " expired segments.");
+		}
+	}
+
+
+	/**
+	 * This method finds records of single island that must be removed.
+	 * @param records Island records in order they were written.
+	 * @param task Compaction task.
+	 * @return List with records that must be removed from segments.
+	 */
+	private static List<CompactionRecord> findDeadRecords(List<CompactionRecord> records, CompactionTask task)
+	{
+		Set<CompactionRecord> dead = new HashSet<>();
+
+		Map<String, CompactionRecord> likes = new HashMap<>();
+		Map<String, CompactionRecord> dislikes = new HashMap<>();
+
+		for (CompactionRecord record : records)
+		{
+			if (record.segment >= 0 && record.entry.getTimestamp() < task.cutoff)
+			{
+				dead.add(record);
+				continue;
+			}
+
+			Object value = record.entry.getData() == null ? null : record.entry.getData().get("user-id");
+			String user = String.valueOf(value);
+
+			switch (record.entry.getType())
+			{
+				case "ADD_LIKE":
+					likes.put(user, record);
+					break;
+				case "ADD_DISLIKE":
+					dislikes.put(user, record);
+					break;
+				case "REMOVE_LIKE":
+					collapsePair(likes.remove(user), record, dead);
+					break;
+				case "REMOVE_DISLIKE":
+					collapsePair(dislikes.remove(user), record, dead);
+					break;
+				default:
+					break;
+			}
+		}
+
+		if (task.maxEntries > 0 && records.size() - dead.size() > task.maxEntries)
+		{
+			int excess = records.size() - dead.size() - task.maxEntries;
+
+			for (CompactionRecord record : records)
+			{
+				if (excess == 0)
+				{
+					break;
+				}
+
+				if (record.segment >= 0 && dead.add(record))
+				{
+					excess--;
+				}
+			}
+		}
+
+		dead.removeIf(record -> record.segment < 0);
+		return new ArrayList<>(dead);
+	}
+
+
+	/**
+	 * Marks added vote and its removal as dead, if both of them can be removed.
+	 * @param added Record that added vote, or null.
+	 * @param removed Record that removed vote.
+	 * @param dead Set of dead records.
+	 */
+	private static void collapsePair(CompactionRecord added, CompactionRecord removed, Set<CompactionRecord> dead)
+	{
+		// Removing only one of them would change time window counters.
+		if (added != null && added.segment >= 0 && removed.segment >= 0)
+		{
+			dead.add(added);
+			dead.add(removed);
+		}
+	}
+
+
+	/**
+	 * Copies records of given segment without dead records to temporary file.
+	 * @param segment Segment file.
+	 * @param temporary Temporary file.
+	 * @param deadOffsets Offsets of records that must be removed.
+	 * @throws IOException if segment cannot be read or written.
+	 */
+	private void rewriteSegment(Path segment, Path temporary, Set<Integer> deadOffsets) throws IOException
+	{
+		try (FileChannel output = FileChannel.open(temporary,
+			StandardOpenOption.CREATE,
+			StandardOpenOption.WRITE,
+			StandardOpenOption.TRUNCATE_EXISTING))
+		{
+			ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+
+			while (data.remaining() >= Integer.BYTES)
+			{
+				int offset = data.position();
+				int length = data.getInt(offset);
+
+				if (length <= 0 || length > data.remaining() - Integer.BYTES)
+				{
+					// Damaged tail is not copied.
+					break;
+				}
+
+				int end = offset + Integer.BYTES + length;
+
+				if (!deadOffsets.contains(offset))
+				{
+					ByteBuffer record = data.duplicate();
+					record.limit(end);
+
+					while (record.hasRemaining())
+					{
+						output.write(record);
+					}
+				}
+
+				data.position(end);
+			}
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Starts new segment, so all following entries are written to it.
+	 * @throws IOException if segment cannot be created.
+	 */
+	private void startSegment() throws IOException
+	{
+		this.closeChannel();
+
+		Files.createDirectories(this.directory);
+
+		long start = System.currentTimeMillis();
+
+		if (!this.segments.isEmpty())
+		{
+			// Names must stay ordered even if clock goes back.
+			start = Math.max(start, segmentStart(this.segments.get(this.segments.size() - 1)) + 1);
+		}
+
+		Path segment = this.directory.resolve(SEGMENT_PREFIX + start + SEGMENT_SUFFIX);
+
+		this.channel = FileChannel.open(segment,
+			StandardOpenOption.CREATE_NEW,
+			StandardOpenOption.WRITE,
+			StandardOpenOption.APPEND);
+		this.segments.add(segment);
+	}
+
+
+	/**
+	 * @return Index of entry positions by island id. Index is built on first call.
+	 */
+	private Map<String, long[]> getPositions()
+	{
+		if (this.islandPositions == null)
+		{
+			this.islandPositions = new HashMap<>();
+
+			for (int index = 0; index < this.segments.size(); index++)
+			{
+				int segment = index;
+				this.readSegment(index, (islandId, gameMode, offset, entry) ->
+					this.addPosition(islandId, segment, offset));
+			}
+		}
+
+		return this.islandPositions;
+	}
+
+
+	/**
+	 * Adds entry position to island index. Array element 0 holds number of positions.
+	 * @param islandId Island id.
+	 * @param segment Segment index.
+	 * @param offset Record offset in segment.
+	 */
+	private void addPosition(String islandId, int segment, long offset)
+	{
+		long[] positions = this.islandPositions.get(islandId);
+
+		if (positions == null)
+		{
+			positions = new long[4];
+		}
+		else if (positions[0] + 1 == positions.length)
+		{
+			long[] grown = new long[positions.length * 2];
+			System.arraycopy(positions, 0, grown, 0, positions.length);
+			positions = grown;
+		}
+
+		positions[(int) ++positions[0]] = ((long) segment << Integer.SIZE) | offset;
+		this.islandPositions.put(islandId, positions);
+	}
+
+
+	/**
+	 * Reads single entry from given position.
+	 * @param position Segment index in high bits, record offset in low bits.
+	 * @return History entry or null if it cannot be read.
+	 */
+	private LogEntry readEntry(long position)
+	{
+		Path segment = this.segments.get((int) (position >>> Integer.SIZE));
+		long offset = position & 0xFFFFFFFFL;
+
+		try (FileChannel reader = FileChannel.open(segment, StandardOpenOption.READ))
+		{
+			ByteBuffer length = ByteBuffer.allocate(Integer.BYTES);
+			readFully(reader, length, offset);
+			length.flip();
+
+			ByteBuffer body = ByteBuffer.allocate(length.getInt());
+			readFully(reader, body, offset + Integer.BYTES);
+
+			DataInputStream input = new DataInputStream(new ByteArrayInputStream(body.array()));
+			input.readUTF();
+			input.readUTF();
+
+			return decodeEntry(input);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			this.addon.logError("Could not read likes history entry: " + e.getMessage());
+			return null;
+		}
+	}
+
+
+	/**
+	 * Fills given buffer from given file position.
+	 * @param reader File channel.
+	 * @param buffer Buffer that must be filled.
+	 * @param position File position.
+	 * @throws IOException if file cannot be read or ends before buffer is filled.
+	 */
+	private static void readFully(FileChannel reader, ByteBuffer buffer, long position) throws IOException
+	{
+		while (buffer.hasRemaining())
+		{
+			int read = reader.read(buffer, position + buffer.position());
+
+			if (read < 0)
+			{
+				throw new EOFException("Likes history record is cut.");
+			}
+		}
+	}
+
+
+	/**
+	 * Reads all records of single segment. Reading stops at first damaged record.
+	 * @param index Segment index.
+	 * @param consumer Consumer that receives records.
+	 */
+	private void readSegment(int index, RecordConsumer consumer)
+	{
+		try
+		{
+			this.readSegment(this.segments.get(index), Long.MAX_VALUE, consumer);
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not read likes history segment " + this.segments.get(index) + ": " + e.getMessage());
+		}
+	}
+
+
+	/**
+	 * Reads records of given segment file. Reading stops at first damaged record.
+	 * @param segment Segment file.
+	 * @param limit Number of bytes that must be read at most.
+	 * @param consumer Consumer that receives records.
+	 * @throws IOException if file cannot be read.
+	 */
+	private void readSegment(Path segment, long limit, RecordConsumer consumer) throws IOException
+	{
+		ByteBuffer data = ByteBuffer.wrap(Files.readAllBytes(segment));
+		data.limit((int) Math.min(data.limit(), limit));
+
+		while (data.remaining() >= Integer.BYTES)
+		{
+			int offset = data.position();
+			int length = data.getInt();
+
+			if (length <= 0 || length > data.remaining())
+			{
+				this.addon.logWarning("Likes history segment " + segment + " has damaged tail. It is ignored.");
+				return;
+			}
+
+			try
+			{
+				DataInputStream input = new DataInputStream(
+					new ByteArrayInputStream(data.array(), data.position(), length));
+
+				String islandId = input.readUTF();
+				String gameMode = input.readUTF();
+
+				consumer.accept(islandId, gameMode, offset, decodeEntry(input));
+			}
+			catch (IOException e)
+			{
+				this.addon.logWarning("Likes history segment " + segment + " has damaged record. It is ignored.");
+			}
+
+			data.position(data.position() + length);
+		}
+	}
+
+
+	/**
+	 * Closes channel of current segment.
+	 */
+	private void closeChannel()
+	{
+		if (this.channel == null)
+		{
+			return;
+		}
+
+		try
+		{
+			this.channel.close();
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not close likes history: " + e.getMessage());
+		}
+
+		this.channel = null;
+	}
+
+
+	/**
+	 * Encodes record body.
+	 * @param islandId Island id.
+	 * @param gameMode GameMode of island.
+	 * @param entry History entry.
+	 * @return Record body bytes.
+	 * @throws IOException if entry cannot be encoded.
+	 */
+	private static byte[] encode(String islandId, String gameMode, LogEntry entry) throws IOException
+	{
+		ByteArrayOutputStream bytes = new ByteArrayOutputStream(RECORD_SIZE);
+		DataOutputStream output = new DataOutputStream(bytes);
+
+		output.writeUTF(islandId);
+		output.writeUTF(gameMode == null ? "" : gameMode);
+		output.writeUTF(entry.getType());
+		output.writeLong(entry.getTimestamp());
+
+		Map<String, Object> data = entry.getData() == null ? Collections.emptyMap() : entry.getData();
+		output.writeShort(data.size());
+
+		for (Map.Entry<String, Object> value : data.entrySet())
+		{
+			output.writeUTF(value.getKey());
+			output.writeUTF(String.valueOf(value.getValue()));
+		}
+
+		output.flush();
+		return bytes.toByteArray();
+	}
+
+
+	/**
+	 * Decodes entry part of record body.
+	 * @param input Input positioned after island id and GameMode.
+	 * @return History entry.
+	 * @throws IOException if record is damaged.
+	 */
+	private static LogEntry decodeEntry(DataInputStream input) throws IOException
+	{
+		String type = input.readUTF();
+		long timestamp = input.readLong();
+		int dataSize = input.readUnsignedShort();
+
+		Map<String, Object> data = new LinkedHashMap<>(dataSize);
+
+		for (int index = 0; index < dataSize; index++)
+		{
+			data.put(input.readUTF(), input.readUTF());
+		}
+
+		return new LogEntry.Builder(type).timestamp(timestamp).data(data).build();
+	}
+
+
+	/**
+	 * @param segment Segment file.
+	 * @return Creation time of segment in milliseconds.
+	 */
+	private static long segmentStart(Path segment)
+	{
+		String name = segment.getFileName().toString();
+
+		try
+		{
+			return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+		}
+		catch (NumberFormatException e)
+		{
+			return -1;
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Data that async compaction needs. Contains only segments that are not written.
+	 */
+	static final class CompactionTask
+	{
+		/**
+		 * @param segments Sealed segments that are not expired.
+		 * @param expiredSegments Segments which all entries are older than cutoff.
+		 * @param currentSegment Segment that is written now, or null.
+		 * @param currentSize Size of current segment when task was created.
+		 * @param islands Islands that must be compacted.
+		 * @param cutoff Time before which entries are removed, or 0.
+		 * @param maxEntries Number of entries kept for each island, or 0.
+		 */
+		private CompactionTask(List<Path> segments,
+			List<Path> expiredSegments,
+			Path currentSegment,
+			long currentSize,
+			Set<String> islands,
+			long cutoff,
+			int maxEntries)
+		{
+			this.segments = segments;
+			this.expiredSegments = expiredSegments;
+			this.currentSegment = currentSegment;
+			this.currentSize = currentSize;
+			this.islands = islands;
+			this.cutoff = cutoff;
+			this.maxEntries = maxEntries;
+		}
+
+
+		/**
+		 * Sealed segments that are not expired.
+		 */
+		private final List<Path> segments;
+
+		/**
+		 * Segments which all entries are older than cutoff.
+		 */
+		private final List<Path> expiredSegments;
+
+		/**
+		 * Segment that is written now, or null.
+		 */
+		private final Path currentSegment;
+
+		/**
+		 * Size of current segment when task was created.
+		 */
+		private final long currentSize;
+
+		/**
+		 * Islands that must be compacted.
+		 */
+		private final Set<String> islands;
+
+		/**
+		 * Time before which entries are removed, or 0.
+		 */
+		private final long cutoff;
+
+		/**
+		 * Number of entries kept for each island, or 0.
+		 */
+		private final int maxEntries;
+	}
+
+
+	/**
+	 * Result of async compaction that is applied in the main thread.
+	 */
+	static final class CompactionResult
+	{
+		/**
+		 * @param expiredSegments Segments that must be deleted.
+		 */
+		private CompactionResult(List<Path> expiredSegments)
+		{
+			this.expiredSegments = expiredSegments;
+		}
+
+
+		/**
+		 * Segments that must be deleted.
+		 */
+		private final List<Path> expiredSegments;
+
+		/**
+		 * Temporary files that must replace segments.
+		 */
+		private final Map<Path, Path> rewrittenSegments = new HashMap<>();
+
+		/**
+		 * Islands that have more entries than allowed and must be compacted later.
+		 */
+		private final Set<String> islandsAboveLimit = new HashSet<>();
+
+		/**
+		 * Number of removed entries.
+		 */
+		private int removedEntries;
+	}
+
+
+	/**
+	 * Position and entry of single record that is checked by compaction.
+	 */
+	private static final class CompactionRecord
+	{
+		/**
+		 * @param segment Index of segment in compaction task, or -1 for current segment.
+		 * @param offset Record offset in segment.
+		 * @param entry History entry.
+		 */
+		private CompactionRecord(int segment, int offset, LogEntry entry)
+		{
+			this.segment = segment;
+			this.offset = offset;
+			this.entry = entry;
+		}
+
+
+		/**
+		 * Index of segment in compaction task, or -1 for current segment.
+		 */
+		private final int segment;
+
+		/**
+		 * Record offset in segment.
+		 */
+		private final int offset;
+
+		/**
+		 * History entry.
+		 */
+		private final LogEntry entry;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Interfaces
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Consumer of raw segment records.
+	 */
+	@FunctionalInterface
+	private interface RecordConsumer
+	{
+		/**
+		 * Processes single record.
+		 * @param islandId Island id.
+		 * @param gameMode GameMode of island.
+		 * @param offset Record offset in segment.
+		 * @param entry History entry.
+		 */
+		void accept(String islandId, String gameMode, int offset, LogEntry entry);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Likes addon instance.
+	 */
+	private final LikesAddon addon;
+
+	/**
+	 * Directory where history segments are stored.
+	 */
+	private final Path directory;
+
+	/**
+	 * All segments ordered by creation time. The last one is current, if channel is open.
+	 */
+	private final List<Path> segments = new ArrayList<>();
+
+	/**
+	 * Channel of current segment, or null if nothing was written since load.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Entry positions by island id, or null if index is not built yet.
+	 */
+	private Map<String, long[]> islandPositions;
+
+	/**
+	 * Becomes true after write error. Broken store stops writing.
+	 */
+	private boolean broken;
+
+	/**
+	 * Islands that got new entries since they were compacted.
+	 */
+	private final Set<String> dirtyIslands = new LinkedHashSet<>();
+
+	/**
+	 * Becomes true when compaction task is prepared, and false when it is finished.
+	 */
+	private boolean compacting;
+
+	/**
+	 * Segment size in bytes after which new segment is started.
+	 */
+	private static final long MAX_SEGMENT_SIZE = 16L * 1024 * 1024;
+
+	/**
+	 * Expected size of single record in bytes.
+	 */
+	private static final int RECORD_SIZE = 128;
+
+	/**
+	 * Prefix of segment file names.
+	 */
+	private static final String SEGMENT_PREFIX = "history-";
+
+	/**
+	 * Suffix of segment file names.
+	 */
+	private static final String SEGMENT_SUFFIX = ".log";
+}
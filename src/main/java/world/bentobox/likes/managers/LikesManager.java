@@ -7,13 +7,42 @@
 package world.bentobox.likes.managers;
 
 
+import org.bukkit.Bukkit;
 import org.bukkit.World;
 import org.eclipse.jdt.annotation.NonNull;
-import java.util.Comparator;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedList;
 import java.util.List;
 import java.util.Map;
+import java.util.NavigableMap;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeMap;
 import java.util.UUID;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.IntConsumer;
 import java.util.stream.Collectors;
 
 import world.bentobox.bentobox.api.addons.GameModeAddon;
@@ -22,14 +51,22 @@ import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.Database;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.config.Settings;
+import world.bentobox.likes.database.LikesSnapshot;
+import world.bentobox.likes.database.VoterDictionary;
 import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.database.objects.LikesObject.Vote;
 import world.bentobox.likes.events.DislikeAddEvent;
 import world.bentobox.likes.events.DislikeRemoveEvent;
 import world.bentobox.likes.events.LikeAddEvent;
 import world.bentobox.likes.events.LikeRemoveEvent;
+import world.bentobox.likes.managers.ranking.BayesianAverageStrategy;
+import world.bentobox.likes.managers.ranking.LikeRatioStrategy;
+import world.bentobox.likes.managers.ranking.NetScoreStrategy;
+import world.bentobox.likes.managers.ranking.RankingStrategy;
+import world.bentobox.likes.managers.ranking.WilsonScoreStrategy;
 import world.bentobox.likes.utils.Constants;
 import world.bentobox.likes.utils.Utils;
-import world.bentobox.likes.utils.collections.IndexedTreeSet;
 
 
 /**
@@ -50,12 +87,25 @@ public class LikesManager
 	{
 		this.addon = addon;
 
+		try
+		{
+			// Dictionary must be loaded before any voter set is read.
+			VoterDictionary.getInstance().load(this.getVoterDictionaryFile());
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not load voter dictionary, it is created again: " + e.getMessage());
+		}
+
 		this.likesDatabase = new Database<>(addon, LikesObject.class);
 		this.likesCache = new HashMap<>();
+		this.writeBehind = new WriteBehindStore(addon, this.likesDatabase, addon.getSettings().getSaveBatchSize());
+		this.journal = addon.getSettings().isVoteJournal() ?
+			new VoteJournal(addon, addon.getDataFolder().toPath().resolve("journal")) : null;
+		this.historyStore = new HistoryStore(addon, addon.getDataFolder().toPath().resolve("history"));
 
-		this.sortedDislikeCache = new HashMap<>();
-		this.sortedLikeCache = new HashMap<>();
-		this.sortedRankCache = new HashMap<>();
+		this.rankIndex = new RankIndex(this::createRankingStrategy,
+			(long) (addon.getSettings().getTrendingHalfLife() * MILLIS_PER_HOUR));
 
 		this.load();
 	}
@@ -67,406 +117,2407 @@ public class LikesManager
 
 
 	/**
-	 * This method loads all like objects.
+	 * This method resets loaded data and replays vote journal. Like objects are not read
+	 * here: each GameMode is read in background when it is accessed for the first time,
+	 * see {@link #ensureLoaded(String)}, or by {@link #prewarm()}. Journal votes of these
+	 * GameModes are queued until their objects are installed.
 	 */
 	public void load()
 	{
 		this.likesCache.clear();
+		this.voterIndex.clear();
+		this.gameModeIslands.clear();
+		this.rankIndex.clear();
+		this.loadedGameModes.clear();
+		this.snapshotTaken.clear();
+		this.pendingVotes.clear();
+		this.requestedGameModes.clear();
+
+		// Background read that was started before reload must not be installed.
+		this.backgroundRead = null;
+		this.backgroundGameModes = Collections.emptySet();
+
+		Path snapshot = this.getSnapshotFile();
+		Path marker = this.getSnapshotMarkerFile();
+
+		try
+		{
+			if (!this.addon.getSettings().isBinarySnapshot())
+			{
+				// Snapshot from the time when it was enabled is stale now.
+				Files.deleteIfExists(snapshot);
+				Files.deleteIfExists(marker);
+			}
+			else if (!Files.exists(snapshot))
+			{
+				Files.deleteIfExists(marker);
+			}
+			else if (!LikesSnapshot.isReadable(snapshot))
+			{
+				// Snapshot of older format, or with voter ids of other dictionary.
+				this.addon.log("Likes snapshot cannot be used, loading from database.");
+				Files.deleteIfExists(snapshot);
+				Files.deleteIfExists(marker);
+			}
+			else if (Files.exists(marker))
+			{
+				this.snapshotTaken.addAll(Files.readAllLines(marker, StandardCharsets.UTF_8));
+			}
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not check likes snapshot, loading from database: " + e.getMessage());
+			this.deleteSnapshot();
+		}
 
-		this.sortedLikeCache.clear();
-		this.sortedDislikeCache.clear();
-		this.sortedRankCache.clear();
+		// Apply votes that were not saved before server stopped.
+		if (this.journal != null)
+		{
+			this.journal.replay(this::queueVote);
+		}
+	}
 
-		this.addon.getLogger().info("Loading likes...");
 
-		this.likesDatabase.loadObjects().forEach(this::load);
+	/**
+	 * This method starts background read of all enabled GameModes that are not loaded
+	 * yet. Files or database are read in async thread, and indices are built in the main
+	 * thread after that.
+	 */
+	public void prewarm()
+	{
+		this.requestLoad(this.getPendingGameModes());
 	}
 
 
 	/**
-	 * This method loads given likeObject inside cache.
-	 * @param likesObject Object that must be added to cache.
+	 * This method requests background read of given GameModes that are not loaded yet.
+	 * Requests are collected till next tick and read together, and requests that come
+	 * while other read is running are read after it, so database is read only once for
+	 * all of them.
+	 * @param gameModes GameMode addon names.
 	 */
-	private void load(LikesObject likesObject)
+	private void requestLoad(Set<String> gameModes)
 	{
-		// Add object into Island to LikeObject cache.
-		this.likesCache.put(likesObject.getUniqueId(), likesObject);
+		gameModes.stream().
+			filter(gameMode -> gameMode != null && !this.loadedGameModes.contains(gameMode)).
+			filter(gameMode -> this.backgroundRead == null || !this.backgroundGameModes.contains(gameMode)).
+			forEach(this.requestedGameModes::add);
 
-		// Add object into GameMode to sorted by likes cache.
-		this.sortedLikeCache.computeIfAbsent(likesObject.getGameMode(),
-			gameMode -> new IndexedTreeSet<>(Comparator.comparing(LikesObject::getLikes).reversed().
-				thenComparing(LikesObject::getDislikes).
-				thenComparing(LikesObject::getUniqueId))).add(likesObject);
+		if (!this.requestedGameModes.isEmpty() && this.backgroundRead == null && !this.readScheduled)
+		{
+			this.readScheduled = true;
 
-		// Add object into GameMode to sorted by dislikes cache.
-		this.sortedDislikeCache.computeIfAbsent(likesObject.getGameMode(),
-			gameMode -> new IndexedTreeSet<>(Comparator.comparing(LikesObject::getDislikes).reversed().
-				thenComparing(LikesObject::getLikes).
-				thenComparing(LikesObject::getUniqueId))).add(likesObject);
+			Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> {
+				this.readScheduled = false;
 
-		// Add object into GameMode to sorted by rank cache.
-		this.sortedRankCache.computeIfAbsent(likesObject.getGameMode(),
-			gameMode -> new IndexedTreeSet<>(Comparator.comparing(LikesObject::getRank).reversed().
-				thenComparing(LikesObject::getLikes).reversed().
-				thenComparing(LikesObject::getDislikes).reversed().
-				thenComparing(LikesObject::getUniqueId))).add(likesObject);
+				if (this.backgroundRead == null && !this.requestedGameModes.isEmpty())
+				{
+					this.startBackgroundRead();
+				}
+			});
+		}
 	}
 
 
+	/**
+	 * This method starts background read of all requested GameModes.
+	 */
+	private void startBackgroundRead()
+	{
+		Set<String> gameModes = new HashSet<>(this.requestedGameModes);
+		this.requestedGameModes.clear();
+
+		Set<String> snapshotGameModes = this.getSnapshotGameModes(gameModes);
+		long start = System.nanoTime();
+
+		CompletableFuture<Map<String, List<LikesObject>>> read = new CompletableFuture<>();
+
+		this.backgroundRead = read;
+		this.backgroundGameModes = gameModes;
+
+		Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () -> {
+			try
+			{
+				read.complete(this.readGameModes(gameModes, snapshotGameModes));
+			}
+			catch (RuntimeException e)
+			{
+				read.completeExceptionally(e);
+			}
+
+			Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> this.installBackgroundRead(read, start));
+		});
+	}
+
 
 	/**
-	 * This method checks if likes object with given UniqueId exist in database.
-	 * If not, it creates new object for that.
-	 *
-	 * @param uniqueID - uniqueID to add
-	 * @param gameMode - gameMode for like object.
+	 * This method installs objects of background read, if it is still current one. It
+	 * waits until read is finished, so it can be used by GameMode that must be loaded
+	 * before its data arrive. GameModes that were requested in the meantime are read
+	 * after that.
+	 * @param read Background read.
+	 * @param start Time in nanoseconds when reading started.
 	 */
-	private LikesObject getIslandLikes(@NonNull String uniqueID, String gameMode)
+	private void installBackgroundRead(CompletableFuture<Map<String, List<LikesObject>>> read, long start)
 	{
-		if (this.likesCache.containsKey(uniqueID))
+		if (this.backgroundRead != read)
 		{
-			return this.likesCache.get(uniqueID);
+			// Read is already installed, or it was started before reload.
+			return;
 		}
 
-		// The player is not in the cache
-		// Check if the player exists in the database
+		this.backgroundRead = null;
+		this.backgroundGameModes = Collections.emptySet();
 
-		if (this.likesDatabase.objectExists(uniqueID))
+		try
 		{
-			// Load player from database
-			LikesObject data = this.likesDatabase.loadObject(uniqueID);
-			// Store in cache
+			this.installGameModes(read.join(), start);
+		}
+		catch (CompletionException | CancellationException e)
+		{
+			this.addon.logError("Could not read likes objects in background: " + e.getMessage());
+		}
+
+		if (!this.requestedGameModes.isEmpty())
+		{
+			this.startBackgroundRead();
+		}
+	}
+
+
+	/**
+	 * This method requests background read of given GameMode, if it is not loaded yet.
+	 * Objects of disabled GameModes are not loaded in bulk, they are loaded one by one
+	 * when island is accessed.
+	 * @param gameMode GameMode addon name.
+	 */
+	private void ensureLoaded(String gameMode)
+	{
+		if (this.isBulkLoaded(gameMode))
+		{
+			this.requestLoad(Collections.singleton(gameMode));
+		}
+	}
 
-			if (data != null)
+
+	/**
+	 * @param gameMode GameMode addon name.
+	 * @return {@code true} if objects of given GameMode are loaded in bulk, {@code false}
+	 * if they are loaded one by one.
+	 */
+	private boolean isBulkLoaded(String gameMode)
+	{
+		return gameMode != null && !this.addon.getSettings().getDisabledGameModes().contains(gameMode);
+	}
+
+
+	/**
+	 * This method loads objects of given GameModes right away, if they are not loaded
+	 * yet, even if GameModes are disabled. GameModes that are read in background wait for
+	 * that read, and GameModes that wait for background read are read together with given
+	 * ones.
+	 * @param gameModes GameMode addon names.
+	 */
+	private void loadGameModes(Set<String> gameModes)
+	{
+		Set<String> missing = gameModes.stream().
+			filter(gameMode -> gameMode != null && !this.loadedGameModes.contains(gameMode)).
+			collect(Collectors.toSet());
+
+		long start = System.nanoTime();
+
+		while (this.backgroundRead != null && missing.stream().anyMatch(this.backgroundGameModes::contains))
+		{
+			this.installBackgroundRead(this.backgroundRead, start);
+			missing.removeAll(this.loadedGameModes);
+		}
+
+		if (missing.isEmpty())
+		{
+			return;
+		}
+
+		Set<String> readGameModes = new HashSet<>(missing);
+		readGameModes.addAll(this.requestedGameModes);
+		this.requestedGameModes.clear();
+
+		this.installGameModes(this.readGameModes(readGameModes, this.getSnapshotGameModes(readGameModes)), start);
+	}
+
+
+	/**
+	 * @return Enabled GameModes which objects are not loaded.
+	 */
+	private Set<String> getPendingGameModes()
+	{
+		return this.addon.getPlugin().getAddonsManager().getGameModeAddons().stream().
+			map(gameModeAddon -> gameModeAddon.getDescription().getName()).
+			filter(gameMode -> !this.loadedGameModes.contains(gameMode)).
+			filter(this::isBulkLoaded).
+			collect(Collectors.toSet());
+	}
+
+
+	/**
+	 * This method reads objects of given GameModes. Objects are read from binary snapshot
+	 * if it is valid for GameMode, otherwise from database. It does not change manager
+	 * state, so it can be called from async thread.
+	 * @param gameModes GameModes which objects must be read.
+	 * @param snapshotGameModes GameModes which objects can be read from snapshot.
+	 * @return Map that links each of given GameModes to its objects.
+	 */
+	private Map<String, List<LikesObject>> readGameModes(Set<String> gameModes, Set<String> snapshotGameModes)
+	{
+		Map<String, List<LikesObject>> gameModeObjects = new HashMap<>();
+		gameModes.forEach(gameMode -> gameModeObjects.put(gameMode, new ArrayList<>()));
+
+		Set<String> databaseGameModes = new HashSet<>(gameModes);
+
+		if (!snapshotGameModes.isEmpty())
+		{
+			try
 			{
-				this.load(data);
+				LikesSnapshot.readParallel(this.getSnapshotFile(), snapshotGameModes::contains).forEach(likesObject ->
+					gameModeObjects.get(likesObject.getGameMode()).add(likesObject));
+
+				databaseGameModes.removeAll(snapshotGameModes);
 			}
-			else
+			catch (IOException | RuntimeException e)
 			{
-				this.addon.logError("Could not load NULL likes data object.");
+				this.addon.logError("Could not read likes snapshot, loading from database: " + e.getMessage());
+				snapshotGameModes.forEach(gameMode -> gameModeObjects.get(gameMode).clear());
 			}
+		}
 
-			return data;
+		if (!databaseGameModes.isEmpty())
+		{
+			// Database cannot be queried by GameMode, so objects of other GameModes are
+			// dropped right after they are read. They are read again when they are needed.
+			this.likesDatabase.loadObjects().stream().
+				filter(likesObject -> databaseGameModes.contains(likesObject.getGameMode())).
+				forEach(likesObject -> gameModeObjects.get(likesObject.getGameMode()).add(likesObject));
 		}
-		else
+
+		return gameModeObjects;
+	}
+
+
+	/**
+	 * This method adds read objects to cache and builds orderings of their GameModes in
+	 * bulk on fork-join pool. Objects that were loaded one by one before are kept and
+	 * indexed again together with read objects. Queued journal votes of these GameModes
+	 * are applied after that. GameModes that were loaded in the meantime are skipped.
+	 * Duration of each phase is logged.
+	 * @param gameModeObjects Map that links GameModes to their objects.
+	 * @param start Time in nanoseconds when reading started.
+	 */
+	private void installGameModes(Map<String, List<LikesObject>> gameModeObjects, long start)
+	{
+		gameModeObjects.keySet().removeIf(this.loadedGameModes::contains);
+
+		if (gameModeObjects.isEmpty())
 		{
-			// Create the likes data
-			LikesObject likesObject = new LikesObject();
-			likesObject.setUniqueId(uniqueID);
-			likesObject.setGameMode(gameMode);
+			return;
+		}
 
-			this.likesDatabase.saveObject(likesObject);
-			// Add to cache
-			this.load(likesObject);
+		long readTime = System.nanoTime();
 
-			return likesObject;
+		// Database gets changes of these GameModes from now on, so their snapshot sections
+		// become stale.
+		this.markSnapshotTaken(gameModeObjects.keySet());
+		this.loadedGameModes.addAll(gameModeObjects.keySet());
+
+		int count = 0;
+		List<LikesObject> newObjects = new ArrayList<>();
+
+		for (Map.Entry<String, List<LikesObject>> entry : gameModeObjects.entrySet())
+		{
+			Map<String, LikesObject> uniqueObjects = new LinkedHashMap<>();
+
+			// Duplicate id, the last object wins.
+			entry.getValue().forEach(likesObject -> uniqueObjects.put(likesObject.getUniqueId(), likesObject));
+			// Objects that are already in cache were loaded one by one, and may be newer.
+			uniqueObjects.keySet().removeIf(this.likesCache::containsKey);
+
+			this.likesCache.putAll(uniqueObjects);
+			newObjects.addAll(uniqueObjects.values());
+
+			Set<String> islands = this.gameModeIslands.computeIfAbsent(entry.getKey(), key -> new HashSet<>());
+			islands.addAll(uniqueObjects.keySet());
+
+			// Index is built again in bulk with objects that were loaded one by one.
+			this.rankIndex.removeGameMode(entry.getKey());
+			entry.setValue(islands.stream().map(this.likesCache::get).collect(Collectors.toList()));
+			count += islands.size();
 		}
+
+		// History that was stored inside objects is moved to history store before time
+		// window and trending counters are restored from objects.
+		newObjects.forEach(this::migrateHistory);
+
+		this.rankIndex.addAll(gameModeObjects);
+		newObjects.forEach(this.voterIndex::add);
+
+		// Votes from journal can be applied only when objects are loaded.
+		this.pendingVotes.entrySet().stream().
+			filter(entry -> gameModeObjects.containsKey(entry.getValue().get(0).gameMode)).
+			map(Map.Entry::getKey).
+			collect(Collectors.toList()).
+			forEach(this::applyPendingVotes);
+
+		long indexTime = System.nanoTime();
+
+		this.addon.log("Loaded " + count + " likes objects of " + String.join(", ", gameModeObjects.keySet()) +
+			" in " + millis(start, indexTime) +
+			" ms (read: " + millis(start, readTime) +
+			" ms, index: " + millis(readTime, indexTime) + " ms).");
 	}
 
 
 	/**
-	 * This method returns Island Likes Object from cache or create new one.
-	 * @param islandId IslandId which LikesObject must be returned.
-	 * @param world Target world.
-	 * @return Likes Object for given island.
+	 * @param gameModes GameModes that must be read.
+	 * @return GameModes from given set which objects can be read from binary snapshot.
 	 */
-	public LikesObject getIslandLikes(String islandId, World world)
+	private Set<String> getSnapshotGameModes(Set<String> gameModes)
 	{
-		return this.getIslandLikes(islandId, Utils.getGameMode(world));
+		if (!this.addon.getSettings().isBinarySnapshot() || !Files.exists(this.getSnapshotFile()))
+		{
+			return Collections.emptySet();
+		}
+
+		Set<String> snapshotGameModes = new HashSet<>(gameModes);
+		snapshotGameModes.removeAll(this.snapshotTaken);
+
+		return snapshotGameModes;
 	}
 
 
 	/**
-	 * This method returns Island Likes Object from cache or create new one.
-	 * @param islandId IslandId which LikesObject must be returned.
-	 * @param gameModeAddon Target GameMode addon.
-	 * @return Likes Object for given island.
+	 * This method writes given GameModes to snapshot marker file. Sections of these
+	 * GameModes are not read from snapshot any more, because database may contain newer
+	 * data. If marker cannot be written, whole snapshot is deleted.
+	 * @param gameModes GameModes which objects are changed outside snapshot.
 	 */
-	public LikesObject getIslandLikes(String islandId, GameModeAddon gameModeAddon)
+	private void markSnapshotTaken(Set<String> gameModes)
 	{
-		return this.getIslandLikes(islandId, gameModeAddon.getDescription().getName());
+		if (!this.addon.getSettings().isBinarySnapshot() || !Files.exists(this.getSnapshotFile()))
+		{
+			return;
+		}
+
+		List<String> newGameModes = gameModes.stream().
+			filter(gameMode -> gameMode != null && !this.snapshotTaken.contains(gameMode)).
+			collect(Collectors.toList());
+
+		if (newGameModes.isEmpty())
+		{
+			return;
+		}
+
+		try
+		{
+			Files.write(this.getSnapshotMarkerFile(),
+				newGameModes,
+				StandardCharsets.UTF_8,
+				StandardOpenOption.CREATE,
+				StandardOpenOption.APPEND);
+
+			this.snapshotTaken.addAll(newGameModes);
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not write likes snapshot marker, snapshot is deleted: " + e.getMessage());
+			this.deleteSnapshot();
+		}
 	}
 
 
 	/**
-	 * This method skips creating new island objects and return existing ones.
-	 * @param uniqueId Island Unique ID.
-	 * @return Likes Object for current island or null.
+	 * This method deletes binary snapshot and its marker, so all objects are read from
+	 * database.
 	 */
-	public LikesObject getExistingIslandLikes(String uniqueId)
+	private void deleteSnapshot()
 	{
-		return this.likesCache.getOrDefault(uniqueId, null);
+		try
+		{
+			Files.deleteIfExists(this.getSnapshotFile());
+			Files.deleteIfExists(this.getSnapshotMarkerFile());
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not delete likes snapshot: " + e.getMessage());
+		}
 	}
 
 
-// ---------------------------------------------------------------------
-// Section: Save methods
-// ---------------------------------------------------------------------
+	/**
+	 * @param from Start time in nanoseconds.
+	 * @param to End time in nanoseconds.
+	 * @return Duration in milliseconds.
+	 */
+	private static long millis(long from, long to)
+	{
+		return (to - from) / 1_000_000L;
+	}
 
 
 	/**
-	 * This method saves all cached values into database.
+	 * This method loads given likeObject inside cache.
+	 * @param likesObject Object that must be added to cache.
 	 */
-	public void save()
+	private void load(LikesObject likesObject)
 	{
-		this.likesCache.values().forEach(this.likesDatabase::saveObject);
-	}
+		// Add object into Island to LikeObject cache.
+		this.likesCache.put(likesObject.getUniqueId(), likesObject);
+		this.gameModeIslands.computeIfAbsent(likesObject.getGameMode(), gameMode -> new HashSet<>()).
+			add(likesObject.getUniqueId());
 
+		this.migrateHistory(likesObject);
 
-// ---------------------------------------------------------------------
-// Section: Wipe methods
-// ---------------------------------------------------------------------
+		// Add object into GameMode sorted caches. Time window and trending counters are
+		// restored from object.
+		this.rankIndex.add(likesObject);
+		this.voterIndex.add(likesObject);
+
+		// Votes from journal must be applied before object gets any new vote.
+		this.applyPendingVotes(likesObject.getUniqueId());
+	}
 
 
 	/**
-	 * This method removes all data from database that referee to given world.
+	 * This method returns time of the oldest like which weight in trending score still
+	 * matters. Times of older likes are not stored.
+	 * @return Time in milliseconds.
 	 */
-	public void wipeData(World world)
+	private long getOldestLikeTime()
 	{
-		String gameMode = Utils.getGameMode(world);
-
-		// Empty sorted cache
-		this.sortedLikeCache.remove(gameMode);
-		this.sortedDislikeCache.remove(gameMode);
-		this.sortedRankCache.remove(gameMode);
-
-		// Remove from database
-		this.likesDatabase.loadObjects().stream().
-			filter(likesObject -> gameMode.equalsIgnoreCase(likesObject.getGameMode())).
-			forEach(likesObject -> {
-				this.likesDatabase.deleteObject(likesObject);
-				this.likesCache.remove(likesObject.getUniqueId());
-			});
+		return System.currentTimeMillis() -
+			(long) (this.addon.getSettings().getTrendingHalfLife() * MILLIS_PER_HOUR * TRENDING_HALF_LIVES);
 	}
 
-// ---------------------------------------------------------------------
-// Section: Like Methods
-// ---------------------------------------------------------------------
-
 
 	/**
-	 * This method adds like from given user to target island, in given world.
-	 * @param user User who adds like.
-	 * @param island Island which receive like.
-	 * @param world World where island is located.
+	 * This method counts likes from history that older versions stored inside likes
+	 * object into its daily like counters and like times, so time windows and trending
+	 * score are not lost when object is migrated. Old entries may store player name
+	 * instead of UUID, and such likes are counted only in time windows.
+	 * @param likesObject Object which counters must be changed.
+	 * @param history History entries of object.
 	 */
-	public void addLike(User user, Island island, World world)
+	private void countHistoryLikes(LikesObject likesObject, List<LogEntry> history)
 	{
-		String gameMode = Utils.getGameMode(world);
-		LikesObject object = this.getIslandLikes(island.getUniqueId(), gameMode);
+		ZoneId zone = ZoneId.systemDefault();
+		long firstDay = LocalDate.now().toEpochDay() - MONTH_DAYS + 1;
+		long oldestLike = this.getOldestLikeTime();
 
-		if (!object.hasLiked(user.getUniqueId()))
+		for (LogEntry entry : history)
 		{
-			object.addLike(user.getUniqueId());
+			int delta = "ADD_LIKE".equals(entry.getType()) ? 1 : "REMOVE_LIKE".equals(entry.getType()) ? -1 : 0;
 
-			// Log history
-			if (this.addon.getSettings().isLogHistory())
+			if (delta == 0)
 			{
-				object.addLogRecord(new LogEntry.Builder("ADD_LIKE").
-					data("user-id", user.toString()).
-					build());
+				continue;
 			}
 
-			String name = island.getName() == null || island.getName().isEmpty() ?
-				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
-
-			user.sendMessage(user.getTranslation(Constants.MESSAGE + "add-like", "[island]", name));
+			long day = Instant.ofEpochMilli(entry.getTimestamp()).atZone(zone).toLocalDate().toEpochDay();
 
-			// Send message to users
-			if (this.addon.getSettings().isInformPlayers())
+			if (day >= firstDay)
 			{
-				island.getMemberSet().stream().
-					map(User::getInstance).
-					filter(User::isOnline).
-					forEach(member -> member.sendMessage(
-						member.getTranslation(Constants.MESSAGE + "player-add-like", "[user]", user.getName())));
+				likesObject.addDailyLikes(day, delta, firstDay);
 			}
 
-			// Fire event
-			this.addon.callEvent(new LikeAddEvent(user.getUniqueId(), island.getUniqueId()));
+			Object value = entry.getData() == null ? null : entry.getData().get("user-id");
+
+			try
+			{
+				UUID voter = value == null ? null : UUID.fromString(value.toString());
+
+				if (voter != null && delta > 0)
+				{
+					likesObject.setLikeTime(voter, entry.getTimestamp(), oldestLike);
+				}
+				else if (voter != null)
+				{
+					likesObject.removeLikeTime(voter);
+				}
+			}
+			catch (IllegalArgumentException e)
+			{
+				// Player name instead of UUID.
+			}
 		}
 	}
 
 
 	/**
-	 * This method removes like from given user to target island, in given world.
-	 * @param user User who removes like.
-	 * @param island Island which lost like.
-	 * @param world World where island is located.
+	 * This method moves history that older versions stored inside likes object to history
+	 * store, and counts its likes into daily like counters and like times of object. It
+	 * must be called before object is indexed. Object is saved without history with next
+	 * flush.
+	 * @param likesObject Object which history must be moved.
 	 */
-	public void removeLike(User user, Island island, World world)
+	private void migrateHistory(LikesObject likesObject)
 	{
-		String gameMode = Utils.getGameMode(world);
-		LikesObject object = this.getIslandLikes(island.getUniqueId(), gameMode);
+		List<LogEntry> history = likesObject.getHistory();
 
-		if (object.hasLiked(user.getUniqueId()))
+		if (history == null || history.isEmpty())
 		{
-			object.removeLike(user.getUniqueId());
+			return;
+		}
 
-			// Log history
-			if (this.addon.getSettings().isLogHistory())
-			{
-				object.addLogRecord(new LogEntry.Builder("REMOVE_LIKE").
-					data("user-id", user.toString()).
-					build());
-			}
+		history.forEach(entry ->
+			this.historyStore.append(likesObject.getUniqueId(), likesObject.getGameMode(), entry));
 
-			String name = island.getName() == null || island.getName().isEmpty() ?
-				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+		this.countHistoryLikes(likesObject, history);
+		likesObject.setHistory(new LinkedList<>());
+		this.writeBehind.markDirty(likesObject);
+	}
 
-			user.sendMessage(user.getTranslation(Constants.MESSAGE + "remove-like", "[island]", name));
 
-			// Send message to users
-			if (this.addon.getSettings().isInformPlayers())
-			{
-				island.getMemberSet().stream().
-					map(User::getInstance).
-					filter(User::isOnline).
-					forEach(member -> member.sendMessage(
-						member.getTranslation(Constants.MESSAGE + "player-remove-like", "[user]", user.getName())));
-			}
+	/**
+	 * This method applies vote from journal to island, or queues it until objects of its
+	 * GameMode are loaded. GameMode that has queued votes is read in background.
+	 * @param operation Vote operation.
+	 * @param islandId Island id.
+	 * @param gameMode GameMode of island, or empty string.
+	 * @param voter Player who voted.
+	 * @param time Vote time in milliseconds.
+	 * @param sequence Journal sequence of vote, or 0 if it is not known.
+	 */
+	private void queueVote(VoteJournal.Operation operation,
+		String islandId,
+		String gameMode,
+		UUID voter,
+		long time,
+		long sequence)
+	{
+		String voteGameMode = gameMode.isEmpty() ? null : gameMode;
 
-			// Fire event
-			this.addon.callEvent(new LikeRemoveEvent(user.getUniqueId(), island.getUniqueId()));
+		if (!this.isBulkLoaded(voteGameMode) || this.loadedGameModes.contains(voteGameMode))
+		{
+			this.replayVote(operation, islandId, voteGameMode, voter, time, sequence);
+			return;
 		}
+
+		this.pendingVotes.computeIfAbsent(islandId, id -> new ArrayList<>()).
+			add(new PendingVote(operation, voteGameMode, voter, time, sequence));
+		this.requestLoad(Collections.singleton(voteGameMode));
+	}
+
+
+	/**
+	 * This method applies queued journal votes of given island in order they were
+	 * written.
+	 * @param islandId Island id.
+	 */
+	private void applyPendingVotes(String islandId)
+	{
+		List<PendingVote> votes = this.pendingVotes.remove(islandId);
+
+		if (votes != null)
+		{
+			votes.forEach(vote -> this.replayVote(vote.operation,
+				islandId,
+				vote.gameMode,
+				vote.voter,
+				vote.time,
+				vote.sequence));
+		}
+	}
+
+
+	/**
+	 * This method applies vote from journal to island. Records which sequence is not
+	 * newer than sequence stored in saved island data are already applied and skipped.
+	 * Messages, events and history are not repeated. Time windows and trending score are
+	 * counted with original vote time.
+	 * @param operation Vote operation.
+	 * @param islandId Island id.
+	 * @param gameMode GameMode of island, or null.
+	 * @param voter Player who voted.
+	 * @param time Vote time in milliseconds.
+	 * @param sequence Journal sequence of vote, or 0 if it is not known.
+	 */
+	private void replayVote(VoteJournal.Operation operation,
+		String islandId,
+		String gameMode,
+		UUID voter,
+		long time,
+		long sequence)
+	{
+		LikesObject object = this.getOrCreateIslandLikes(islandId, gameMode);
+
+		if (sequence > 0 && sequence <= object.getJournalSequence())
+		{
+			return;
+		}
+
+		switch (operation)
+		{
+			case ADD_LIKE:
+				this.addVote(object, voter, Vote.LIKE, time);
+				break;
+			case REMOVE_LIKE:
+				this.removeVote(object, voter, Vote.LIKE, time);
+				break;
+			case ADD_DISLIKE:
+				this.addVote(object, voter, Vote.DISLIKE, time);
+				break;
+			case REMOVE_DISLIKE:
+				this.removeVote(object, voter, Vote.DISLIKE, time);
+				break;
+			case RESET:
+				this.clearVotes(object);
+				break;
+		}
+
+		object.setJournalSequence(Math.max(object.getJournalSequence(), sequence));
+		this.writeBehind.markDirty(object);
+	}
+
+
+	/**
+	 * This method moves daily, weekly and monthly tops to current day. It is called
+	 * periodically by scheduler, and does work only when day changes.
+	 */
+	public void updateTimeWindows()
+	{
+		this.rankIndex.rotateWindows(LocalDate.now().toEpochDay());
+	}
+
+
+
+	/**
+	 * This method returns existing likes object with given UniqueId. Cache contains all
+	 * objects of loaded GameModes, so database is checked only for GameModes that are not
+	 * loaded in bulk or not loaded yet. Object that is read from database stays in cache.
+	 *
+	 * @param uniqueID - uniqueID of island.
+	 * @param gameMode - gameMode for like object.
+	 * @return Likes object or null if island does not have likes data.
+	 */
+	private LikesObject findIslandLikes(@NonNull String uniqueID, String gameMode)
+	{
+		this.ensureLoaded(gameMode);
+
+		LikesObject likesObject = this.likesCache.get(uniqueID);
+
+		if (likesObject != null || this.loadedGameModes.contains(gameMode))
+		{
+			return likesObject;
+		}
+
+		// The island is not in the cache
+		// Check if the island exists in the database
+
+		if (this.likesDatabase.objectExists(uniqueID))
+		{
+			// Load island from database
+			likesObject = this.likesDatabase.loadObject(uniqueID);
+			// Store in cache
+
+			if (likesObject != null)
+			{
+				this.load(likesObject);
+			}
+			else
+			{
+				this.addon.logError("Could not load NULL likes data object.");
+			}
+		}
+
+		return likesObject;
+	}
+
+
+	/**
+	 * This method returns existing likes object with given UniqueId, or creates new one.
+	 * It must be used only by methods that change object, so islands that are only viewed
+	 * do not get empty objects in database.
+	 *
+	 * @param uniqueID - uniqueID of island.
+	 * @param gameMode - gameMode for like object.
+	 * @return Likes object for given island.
+	 */
+	private LikesObject getOrCreateIslandLikes(@NonNull String uniqueID, String gameMode)
+	{
+		LikesObject likesObject = this.findIslandLikes(uniqueID, gameMode);
+
+		if (!this.loadedGameModes.contains(gameMode))
+		{
+			// Object of disabled GameMode is changed in database outside snapshot.
+			this.markSnapshotTaken(Collections.singleton(gameMode));
+		}
+
+		if (likesObject == null)
+		{
+			// Create the likes data
+			likesObject = new LikesObject();
+			likesObject.setUniqueId(uniqueID);
+			likesObject.setGameMode(gameMode);
+
+			this.writeBehind.markDirty(likesObject);
+			// Add to cache
+			this.load(likesObject);
+		}
+
+		return likesObject;
+	}
+
+
+	/**
+	 * This method returns Island Likes Object from cache. Islands without likes data get
+	 * shared read-only object with zero values, that is not stored anywhere.
+	 * @param islandId IslandId which LikesObject must be returned.
+	 * @param world Target world.
+	 * @return Likes Object for given island.
+	 */
+	public LikesObject getIslandLikes(String islandId, World world)
+	{
+		return this.getIslandLikes(islandId, Utils.getGameMode(world));
+	}
+
+
+	/**
+	 * This method returns Island Likes Object from cache. Islands without likes data get
+	 * shared read-only object with zero values, that is not stored anywhere.
+	 * @param islandId IslandId which LikesObject must be returned.
+	 * @param gameModeAddon Target GameMode addon.
+	 * @return Likes Object for given island.
+	 */
+	public LikesObject getIslandLikes(String islandId, GameModeAddon gameModeAddon)
+	{
+		return this.getIslandLikes(islandId, gameModeAddon.getDescription().getName());
+	}
+
+
+	/**
+	 * This method returns Island Likes Object from cache or read-only empty object.
+	 * Islands of GameMode that is being read in background are shown from cache, so they
+	 * are empty until GameMode is loaded, unless they were changed in the meantime.
+	 * @param islandId IslandId which LikesObject must be returned.
+	 * @param gameMode Target GameMode addon name.
+	 * @return Likes Object for given island.
+	 */
+	private LikesObject getIslandLikes(String islandId, String gameMode)
+	{
+		LikesObject likesObject;
+
+		if (this.isBulkLoaded(gameMode) && !this.loadedGameModes.contains(gameMode))
+		{
+			this.ensureLoaded(gameMode);
+			likesObject = this.likesCache.get(islandId);
+		}
+		else
+		{
+			likesObject = this.findIslandLikes(islandId, gameMode);
+		}
+
+		return likesObject != null ? likesObject : this.emptyViews.computeIfAbsent(gameMode, LikesObject::emptyView);
+	}
+
+
+	/**
+	 * This method returns Island Likes Object from cache or creates new one. It must be
+	 * used when object is going to be changed, f.e. by admin.
+	 * @param islandId IslandId which LikesObject must be returned.
+	 * @param world Target world.
+	 * @return Likes Object for given island.
+	 */
+	public LikesObject getOrCreateIslandLikes(String islandId, World world)
+	{
+		return this.getOrCreateIslandLikes(islandId, Utils.getGameMode(world));
+	}
+
+
+	/**
+	 * This method skips creating new island objects and return existing ones.
+	 * @param uniqueId Island Unique ID.
+	 * @return Likes Object for current island or null.
+	 */
+	public LikesObject getExistingIslandLikes(String uniqueId)
+	{
+		return this.likesCache.getOrDefault(uniqueId, null);
+	}
+
+
+	/**
+	 * This method skips creating new island objects and return existing ones. GameMode
+	 * of given world is read in background, if it is not loaded yet, and only cached
+	 * islands are returned until it is loaded.
+	 * @param uniqueId Island Unique ID.
+	 * @param world World where island is located.
+	 * @return Likes Object for current island or null.
+	 */
+	public LikesObject getExistingIslandLikes(String uniqueId, World world)
+	{
+		this.ensureLoaded(Utils.getGameMode(world));
+		return this.getExistingIslandLikes(uniqueId);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Save methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method saves objects that were changed since previous flush. Objects are
+	 * copied in current thread and written to database in background. Vote journal
+	 * written before this call is deleted when database confirms the save.
+	 */
+	public void flush()
+	{
+		if (this.journal == null || !this.pendingVotes.isEmpty())
+		{
+			// Journal segments with queued votes are kept until votes are applied.
+			this.writeBehind.flush();
+		}
+		else
+		{
+			// Journal segments are needed only until flushed objects are saved.
+			List<Path> segments = this.journal.rotate();
+			this.writeBehind.flush(segments.isEmpty() ? null : () -> this.journal.delete(segments));
+		}
+	}
+
+
+	/**
+	 * This method saves all changed objects into database and waits until they are
+	 * written. If binary snapshot is enabled, objects of loaded GameModes are also written
+	 * to snapshot that is used on next start, and valid sections of GameModes that were
+	 * not loaded are copied from previous snapshot. It must be called only when addon is
+	 * disabled.
+	 */
+	public void save()
+	{
+		if (this.journal == null)
+		{
+			this.writeBehind.close(null);
+		}
+		else
+		{
+			List<Path> segments = this.journal.rotate();
+
+			// Queued votes are replayed from journal again on next start.
+			this.writeBehind.close(segments.isEmpty() || !this.pendingVotes.isEmpty() ?
+				null : () -> this.journal.delete(segments));
+		}
+
+		this.historyStore.close();
+
+		if (this.addon.getSettings().isBinarySnapshot())
+		{
+			Path snapshot = this.getSnapshotFile();
+
+			List<LikesObject> loadedObjects = this.likesCache.values().stream().
+				filter(likesObject -> this.loadedGameModes.contains(likesObject.getGameMode())).
+				collect(Collectors.toList());
+
+			try
+			{
+				// Snapshot stores voter ids, so dictionary must contain all of them.
+				VoterDictionary.getInstance().save(this.getVoterDictionaryFile());
+				LikesSnapshot.write(snapshot, loadedObjects, snapshot, gameMode ->
+					!this.loadedGameModes.contains(gameMode) && !this.snapshotTaken.contains(gameMode));
+				Files.deleteIfExists(this.getSnapshotMarkerFile());
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not write likes snapshot: " + e.getMessage());
+			}
+		}
+	}
+
+
+	/**
+	 * @return Path to binary snapshot file.
+	 */
+	private Path getSnapshotFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(SNAPSHOT_FILE);
+	}
+
+
+	/**
+	 * @return Path to voter dictionary file.
+	 */
+	private Path getVoterDictionaryFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(VOTER_DICTIONARY_FILE);
+	}
+
+
+	/**
+	 * @return Path to file that lists GameModes which snapshot sections are stale.
+	 */
+	private Path getSnapshotMarkerFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(SNAPSHOT_MARKER_FILE);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Wipe methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method removes all data from database that referee to given world.
+	 * @param world World which GameMode data must be removed.
+	 */
+	public void wipeData(World world)
+	{
+		this.wipeData(world, null);
+	}
+
+
+	/**
+	 * This method removes all data from database that referee to given world. Islands are
+	 * removed from memory right away, and database objects are deleted in background in
+	 * batches. If GameMode is not loaded, its objects are read from database by the same
+	 * background task that deletes them, so main thread is not blocked. Given user is
+	 * informed about deletion progress.
+	 * @param world World which GameMode data must be removed.
+	 * @param user User who wipes data, or null.
+	 */
+	public void wipeData(World world, User user)
+	{
+		String gameMode = Utils.getGameMode(world);
+		boolean loaded = this.loadedGameModes.contains(gameMode);
+
+		// Empty sorted cache
+		this.rankIndex.removeGameMode(gameMode);
+
+		Set<String> islands = this.gameModeIslands.remove(gameMode);
+
+		List<LikesObject> wipedObjects = islands == null ? Collections.emptyList() :
+			islands.stream().
+				map(this.likesCache::remove).
+				filter(Objects::nonNull).
+				collect(Collectors.toList());
+
+		wipedObjects.forEach(this.voterIndex::remove);
+
+		// Wiped data cannot come back from snapshot section.
+		this.markSnapshotTaken(Collections.singleton(gameMode));
+
+		if (!loaded)
+		{
+			// GameMode is marked as loaded and empty, so requested or running background
+			// read does not install wiped objects, and islands are not read one by one
+			// from database while they are being deleted.
+			this.loadedGameModes.add(gameMode);
+			this.requestedGameModes.remove(gameMode);
+
+			// Queued journal votes belong to wiped islands.
+			this.pendingVotes.values().removeIf(votes -> gameMode.equals(votes.get(0).gameMode));
+		}
+
+		if (user == null)
+		{
+			// Remove from database
+			if (loaded)
+			{
+				this.writeBehind.delete(wipedObjects);
+			}
+			else
+			{
+				this.writeBehind.deleteStored(likesObject -> gameMode.equals(likesObject.getGameMode()), null, null);
+			}
+
+			return;
+		}
+
+		if (loaded)
+		{
+			int total = wipedObjects.size();
+
+			this.sendWipeStarted(user, total);
+
+			if (total > 0)
+			{
+				// Remove from database
+				this.writeBehind.delete(wipedObjects, this.getWipeProgress(user, total));
+			}
+		}
+		else
+		{
+			AtomicReference<IntConsumer> progress = new AtomicReference<>();
+
+			// Remove from database
+			this.writeBehind.deleteStored(likesObject -> gameMode.equals(likesObject.getGameMode()),
+				total -> {
+					progress.set(this.getWipeProgress(user, total));
+					Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> this.sendWipeStarted(user, total));
+				},
+				deleted -> progress.get().accept(deleted));
+		}
+	}
+
+
+	/**
+	 * This method informs user that wipe is started, or that it is finished if there is
+	 * nothing to delete.
+	 * @param user User who wipes data.
+	 * @param total Number of objects that will be deleted.
+	 */
+	private void sendWipeStarted(User user, int total)
+	{
+		if (!user.isOnline())
+		{
+			return;
+		}
+
+		user.sendMessage(user.getTranslation(Constants.MESSAGE + "wipe-started",
+			"[number]", String.valueOf(total)));
+
+		if (total == 0)
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "wipe-finished"));
+		}
+	}
+
+
+	/**
+	 * This method returns callback that informs user about wipe progress. Progress is
+	 * reported only when next step is reached, not after each batch.
+	 * @param user User who wipes data.
+	 * @param total Number of objects that will be deleted.
+	 * @return Callback that receives number of deleted objects in background thread.
+	 */
+	private IntConsumer getWipeProgress(User user, int total)
+	{
+		AtomicInteger reportedStep = new AtomicInteger();
+
+		return deleted -> {
+			int step = (int) ((long) deleted * WIPE_PROGRESS_STEPS / total);
+
+			if (step > reportedStep.getAndSet(step))
+			{
+				Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> {
+					if (!user.isOnline())
+					{
+						return;
+					}
+
+					if (deleted == total)
+					{
+						user.sendMessage(user.getTranslation(Constants.MESSAGE + "wipe-finished"));
+					}
+					else
+					{
+						user.sendMessage(user.getTranslation(Constants.MESSAGE + "wipe-progress",
+							"[number]", String.valueOf(deleted),
+							"[total]", String.valueOf(total)));
+					}
+				});
+			}
+		};
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Migration methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method exports likes objects of all islands into export file, that can be
+	 * imported after database type is changed. Island ids are collected in the main
+	 * thread, and objects are exported in slices of save batch size sorted by id. Cached
+	 * objects are copied in the main thread, and objects of GameModes that are not loaded
+	 * are read from database one by one, as database cannot be read in pages. Likes data
+	 * of islands that do not exist any more are exported only if their GameMode is
+	 * loaded. Changed objects are flushed first, and export is started in separate async
+	 * thread after they are saved, so export contains every change until this call and
+	 * votes are saved meanwhile. Slices are written to file right away, and last exported
+	 * id is stored in checkpoint file after each slice, so interrupted export continues
+	 * from it when it is started again.
+	 * @param user User who exports data.
+	 */
+	public void exportData(User user)
+	{
+		if (this.migrationRunning)
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "migration-running"));
+			return;
+		}
+
+		Path exportFile = this.getExportFile();
+		ExportCheckpoint checkpoint = this.readExportCheckpoint();
+
+		this.migrationRunning = true;
+
+		if (checkpoint == null)
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "export-started"));
+		}
+		else
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "export-resumed",
+				"[number]", String.valueOf(checkpoint.count)));
+		}
+
+		NavigableMap<String, String> islandGameModes = this.getExportedIslands();
+
+		if (checkpoint != null)
+		{
+			islandGameModes = islandGameModes.tailMap(checkpoint.lastId, false);
+		}
+
+		NavigableMap<String, String> exportedIslands = islandGameModes;
+
+		this.flush();
+
+		this.writeBehind.execute(() -> Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () -> {
+			int count = -1;
+
+			try
+			{
+				count = this.exportObjects(exportFile, exportedIslands, checkpoint);
+				// Old checkpoints belong to previous export file.
+				Files.deleteIfExists(this.getImportCheckpointFile());
+				Files.deleteIfExists(this.getExportCheckpointFile());
+			}
+			catch (IOException | RuntimeException e)
+			{
+				this.addon.logError("Could not export likes data: " + e.getMessage());
+				count = -1;
+			}
+
+			int exported = count;
+
+			Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> {
+				this.migrationRunning = false;
+
+				if (exported < 0)
+				{
+					this.sendMigrationMessage(user, "export-failed");
+				}
+				else
+				{
+					this.addon.log("Exported " + exported + " likes objects to " + exportFile + ".");
+					this.sendMigrationMessage(user, "export-finished", "[number]", String.valueOf(exported));
+				}
+			});
+		}));
+	}
+
+
+	/**
+	 * This method collects ids of islands which likes objects must be exported. They are
+	 * cached islands, and islands of GameModes that are not loaded.
+	 * @return Sorted map that links island ids to their GameModes.
+	 */
+	private NavigableMap<String, String> getExportedIslands()
+	{
+		NavigableMap<String, String> islandGameModes = new TreeMap<>();
+
+		this.gameModeIslands.forEach((gameMode, islands) ->
+			islands.forEach(islandId -> islandGameModes.put(islandId, gameMode)));
+
+		Map<World, String> worldGameModes = new HashMap<>();
+
+		this.addon.getPlugin().getAddonsManager().getGameModeAddons().stream().
+			filter(gameModeAddon -> !this.loadedGameModes.contains(Utils.getGameMode(gameModeAddon))).
+			forEach(gameModeAddon -> worldGameModes.put(gameModeAddon.getOverWorld(), Utils.getGameMode(gameModeAddon)));
+
+		if (!worldGameModes.isEmpty())
+		{
+			this.addon.getIslands().getIslands().stream().
+				filter(island -> island.getWorld() != null && worldGameModes.containsKey(island.getWorld())).
+				forEach(island -> islandGameModes.putIfAbsent(island.getUniqueId(), worldGameModes.get(island.getWorld())));
+		}
+
+		return islandGameModes;
+	}
+
+
+	/**
+	 * This method writes objects of given islands to export file in slices of save batch
+	 * size, and stores checkpoint after each slice. It must be called from async thread.
+	 * @param exportFile Export file.
+	 * @param islandGameModes Sorted map that links exported island ids to their GameModes.
+	 * @param checkpoint Checkpoint of interrupted export that is continued, or null.
+	 * @return Number of exported objects, including objects exported before checkpoint.
+	 * @throws IOException if file cannot be written, or cache cannot be copied.
+	 */
+	private int exportObjects(Path exportFile,
+		NavigableMap<String, String> islandGameModes,
+		ExportCheckpoint checkpoint) throws IOException
+	{
+		int batchSize = Math.max(1, this.addon.getSettings().getSaveBatchSize());
+		int count = checkpoint == null ? 0 : checkpoint.count;
+
+		List<String> islandIds = new ArrayList<>(islandGameModes.keySet());
+
+		try (LikesSnapshot.Writer writer = checkpoint == null ?
+			LikesSnapshot.openPortable(exportFile) :
+			LikesSnapshot.resumePortable(exportFile, checkpoint.length))
+		{
+			for (int from = 0; from < islandIds.size(); from += batchSize)
+			{
+				List<String> sliceIds = islandIds.subList(from, Math.min(from + batchSize, islandIds.size()));
+				List<LikesObject> slice = new ArrayList<>(sliceIds.size());
+
+				this.copyCached(sliceIds, islandGameModes).forEach((islandId, likesObject) -> {
+					if (likesObject == null && this.likesDatabase.objectExists(islandId))
+					{
+						likesObject = this.likesDatabase.loadObject(islandId);
+					}
+
+					if (likesObject != null)
+					{
+						slice.add(likesObject);
+					}
+				});
+
+				writer.write(slice);
+				count += slice.size();
+
+				this.writeExportCheckpoint(new ExportCheckpoint(sliceIds.get(sliceIds.size() - 1),
+					count,
+					writer.checkpoint()));
+			}
+
+			writer.finish();
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * This method copies cached objects with given ids in the main thread and waits for
+	 * copies. It must be called from async thread. Islands of loaded GameModes that were
+	 * removed meanwhile are skipped.
+	 * @param islandIds Island ids.
+	 * @param islandGameModes Map that links island ids to their GameModes.
+	 * @return Map that links island ids to copies of cached objects, or to null if object
+	 * must be read from database.
+	 * @throws IOException if copies are not made in time.
+	 */
+	private Map<String, LikesObject> copyCached(List<String> islandIds, Map<String, String> islandGameModes)
+		throws IOException
+	{
+		CompletableFuture<Map<String, LikesObject>> copies = new CompletableFuture<>();
+
+		Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> {
+			Map<String, LikesObject> objects = new LinkedHashMap<>();
+
+			for (String islandId : islandIds)
+			{
+				LikesObject likesObject = this.likesCache.get(islandId);
+
+				if (likesObject != null)
+				{
+					objects.put(islandId, likesObject.copy());
+				}
+				else if (!this.loadedGameModes.contains(islandGameModes.get(islandId)))
+				{
+					objects.put(islandId, null);
+				}
+			}
+
+			copies.complete(objects);
+		});
+
+		try
+		{
+			return copies.get(MIGRATION_CHUNK_TIMEOUT, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			throw new IOException("Export was interrupted.");
+		}
+		catch (ExecutionException | TimeoutException e)
+		{
+			throw new IOException("Could not copy likes objects: " + e.getMessage());
+		}
+	}
+
+
+	/**
+	 * This method imports likes objects from export file into current database. File is
+	 * read in async thread in chunks of save batch size, and next chunk is read only
+	 * after previous one is saved, so neither file nor database are held in memory at
+	 * once. Number of processed objects is stored in checkpoint file after each chunk,
+	 * and interrupted import continues from it when it is started again.
+	 * @param user User who imports data.
+	 */
+	public void importData(User user)
+	{
+		if (this.migrationRunning)
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "migration-running"));
+			return;
+		}
+
+		Path exportFile = this.getExportFile();
+
+		if (!Files.exists(exportFile))
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "import-missing"));
+			return;
+		}
+
+		int checkpoint = this.readImportCheckpoint();
+
+		this.migrationRunning = true;
+		user.sendMessage(user.getTranslation(Constants.MESSAGE + "import-started",
+			"[number]", String.valueOf(checkpoint)));
+
+		Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () -> {
+			ImportTask task = new ImportTask(checkpoint, user);
+			boolean success;
+
+			try
+			{
+				LikesSnapshot.read(exportFile, task);
+				success = task.finish();
+			}
+			catch (IOException | RuntimeException e)
+			{
+				this.addon.logError("Could not import likes data: " + e.getMessage());
+				success = false;
+			}
+
+			boolean imported = success;
+
+			Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> {
+				this.migrationRunning = false;
+
+				if (imported)
+				{
+					this.deleteImportCheckpoint();
+					this.addon.log("Imported " + task.processed + " likes objects from " + exportFile + ".");
+					this.sendMigrationMessage(user, "import-finished", "[number]", String.valueOf(task.processed));
+				}
+				else
+				{
+					this.sendMigrationMessage(user, "import-failed", "[number]", String.valueOf(task.processed));
+				}
+			});
+		});
+	}
+
+
+	/**
+	 * This method saves single chunk of imported objects and waits until it is written.
+	 * Objects that already exist in database are skipped, as they were created after
+	 * database type was changed. It must be called from async thread.
+	 * @param chunk Imported objects.
+	 * @return {@code true} if all objects of chunk are saved, {@code false} otherwise.
+	 */
+	private boolean importChunk(List<LikesObject> chunk)
+	{
+		List<LikesObject> newObjects = chunk.stream().
+			filter(likesObject -> !this.likesDatabase.objectExists(likesObject.getUniqueId())).
+			collect(Collectors.toList());
+
+		CompletableFuture<Boolean> saved = new CompletableFuture<>();
+
+		Bukkit.getScheduler().runTask(this.addon.getPlugin(), () -> this.installImported(newObjects, saved));
+
+		try
+		{
+			return saved.get(MIGRATION_CHUNK_TIMEOUT, TimeUnit.SECONDS);
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			return false;
+		}
+		catch (ExecutionException | TimeoutException e)
+		{
+			return false;
+		}
+	}
+
+
+	/**
+	 * This method adds imported objects to cache and saves them through write-behind
+	 * store, so they are ordered with vote writes. Islands that got votes during import
+	 * keep their current objects.
+	 * @param likesObjects Imported objects that are not in database.
+	 * @param saved Future that is completed when objects are written.
+	 */
+	private void installImported(List<LikesObject> likesObjects, CompletableFuture<Boolean> saved)
+	{
+		Set<String> gameModes = new HashSet<>();
+
+		for (LikesObject likesObject : likesObjects)
+		{
+			if (!this.likesCache.containsKey(likesObject.getUniqueId()))
+			{
+				// Journal sequence of other server means nothing for local journal.
+				likesObject.setJournalSequence(0);
+				this.load(likesObject);
+				this.writeBehind.markDirty(likesObject);
+				gameModes.add(likesObject.getGameMode());
+			}
+		}
+
+		// Database gets objects of these GameModes, so their snapshot sections become stale.
+		this.markSnapshotTaken(gameModes);
+		this.writeBehind.flush(() -> saved.complete(true), () -> saved.complete(false));
+	}
+
+
+	/**
+	 * @return Number of objects that were processed by previous interrupted import.
+	 */
+	private int readImportCheckpoint()
+	{
+		Path checkpoint = this.getImportCheckpointFile();
+
+		if (!Files.exists(checkpoint))
+		{
+			return 0;
+		}
+
+		try
+		{
+			return Math.max(0, Integer.parseInt(new String(Files.readAllBytes(checkpoint), StandardCharsets.UTF_8).trim()));
+		}
+		catch (IOException | NumberFormatException e)
+		{
+			this.addon.logError("Could not read likes import checkpoint, import starts from beginning: " + e.getMessage());
+			return 0;
+		}
+	}
+
+
+	/**
+	 * This method stores number of processed objects in checkpoint file. File is replaced
+	 * atomically, so crash leaves either old or new value.
+	 * @param processed Number of processed objects.
+	 * @return {@code true} if checkpoint is written, {@code false} otherwise.
+	 */
+	private boolean writeImportCheckpoint(int processed)
+	{
+		Path checkpoint = this.getImportCheckpointFile();
+		Path temporary = checkpoint.resolveSibling(checkpoint.getFileName() + ".tmp");
+
+		try
+		{
+			Files.write(temporary, String.valueOf(processed).getBytes(StandardCharsets.UTF_8));
+			Files.move(temporary, checkpoint, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+			return true;
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not write likes import checkpoint: " + e.getMessage());
+			return false;
+		}
+	}
+
+
+	/**
+	 * This method deletes import checkpoint file.
+	 */
+	private void deleteImportCheckpoint()
+	{
+		try
+		{
+			Files.deleteIfExists(this.getImportCheckpointFile());
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not delete likes import checkpoint: " + e.getMessage());
+		}
+	}
+
+
+	/**
+	 * @return Checkpoint of interrupted export, or null if export must start from
+	 * beginning.
+	 */
+	private ExportCheckpoint readExportCheckpoint()
+	{
+		Path checkpoint = this.getExportCheckpointFile();
+
+		if (!Files.exists(checkpoint))
+		{
+			return null;
+		}
+
+		try
+		{
+			List<String> lines = Files.readAllLines(checkpoint, StandardCharsets.UTF_8);
+
+			ExportCheckpoint exportCheckpoint = new ExportCheckpoint(lines.get(0),
+				Integer.parseInt(lines.get(1).trim()),
+				Long.parseLong(lines.get(2).trim()));
+
+			// Checkpoint is useless without unfinished export file.
+			return LikesSnapshot.canResume(this.getExportFile(), exportCheckpoint.length) ? exportCheckpoint : null;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			this.addon.logError("Could not read likes export checkpoint, export starts from beginning: " + e.getMessage());
+			return null;
+		}
+	}
+
+
+	/**
+	 * This method stores export progress in checkpoint file. File is replaced
+	 * atomically, so crash leaves either old or new value.
+	 * @param checkpoint Export progress.
+	 * @throws IOException if checkpoint cannot be written.
+	 */
+	private void writeExportCheckpoint(ExportCheckpoint checkpoint) throws IOException
+	{
+		Path file = this.getExportCheckpointFile();
+		Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+
+		Files.write(temporary,
+			Arrays.asList(checkpoint.lastId, String.valueOf(checkpoint.count), String.valueOf(checkpoint.length)),
+			StandardCharsets.UTF_8);
+		Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+	}
+
+
+	/**
+	 * This method sends migration message to given user, if user is still online.
+	 * Console always gets messages.
+	 * @param user User who started migration.
+	 * @param reference Message reference without prefix.
+	 * @param variables Message variables.
+	 */
+	private void sendMigrationMessage(User user, String reference, String... variables)
+	{
+		if (!user.isPlayer() || user.isOnline())
+		{
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + reference, variables));
+		}
+	}
+
+
+	/**
+	 * @return Path to file where likes objects are exported.
+	 */
+	private Path getExportFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(EXPORT_FILE);
+	}
+
+
+	/**
+	 * @return Path to file that stores progress of export.
+	 */
+	private Path getExportCheckpointFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(EXPORT_CHECKPOINT_FILE);
+	}
+
+
+	/**
+	 * @return Path to file that stores progress of import.
+	 */
+	private Path getImportCheckpointFile()
+	{
+		return this.addon.getDataFolder().toPath().resolve(IMPORT_CHECKPOINT_FILE);
+	}
+
+
+	/**
+	 * This class collects objects that are read from export file into chunks, and saves
+	 * each full chunk. Objects that were processed before checkpoint are skipped. It is
+	 * used only by import thread.
+	 */
+	private class ImportTask implements Consumer<LikesObject>
+	{
+		/**
+		 * Default constructor.
+		 * @param checkpoint Number of objects that were processed by previous import.
+		 * @param user User who imports data.
+		 */
+		private ImportTask(int checkpoint, User user)
+		{
+			this.checkpoint = checkpoint;
+			this.processed = checkpoint;
+			this.user = user;
+			this.chunkSize = Math.max(1, LikesManager.this.addon.getSettings().getSaveBatchSize());
+			this.chunk = new ArrayList<>(this.chunkSize);
+		}
+
+
+		/**
+		 * Adds object to current chunk, and saves chunk when it is full.
+		 * @param likesObject Object that is read from export file.
+		 */
+		@Override
+		public void accept(LikesObject likesObject)
+		{
+			if (this.position++ < this.checkpoint)
+			{
+				return;
+			}
+
+			this.chunk.add(likesObject);
+
+			if (this.chunk.size() >= this.chunkSize && !this.saveChunk())
+			{
+				// Stops reading of export file. Checkpoint keeps last saved chunk.
+				throw new IllegalStateException("Could not save imported likes objects.");
+			}
+		}
+
+
+		/**
+		 * Saves last chunk.
+		 * @return {@code true} if it is saved, {@code false} otherwise.
+		 */
+		private boolean finish()
+		{
+			return this.chunk.isEmpty() || this.saveChunk();
+		}
+
+
+		/**
+		 * Saves current chunk, stores checkpoint and reports progress.
+		 * @return {@code true} if chunk is saved, {@code false} otherwise.
+		 */
+		private boolean saveChunk()
+		{
+			if (!LikesManager.this.importChunk(this.chunk))
+			{
+				return false;
+			}
+
+			int previous = this.processed;
+			this.processed += this.chunk.size();
+			this.chunk.clear();
+
+			if (!LikesManager.this.writeImportCheckpoint(this.processed))
+			{
+				return false;
+			}
+
+			if (this.processed / MIGRATION_PROGRESS_INTERVAL > previous / MIGRATION_PROGRESS_INTERVAL)
+			{
+				int number = this.processed;
+
+				Bukkit.getScheduler().runTask(LikesManager.this.addon.getPlugin(), () ->
+					LikesManager.this.sendMigrationMessage(this.user, "import-progress",
+						"[number]", String.valueOf(number)));
+			}
+
+			return true;
+		}
+
+
+		/**
+		 * Number of objects that were processed by previous import.
+		 */
+		private final int checkpoint;
+
+		/**
+		 * User who imports data.
+		 */
+		private final User user;
+
+		/**
+		 * Number of objects in single chunk.
+		 */
+		private final int chunkSize;
+
+		/**
+		 * Objects that are read but not saved yet.
+		 */
+		private final List<LikesObject> chunk;
+
+		/**
+		 * Number of objects that are read from export file.
+		 */
+		private int position;
+
+		/**
+		 * Number of objects that are saved, including objects before checkpoint.
+		 */
+		private int processed;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Like Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method adds like from given user to target island, in given world.
+	 * @param user User who adds like.
+	 * @param island Island which receive like.
+	 * @param world World where island is located.
+	 */
+	public void addLike(User user, Island island, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		LikesObject object = this.getOrCreateIslandLikes(island.getUniqueId(), gameMode);
+
+		if (this.addVote(object, user.getUniqueId(), Vote.LIKE, System.currentTimeMillis()) != Vote.LIKE)
+		{
+
+			// Log history
+			if (this.addon.getSettings().isLogHistory())
+			{
+				this.addHistory(object, new LogEntry.Builder("ADD_LIKE").
+					data("user-id", user.getUniqueId().toString()).
+					build());
+			}
+
+			this.recordVote(VoteJournal.Operation.ADD_LIKE, object, user.getUniqueId());
+
+			String name = island.getName() == null || island.getName().isEmpty() ?
+				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "add-like", "[island]", name));
+
+			// Send message to users
+			if (this.addon.getSettings().isInformPlayers())
+			{
+				island.getMemberSet().stream().
+					map(User::getInstance).
+					filter(User::isOnline).
+					forEach(member -> member.sendMessage(
+						member.getTranslation(Constants.MESSAGE + "player-add-like", "[user]", user.getName())));
+			}
+
+			// Fire event
+			this.addon.callEvent(new LikeAddEvent(user.getUniqueId(), island.getUniqueId()));
+		}
+	}
+
+
+	/**
+	 * This method removes like from given user to target island, in given world.
+	 * @param user User who removes like.
+	 * @param island Island which lost like.
+	 * @param world World where island is located.
+	 */
+	public void removeLike(User user, Island island, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		LikesObject object = this.findIslandLikes(island.getUniqueId(), gameMode);
+
+		if (object != null && this.removeVote(object, user.getUniqueId(), Vote.LIKE, System.currentTimeMillis()))
+		{
+
+			// Log history
+			if (this.addon.getSettings().isLogHistory())
+			{
+				this.addHistory(object, new LogEntry.Builder("REMOVE_LIKE").
+					data("user-id", user.getUniqueId().toString()).
+					build());
+			}
+
+			this.recordVote(VoteJournal.Operation.REMOVE_LIKE, object, user.getUniqueId());
+
+			String name = island.getName() == null || island.getName().isEmpty() ?
+				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "remove-like", "[island]", name));
+
+			// Send message to users
+			if (this.addon.getSettings().isInformPlayers())
+			{
+				island.getMemberSet().stream().
+					map(User::getInstance).
+					filter(User::isOnline).
+					forEach(member -> member.sendMessage(
+						member.getTranslation(Constants.MESSAGE + "player-remove-like", "[user]", user.getName())));
+			}
+
+			// Fire event
+			this.addon.callEvent(new LikeRemoveEvent(user.getUniqueId(), island.getUniqueId()));
+		}
+	}
+
+
+	/**
+	 * This method returns if given player has liked target island, in given world.
+	 * @param user User which need to be checked.
+	 * @param islandId Island which need to be checked.
+	 * @param world World where island is located.
+	 */
+	public boolean hasLiked(UUID user, String islandId, World world)
+	{
+		return this.getIslandLikes(islandId, Utils.getGameMode(world)).hasLiked(user);
+	}
+
+
+	/**
+	 * This method adds dislike from given user to target island, in given world.
+	 * @param user User who adds dislike.
+	 * @param island Island which receive dislike.
+	 * @param world World where island is located.
+	 */
+	public void addDislike(User user, Island island, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		LikesObject object = this.getOrCreateIslandLikes(island.getUniqueId(), gameMode);
+
+		Vote previous = this.addVote(object, user.getUniqueId(), Vote.DISLIKE, System.currentTimeMillis());
+
+		if (previous != Vote.DISLIKE)
+		{
+
+			if (previous == Vote.LIKE && this.addon.getSettings().isLogHistory())
+			{
+				// Dislike replaced like, so like removal is logged like any other.
+				this.addHistory(object, new LogEntry.Builder("REMOVE_LIKE").
+					data("user-id", user.getUniqueId().toString()).
+					build());
+			}
+
+			// Log history
+			if (this.addon.getSettings().isLogHistory())
+			{
+				this.addHistory(object, new LogEntry.Builder("ADD_DISLIKE").
+					data("user-id", user.getUniqueId().toString()).
+					build());
+			}
+
+			this.recordVote(VoteJournal.Operation.ADD_DISLIKE, object, user.getUniqueId());
+
+			String name = island.getName() == null || island.getName().isEmpty() ?
+				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "add-dislike", "[island]", name));
+
+			// Send message to users
+			if (this.addon.getSettings().isInformPlayers())
+			{
+				island.getMemberSet().stream().
+					map(User::getInstance).
+					filter(User::isOnline).
+					forEach(member -> member.sendMessage(
+						member.getTranslation(Constants.MESSAGE + "player-add-dislike", "[user]", user.getName())));
+			}
+
+			// Fire event
+			this.addon.callEvent(new DislikeAddEvent(user.getUniqueId(), island.getUniqueId()));
+		}
+	}
+
+
+	/**
+	 * This method removes dislike from given user to target island, in given world.
+	 * @param user User who adds dislike.
+	 * @param island Island which lost dislike.
+	 * @param world World where island is located.
+	 */
+	public void removeDislike(User user, Island island, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		LikesObject object = this.findIslandLikes(island.getUniqueId(), gameMode);
+
+		if (object != null && this.removeVote(object, user.getUniqueId(), Vote.DISLIKE, System.currentTimeMillis()))
+		{
+
+			// Log history
+			if (this.addon.getSettings().isLogHistory())
+			{
+				this.addHistory(object, new LogEntry.Builder("REMOVE_DISLIKE").
+					data("user-id", user.getUniqueId().toString()).
+					build());
+			}
+
+			this.recordVote(VoteJournal.Operation.REMOVE_DISLIKE, object, user.getUniqueId());
+
+			String name = island.getName() == null || island.getName().isEmpty() ?
+				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+
+			user.sendMessage(user.getTranslation(Constants.MESSAGE + "remove-dislike", "[island]", name));
+
+			// Send message to users
+			if (this.addon.getSettings().isInformPlayers())
+			{
+				island.getMemberSet().stream().
+					map(User::getInstance).
+					filter(User::isOnline).
+					forEach(member -> member.sendMessage(
+						member.getTranslation(Constants.MESSAGE + "player-remove-dislike", "[user]", user.getName())));
+			}
+
+			// Fire event
+			this.addon.callEvent(new DislikeRemoveEvent(user.getUniqueId(), island.getUniqueId()));
+		}
+	}
+
+
+	/**
+	 * This method returns if given player has disliked target island, in given world.
+	 * @param user User which need to be checked.
+	 * @param islandId Island which need to be checked.
+	 * @param world World where island is located.
+	 */
+	public boolean hasDisliked(UUID user, String islandId, World world)
+	{
+		return this.getIslandLikes(islandId, Utils.getGameMode(world)).hasDisliked(user);
+	}
+
+
+	/**
+	 * This method resets likes and dislikes for current island.
+	 * @param user User who reset island.
+	 * @param islandId Island Id.
+	 * @param world World where island is located.
+	 */
+	public void resetLikes(UUID user, String islandId, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		LikesObject object = this.findIslandLikes(islandId, gameMode);
+
+		if (object == null)
+		{
+			// Island without likes data has nothing to reset.
+			return;
+		}
+
+		this.clearVotes(object);
+
+		if (this.addon.getSettings().isLogHistory())
+		{
+			this.addHistory(object, new LogEntry.Builder("RESET_ISLAND").
+				data("user-id", user.toString()).
+				build());
+		}
+
+		this.recordVote(VoteJournal.Operation.RESET, object, user);
+	}
+
+
+	/**
+	 * This method removes all votes of given island, together with their entries in
+	 * voter index, and sets likes and dislikes counters to 0. Daily, weekly and monthly
+	 * like counters and trending score of island are cleared too.
+	 * @param likesObject Likes object that must be cleared.
+	 */
+	private void clearVotes(LikesObject likesObject)
+	{
+		this.updateIslandLikes(likesObject, object -> {
+			object.setLikedBy(Collections.emptySet());
+			object.setDislikedBy(Collections.emptySet());
+			object.setLikes(0L);
+			object.setDislikes(0L);
+		});
+
+		likesObject.setDailyLikes(Collections.emptyMap());
+		likesObject.setLikeTimes(Collections.emptyMap());
+		this.rankIndex.restoreCounters(likesObject);
+	}
+
+
+	/**
+	 * This method applies given change to likes object voters and keeps sorted caches
+	 * and voter index in correct order. All changes outside vote methods, f.e. admin edits,
+	 * must be done through this method. Counters are changed together with votes, so
+	 * change must not set them separately from voters.
+	 * @param likesObject Likes object that will be changed.
+	 * @param change Change that must be applied.
+	 */
+	public void updateIslandLikes(LikesObject likesObject, Consumer<LikesObject> change)
+	{
+		// Change may touch any voter, so all votes of island are indexed again.
+		this.voterIndex.remove(likesObject);
+		this.rankIndex.update(likesObject, change);
+		this.voterIndex.add(likesObject);
+		this.writeBehind.markDirty(likesObject);
+	}
+
+
+	/**
+	 * This method writes vote to journal and marks island as changed, so it is saved
+	 * with next flush. Journal sequence of vote is stored in island, so replay skips it
+	 * after island is saved.
+	 * @param operation Vote operation.
+	 * @param likesObject Island that got vote.
+	 * @param voter Player who voted.
+	 */
+	private void recordVote(VoteJournal.Operation operation, LikesObject likesObject, UUID voter)
+	{
+		if (this.journal != null)
+		{
+			long sequence = this.journal.append(operation,
+				likesObject.getUniqueId(),
+				likesObject.getGameMode(),
+				voter,
+				System.currentTimeMillis());
+
+			if (sequence > 0)
+			{
+				likesObject.setJournalSequence(sequence);
+			}
+		}
+
+		this.writeBehind.markDirty(likesObject);
+	}
+
+
+	/**
+	 * This method writes given entry to history of given island.
+	 * @param likesObject Island which history must be updated.
+	 * @param entry History entry.
+	 */
+	private void addHistory(LikesObject likesObject, LogEntry entry)
+	{
+		this.historyStore.append(likesObject.getUniqueId(), likesObject.getGameMode(), entry);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Voter methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns islands in given world that given player liked.
+	 * @param voter Player UUID.
+	 * @param world World which islands must be returned.
+	 * @return List of likes objects of liked islands.
+	 */
+	public List<LikesObject> getLikedIslands(UUID voter, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		this.ensureLoaded(gameMode);
+
+		return this.getIslands(this.voterIndex.getLikedIslands(voter), gameMode);
+	}
+
+
+	/**
+	 * This method returns islands in given world that given player disliked.
+	 * @param voter Player UUID.
+	 * @param world World which islands must be returned.
+	 * @return List of likes objects of disliked islands.
+	 */
+	public List<LikesObject> getDislikedIslands(UUID voter, World world)
+	{
+		String gameMode = Utils.getGameMode(world);
+		this.ensureLoaded(gameMode);
+
+		return this.getIslands(this.voterIndex.getDislikedIslands(voter), gameMode);
+	}
+
+
+	/**
+	 * This method removes all likes and dislikes of given player from all islands in all
+	 * GameModes. Removal is logged in history and journal like any other vote removal.
+	 * @param voter Player which votes must be removed.
+	 * @param user User who removes votes.
+	 * @return Number of removed votes.
+	 */
+	public int purgeVotes(UUID voter, User user)
+	{
+		// Index contains only islands in cache, so every GameMode must be loaded.
+		this.loadGameModes(this.addon.getPlugin().getAddonsManager().getGameModeAddons().stream().
+			map(gameModeAddon -> gameModeAddon.getDescription().getName()).
+			collect(Collectors.toSet()));
+
+		int removed = 0;
+
+		for (String islandId : this.voterIndex.getLikedIslands(voter))
+		{
+			LikesObject object = this.likesCache.get(islandId);
+
+			if (object != null && this.removeVote(object, voter, Vote.LIKE, System.currentTimeMillis()))
+			{
+
+				this.purgeHistory(object, "REMOVE_LIKE", voter, user);
+				this.recordVote(VoteJournal.Operation.REMOVE_LIKE, object, voter);
+				this.addon.callEvent(new LikeRemoveEvent(voter, islandId));
+				removed++;
+			}
+		}
+
+		for (String islandId : this.voterIndex.getDislikedIslands(voter))
+		{
+			LikesObject object = this.likesCache.get(islandId);
+
+			if (object != null && this.removeVote(object, voter, Vote.DISLIKE, System.currentTimeMillis()))
+			{
+
+				this.purgeHistory(object, "REMOVE_DISLIKE", voter, user);
+				this.recordVote(VoteJournal.Operation.REMOVE_DISLIKE, object, voter);
+				this.addon.callEvent(new DislikeRemoveEvent(voter, islandId));
+				removed++;
+			}
+		}
+
+		return removed;
+	}
+
+
+	/**
+	 * This method sets vote of given voter with single lookup of previous vote. Rank
+	 * index and voter index are updated only if vote changed.
+	 * @param likesObject Island likes object.
+	 * @param voter Voter UUID.
+	 * @param vote Like or dislike.
+	 * @param time Vote time in milliseconds, for time windows and trending score.
+	 * @return Previous vote of voter. Vote did not change if it is equal to given vote.
+	 */
+	private Vote addVote(LikesObject likesObject, UUID voter, Vote vote, long time)
+	{
+		int voterId = VoterDictionary.getInstance().intern(voter);
+		Vote previous = likesObject.setVote(voterId, vote);
+
+		if (previous == vote)
+		{
+			return previous;
+		}
+
+		this.rankIndex.reposition(likesObject);
+		this.voterIndex.changeVote(voterId, likesObject.getUniqueId(), previous, vote);
+
+		this.countLikes(likesObject, voter, (vote == Vote.LIKE ? 1 : 0) - (previous == Vote.LIKE ? 1 : 0), time);
+
+		return previous;
+	}
+
+
+	/**
+	 * This method removes given vote of given voter with single lookup of previous vote.
+	 * Rank index and voter index are updated only if vote was removed.
+	 * @param likesObject Island likes object.
+	 * @param voter Voter UUID.
+	 * @param vote Like or dislike.
+	 * @param time Vote time in milliseconds, for time windows and trending score.
+	 * @return {@code true} if voter had given vote, {@code false} otherwise.
+	 */
+	private boolean removeVote(LikesObject likesObject, UUID voter, Vote vote, long time)
+	{
+		int voterId = VoterDictionary.getInstance().find(voter);
+
+		if (voterId < 0 || likesObject.removeVote(voterId, vote) != vote)
+		{
+			return false;
+		}
+
+		this.rankIndex.reposition(likesObject);
+		this.voterIndex.changeVote(voterId, likesObject.getUniqueId(), vote, Vote.NONE);
+
+		if (vote == Vote.LIKE)
+		{
+			this.countLikes(likesObject, voter, -1, time);
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * This method adds like change of vote to daily, weekly and monthly like counters and
+	 * trending score of given island. Counters are stored in island, so they are saved
+	 * with it and restored when it is loaded. Only votes are counted, so admin edits do
+	 * not change these counters.
+	 * @param likesObject Island which likes changed.
+	 * @param voter Voter UUID.
+	 * @param delta Like count change.
+	 * @param time Vote time in milliseconds.
+	 */
+	private void countLikes(LikesObject likesObject, UUID voter, int delta, long time)
+	{
+		if (delta == 0)
+		{
+			return;
+		}
+
+		long today = LocalDate.now().toEpochDay();
+		long day = Instant.ofEpochMilli(time).atZone(ZoneId.systemDefault()).toLocalDate().toEpochDay();
+
+		// Windows must be at current day, or vote would be ignored until next rotation.
+		this.rankIndex.rotateWindows(today);
+
+		if (day > today - MONTH_DAYS)
+		{
+			likesObject.addDailyLikes(day, delta, today - MONTH_DAYS + 1);
+			this.rankIndex.addWindowLikes(likesObject, day, delta);
+		}
+
+		// Removed like subtracts weight that it added, so toggling like does not raise score.
+		Long likeTime = delta > 0 ?
+			likesObject.setLikeTime(voter, time, this.getOldestLikeTime()) :
+			likesObject.removeLikeTime(voter);
+
+		if (likeTime != null)
+		{
+			this.rankIndex.removeTrendingLike(likesObject, likeTime);
+		}
+
+		if (delta > 0)
+		{
+			this.rankIndex.addTrendingLike(likesObject, time);
+		}
+	}
+
+
+	/**
+	 * @param islandIds Island ids.
+	 * @param gameMode GameMode which islands must be returned.
+	 * @return Likes objects of given islands that are in given GameMode.
+	 */
+	private List<LikesObject> getIslands(List<String> islandIds, String gameMode)
+	{
+		return islandIds.stream().
+			map(this.likesCache::get).
+			filter(likesObject -> likesObject != null && Objects.equals(gameMode, likesObject.getGameMode())).
+			collect(Collectors.toList());
+	}
+
+
+	/**
+	 * This method writes history entry about vote that was removed by purge.
+	 * @param likesObject Island which vote was removed.
+	 * @param type History entry type.
+	 * @param voter Player which vote was removed.
+	 * @param user User who purged votes.
+	 */
+	private void purgeHistory(LikesObject likesObject, String type, UUID voter, User user)
+	{
+		if (this.addon.getSettings().isLogHistory())
+		{
+			this.addHistory(likesObject, new LogEntry.Builder(type).
+				data("user-id", voter.toString()).
+				data("purged-by", user.getUniqueId() == null ? "console" : user.getUniqueId().toString()).
+				build());
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: History
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns page of island history, newest entries first. History is read
+	 * from history store when it is requested.
+	 * @param islandId Island id.
+	 * @param offset Number of newest entries that must be skipped.
+	 * @param limit Maximal number of entries.
+	 * @return List with history entries.
+	 */
+	public List<LogEntry> getHistory(String islandId, int offset, int limit)
+	{
+		return this.historyStore.getEntries(islandId, offset, limit);
 	}
 
 
 	/**
-	 * This method returns if given player has liked target island, in given world.
-	 * @param user User which need to be checked.
-	 * @param islandId Island which need to be checked.
-	 * @param world World where island is located.
+	 * @param islandId Island id.
+	 * @return Number of history entries of given island.
 	 */
-	public boolean hasLiked(UUID user, String islandId, World world)
+	public int getHistoryCount(String islandId)
 	{
-		return this.getIslandLikes(islandId, Utils.getGameMode(world)).hasLiked(user);
+		return this.historyStore.getCount(islandId);
 	}
 
 
 	/**
-	 * This method adds dislike from given user to target island, in given world.
-	 * @param user User who adds dislike.
-	 * @param island Island which receive dislike.
-	 * @param world World where island is located.
+	 * This method runs single history compaction step. Islands and segments are selected
+	 * in the main thread, history files are processed in async thread, and compacted
+	 * segments are swapped in the main thread again. It is called periodically by
+	 * scheduler.
 	 */
-	public void addDislike(User user, Island island, World world)
+	public void compactHistory()
 	{
-		String gameMode = Utils.getGameMode(world);
-		LikesObject object = this.getIslandLikes(island.getUniqueId(), gameMode);
+		Settings settings = this.addon.getSettings();
 
-		if (!object.hasDisliked(user.getUniqueId()))
-		{
-			object.addDislike(user.getUniqueId());
-
-			// Log history
-			if (this.addon.getSettings().isLogHistory())
-			{
-				object.addLogRecord(new LogEntry.Builder("ADD_DISLIKE").
-					data("user-id", user.toString()).
-					build());
-			}
+		long cutoff = settings.getHistoryMaxAge() > 0 ?
+			System.currentTimeMillis() - settings.getHistoryMaxAge() * MILLIS_PER_DAY : 0;
 
-			String name = island.getName() == null || island.getName().isEmpty() ?
-				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
+		HistoryStore.CompactionTask task = this.historyStore.prepareCompaction(cutoff,
+			settings.getHistoryMaxEntries(),
+			settings.getHistoryCompactionBatch());
 
-			user.sendMessage(user.getTranslation(Constants.MESSAGE + "add-dislike", "[island]", name));
+		if (task == null)
+		{
+			return;
+		}
 
-			// Send message to users
-			if (this.addon.getSettings().isInformPlayers())
-			{
-				island.getMemberSet().stream().
-					map(User::getInstance).
-					filter(User::isOnline).
-					forEach(member -> member.sendMessage(
-						member.getTranslation(Constants.MESSAGE + "player-add-dislike", "[user]", user.getName())));
-			}
+		Bukkit.getScheduler().runTaskAsynchronously(this.addon.getPlugin(), () -> {
+			HistoryStore.CompactionResult result = this.compactHistory(task);
 
-			// Fire event
-			this.addon.callEvent(new DislikeAddEvent(user.getUniqueId(), island.getUniqueId()));
-		}
+			Bukkit.getScheduler().runTask(this.addon.getPlugin(),
+				() -> this.historyStore.finishCompaction(result));
+		});
 	}
 
 
 	/**
-	 * This method removes dislike from given user to target island, in given world.
-	 * @param user User who adds dislike.
-	 * @param island Island which lost dislike.
-	 * @param world World where island is located.
+	 * This method compacts history in async thread.
+	 * @param task Compaction task.
+	 * @return Compaction result, or null if compaction failed.
 	 */
-	public void removeDislike(User user, Island island, World world)
+	private HistoryStore.CompactionResult compactHistory(HistoryStore.CompactionTask task)
 	{
-		String gameMode = Utils.getGameMode(world);
-		LikesObject object = this.getIslandLikes(island.getUniqueId(), gameMode);
-
-		if (object.hasDisliked(user.getUniqueId()))
+		try
 		{
-			object.removeDislike(user.getUniqueId());
-
-			// Log history
-			if (this.addon.getSettings().isLogHistory())
-			{
-				object.addLogRecord(new LogEntry.Builder("REMOVE_DISLIKE").
-					data("user-id", user.toString()).
-					build());
-			}
-
-			String name = island.getName() == null || island.getName().isEmpty() ?
-				this.addon.getPlayers().getName(island.getOwner()) : island.getName();
-
-			user.sendMessage(user.getTranslation(Constants.MESSAGE + "remove-dislike", "[island]", name));
-
-			// Send message to users
-			if (this.addon.getSettings().isInformPlayers())
-			{
-				island.getMemberSet().stream().
-					map(User::getInstance).
-					filter(User::isOnline).
-					forEach(member -> member.sendMessage(
-						member.getTranslation(Constants.MESSAGE + "player-remove-dislike", "[user]", user.getName())));
-			}
-
-			// Fire event
-			this.addon.callEvent(new DislikeRemoveEvent(user.getUniqueId(), island.getUniqueId()));
+			return this.historyStore.compact(task);
+		}
+		catch (RuntimeException e)
+		{
+			this.addon.logError("Could not compact likes history: " + e.getMessage());
+			return null;
 		}
 	}
 
 
-	/**
-	 * This method returns if given player has disliked target island, in given world.
-	 * @param user User which need to be checked.
-	 * @param islandId Island which need to be checked.
-	 * @param world World where island is located.
-	 */
-	public boolean hasDisliked(UUID user, String islandId, World world)
-	{
-		return this.getIslandLikes(islandId, Utils.getGameMode(world)).hasDisliked(user);
-	}
+// ---------------------------------------------------------------------
+// Section: Ranking
+// ---------------------------------------------------------------------
 
 
 	/**
-	 * This method resets likes and dislikes for current island.
-	 * @param user User who reset island.
-	 * @param islandId Island Id.
-	 * @param world World where island is located.
+	 * This method creates ranking strategy for given GameMode from addon settings.
+	 * @param gameMode GameMode addon name.
+	 * @return RankingStrategy that must be used in given GameMode.
 	 */
-	public void resetLikes(UUID user, String islandId, World world)
+	private RankingStrategy createRankingStrategy(String gameMode)
 	{
-		String gameMode = Utils.getGameMode(world);
-		LikesObject object = this.getIslandLikes(islandId, gameMode);
+		Settings settings = this.addon.getSettings();
 
-		object.setLikes(0L);
-		object.setDislikes(0L);
+		String modeName = settings.getGameModeRanking().getOrDefault(gameMode, settings.getDefaultRanking());
+		Settings.RANKING_MODE mode = Settings.RANKING_MODE.getMode(modeName);
 
-		if (this.addon.getSettings().isLogHistory())
+		if (mode == null)
 		{
-			object.addLogRecord( new LogEntry.Builder("RESET_ISLAND").
-				data("user-id", user.toString()).
-				build());
+			this.addon.logWarning("Unknown ranking formula " + modeName + " for " + gameMode + ". Using NET.");
+			mode = Settings.RANKING_MODE.NET;
+		}
+
+		switch (mode)
+		{
+			case WILSON:
+				return new WilsonScoreStrategy(WILSON_CONFIDENCE);
+			case BAYESIAN:
+				return new BayesianAverageStrategy(settings.getBayesianPriorVotes(),
+					settings.getBayesianPriorRatio());
+			case RATIO:
+				return new LikeRatioStrategy();
+			default:
+				return new NetScoreStrategy();
 		}
 	}
 
 
+	/**
+	 * This method returns island rank, calculated by ranking formula of island GameMode.
+	 * @param likesObject Likes object.
+	 * @return Rank score of given object.
+	 */
+	public long getRank(LikesObject likesObject)
+	{
+		return this.rankIndex.getRankScore(likesObject);
+	}
+
+
 // ---------------------------------------------------------------------
 // Section: Methods to get data
 // ---------------------------------------------------------------------
@@ -475,105 +2526,291 @@ public class LikesManager
 	/**
 	 * This method returns top 10 islands by likes.
 	 * @param world World where top list must be found.
-	 * @return List that contains max 10 elements where ordered by likes.
+	 * @return Immutable list that contains max 10 elements where ordered by likes.
 	 */
 	public List<LikesObject> getTopByLikes(World world)
 	{
-		return this.getSortedLikes(world).stream().limit(10).filter(LikesObject::isNotEmpty).collect(Collectors.toList());
+		return this.getSortedLikes(world).getTop();
 	}
 
 
 	/**
 	 * This method returns top 10 islands by dislikes.
 	 * @param world World where top list must be found.
-	 * @return List that contains max 10 elements where ordered by dislikes.
+	 * @return Immutable list that contains max 10 elements where ordered by dislikes.
 	 */
 	public List<LikesObject> getTopByDislikes(World world)
 	{
-		return this.getSortedDislikes(world).stream().limit(10).filter(LikesObject::isNotEmpty).collect(Collectors.toList());
+		return this.getSortedDislikes(world).getTop();
 	}
 
 
 	/**
 	 * This method returns top 10 islands by rank.
 	 * @param world World where top list must be found.
-	 * @return List that contains max 10 elements where ordered by rank.
+	 * @return Immutable list that contains max 10 elements where ordered by rank.
 	 */
 	public List<LikesObject> getTopByRank(World world)
 	{
-		return this.getSortedRank(world).stream().limit(10).filter(LikesObject::isNotEmpty).collect(Collectors.toList());
+		return this.getSortedRank(world).getTop();
+	}
+
+
+	/**
+	 * This method returns top 10 islands by given view mode. Islands without value in
+	 * given mode are not included. List is materialized and rebuilt only when top changes,
+	 * so callers can compare {@link RankedView#getVersion()} to skip work.
+	 * @param world World where top list must be found.
+	 * @param mode View mode.
+	 * @return Immutable list that contains max 10 elements ordered by given mode.
+	 */
+	public List<LikesObject> getTop(World world, Settings.VIEW_MODE mode)
+	{
+		return this.getSorted(world, mode).getTop();
+	}
+
+
+	/**
+	 * This method returns page of islands ordered by given view mode. It seeks directly
+	 * to given position, so pages far from top do not iterate from the first island.
+	 * Islands without value in given mode are not included.
+	 * @param gameMode Target GameMode addon name.
+	 * @param mode View mode.
+	 * @param offset 0-based position of first island.
+	 * @param limit Maximal number of islands.
+	 * @return List with islands in given range.
+	 */
+	public List<LikesObject> getRange(String gameMode, Settings.VIEW_MODE mode, int offset, int limit)
+	{
+		return this.getSorted(gameMode, mode).getRange(offset, limit);
+	}
+
+
+	/**
+	 * This method returns page of islands ordered by given view mode.
+	 * @param world Target world.
+	 * @param mode View mode.
+	 * @param offset 0-based position of first island.
+	 * @param limit Maximal number of islands.
+	 * @return List with islands in given range.
+	 */
+	public List<LikesObject> getRange(World world, Settings.VIEW_MODE mode, int offset, int limit)
+	{
+		return this.getRange(Utils.getGameMode(world), mode, offset, limit);
+	}
+
+
+	/**
+	 * This method returns islands around given island in given view mode: up to
+	 * {@code count} islands above it, island itself and up to {@code count} islands below.
+	 * @param likesObject Island which neighbours must be found.
+	 * @param mode View mode.
+	 * @param count Maximal number of islands on each side.
+	 * @return List with islands ordered by given mode, or empty list if island is not
+	 * indexed.
+	 * @see RankedView#getNeighbours(LikesObject, int)
+	 */
+	public List<LikesObject> getNeighbours(LikesObject likesObject, Settings.VIEW_MODE mode, int count)
+	{
+		return this.getSorted(likesObject.getGameMode(), mode).getNeighbours(likesObject, count);
+	}
+
+
+	/**
+	 * This method returns view with Likes Object ordered by given view mode.
+	 * @param world Target world.
+	 * @param mode View mode.
+	 * @return View where likes objects are ordered by given mode.
+	 */
+	public RankedView getSorted(World world, Settings.VIEW_MODE mode)
+	{
+		return this.getSorted(Utils.getGameMode(world), mode);
+	}
+
+
+	/**
+	 * This method returns view with Likes Object ordered by given view mode.
+	 * @param gameMode Target GameMode addon name.
+	 * @param mode View mode.
+	 * @return View where likes objects are ordered by given mode.
+	 */
+	public RankedView getSorted(String gameMode, Settings.VIEW_MODE mode)
+	{
+		this.ensureLoaded(gameMode);
+		return this.rankIndex.getSorted(gameMode, mode);
+	}
+
+
+	/**
+	 * This method returns value by which given view mode orders islands, f.e. likes
+	 * gained this week for weekly mode.
+	 * @param likesObject Likes object.
+	 * @param mode View mode.
+	 * @return Value of given object.
+	 */
+	public long getValue(LikesObject likesObject, Settings.VIEW_MODE mode)
+	{
+		return this.rankIndex.getValue(likesObject, mode);
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by like count.
+	 * This method returns view with Likes Object ordered by like count.
 	 * @param world Target world
-	 * @return Indexed Tree Set where likes objects are ordered by like count.
+	 * @return View where likes objects are ordered by like count.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedLikes(World world)
+	public RankedView getSortedLikes(World world)
 	{
 		return this.getSortedLikes(Utils.getGameMode(world));
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by like count.
+	 * This method returns view with Likes Object ordered by like count.
 	 * @param gameMode Target GameMode addon name.
-	 * @return Indexed Tree Set where likes objects are ordered by like count.
+	 * @return View where likes objects are ordered by like count.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedLikes(String gameMode)
+	public RankedView getSortedLikes(String gameMode)
 	{
-		return this.sortedLikeCache.containsKey(gameMode) ?
-			this.sortedLikeCache.get(gameMode) :
-			new IndexedTreeSet<>();
+		this.ensureLoaded(gameMode);
+		return this.rankIndex.getSortedLikes(gameMode);
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by dislike count.
+	 * This method returns view with Likes Object ordered by dislike count.
 	 * @param world Target world
-	 * @return Indexed Tree Set where likes objects are ordered by dislike count.
+	 * @return View where likes objects are ordered by dislike count.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedDislikes(World world)
+	public RankedView getSortedDislikes(World world)
 	{
 		return this.getSortedDislikes(Utils.getGameMode(world));
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by dislike count.
+	 * This method returns view with Likes Object ordered by dislike count.
 	 * @param gameMode Target GameMode addon name.
-	 * @return Indexed Tree Set where likes objects are ordered by dislike count.
+	 * @return View where likes objects are ordered by dislike count.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedDislikes(String gameMode)
+	public RankedView getSortedDislikes(String gameMode)
 	{
-		return this.sortedDislikeCache.containsKey(gameMode) ?
-			this.sortedDislikeCache.get(gameMode) :
-			new IndexedTreeSet<>();
+		this.ensureLoaded(gameMode);
+		return this.rankIndex.getSortedDislikes(gameMode);
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by rank.
+	 * This method returns view with Likes Object ordered by rank.
 	 * @param world Target world
-	 * @return Indexed Tree Set where likes objects are ordered by rank.
+	 * @return View where likes objects are ordered by rank.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedRank(World world)
+	public RankedView getSortedRank(World world)
 	{
 		return this.getSortedRank(Utils.getGameMode(world));
 	}
 
 
 	/**
-	 * This method returns Indexed Tree Set with Likes Object ordered by rank.
+	 * This method returns view with Likes Object ordered by rank.
 	 * @param gameMode Target GameMode addon name.
-	 * @return Indexed Tree Set where likes objects are ordered by rank.
+	 * @return View where likes objects are ordered by rank.
+	 */
+	public RankedView getSortedRank(String gameMode)
+	{
+		this.ensureLoaded(gameMode);
+		return this.rankIndex.getSortedRank(gameMode);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Journal vote that waits until objects of its GameMode are loaded.
+	 */
+	private static final class PendingVote
+	{
+		/**
+		 * Default constructor.
+		 * @param operation Vote operation.
+		 * @param gameMode GameMode of island.
+		 * @param voter Player who voted.
+		 * @param time Vote time in milliseconds.
+		 * @param sequence Journal sequence of vote, or 0 if it is not known.
+		 */
+		private PendingVote(VoteJournal.Operation operation, String gameMode, UUID voter, long time, long sequence)
+		{
+			this.operation = operation;
+			this.gameMode = gameMode;
+			this.voter = voter;
+			this.time = time;
+			this.sequence = sequence;
+		}
+
+
+		/**
+		 * Vote operation.
+		 */
+		private final VoteJournal.Operation operation;
+
+		/**
+		 * GameMode of island.
+		 */
+		private final String gameMode;
+
+		/**
+		 * Player who voted.
+		 */
+		private final UUID voter;
+
+		/**
+		 * Vote time in milliseconds.
+		 */
+		private final long time;
+
+		/**
+		 * Journal sequence of vote, or 0 if it is not known.
+		 */
+		private final long sequence;
+	}
+
+
+	/**
+	 * Progress of export that is stored after each written slice.
 	 */
-	public IndexedTreeSet<LikesObject> getSortedRank(String gameMode)
+	private static final class ExportCheckpoint
 	{
-		return this.sortedRankCache.containsKey(gameMode) ?
-			this.sortedRankCache.get(gameMode) :
-			new IndexedTreeSet<>();
+		/**
+		 * Default constructor.
+		 * @param lastId Id of last exported island.
+		 * @param count Number of exported objects.
+		 * @param length Length of unfinished export file.
+		 */
+		private ExportCheckpoint(String lastId, int count, long length)
+		{
+			this.lastId = lastId;
+			this.count = count;
+			this.length = length;
+		}
+
+
+		/**
+		 * Id of last exported island.
+		 */
+		private final String lastId;
+
+		/**
+		 * Number of exported objects.
+		 */
+		private final int count;
+
+		/**
+		 * Length of unfinished export file.
+		 */
+		private final long length;
 	}
 
 
@@ -599,20 +2836,152 @@ public class LikesManager
 	private Map<String, LikesObject> likesCache;
 
 	/**
-	 * This map links GameMode's to liked islands sorted by likes.
-	 * It should be cached, because of PlaceHolders.
+	 * This map links GameModes to ids of their islands that are in cache, so GameMode
+	 * data can be found without scanning whole cache or database.
 	 */
-	private Map<String, IndexedTreeSet<LikesObject>> sortedLikeCache;
+	private final Map<String, Set<String>> gameModeIslands = new HashMap<>();
 
 	/**
-	 * This map links GameMode's to liked islands sorted by dislikes.
+	 * This index links GameMode's to liked islands sorted by likes, dislikes and rank.
 	 * It should be cached, because of PlaceHolders.
 	 */
-	private Map<String, IndexedTreeSet<LikesObject>> sortedDislikeCache;
+	private RankIndex rankIndex;
 
 	/**
-	 * This map links GameMode's to liked islands sorted by rank.
-	 * It should be cached, because of PlaceHolders.
+	 * This index links voters to islands they liked or disliked.
+	 */
+	private final VoterIndex voterIndex = new VoterIndex();
+
+	/**
+	 * This store saves changed likes objects in batches in background.
+	 */
+	private WriteBehindStore writeBehind;
+
+	/**
+	 * This journal stores votes until they are saved to database, or null if journal
+	 * is disabled.
+	 */
+	private VoteJournal journal;
+
+	/**
+	 * This store contains vote history of all islands.
+	 */
+	private HistoryStore historyStore;
+
+	/**
+	 * Read-only objects with zero values for islands without likes data, by GameMode.
+	 */
+	private final Map<String, LikesObject> emptyViews = new HashMap<>();
+
+	/**
+	 * GameModes which objects are loaded in cache and indices.
+	 */
+	private final Set<String> loadedGameModes = new HashSet<>();
+
+	/**
+	 * Background read that is running and not installed yet, or null.
+	 */
+	private CompletableFuture<Map<String, List<LikesObject>>> backgroundRead;
+
+	/**
+	 * GameModes which objects are read by {@link #backgroundRead}.
+	 */
+	private Set<String> backgroundGameModes = Collections.emptySet();
+
+	/**
+	 * GameModes that must be read by next background read.
+	 */
+	private final Set<String> requestedGameModes = new HashSet<>();
+
+	/**
+	 * Becomes true when next background read is scheduled.
+	 */
+	private boolean readScheduled;
+
+	/**
+	 * Journal votes of islands which GameMode is not loaded yet, by island id.
+	 */
+	private final Map<String, List<PendingVote>> pendingVotes = new HashMap<>();
+
+	/**
+	 * GameModes which sections in binary snapshot are stale, because their objects were
+	 * loaded and changed in database after snapshot was written.
+	 */
+	private final Set<String> snapshotTaken = new HashSet<>();
+
+	/**
+	 * Becomes true while export or import is running.
+	 */
+	private boolean migrationRunning;
+
+	/**
+	 * Normal distribution quantile for 95% confidence that is used in Wilson formula.
+	 */
+	private static final double WILSON_CONFIDENCE = 1.96;
+
+	/**
+	 * Length of the longest time window in days.
+	 */
+	private static final int MONTH_DAYS = 30;
+
+	/**
+	 * Number of milliseconds in hour.
+	 */
+	private static final double MILLIS_PER_HOUR = 60 * 60 * 1000;
+
+	/**
+	 * Number of milliseconds in day.
+	 */
+	private static final long MILLIS_PER_DAY = 24L * 60 * 60 * 1000;
+
+	/**
+	 * Number of trending half-lives after which like weight is too small to be stored.
+	 */
+	private static final int TRENDING_HALF_LIVES = 30;
+
+	/**
+	 * Number of progress messages that are sent while data are wiped.
+	 */
+	private static final int WIPE_PROGRESS_STEPS = 10;
+
+	/**
+	 * Name of binary snapshot file in addon data folder.
+	 */
+	private static final String SNAPSHOT_FILE = "likes.snapshot";
+
+	/**
+	 * Name of file that lists GameModes which sections in binary snapshot are stale.
+	 */
+	private static final String SNAPSHOT_MARKER_FILE = "likes.snapshot.loaded";
+
+	/**
+	 * Name of voter dictionary file.
+	 */
+	private static final String VOTER_DICTIONARY_FILE = "voters.dictionary";
+
+	/**
+	 * Name of file where likes objects are exported.
+	 */
+	private static final String EXPORT_FILE = "likes-export.snapshot";
+
+	/**
+	 * Name of file that stores last exported island id.
+	 */
+	private static final String EXPORT_CHECKPOINT_FILE = "likes-export.checkpoint";
+
+	/**
+	 * Name of file that stores number of imported objects.
+	 */
+	private static final String IMPORT_CHECKPOINT_FILE = "likes-import.checkpoint";
+
+	/**
+	 * Number of imported objects after which progress is reported.
+	 */
+	private static final int MIGRATION_PROGRESS_INTERVAL = 10_000;
+
+	/**
+	 * Time in seconds how long import waits until single chunk is saved, and export
+	 * waits until single slice is copied.
 	 */
-	private Map<String, IndexedTreeSet<LikesObject>> sortedRankCache;
+	private static final long MIGRATION_CHUNK_TIMEOUT = 300;
 }
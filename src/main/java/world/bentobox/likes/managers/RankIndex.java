@@ -0,0 +1,924 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import world.bentobox.likes.config.Settings.VIEW_MODE;
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.managers.ranking.NetScoreStrategy;
+import world.bentobox.likes.managers.ranking.RankingStrategy;
+import world.bentobox.likes.utils.collections.LongRankTree;
+import world.bentobox.likes.utils.collections.ScoreHistogram;
+
+
+/**
+ * This class holds all sorted LikesObject orderings for each GameMode.
+ * Each island in GameMode gets small ordinal number, and all orderings are stored in
+ * single {@link LongRankTree} as primitive keys, so one node per island carries its
+ * position in every ordering and a vote repositions island in all of them in one pass.
+ * Each ordering also keeps {@link ScoreHistogram} of its primary score, which answers
+ * placement queries without walking the tree.
+ * <p>
+ * Rank ordering uses {@link RankingStrategy} that is selected for each GameMode. Rank
+ * score is recalculated only when one of strategy inputs changes.
+ * <p>
+ * Like changes are also counted per day in {@link WindowIndex}, which provides daily,
+ * weekly and monthly orderings, and new likes are added to decaying score in
+ * {@link TrendingIndex}.
+ * <p>
+ * Any counter change must be done through {@link #update(LikesObject, Consumer)}, which
+ * applies change and puts object in correct place in all orderings.
+ */
+public class RankIndex
+{
+	/**
+	 * Default constructor.
+	 * @param strategyProvider Function that returns ranking strategy for GameMode name.
+	 * @param trendingHalfLife Half-life of like weight in trending ordering, in milliseconds.
+	 */
+	public RankIndex(Function<String, RankingStrategy> strategyProvider, long trendingHalfLife)
+	{
+		this.strategyProvider = strategyProvider;
+		this.trendingHalfLife = trendingHalfLife;
+		this.trendingLandmark = System.currentTimeMillis();
+		this.gameModeIndexes = new HashMap<>();
+		this.day = LocalDate.now().toEpochDay();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Index methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method removes all objects from all orderings.
+	 */
+	public void clear()
+	{
+		this.gameModeIndexes.clear();
+	}
+
+
+	/**
+	 * This method adds given object to all orderings in its GameMode.
+	 * @param likesObject Object that must be indexed.
+	 */
+	public void add(LikesObject likesObject)
+	{
+		this.gameModeIndexes.computeIfAbsent(likesObject.getGameMode(),
+			gameMode -> new GameModeIndex(this.strategyProvider.apply(gameMode),
+				this.day,
+				this.trendingLandmark,
+				this.trendingHalfLife)).
+			add(likesObject);
+	}
+
+
+	/**
+	 * This method adds many objects at once, f.e. on load. Orderings of GameModes that
+	 * are not indexed yet are built in bulk, in parallel for each GameMode, which is much
+	 * faster than adding objects one by one. Objects of already indexed GameModes are
+	 * added one by one.
+	 * @param gameModeObjects Objects grouped by GameMode. Each object must be unique.
+	 */
+	public void addAll(Map<String, List<LikesObject>> gameModeObjects)
+	{
+		Map<GameModeIndex, List<LikesObject>> bulkBuilds = new HashMap<>();
+
+		gameModeObjects.forEach((gameMode, likesObjects) -> {
+			if (this.gameModeIndexes.containsKey(gameMode))
+			{
+				likesObjects.forEach(this::add);
+			}
+			else if (!likesObjects.isEmpty())
+			{
+				// Index is created in current thread, because views take version numbers.
+				GameModeIndex index = new GameModeIndex(this.strategyProvider.apply(gameMode),
+					this.day,
+					this.trendingLandmark,
+					this.trendingHalfLife);
+
+				this.gameModeIndexes.put(gameMode, index);
+				bulkBuilds.put(index, likesObjects);
+			}
+		});
+
+		bulkBuilds.entrySet().parallelStream().forEach(entry -> entry.getKey().addAll(entry.getValue()));
+	}
+
+
+	/**
+	 * This method removes given object from all orderings in its GameMode.
+	 * @param likesObject Object that must be removed from index.
+	 */
+	public void remove(LikesObject likesObject)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+
+		if (index != null)
+		{
+			index.remove(likesObject);
+		}
+	}
+
+
+	/**
+	 * This method applies given change to the object and repositions it in all orderings.
+	 * @param likesObject Object that will be changed.
+	 * @param change Change that modifies object counters.
+	 */
+	public void update(LikesObject likesObject, Consumer<LikesObject> change)
+	{
+		change.accept(likesObject);
+		this.reposition(likesObject);
+	}
+
+
+	/**
+	 * This method repositions given object in all orderings after its counters were
+	 * changed.
+	 * @param likesObject Changed object.
+	 */
+	public void reposition(LikesObject likesObject)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+
+		if (index != null && index.ordinals.containsKey(likesObject.getUniqueId()))
+		{
+			index.reposition(likesObject);
+		}
+		else
+		{
+			this.add(likesObject);
+		}
+	}
+
+
+	/**
+	 * This method adds like change that happened in given day to window counters of
+	 * given object. It is called for each counted vote, and the same change must be
+	 * stored in object daily likes, from which windows are restored when object is added.
+	 * Counter changes in {@link #update(LikesObject, Consumer)} are not votes and do not
+	 * change windows.
+	 * @param likesObject Indexed object.
+	 * @param voteDay Epoch day when change happened.
+	 * @param delta Like count change.
+	 */
+	public void addWindowLikes(LikesObject likesObject, long voteDay, int delta)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+		int ordinal = index == null ? -1 : index.getOrdinal(likesObject);
+
+		if (ordinal >= 0)
+		{
+			index.windows.record(ordinal, voteDay, delta);
+		}
+	}
+
+
+	/**
+	 * This method adds weight of like that was given at given moment to trending score
+	 * of given object. Like time must be stored in object like times, from which score
+	 * is restored when object is added.
+	 * @param likesObject Indexed object.
+	 * @param time Like time in milliseconds.
+	 */
+	public void addTrendingLike(LikesObject likesObject, long time)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+		int ordinal = index == null ? -1 : index.getOrdinal(likesObject);
+
+		if (ordinal >= 0)
+		{
+			index.trending.addLike(ordinal, time);
+		}
+	}
+
+
+	/**
+	 * This method subtracts weight of like that was given at given moment from trending
+	 * score of given object, when like is removed.
+	 * @param likesObject Indexed object.
+	 * @param time Time of removed like in milliseconds.
+	 */
+	public void removeTrendingLike(LikesObject likesObject, long time)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+		int ordinal = index == null ? -1 : index.getOrdinal(likesObject);
+
+		if (ordinal >= 0)
+		{
+			index.trending.removeLike(ordinal, time);
+		}
+	}
+
+
+	/**
+	 * This method restores window counters and trending score of given object from its
+	 * daily likes and like times again. It is used when they are cleared, f.e. when
+	 * island is reset.
+	 * @param likesObject Indexed object.
+	 */
+	public void restoreCounters(LikesObject likesObject)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+		int ordinal = index == null ? -1 : index.getOrdinal(likesObject);
+
+		if (ordinal >= 0)
+		{
+			index.windows.remove(ordinal);
+			index.windows.add(ordinal);
+			index.trending.remove(ordinal);
+			index.trending.add(ordinal);
+		}
+	}
+
+
+	/**
+	 * This method moves all time windows to given day. Days that left windows are
+	 * subtracted only from islands that got votes on these days.
+	 * @param newDay Current epoch day.
+	 */
+	public void rotateWindows(long newDay)
+	{
+		if (newDay <= this.day)
+		{
+			return;
+		}
+
+		this.day = newDay;
+		this.gameModeIndexes.values().forEach(index -> index.windows.rotate(newDay));
+	}
+
+
+	/**
+	 * This method removes all orderings for given GameMode.
+	 * @param gameMode GameMode which orderings must be dropped.
+	 */
+	public void removeGameMode(String gameMode)
+	{
+		this.gameModeIndexes.remove(gameMode);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Getters
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method returns view with Likes Object ordered by like count.
+	 * @param gameMode Target GameMode addon name.
+	 * @return View where likes objects are ordered by like count.
+	 */
+	public RankedView getSortedLikes(String gameMode)
+	{
+		return this.getIndex(gameMode).likesView;
+	}
+
+
+	/**
+	 * This method returns view with Likes Object ordered by dislike count.
+	 * @param gameMode Target GameMode addon name.
+	 * @return View where likes objects are ordered by dislike count.
+	 */
+	public RankedView getSortedDislikes(String gameMode)
+	{
+		return this.getIndex(gameMode).dislikesView;
+	}
+
+
+	/**
+	 * This method returns view with Likes Object ordered by rank.
+	 * @param gameMode Target GameMode addon name.
+	 * @return View where likes objects are ordered by rank.
+	 */
+	public RankedView getSortedRank(String gameMode)
+	{
+		return this.getIndex(gameMode).rankView;
+	}
+
+
+	/**
+	 * This method returns view with Likes Object ordered by given view mode.
+	 * @param gameMode Target GameMode addon name.
+	 * @param mode View mode.
+	 * @return View where likes objects are ordered by given mode.
+	 */
+	public RankedView getSorted(String gameMode, VIEW_MODE mode)
+	{
+		GameModeIndex index = this.getIndex(gameMode);
+
+		switch (mode)
+		{
+			case LIKES:
+				return index.likesView;
+			case DISLIKES:
+				return index.dislikesView;
+			case RANK:
+				return index.rankView;
+			case TRENDING:
+				return index.trending.getView();
+			default:
+				return index.windows.getView(windowOf(mode));
+		}
+	}
+
+
+	/**
+	 * This method returns value by which given view mode orders objects.
+	 * @param likesObject Likes object.
+	 * @param mode View mode.
+	 * @return value of given object in given mode.
+	 */
+	public long getValue(LikesObject likesObject, VIEW_MODE mode)
+	{
+		switch (mode)
+		{
+			case LIKES:
+				return likesObject.getLikes();
+			case DISLIKES:
+				return likesObject.getDislikes();
+			case RANK:
+				return this.getRankScore(likesObject);
+			case TRENDING:
+				return Math.round(this.getTrendingScore(likesObject));
+			default:
+				GameModeIndex index = this.getIndex(likesObject.getGameMode());
+				return index.windows.getLikes(windowOf(mode), index.getOrdinal(likesObject));
+		}
+	}
+
+
+	/**
+	 * This method returns current trending score of given object, which is sum of its
+	 * likes where each like weight decays with configured half-life.
+	 * @param likesObject Likes object.
+	 * @return trending score.
+	 */
+	public double getTrendingScore(LikesObject likesObject)
+	{
+		GameModeIndex index = this.getIndex(likesObject.getGameMode());
+		return index.trending.getScore(index.getOrdinal(likesObject), System.currentTimeMillis());
+	}
+
+
+	/**
+	 * This method returns rank score of given object, calculated by ranking strategy of
+	 * object GameMode.
+	 * @param likesObject Likes object.
+	 * @return rank score.
+	 */
+	public long getRankScore(LikesObject likesObject)
+	{
+		GameModeIndex index = this.gameModeIndexes.get(likesObject.getGameMode());
+
+		RankingStrategy strategy = index != null ? index.strategy :
+			this.strategyProvider.apply(likesObject.getGameMode());
+
+		return strategy.score(likesObject.getLikes(), likesObject.getDislikes());
+	}
+
+
+	/**
+	 * This method returns index for given GameMode or empty index if GameMode does not
+	 * have any objects.
+	 * @param gameMode GameMode name.
+	 * @return GameMode index.
+	 */
+	private GameModeIndex getIndex(String gameMode)
+	{
+		return this.gameModeIndexes.getOrDefault(gameMode, EMPTY);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Keys
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param mode Time window view mode.
+	 * @return window index in {@link WindowIndex}.
+	 */
+	private static int windowOf(VIEW_MODE mode)
+	{
+		switch (mode)
+		{
+			case DAILY:
+				return 0;
+			case WEEKLY:
+				return 1;
+			default:
+				return 2;
+		}
+	}
+
+
+	/**
+	 * Key that orders by likes descending, then by dislikes ascending.
+	 * @param likesObject Likes object.
+	 * @return ordering key.
+	 */
+	private static long likesKey(LikesObject likesObject)
+	{
+		return packKey(-clamp(likesObject.getLikes()), clamp(likesObject.getDislikes()));
+	}
+
+
+	/**
+	 * Key that orders by dislikes descending, then by likes ascending.
+	 * @param likesObject Likes object.
+	 * @return ordering key.
+	 */
+	private static long dislikesKey(LikesObject likesObject)
+	{
+		return packKey(-clamp(likesObject.getDislikes()), clamp(likesObject.getLikes()));
+	}
+
+
+	/**
+	 * Key that orders by rank score descending, then by likes ascending.
+	 * @param score Rank score.
+	 * @param likes Like count.
+	 * @return ordering key.
+	 */
+	private static long rankKey(long score, long likes)
+	{
+		score = Math.max(-Integer.MAX_VALUE, Math.min(Integer.MAX_VALUE, score));
+		return packKey(-score, clamp(likes));
+	}
+
+
+	/**
+	 * Returns primary score that is stored in given key. Score is the value that ordering
+	 * sorts by descending, f.e. like count for likes ordering.
+	 * @param key Ordering key.
+	 * @return primary score.
+	 */
+	private static long scoreOf(long key)
+	{
+		return -(key >> 32);
+	}
+
+
+	/**
+	 * Packs primary and secondary values in single long, so that ascending order of
+	 * result is ascending order by primary and then secondary value.
+	 * @param primary Primary value, must fit in int.
+	 * @param secondary Secondary value, must be non-negative int.
+	 * @return packed key.
+	 */
+	private static long packKey(long primary, long secondary)
+	{
+		return (primary << 32) | secondary;
+	}
+
+
+	/**
+	 * Clamps counter to non-negative int range.
+	 * @param value Counter value.
+	 * @return clamped value.
+	 */
+	private static long clamp(long value)
+	{
+		return Math.max(0, Math.min(Integer.MAX_VALUE, value));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This class holds all orderings for single GameMode.
+	 */
+	private static class GameModeIndex
+	{
+		/**
+		 * Default constructor.
+		 * @param strategy Ranking strategy for this GameMode.
+		 * @param day Current epoch day.
+		 * @param trendingLandmark Moment from which trending weights are measured.
+		 * @param trendingHalfLife Half-life of trending weights in milliseconds.
+		 */
+		private GameModeIndex(RankingStrategy strategy, long day, long trendingLandmark, long trendingHalfLife)
+		{
+			this.strategy = strategy;
+			this.rankInputs = strategy.getInputs();
+			this.windows = new WindowIndex(day, this::getObject, this::getOrdinal);
+			this.trending = new TrendingIndex(trendingLandmark, trendingHalfLife, this::getObject, this::getOrdinal);
+
+			this.likesView.setTopFilter(LikesObject::isNotEmpty);
+			this.dislikesView.setTopFilter(LikesObject::isNotEmpty);
+			this.rankView.setTopFilter(LikesObject::isNotEmpty);
+		}
+
+
+		/**
+		 * Adds object and assigns ordinal to it.
+		 * @param likesObject Object that must be added.
+		 */
+		private void add(LikesObject likesObject)
+		{
+			if (this.ordinals.containsKey(likesObject.getUniqueId()))
+			{
+				this.reposition(likesObject);
+				return;
+			}
+
+			int ordinal = this.freeCount > 0 ? this.freeOrdinals[--this.freeCount] : this.nextOrdinal++;
+
+			if (ordinal >= this.objects.length)
+			{
+				this.objects = Arrays.copyOf(this.objects, Math.max(ordinal + 1, this.objects.length * 2));
+			}
+
+			this.objects[ordinal] = likesObject;
+			this.ordinals.put(likesObject.getUniqueId(), ordinal);
+
+			this.windows.add(ordinal);
+			this.trending.add(ordinal);
+			this.insert(ordinal, likesObject);
+		}
+
+
+		/**
+		 * Adds all given objects to empty index. Objects get ordinals in order of their
+		 * unique ids, so islands with equal scores, which are ordered by ordinal, keep the
+		 * same order after each load. All trees are built in bulk. It does not touch views,
+		 * so it can run in other thread before index is used.
+		 * @param likesObjects Objects that must be added.
+		 */
+		private void addAll(List<LikesObject> likesObjects)
+		{
+			int count = likesObjects.size();
+
+			this.objects = likesObjects.toArray(new LikesObject[Math.max(count, this.objects.length)]);
+			Arrays.sort(this.objects, 0, count, Comparator.comparing(LikesObject::getUniqueId));
+			this.nextOrdinal = count;
+
+			long[] keys = new long[count * ORDERINGS];
+
+			for (int ordinal = 0; ordinal < count; ordinal++)
+			{
+				LikesObject likesObject = this.objects[ordinal];
+				this.ordinals.put(likesObject.getUniqueId(), ordinal);
+
+				int index = ordinal * ORDERINGS;
+
+				keys[index + LIKES] = likesKey(likesObject);
+				keys[index + DISLIKES] = dislikesKey(likesObject);
+				keys[index + RANK] = rankKey(this.strategy.score(likesObject.getLikes(), likesObject.getDislikes()),
+					likesObject.getLikes());
+
+				for (int ordering = 0; ordering < ORDERINGS; ordering++)
+				{
+					this.histograms[ordering].add(ordinal, scoreOf(keys[index + ordering]));
+				}
+			}
+
+			this.tree.build(count, keys);
+			this.windows.addAll(count);
+			this.trending.addAll(count);
+		}
+
+
+		/**
+		 * Removes object and releases its ordinal.
+		 * @param likesObject Object that must be removed.
+		 */
+		private void remove(LikesObject likesObject)
+		{
+			Integer ordinal = this.ordinals.remove(likesObject.getUniqueId());
+
+			if (ordinal == null)
+			{
+				return;
+			}
+
+			for (int ordering = 0; ordering < ORDERINGS; ordering++)
+			{
+				this.histograms[ordering].remove(ordinal, scoreOf(this.tree.keyOf(ordering, ordinal)));
+			}
+
+			int topMask = RankedView.topMask(this.views, ordinal);
+			this.tree.remove(ordinal);
+			RankedView.invalidateTops(this.views, ordinal, topMask);
+
+			this.windows.remove(ordinal);
+			this.trending.remove(ordinal);
+
+			this.objects[ordinal] = null;
+
+			if (this.freeCount == this.freeOrdinals.length)
+			{
+				this.freeOrdinals = Arrays.copyOf(this.freeOrdinals, this.freeOrdinals.length * 2);
+			}
+
+			this.freeOrdinals[this.freeCount++] = ordinal;
+		}
+
+
+		/**
+		 * Moves object to positions that match its current counters.
+		 * @param likesObject Object that must be repositioned.
+		 */
+		private void reposition(LikesObject likesObject)
+		{
+			this.insert(this.ordinals.get(likesObject.getUniqueId()), likesObject);
+		}
+
+
+		/**
+		 * Inserts or repositions ordinal in all orderings.
+		 * @param ordinal Object ordinal.
+		 * @param likesObject Object which keys must be used.
+		 */
+		private void insert(int ordinal, LikesObject likesObject)
+		{
+			this.keyBuffer[LIKES] = likesKey(likesObject);
+			this.keyBuffer[DISLIKES] = dislikesKey(likesObject);
+
+			boolean indexed = this.tree.contains(ordinal);
+
+			long rankScore;
+
+			if (indexed && !this.rankInputsChanged(ordinal))
+			{
+				rankScore = scoreOf(this.tree.keyOf(RANK, ordinal));
+			}
+			else
+			{
+				rankScore = this.strategy.score(likesObject.getLikes(), likesObject.getDislikes());
+			}
+
+			this.keyBuffer[RANK] = rankKey(rankScore, likesObject.getLikes());
+
+			for (int ordering = 0; ordering < ORDERINGS; ordering++)
+			{
+				long score = scoreOf(this.keyBuffer[ordering]);
+
+				if (indexed)
+				{
+					long oldScore = scoreOf(this.tree.keyOf(ordering, ordinal));
+
+					if (oldScore == score)
+					{
+						continue;
+					}
+
+					this.histograms[ordering].remove(ordinal, oldScore);
+				}
+
+				this.histograms[ordering].add(ordinal, score);
+			}
+
+			int topMask = RankedView.topMask(this.views, ordinal);
+			this.tree.insert(ordinal, this.keyBuffer);
+			RankedView.invalidateTops(this.views, ordinal, topMask);
+		}
+
+
+		/**
+		 * Checks if any input of ranking strategy has changed since ordinal was indexed.
+		 * Old counters are read from likes ordering key, new counters from key buffer.
+		 * @param ordinal Object ordinal.
+		 * @return {@code true} if rank score must be recalculated.
+		 */
+		private boolean rankInputsChanged(int ordinal)
+		{
+			long oldKey = this.tree.keyOf(LIKES, ordinal);
+			long newKey = this.keyBuffer[LIKES];
+
+			return this.rankInputs.contains(RankingStrategy.Input.LIKES) && scoreOf(oldKey) != scoreOf(newKey) ||
+				this.rankInputs.contains(RankingStrategy.Input.DISLIKES) &&
+					(oldKey & 0xFFFFFFFFL) != (newKey & 0xFFFFFFFFL);
+		}
+
+
+		/**
+		 * Returns how many objects have strictly better score than given object.
+		 * @param ordering Ordering index.
+		 * @param likesObject Likes object.
+		 * @return number of objects that beat given object.
+		 */
+		private int placeOf(int ordering, LikesObject likesObject)
+		{
+			long key;
+
+			switch (ordering)
+			{
+				case LIKES:
+					key = likesKey(likesObject);
+					break;
+				case DISLIKES:
+					key = dislikesKey(likesObject);
+					break;
+				default:
+					key = rankKey(this.strategy.score(likesObject.getLikes(), likesObject.getDislikes()),
+						likesObject.getLikes());
+			}
+
+			return this.histograms[ordering].countGreater(scoreOf(key));
+		}
+
+
+		/**
+		 * @param ordinal Object ordinal.
+		 * @return object with given ordinal.
+		 */
+		private LikesObject getObject(int ordinal)
+		{
+			return this.objects[ordinal];
+		}
+
+
+		/**
+		 * @param likesObject Likes object.
+		 * @return ordinal of given object or -1.
+		 */
+		private int getOrdinal(LikesObject likesObject)
+		{
+			Integer ordinal = this.ordinals.get(likesObject.getUniqueId());
+			return ordinal == null || this.objects[ordinal] != likesObject ? -1 : ordinal;
+		}
+
+
+		/**
+		 * Ranking strategy for this GameMode.
+		 */
+		private final RankingStrategy strategy;
+
+		/**
+		 * Inputs that ranking strategy depends on.
+		 */
+		private final Set<RankingStrategy.Input> rankInputs;
+
+		/**
+		 * Map that links island id to its ordinal.
+		 */
+		private final Map<String, Integer> ordinals = new HashMap<>();
+
+		/**
+		 * Objects by their ordinal.
+		 */
+		private LikesObject[] objects = new LikesObject[16];
+
+		/**
+		 * Released ordinals that can be reused.
+		 */
+		private int[] freeOrdinals = new int[16];
+
+		/**
+		 * Number of released ordinals.
+		 */
+		private int freeCount;
+
+		/**
+		 * Next never used ordinal.
+		 */
+		private int nextOrdinal;
+
+		/**
+		 * Tree that holds likes, dislikes and rank orderings.
+		 */
+		private final LongRankTree tree = new LongRankTree(ORDERINGS, 16);
+
+		/**
+		 * Score histograms for each ordering. Like and dislike counts are never negative,
+		 * while rank is centered around zero.
+		 */
+		private final ScoreHistogram[] histograms = {
+			new ScoreHistogram(0, HISTOGRAM_BUCKETS),
+			new ScoreHistogram(0, HISTOGRAM_BUCKETS),
+			new ScoreHistogram(-HISTOGRAM_BUCKETS / 2, HISTOGRAM_BUCKETS)
+		};
+
+		/**
+		 * Daily, weekly and monthly orderings.
+		 */
+		private final WindowIndex windows;
+
+		/**
+		 * Trending ordering.
+		 */
+		private final TrendingIndex trending;
+
+		/**
+		 * Reusable buffer for ordering keys.
+		 */
+		private final long[] keyBuffer = new long[ORDERINGS];
+
+		/**
+		 * View over likes ordering.
+		 */
+		private final RankedView likesView = new RankedView(this.tree,
+			LIKES,
+			this::getObject,
+			this::getOrdinal,
+			likesObject -> this.placeOf(LIKES, likesObject));
+
+		/**
+		 * View over dislikes ordering.
+		 */
+		private final RankedView dislikesView = new RankedView(this.tree,
+			DISLIKES,
+			this::getObject,
+			this::getOrdinal,
+			likesObject -> this.placeOf(DISLIKES, likesObject));
+
+		/**
+		 * View over rank ordering.
+		 */
+		private final RankedView rankView = new RankedView(this.tree,
+			RANK,
+			this::getObject,
+			this::getOrdinal,
+			likesObject -> this.placeOf(RANK, likesObject));
+
+		/**
+		 * All views over the tree, indexed by ordering.
+		 */
+		private final RankedView[] views = { this.likesView, this.dislikesView, this.rankView };
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Index of likes ordering.
+	 */
+	private static final int LIKES = 0;
+
+	/**
+	 * Index of dislikes ordering.
+	 */
+	private static final int DISLIKES = 1;
+
+	/**
+	 * Index of rank ordering.
+	 */
+	private static final int RANK = 2;
+
+	/**
+	 * Number of orderings.
+	 */
+	private static final int ORDERINGS = 3;
+
+	/**
+	 * Number of score buckets in each histogram. Scores outside buckets are still
+	 * counted, but through slower overflow tree.
+	 */
+	private static final int HISTOGRAM_BUCKETS = 4096;
+
+	/**
+	 * Index that is returned for GameModes without any object.
+	 */
+	private static final GameModeIndex EMPTY = new GameModeIndex(new NetScoreStrategy(), 0, 0, 1);
+
+	/**
+	 * This map links GameMode's to liked islands sorted by likes, dislikes and rank.
+	 * It should be cached, because of PlaceHolders.
+	 */
+	private final Map<String, GameModeIndex> gameModeIndexes;
+
+	/**
+	 * Function that returns ranking strategy for GameMode.
+	 */
+	private final Function<String, RankingStrategy> strategyProvider;
+
+	/**
+	 * Current epoch day for time windows.
+	 */
+	private long day;
+
+	/**
+	 * Moment from which trending weights are measured.
+	 */
+	private final long trendingLandmark;
+
+	/**
+	 * Half-life of trending weights in milliseconds.
+	 */
+	private final long trendingHalfLife;
+}
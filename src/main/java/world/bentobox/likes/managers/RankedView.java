@@ -0,0 +1,409 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.util.AbstractCollection;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+import java.util.function.Predicate;
+import java.util.function.ToIntFunction;
+
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.utils.collections.LongRankTree;
+
+
+/**
+ * Read-only view over single ordering of likes objects in one GameMode.
+ * It provides index access, range and neighbourhood queries, and is backed by one
+ * ordering of primitive {@link LongRankTree}. View reflects changes in the index.
+ * <p>
+ * View also keeps materialized immutable list of top {@link #TOP_SIZE} objects. Index
+ * invalidates it only when a change moves object into, out of or inside the top, and each
+ * invalidation gets new version number, so callers can skip work if version did not change.
+ */
+public class RankedView extends AbstractCollection<LikesObject>
+{
+	/**
+	 * Default constructor.
+	 * @param tree Tree that holds ordering.
+	 * @param ordering Index of ordering in the tree.
+	 * @param objectGetter Function that returns likes object by its ordinal.
+	 * @param ordinalGetter Function that returns ordinal of likes object or -1.
+	 * @param placeGetter Function that returns number of objects with better score.
+	 */
+	RankedView(LongRankTree tree,
+		int ordering,
+		IntFunction<LikesObject> objectGetter,
+		ToIntFunction<LikesObject> ordinalGetter,
+		ToIntFunction<LikesObject> placeGetter)
+	{
+		this.tree = tree;
+		this.ordering = ordering;
+		this.objectGetter = objectGetter;
+		this.ordinalGetter = ordinalGetter;
+		this.placeGetter = placeGetter;
+		this.version = LAST_VERSION.incrementAndGet();
+	}
+
+
+	/**
+	 * Returns the object located at the index offset from the beginning of the ordering.
+	 * @param index 0-based index of the object.
+	 * @return LikesObject at given index or {@code null} if index is out of bounds.
+	 */
+	public LikesObject exact(int index)
+	{
+		int ordinal = this.tree.select(this.ordering, index);
+		return ordinal < 0 ? null : this.objectGetter.apply(ordinal);
+	}
+
+
+	/**
+	 * Returns objects that are located at positions from {@code offset} till
+	 * {@code offset + limit} in the ordering. Objects that do not pass top filter are
+	 * skipped, so page can contain less objects than limit.
+	 * @param offset 0-based position of first object.
+	 * @param limit Maximal number of objects.
+	 * @return List of objects in given range.
+	 */
+	public List<LikesObject> getRange(int offset, int limit)
+	{
+		if (offset == 0 && limit == TOP_SIZE)
+		{
+			return this.getTop();
+		}
+
+		int[] ordinals = new int[Math.max(0, Math.min(limit, this.size() - offset))];
+		int count = this.tree.selectRange(this.ordering, offset, ordinals, ordinals.length);
+
+		List<LikesObject> range = new ArrayList<>(count);
+
+		for (int index = 0; index < count; index++)
+		{
+			LikesObject likesObject = this.objectGetter.apply(ordinals[index]);
+
+			if (this.topFilter.test(likesObject))
+			{
+				range.add(likesObject);
+			}
+		}
+
+		return range;
+	}
+
+
+	/**
+	 * Returns objects around given object: up to {@code count} objects directly above it,
+	 * the object itself and up to {@code count} objects directly below it. Position of the
+	 * object is found once, and neighbours are collected by walking the tree from that
+	 * position, so whole ordering is never materialized. Top filter is not applied, as
+	 * neighbours of an island without any value are islands without value too.
+	 * First element is located at {@code max(0, entryIndex(likesObject) - count)}.
+	 * @param likesObject Object which neighbours must be found.
+	 * @param count Maximal number of objects on each side.
+	 * @return List of objects ordered by this ordering, or empty list if object is not
+	 * in this ordering.
+	 */
+	public List<LikesObject> getNeighbours(LikesObject likesObject, int count)
+	{
+		return this.getNeighbours(this.entryIndex(likesObject), count);
+	}
+
+
+	/**
+	 * Returns objects around given position, the same way as
+	 * {@link #getNeighbours(LikesObject, int)}. It allows callers that already know
+	 * {@link #entryIndex(LikesObject)} of the object to avoid second lookup.
+	 * @param index 0-based index of the object in this ordering.
+	 * @param count Maximal number of objects on each side.
+	 * @return List of objects ordered by this ordering, or empty list if index is not
+	 * in this ordering.
+	 */
+	public List<LikesObject> getNeighbours(int index, int count)
+	{
+		if (index < 0 || index >= this.size() || count < 0)
+		{
+			return Collections.emptyList();
+		}
+
+		int offset = Math.max(0, index - count);
+		int[] ordinals = new int[Math.min(index + count + 1, this.size()) - offset];
+		int size = this.tree.selectRange(this.ordering, offset, ordinals, ordinals.length);
+
+		List<LikesObject> neighbours = new ArrayList<>(size);
+
+		for (int i = 0; i < size; i++)
+		{
+			neighbours.add(this.objectGetter.apply(ordinals[i]));
+		}
+
+		return neighbours;
+	}
+
+
+	/**
+	 * Returns the offset of given object from the beginning of the ordering.
+	 * @param likesObject Object which index must be found.
+	 * @return 0-based index of the object, or -1 if it is not in this ordering.
+	 */
+	public int entryIndex(LikesObject likesObject)
+	{
+		return this.tree.rankOf(this.ordering, this.ordinalGetter.applyAsInt(likesObject));
+	}
+
+
+	/**
+	 * Returns how many objects in this ordering have strictly better score than given
+	 * object. Unlike {@link #entryIndex(LikesObject)} objects with equal score share the
+	 * same place, and lookup uses score histogram instead of walking the tree.
+	 * Object does not need to be in the ordering.
+	 * @param likesObject Object which place must be found.
+	 * @return number of objects that beat given object.
+	 */
+	public int placeOf(LikesObject likesObject)
+	{
+		return this.placeGetter.applyAsInt(likesObject);
+	}
+
+
+	/**
+	 * Returns immutable list of top objects in this ordering. Objects that do not pass
+	 * top filter, f.e. islands without any likes, are not included. List is rebuilt only
+	 * if top has changed since previous call.
+	 * @return List that contains max {@link #TOP_SIZE} objects.
+	 */
+	public List<LikesObject> getTop()
+	{
+		if (this.topVersion != this.version)
+		{
+			LikesObject[] top = new LikesObject[TOP_SIZE];
+			int count = 0;
+
+			for (int index = 0; index < TOP_SIZE; index++)
+			{
+				LikesObject likesObject = this.exact(index);
+
+				if (likesObject == null)
+				{
+					break;
+				}
+
+				if (this.topFilter.test(likesObject))
+				{
+					top[count++] = likesObject;
+				}
+			}
+
+			this.top = Collections.unmodifiableList(Arrays.asList(Arrays.copyOf(top, count)));
+			this.topVersion = this.version;
+		}
+
+		return this.top;
+	}
+
+
+	/**
+	 * Returns version of top list. Version changes each time when top list could change,
+	 * and versions are never reused between views.
+	 * @return version number of current top list.
+	 */
+	public long getVersion()
+	{
+		return this.version;
+	}
+
+
+	/**
+	 * This method sets filter for objects that can be in top list.
+	 * @param topFilter Predicate that returns {@code true} for objects that can be in top.
+	 */
+	void setTopFilter(Predicate<LikesObject> topFilter)
+	{
+		this.topFilter = topFilter;
+		this.invalidateTop();
+	}
+
+
+	/**
+	 * This method returns if given ordinal is in top positions of this ordering.
+	 * Index checks it before and after repositioning object.
+	 * @param ordinal Object ordinal.
+	 * @return {@code true} if ordinal is in top positions.
+	 */
+	boolean isInTop(int ordinal)
+	{
+		int rank = this.tree.rankOf(this.ordering, ordinal);
+		return rank >= 0 && rank < TOP_SIZE;
+	}
+
+
+	/**
+	 * This method marks top list as changed.
+	 */
+	void invalidateTop()
+	{
+		this.version = LAST_VERSION.incrementAndGet();
+	}
+
+
+	/**
+	 * This method returns bit mask of views in which given ordinal is in top positions.
+	 * It must be called before ordinal is repositioned.
+	 * @param views Views over the same tree.
+	 * @param ordinal Object ordinal.
+	 * @return Bit mask where bit {@code i} is set if ordinal is in top of view {@code i}.
+	 */
+	static int topMask(RankedView[] views, int ordinal)
+	{
+		int mask = 0;
+
+		for (int i = 0; i < views.length; i++)
+		{
+			if (views[i].isInTop(ordinal))
+			{
+				mask |= 1 << i;
+			}
+		}
+
+		return mask;
+	}
+
+
+	/**
+	 * This method invalidates top lists of views where given ordinal was in top before
+	 * repositioning or is in top after it.
+	 * @param views Views over the same tree.
+	 * @param ordinal Object ordinal.
+	 * @param topMask Mask that was returned by {@link #topMask(RankedView[], int)}.
+	 */
+	static void invalidateTops(RankedView[] views, int ordinal, int topMask)
+	{
+		for (int i = 0; i < views.length; i++)
+		{
+			if ((topMask & (1 << i)) != 0 || views[i].isInTop(ordinal))
+			{
+				views[i].invalidateTop();
+			}
+		}
+	}
+
+
+	@Override
+	public boolean contains(Object object)
+	{
+		return object instanceof LikesObject &&
+			this.tree.contains(this.ordinalGetter.applyAsInt((LikesObject) object));
+	}
+
+
+	@Override
+	public int size()
+	{
+		return this.tree.size();
+	}
+
+
+	@Override
+	public Iterator<LikesObject> iterator()
+	{
+		return new Iterator<LikesObject>()
+		{
+			@Override
+			public boolean hasNext()
+			{
+				return this.index < RankedView.this.size();
+			}
+
+
+			@Override
+			public LikesObject next()
+			{
+				if (!this.hasNext())
+				{
+					throw new NoSuchElementException();
+				}
+
+				return RankedView.this.exact(this.index++);
+			}
+
+
+			/**
+			 * Index of next element.
+			 */
+			private int index;
+		};
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Tree that holds ordering.
+	 */
+	private final LongRankTree tree;
+
+	/**
+	 * Index of ordering in the tree.
+	 */
+	private final int ordering;
+
+	/**
+	 * Function that returns likes object by its ordinal.
+	 */
+	private final IntFunction<LikesObject> objectGetter;
+
+	/**
+	 * Function that returns ordinal of given likes object.
+	 */
+	private final ToIntFunction<LikesObject> ordinalGetter;
+
+	/**
+	 * Function that returns number of objects with better score than given object.
+	 */
+	private final ToIntFunction<LikesObject> placeGetter;
+
+	/**
+	 * Filter for objects that can be in top list.
+	 */
+	private Predicate<LikesObject> topFilter = likesObject -> true;
+
+	/**
+	 * Materialized top list.
+	 */
+	private List<LikesObject> top = Collections.emptyList();
+
+	/**
+	 * Version of materialized top list.
+	 */
+	private long topVersion;
+
+	/**
+	 * Current version of this view.
+	 */
+	private long version;
+
+	/**
+	 * Last version number that was given to any view. Views of different GameModes can
+	 * be created and invalidated from different threads.
+	 */
+	private static final AtomicLong LAST_VERSION = new AtomicLong();
+
+	/**
+	 * Number of objects in top list.
+	 */
+	public static final int TOP_SIZE = 10;
+}
@@ -0,0 +1,343 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.util.Arrays;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.utils.collections.LongRankTree;
+
+
+/**
+ * This class holds trending ordering for single GameMode. Each like adds weight that
+ * decays exponentially with configured half-life.
+ * <p>
+ * Scores are not decayed periodically. Instead each vote adds weight
+ * {@code exp(lambda * (time - landmark))}, where landmark is fixed moment, and scores are
+ * stored as natural logarithm of the sum. All scores would be multiplied by the same decay
+ * factor at any moment, so order between votes does not change and only voted island must
+ * be repositioned. Real decayed score is calculated lazily when it is displayed.
+ * <p>
+ * Times of recent likes are stored in likes object per voter. Score of added island is
+ * restored from them, and removed like subtracts exactly the weight it added, so toggling
+ * like does not raise score.
+ * <p>
+ * Islands are addressed by the same ordinals as in {@link RankIndex}.
+ */
+class TrendingIndex
+{
+	/**
+	 * Default constructor.
+	 * @param landmark Moment in milliseconds from which vote weights are measured.
+	 * @param halfLife Half-life of vote weight in milliseconds.
+	 * @param objectGetter Function that returns likes object by its ordinal.
+	 * @param ordinalGetter Function that returns ordinal of likes object or -1.
+	 */
+	TrendingIndex(long landmark,
+		long halfLife,
+		IntFunction<LikesObject> objectGetter,
+		ToIntFunction<LikesObject> ordinalGetter)
+	{
+		this.landmark = landmark;
+		this.lambda = Math.log(2) / Math.max(1, halfLife);
+		this.objectGetter = objectGetter;
+
+		this.view = new RankedView(this.tree,
+			0,
+			objectGetter,
+			ordinalGetter,
+			likesObject -> this.placeOf(ordinalGetter.applyAsInt(likesObject)));
+		this.view.setTopFilter(likesObject -> this.hasScore(ordinalGetter.applyAsInt(likesObject)));
+		this.views = new RankedView[] { this.view };
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method adds ordinal with score of like times that are stored in its object.
+	 * @param ordinal Island ordinal.
+	 */
+	void add(int ordinal)
+	{
+		if (ordinal >= this.logScores.length)
+		{
+			int oldLength = this.logScores.length;
+			this.logScores = Arrays.copyOf(this.logScores, Math.max(ordinal + 1, oldLength * 2));
+			Arrays.fill(this.logScores, oldLength, this.logScores.length, Double.NEGATIVE_INFINITY);
+		}
+
+		this.logScores[ordinal] = this.restoreScore(ordinal);
+		this.keyBuffer[0] = keyOf(this.logScores[ordinal]);
+		this.insert(ordinal);
+	}
+
+
+	/**
+	 * This method adds ordinals from {@code 0} till {@code count - 1} to empty index in
+	 * single bulk build. Scores are restored from like times that are stored in objects.
+	 * @param count Number of ordinals.
+	 */
+	void addAll(int count)
+	{
+		if (count > this.logScores.length)
+		{
+			this.logScores = new double[count];
+		}
+
+		Arrays.fill(this.logScores, Double.NEGATIVE_INFINITY);
+
+		long[] keys = new long[count];
+
+		for (int ordinal = 0; ordinal < count; ordinal++)
+		{
+			this.logScores[ordinal] = this.restoreScore(ordinal);
+			keys[ordinal] = keyOf(this.logScores[ordinal]);
+		}
+
+		this.tree.build(count, keys);
+	}
+
+
+	/**
+	 * This method removes ordinal from ordering.
+	 * @param ordinal Island ordinal.
+	 */
+	void remove(int ordinal)
+	{
+		int topMask = RankedView.topMask(this.views, ordinal);
+		this.tree.remove(ordinal);
+		RankedView.invalidateTops(this.views, ordinal, topMask);
+	}
+
+
+	/**
+	 * This method adds weight of like that was given at given time to island score.
+	 * @param ordinal Island ordinal.
+	 * @param time Like time in milliseconds.
+	 */
+	void addLike(int ordinal, long time)
+	{
+		if (!this.tree.contains(ordinal))
+		{
+			return;
+		}
+
+		this.logScores[ordinal] = logAddExp(this.logScores[ordinal], this.lambda * (time - this.landmark));
+		this.keyBuffer[0] = keyOf(this.logScores[ordinal]);
+		this.insert(ordinal);
+	}
+
+
+	/**
+	 * This method subtracts weight of like that was given at given time from island
+	 * score, when like is removed or replaced.
+	 * @param ordinal Island ordinal.
+	 * @param time Time of removed like in milliseconds.
+	 */
+	void removeLike(int ordinal, long time)
+	{
+		if (!this.tree.contains(ordinal))
+		{
+			return;
+		}
+
+		this.logScores[ordinal] = logSubExp(this.logScores[ordinal], this.lambda * (time - this.landmark));
+		this.keyBuffer[0] = keyOf(this.logScores[ordinal]);
+		this.insert(ordinal);
+	}
+
+
+	/**
+	 * @return View over trending ordering.
+	 */
+	RankedView getView()
+	{
+		return this.view;
+	}
+
+
+	/**
+	 * @param ordinal Island ordinal or -1.
+	 * @return {@code true} if island has got any like since it was indexed.
+	 */
+	boolean hasScore(int ordinal)
+	{
+		return this.tree.contains(ordinal) && this.logScores[ordinal] != Double.NEGATIVE_INFINITY;
+	}
+
+
+	/**
+	 * This method returns decayed like score of given island at given moment.
+	 * @param ordinal Island ordinal or -1.
+	 * @param time Moment in milliseconds.
+	 * @return decayed score.
+	 */
+	double getScore(int ordinal, long time)
+	{
+		if (!this.tree.contains(ordinal))
+		{
+			return 0;
+		}
+
+		return Math.exp(this.logScores[ordinal] - this.lambda * (time - this.landmark));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Calculates score of given ordinal from like times that are stored in its object.
+	 * @param ordinal Island ordinal.
+	 * @return logarithm of weighted like sum.
+	 */
+	private double restoreScore(int ordinal)
+	{
+		double logScore = Double.NEGATIVE_INFINITY;
+
+		for (long likeTime : this.objectGetter.apply(ordinal).getLikeTimes().values())
+		{
+			logScore = logAddExp(logScore, this.lambda * (likeTime - this.landmark));
+		}
+
+		return logScore;
+	}
+
+
+	/**
+	 * Inserts or repositions ordinal with key from key buffer and invalidates top list
+	 * if it is affected.
+	 * @param ordinal Island ordinal.
+	 */
+	private void insert(int ordinal)
+	{
+		int topMask = RankedView.topMask(this.views, ordinal);
+		this.tree.insert(ordinal, this.keyBuffer);
+		RankedView.invalidateTops(this.views, ordinal, topMask);
+	}
+
+
+	/**
+	 * Returns how many islands have strictly larger trending score.
+	 * @param ordinal Island ordinal or -1.
+	 * @return number of islands that beat given island.
+	 */
+	private int placeOf(int ordinal)
+	{
+		double score = this.tree.contains(ordinal) ? this.logScores[ordinal] : Double.NEGATIVE_INFINITY;
+		return this.tree.countLess(0, keyOf(score));
+	}
+
+
+	/**
+	 * Calculates {@code log(exp(a) + exp(b))} without overflow.
+	 * @param a First logarithm.
+	 * @param b Second logarithm.
+	 * @return logarithm of sum.
+	 */
+	private static double logAddExp(double a, double b)
+	{
+		if (a == Double.NEGATIVE_INFINITY)
+		{
+			return b;
+		}
+
+		double max = Math.max(a, b);
+		return max + Math.log1p(Math.exp(Math.min(a, b) - max));
+	}
+
+
+	/**
+	 * Calculates {@code log(exp(a) - exp(b))}. Result that is equal to zero up to
+	 * rounding errors is returned as empty score.
+	 * @param a Logarithm of minuend.
+	 * @param b Logarithm of subtrahend.
+	 * @return logarithm of difference.
+	 */
+	private static double logSubExp(double a, double b)
+	{
+		if (b >= a - SUBTRACT_EPSILON)
+		{
+			return Double.NEGATIVE_INFINITY;
+		}
+
+		return a + Math.log1p(-Math.exp(b - a));
+	}
+
+
+	/**
+	 * Converts score to key that orders scores descending. Double bits are flipped so
+	 * that signed long order matches double order, and then inverted.
+	 * @param logScore Logarithm of score.
+	 * @return ordering key.
+	 */
+	private static long keyOf(double logScore)
+	{
+		long bits = Double.doubleToLongBits(logScore);
+		return ~(bits ^ ((bits >> 63) & Long.MAX_VALUE));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Moment from which vote weights are measured.
+	 */
+	private final long landmark;
+
+	/**
+	 * Decay rate per millisecond.
+	 */
+	private final double lambda;
+
+	/**
+	 * Function that returns likes object by its ordinal.
+	 */
+	private final IntFunction<LikesObject> objectGetter;
+
+	/**
+	 * Logarithm of weighted like sum for each ordinal.
+	 */
+	private double[] logScores = new double[0];
+
+	/**
+	 * Tree that holds trending ordering.
+	 */
+	private final LongRankTree tree = new LongRankTree(1, 16);
+
+	/**
+	 * View over trending ordering.
+	 */
+	private final RankedView view;
+
+	/**
+	 * Array that holds the only view, for top list invalidation.
+	 */
+	private final RankedView[] views;
+
+	/**
+	 * Reusable buffer for ordering key.
+	 */
+	private final long[] keyBuffer = new long[1];
+
+	/**
+	 * Logarithm difference under which subtraction result is treated as zero.
+	 */
+	private static final double SUBTRACT_EPSILON = 1e-9;
+}
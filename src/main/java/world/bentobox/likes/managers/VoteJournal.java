@@ -0,0 +1,467 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.zip.CRC32;
+
+import world.bentobox.likes.LikesAddon;
+
+
+/**
+ * Append-only journal of vote operations. Each vote is written as small binary record
+ * to current journal segment, so vote is not lost if server stops before the changed
+ * object is saved to database.
+ * <p>
+ * When changed objects are flushed, current segment is sealed and new segment is started.
+ * Sealed segments are deleted after database confirms that flushed objects are saved.
+ * On load all remaining segments are replayed on top of database data.
+ * <p>
+ * Each record has sequence number that grows with every vote, also between restarts, as
+ * it starts from vote time. Changed object stores sequence of the last record that is
+ * applied to it, so records that are already included in saved data are skipped on
+ * replay. It is required for reset, which does not set absolute state of a voter.
+ * <p>
+ * Record layout: {@code int length, int crc32, byte operation, long time,
+ * long voterMost, long voterLeast, short islandIdLength, islandId,
+ * short gameModeLength, gameMode, long sequence}. Length and checksum cover everything
+ * after them, so record that was cut by crash is detected and ignored. Records of older
+ * versions do not have sequence and are always replayed.
+ * <p>
+ * This class is not synchronized. All methods except {@link #delete(List)} must be called
+ * from the main thread.
+ */
+class VoteJournal
+{
+	/**
+	 * Default constructor.
+	 * @param addon Likes addon instance.
+	 * @param directory Directory where journal segments are stored.
+	 */
+	VoteJournal(LikesAddon addon, Path directory)
+	{
+		this.addon = addon;
+		this.directory = directory;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method reads all existing segments in order they were written and passes
+	 * each valid record to given consumer. Replayed segments are sealed, so they are
+	 * deleted after next successful flush.
+	 * @param consumer Consumer that applies journal records.
+	 */
+	void replay(RecordConsumer consumer)
+	{
+		List<Path> segments = new ArrayList<>();
+
+		if (Files.isDirectory(this.directory))
+		{
+			try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX))
+			{
+				stream.forEach(segments::add);
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not read likes journal: " + e.getMessage());
+				return;
+			}
+		}
+
+		segments.sort((first, second) -> Long.compare(segmentNumber(first), segmentNumber(second)));
+
+		int records = 0;
+
+		for (Path segment : segments)
+		{
+			this.nextSegment = Math.max(this.nextSegment, segmentNumber(segment) + 1);
+			records += this.replaySegment(segment, consumer);
+			this.sealedSegments.add(segment);
+		}
+
+		if (records > 0)
+		{
+			this.addon.log("Replayed " + records + " votes from likes journal.");
+		}
+	}
+
+
+	/**
+	 * This method appends vote operation to current segment.
+	 * @param operation Vote operation.
+	 * @param islandId Island id.
+	 * @param gameMode GameMode of island.
+	 * @param voter Player who voted.
+	 * @param time Vote time in milliseconds.
+	 * @return Sequence number of written record, or 0 if journal is disabled.
+	 */
+	long append(Operation operation, String islandId, String gameMode, UUID voter, long time)
+	{
+		if (this.broken)
+		{
+			return 0;
+		}
+
+		// Time based start keeps sequence growing after journal segments were deleted.
+		this.lastSequence = Math.max(this.lastSequence + 1, time << SEQUENCE_TIME_SHIFT);
+
+		byte[] island = islandId.getBytes(StandardCharsets.UTF_8);
+		byte[] mode = (gameMode == null ? "" : gameMode).getBytes(StandardCharsets.UTF_8);
+
+		int bodyLength = 1 + Long.BYTES * 4 + Short.BYTES * 2 + island.length + mode.length;
+		int recordLength = Integer.BYTES * 2 + bodyLength;
+
+		if (this.buffer.capacity() < recordLength)
+		{
+			this.buffer = ByteBuffer.allocate(recordLength);
+		}
+
+		this.buffer.clear();
+		this.buffer.position(Integer.BYTES * 2);
+		this.buffer.put((byte) operation.ordinal());
+		this.buffer.putLong(time);
+		this.buffer.putLong(voter.getMostSignificantBits());
+		this.buffer.putLong(voter.getLeastSignificantBits());
+		this.buffer.putShort((short) island.length);
+		this.buffer.put(island);
+		this.buffer.putShort((short) mode.length);
+		this.buffer.put(mode);
+		this.buffer.putLong(this.lastSequence);
+
+		this.checksum.reset();
+		this.checksum.update(this.buffer.array(), Integer.BYTES * 2, bodyLength);
+
+		this.buffer.putInt(0, bodyLength);
+		this.buffer.putInt(Integer.BYTES, (int) this.checksum.getValue());
+		this.buffer.flip();
+
+		try
+		{
+			if (this.channel == null)
+			{
+				Files.createDirectories(this.directory);
+				this.currentSegment = this.directory.resolve(SEGMENT_PREFIX + this.nextSegment++ + SEGMENT_SUFFIX);
+				this.channel = FileChannel.open(this.currentSegment,
+					StandardOpenOption.CREATE,
+					StandardOpenOption.WRITE,
+					StandardOpenOption.APPEND);
+			}
+
+			while (this.buffer.hasRemaining())
+			{
+				this.channel.write(this.buffer);
+			}
+		}
+		catch (IOException e)
+		{
+			// Votes are still saved by periodic flush, journal only protects from crash.
+			this.addon.logError("Could not write likes journal, journal is disabled: " + e.getMessage());
+			this.broken = true;
+			return 0;
+		}
+
+		return this.lastSequence;
+	}
+
+
+	/**
+	 * This method seals current segment, so following votes are written to new segment.
+	 * It must be called right before changed objects are flushed.
+	 * @return Segments that may be deleted when flushed objects are saved.
+	 */
+	List<Path> rotate()
+	{
+		this.closeChannel();
+
+		if (this.currentSegment != null)
+		{
+			this.sealedSegments.add(this.currentSegment);
+			this.currentSegment = null;
+		}
+
+		List<Path> sealed = new ArrayList<>(this.sealedSegments);
+		this.sealedSegments.clear();
+
+		return sealed;
+	}
+
+
+	/**
+	 * This method deletes given sealed segments. It can be called from any thread.
+	 * @param segments Segments that were returned by {@link #rotate()}.
+	 */
+	void delete(List<Path> segments)
+	{
+		for (Path segment : segments)
+		{
+			try
+			{
+				Files.deleteIfExists(segment);
+			}
+			catch (IOException e)
+			{
+				this.addon.logError("Could not delete likes journal segment " + segment + ": " + e.getMessage());
+			}
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method replays single segment. Reading stops at first damaged record, as
+	 * everything after it was written after crash point.
+	 * @param segment Segment file.
+	 * @param consumer Consumer that applies journal records.
+	 * @return number of replayed records.
+	 */
+	private int replaySegment(Path segment, RecordConsumer consumer)
+	{
+		ByteBuffer data;
+
+		try
+		{
+			data = ByteBuffer.wrap(Files.readAllBytes(segment));
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not read likes journal segment " + segment + ": " + e.getMessage());
+			return 0;
+		}
+
+		int records = 0;
+
+		while (data.remaining() >= Integer.BYTES * 2)
+		{
+			int bodyLength = data.getInt();
+			int crc = data.getInt();
+
+			if (bodyLength <= 0 || bodyLength > data.remaining())
+			{
+				break;
+			}
+
+			this.checksum.reset();
+			this.checksum.update(data.array(), data.position(), bodyLength);
+
+			if ((int) this.checksum.getValue() != crc)
+			{
+				break;
+			}
+
+			int bodyEnd = data.position() + bodyLength;
+
+			int operation = data.get();
+			long time = data.getLong();
+			UUID voter = new UUID(data.getLong(), data.getLong());
+			String islandId = readString(data);
+			String gameMode = readString(data);
+			long sequence = bodyEnd - data.position() >= Long.BYTES ? data.getLong() : 0;
+
+			data.position(bodyEnd);
+			this.lastSequence = Math.max(this.lastSequence, sequence);
+
+			if (operation >= 0 && operation < Operation.values().length)
+			{
+				consumer.accept(Operation.values()[operation], islandId, gameMode, voter, time, sequence);
+				records++;
+			}
+		}
+
+		if (data.hasRemaining())
+		{
+			this.addon.logWarning("Likes journal segment " + segment + " has damaged tail. It is ignored.");
+		}
+
+		return records;
+	}
+
+
+	/**
+	 * Closes channel of current segment.
+	 */
+	private void closeChannel()
+	{
+		if (this.channel == null)
+		{
+			return;
+		}
+
+		try
+		{
+			this.channel.close();
+		}
+		catch (IOException e)
+		{
+			this.addon.logError("Could not close likes journal: " + e.getMessage());
+		}
+
+		this.channel = null;
+	}
+
+
+	/**
+	 * @param data Buffer positioned at string length.
+	 * @return UTF-8 string that is prefixed with its length.
+	 */
+	private static String readString(ByteBuffer data)
+	{
+		int length = Short.toUnsignedInt(data.getShort());
+		String value = new String(data.array(), data.position(), length, StandardCharsets.UTF_8);
+		data.position(data.position() + length);
+
+		return value;
+	}
+
+
+	/**
+	 * @param segment Segment file.
+	 * @return Sequence number of segment.
+	 */
+	private static long segmentNumber(Path segment)
+	{
+		String name = segment.getFileName().toString();
+
+		try
+		{
+			return Long.parseLong(name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length()));
+		}
+		catch (NumberFormatException e)
+		{
+			return -1;
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Enums
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Vote operations that are stored in journal. Ordinal is stored in file, so new
+	 * values must be added only at the end.
+	 */
+	enum Operation
+	{
+		ADD_LIKE,
+		REMOVE_LIKE,
+		ADD_DISLIKE,
+		REMOVE_DISLIKE,
+		RESET
+	}
+
+
+	/**
+	 * Consumer of replayed journal records.
+	 */
+	@FunctionalInterface
+	interface RecordConsumer
+	{
+		/**
+		 * Applies single journal record.
+		 * @param operation Vote operation.
+		 * @param islandId Island id.
+		 * @param gameMode GameMode of island.
+		 * @param voter Player who voted.
+		 * @param time Vote time in milliseconds.
+		 * @param sequence Sequence number of record, or 0 if record does not have it.
+		 */
+		void accept(Operation operation, String islandId, String gameMode, UUID voter, long time, long sequence);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Likes addon instance.
+	 */
+	private final LikesAddon addon;
+
+	/**
+	 * Directory where journal segments are stored.
+	 */
+	private final Path directory;
+
+	/**
+	 * Segments that are sealed but not yet deleted.
+	 */
+	private final List<Path> sealedSegments = new ArrayList<>();
+
+	/**
+	 * Segment where votes are written now, or null if nothing was written since rotation.
+	 */
+	private Path currentSegment;
+
+	/**
+	 * Channel of current segment.
+	 */
+	private FileChannel channel;
+
+	/**
+	 * Sequence number of next segment.
+	 */
+	private long nextSegment;
+
+	/**
+	 * Sequence number of the last written or replayed record.
+	 */
+	private long lastSequence;
+
+	/**
+	 * Reusable buffer for single record.
+	 */
+	private ByteBuffer buffer = ByteBuffer.allocate(256);
+
+	/**
+	 * Reusable checksum calculator.
+	 */
+	private final CRC32 checksum = new CRC32();
+
+	/**
+	 * Becomes true after write error. Broken journal stops writing.
+	 */
+	private boolean broken;
+
+	/**
+	 * Prefix of segment file names.
+	 */
+	private static final String SEGMENT_PREFIX = "votes-";
+
+	/**
+	 * Suffix of segment file names.
+	 */
+	private static final String SEGMENT_SUFFIX = ".journal";
+
+	/**
+	 * Number of bits for records written in the same millisecond, when record sequence
+	 * is started from vote time.
+	 */
+	private static final int SEQUENCE_TIME_SHIFT = 10;
+}
@@ -0,0 +1,335 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.UUID;
+
+import world.bentobox.likes.database.VoterDictionary;
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.database.objects.LikesObject.Vote;
+import world.bentobox.likes.database.objects.VoteMap;
+
+
+/**
+ * Reverse index from voter to islands that voter liked or disliked. It allows to find
+ * votes of single player without scanning every likes object.
+ * <p>
+ * Voters are addressed by their {@link VoterDictionary} id, and islands by ordinal that
+ * index assigns to each island id. Votes of each voter are stored in sorted int array,
+ * where first element is number of votes, so each vote takes 4 bytes. Island ordinals
+ * are never reused, so ordinals of removed islands stay in ordinal table until index is
+ * cleared.
+ * <p>
+ * Index contains only objects that are added to it, it is kept in sync with likes cache
+ * by LikesManager. This class is not synchronized, it is used only from the main thread.
+ */
+class VoterIndex
+{
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method adds all votes of given island.
+	 * @param likesObject Island likes object.
+	 */
+	void add(LikesObject likesObject)
+	{
+		int island = this.ordinal(likesObject.getUniqueId());
+
+		forEachVoter(likesObject.getLikedBy(), voter -> this.liked = insert(this.liked, voter, island));
+		forEachVoter(likesObject.getDislikedBy(), voter -> this.disliked = insert(this.disliked, voter, island));
+	}
+
+
+	/**
+	 * This method removes all votes of given island.
+	 * @param likesObject Island likes object.
+	 */
+	void remove(LikesObject likesObject)
+	{
+		Integer island = this.islandOrdinals.get(likesObject.getUniqueId());
+
+		if (island == null)
+		{
+			return;
+		}
+
+		forEachVoter(likesObject.getLikedBy(), voter -> remove(this.liked, voter, island));
+		forEachVoter(likesObject.getDislikedBy(), voter -> remove(this.disliked, voter, island));
+	}
+
+
+	/**
+	 * This method moves island from list of previous vote of given voter to list of new
+	 * vote.
+	 * @param voter Voter id from {@link VoterDictionary}.
+	 * @param islandId Island id.
+	 * @param previous Previous vote.
+	 * @param vote New vote.
+	 */
+	void changeVote(int voter, String islandId, Vote previous, Vote vote)
+	{
+		int island = this.ordinal(islandId);
+
+		if (previous == Vote.LIKE)
+		{
+			remove(this.liked, voter, island);
+		}
+		else if (previous == Vote.DISLIKE)
+		{
+			remove(this.disliked, voter, island);
+		}
+
+		if (vote == Vote.LIKE)
+		{
+			this.liked = insert(this.liked, voter, island);
+		}
+		else if (vote == Vote.DISLIKE)
+		{
+			this.disliked = insert(this.disliked, voter, island);
+		}
+	}
+
+
+	/**
+	 * @param voter Voter UUID.
+	 * @return Ids of islands that given voter liked.
+	 */
+	List<String> getLikedIslands(UUID voter)
+	{
+		return this.getIslands(this.liked, voter);
+	}
+
+
+	/**
+	 * @param voter Voter UUID.
+	 * @return Ids of islands that given voter disliked.
+	 */
+	List<String> getDislikedIslands(UUID voter)
+	{
+		return this.getIslands(this.disliked, voter);
+	}
+
+
+	/**
+	 * This method removes all votes and island ordinals.
+	 */
+	void clear()
+	{
+		this.liked = EMPTY;
+		this.disliked = EMPTY;
+		this.islandOrdinals.clear();
+		this.islandIds.clear();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param islandId Island id.
+	 * @return Ordinal of island, new ordinal is assigned if island is not known.
+	 */
+	private int ordinal(String islandId)
+	{
+		return this.islandOrdinals.computeIfAbsent(islandId, id -> {
+			this.islandIds.add(id);
+			return this.islandIds.size() - 1;
+		});
+	}
+
+
+	/**
+	 * @param votes Vote table.
+	 * @param voter Voter UUID.
+	 * @return Ids of islands that are stored for given voter in given vote table.
+	 */
+	private List<String> getIslands(int[][] votes, UUID voter)
+	{
+		int voterId = VoterDictionary.getInstance().find(voter);
+
+		if (voterId < 0 || voterId >= votes.length || votes[voterId] == null)
+		{
+			return Collections.emptyList();
+		}
+
+		int[] islands = votes[voterId];
+		List<String> islandIdList = new ArrayList<>(islands[0]);
+
+		for (int index = 1; index <= islands[0]; index++)
+		{
+			islandIdList.add(this.islandIds.get(islands[index]));
+		}
+
+		return islandIdList;
+	}
+
+
+	/**
+	 * Inserts island ordinal in sorted vote array of given voter.
+	 * @param votes Vote table.
+	 * @param voter Voter id.
+	 * @param island Island ordinal.
+	 * @return Vote table, that may be new array if it had to grow.
+	 */
+	private static int[][] insert(int[][] votes, int voter, int island)
+	{
+		if (voter >= votes.length)
+		{
+			votes = Arrays.copyOf(votes, Math.max(voter + 1, votes.length + (votes.length >> 1)));
+		}
+
+		int[] islands = votes[voter];
+
+		if (islands == null)
+		{
+			islands = new int[MIN_CAPACITY];
+			votes[voter] = islands;
+		}
+
+		int count = islands[0];
+		int index = Arrays.binarySearch(islands, 1, count + 1, island);
+
+		if (index >= 0)
+		{
+			return votes;
+		}
+
+		index = -index - 1;
+
+		if (count + 1 == islands.length)
+		{
+			islands = Arrays.copyOf(islands, islands.length + (islands.length >> 1));
+			votes[voter] = islands;
+		}
+
+		System.arraycopy(islands, index, islands, index + 1, count + 1 - index);
+		islands[index] = island;
+		islands[0] = count + 1;
+
+		return votes;
+	}
+
+
+	/**
+	 * Removes island ordinal from sorted vote array of given voter.
+	 * @param votes Vote table.
+	 * @param voter Voter id.
+	 * @param island Island ordinal.
+	 */
+	private static void remove(int[][] votes, int voter, int island)
+	{
+		if (voter >= votes.length || votes[voter] == null)
+		{
+			return;
+		}
+
+		int[] islands = votes[voter];
+		int count = islands[0];
+		int index = Arrays.binarySearch(islands, 1, count + 1, island);
+
+		if (index < 0)
+		{
+			return;
+		}
+
+		if (count == 1)
+		{
+			votes[voter] = null;
+			return;
+		}
+
+		System.arraycopy(islands, index + 1, islands, index, count - index);
+		islands[0] = count - 1;
+	}
+
+
+	/**
+	 * Calls given consumer with dictionary id of each voter in given set.
+	 * @param voters Voter set.
+	 * @param consumer Consumer of voter ids.
+	 */
+	private static void forEachVoter(Set<UUID> voters, VoterConsumer consumer)
+	{
+		if (voters instanceof VoteMap.Voters)
+		{
+			PrimitiveIterator.OfInt ids = ((VoteMap.Voters) voters).idIterator();
+
+			while (ids.hasNext())
+			{
+				consumer.accept(ids.nextInt());
+			}
+		}
+		else
+		{
+			voters.forEach(voter -> consumer.accept(VoterDictionary.getInstance().intern(voter)));
+		}
+	}
+
+
+	/**
+	 * Consumer of voter ids.
+	 */
+	@FunctionalInterface
+	private interface VoterConsumer
+	{
+		/**
+		 * @param voter Voter id.
+		 */
+		void accept(int voter);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Liked island ordinals of each voter, by voter id. First element of each array is
+	 * number of islands, the rest is sorted ordinals. Voters without likes have null.
+	 */
+	private int[][] liked = EMPTY;
+
+	/**
+	 * Disliked island ordinals of each voter, in the same layout as {@link #liked}.
+	 */
+	private int[][] disliked = EMPTY;
+
+	/**
+	 * Ordinal of each known island id.
+	 */
+	private final Map<String, Integer> islandOrdinals = new HashMap<>();
+
+	/**
+	 * Island ids by ordinal.
+	 */
+	private final List<String> islandIds = new ArrayList<>();
+
+	/**
+	 * Shared empty vote table.
+	 */
+	private static final int[][] EMPTY = new int[0][];
+
+	/**
+	 * Capacity of new vote array, including count element.
+	 */
+	private static final int MIN_CAPACITY = 4;
+}
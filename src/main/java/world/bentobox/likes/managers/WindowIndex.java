@@ -0,0 +1,459 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.function.IntFunction;
+import java.util.function.ToIntFunction;
+
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.utils.collections.LongRankTree;
+
+
+/**
+ * This class holds rolling window leaderboards for single GameMode. Each island has ring
+ * buffer of per-day like counters, and each window (day, week, month) is an ordering in
+ * single {@link LongRankTree}, keyed by sum of counters inside window.
+ * <p>
+ * Day rotation does not scan all islands. Each ring slot remembers which islands got votes
+ * on that day, so when day leaves a window only these islands are repositioned.
+ * <p>
+ * The same per-day counters are stored in likes object, and ring buffer of island is
+ * restored from them when island is added.
+ * <p>
+ * Islands are addressed by the same ordinals as in {@link RankIndex}.
+ */
+class WindowIndex
+{
+	/**
+	 * Default constructor.
+	 * @param day Current epoch day.
+	 * @param objectGetter Function that returns likes object by its ordinal.
+	 * @param ordinalGetter Function that returns ordinal of likes object or -1.
+	 */
+	WindowIndex(long day,
+		IntFunction<LikesObject> objectGetter,
+		ToIntFunction<LikesObject> ordinalGetter)
+	{
+		this.day = day;
+		this.objectGetter = objectGetter;
+
+		this.views = new RankedView[WINDOW_DAYS.length];
+
+		for (int window = 0; window < WINDOW_DAYS.length; window++)
+		{
+			final int ordering = window;
+
+			this.views[window] = new RankedView(this.tree,
+				ordering,
+				objectGetter,
+				ordinalGetter,
+				likesObject -> this.placeOf(ordering, ordinalGetter.applyAsInt(likesObject)));
+
+			this.views[window].setTopFilter(
+				likesObject -> this.getLikes(ordering, ordinalGetter.applyAsInt(likesObject)) > 0);
+		}
+
+		for (int slot = 0; slot < RING_DAYS; slot++)
+		{
+			this.slotVoters[slot] = new int[16];
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method adds ordinal to all windows with counters that are stored in its object.
+	 * @param ordinal Island ordinal.
+	 */
+	void add(int ordinal)
+	{
+		this.ensureCapacity(ordinal + 1);
+
+		this.restore(ordinal, this.keyBuffer, 0);
+		this.insert(ordinal);
+	}
+
+
+	/**
+	 * This method adds ordinals from {@code 0} till {@code count - 1} to empty index in
+	 * single bulk build. Counters are restored from objects.
+	 * @param count Number of ordinals.
+	 */
+	void addAll(int count)
+	{
+		this.ensureCapacity(count);
+
+		long[] keys = new long[count * WINDOW_DAYS.length];
+
+		for (int ordinal = 0; ordinal < count; ordinal++)
+		{
+			this.restore(ordinal, keys, ordinal * WINDOW_DAYS.length);
+		}
+
+		this.tree.build(count, keys);
+	}
+
+
+	/**
+	 * This method removes ordinal from all windows and clears its counters, so ordinal
+	 * could be reused by other island.
+	 * @param ordinal Island ordinal.
+	 */
+	void remove(int ordinal)
+	{
+		int topMask = RankedView.topMask(this.views, ordinal);
+		this.tree.remove(ordinal);
+		RankedView.invalidateTops(this.views, ordinal, topMask);
+
+		Arrays.fill(this.dayLikes, ordinal * RING_DAYS, (ordinal + 1) * RING_DAYS, 0);
+	}
+
+
+	/**
+	 * This method adds like change to island counters for given day. Days that are
+	 * older than longest window or in future are ignored.
+	 * @param ordinal Island ordinal.
+	 * @param voteDay Epoch day when vote happened.
+	 * @param delta Like count change.
+	 */
+	void record(int ordinal, long voteDay, int delta)
+	{
+		long age = this.day - voteDay;
+
+		if (delta == 0 || age < 0 || age >= RING_DAYS || !this.tree.contains(ordinal))
+		{
+			return;
+		}
+
+		int slot = slotOf(voteDay);
+		int index = ordinal * RING_DAYS + slot;
+
+		this.dayLikes[index] += delta;
+
+		if (this.slotDay[index] != voteDay)
+		{
+			this.slotDay[index] = voteDay;
+			this.addSlotVoter(slot, ordinal);
+		}
+
+		for (int window = 0; window < WINDOW_DAYS.length; window++)
+		{
+			long sum = scoreOf(this.tree.keyOf(window, ordinal));
+			this.keyBuffer[window] = age < WINDOW_DAYS[window] ? keyOf(sum + delta) : keyOf(sum);
+		}
+
+		this.insert(ordinal);
+	}
+
+
+	/**
+	 * This method moves windows to given day. Counters of days that leave each window are
+	 * subtracted only from islands that got votes on these days.
+	 * @param newDay Current epoch day.
+	 */
+	void rotate(long newDay)
+	{
+		while (this.day < newDay)
+		{
+			this.day++;
+
+			for (int window = 0; window < WINDOW_DAYS.length; window++)
+			{
+				this.expire(window, this.day - WINDOW_DAYS[window]);
+			}
+
+			// Slot of new day is the slot of the day that left the longest window.
+			int slot = slotOf(this.day);
+
+			for (int i = 0; i < this.slotVoterCount[slot]; i++)
+			{
+				this.dayLikes[this.slotVoters[slot][i] * RING_DAYS + slot] = 0;
+			}
+
+			this.slotVoterCount[slot] = 0;
+		}
+	}
+
+
+	/**
+	 * @param window Window index.
+	 * @return View over given window ordering.
+	 */
+	RankedView getView(int window)
+	{
+		return this.views[window];
+	}
+
+
+	/**
+	 * @param window Window index.
+	 * @param ordinal Island ordinal or -1.
+	 * @return like change of given island inside window.
+	 */
+	long getLikes(int window, int ordinal)
+	{
+		return this.tree.contains(ordinal) ? scoreOf(this.tree.keyOf(window, ordinal)) : 0;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method fills ring slots of given ordinal from daily likes of its object, and
+	 * writes window keys of restored counters. Days that are older than longest window
+	 * or in future are ignored.
+	 * @param ordinal Island ordinal.
+	 * @param keys Array where keys must be written.
+	 * @param offset Index of the first key.
+	 */
+	private void restore(int ordinal, long[] keys, int offset)
+	{
+		long[] sums = new long[WINDOW_DAYS.length];
+
+		for (Map.Entry<Long, Integer> entry : this.objectGetter.apply(ordinal).getDailyLikes().entrySet())
+		{
+			long voteDay = entry.getKey();
+			long age = this.day - voteDay;
+
+			if (age < 0 || age >= RING_DAYS)
+			{
+				continue;
+			}
+
+			int slot = slotOf(voteDay);
+			int index = ordinal * RING_DAYS + slot;
+
+			this.dayLikes[index] = entry.getValue();
+
+			if (this.slotDay[index] != voteDay)
+			{
+				this.slotDay[index] = voteDay;
+				this.addSlotVoter(slot, ordinal);
+			}
+
+			for (int window = 0; window < WINDOW_DAYS.length; window++)
+			{
+				if (age < WINDOW_DAYS[window])
+				{
+					sums[window] += entry.getValue();
+				}
+			}
+		}
+
+		for (int window = 0; window < WINDOW_DAYS.length; window++)
+		{
+			keys[offset + window] = keyOf(sums[window]);
+		}
+	}
+
+
+	/**
+	 * This method subtracts counters of given day from given window for all islands that
+	 * got votes on that day.
+	 * @param window Window index.
+	 * @param expiredDay Epoch day that leaves the window.
+	 */
+	private void expire(int window, long expiredDay)
+	{
+		int slot = slotOf(expiredDay);
+
+		for (int i = 0; i < this.slotVoterCount[slot]; i++)
+		{
+			int ordinal = this.slotVoters[slot][i];
+			int index = ordinal * RING_DAYS + slot;
+
+			if (this.dayLikes[index] == 0 || this.slotDay[index] != expiredDay || !this.tree.contains(ordinal))
+			{
+				continue;
+			}
+
+			for (int ordering = 0; ordering < WINDOW_DAYS.length; ordering++)
+			{
+				long key = this.tree.keyOf(ordering, ordinal);
+				this.keyBuffer[ordering] = ordering == window ?
+					keyOf(scoreOf(key) - this.dayLikes[index]) : key;
+			}
+
+			this.insert(ordinal);
+		}
+	}
+
+
+	/**
+	 * Inserts or repositions ordinal with keys from key buffer and invalidates top lists
+	 * that are affected.
+	 * @param ordinal Island ordinal.
+	 */
+	private void insert(int ordinal)
+	{
+		int topMask = RankedView.topMask(this.views, ordinal);
+		this.tree.insert(ordinal, this.keyBuffer);
+		RankedView.invalidateTops(this.views, ordinal, topMask);
+	}
+
+
+	/**
+	 * Returns how many islands have strictly larger like change in given window.
+	 * @param window Window index.
+	 * @param ordinal Island ordinal or -1.
+	 * @return number of islands that beat given island.
+	 */
+	private int placeOf(int window, int ordinal)
+	{
+		return this.tree.countLess(window, keyOf(this.getLikes(window, ordinal)));
+	}
+
+
+	/**
+	 * Adds ordinal to voters list of given slot.
+	 * @param slot Ring slot.
+	 * @param ordinal Island ordinal.
+	 */
+	private void addSlotVoter(int slot, int ordinal)
+	{
+		if (this.slotVoterCount[slot] == this.slotVoters[slot].length)
+		{
+			this.slotVoters[slot] = Arrays.copyOf(this.slotVoters[slot], this.slotVoters[slot].length * 2);
+		}
+
+		this.slotVoters[slot][this.slotVoterCount[slot]++] = ordinal;
+	}
+
+
+	/**
+	 * This method grows counter arrays so they could hold given ordinal count.
+	 * @param capacity Required ordinal capacity.
+	 */
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity * RING_DAYS <= this.dayLikes.length)
+		{
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, this.dayLikes.length / RING_DAYS * 2);
+		int oldLength = this.slotDay.length;
+
+		this.dayLikes = Arrays.copyOf(this.dayLikes, newCapacity * RING_DAYS);
+		this.slotDay = Arrays.copyOf(this.slotDay, newCapacity * RING_DAYS);
+		Arrays.fill(this.slotDay, oldLength, this.slotDay.length, Long.MIN_VALUE);
+	}
+
+
+	/**
+	 * @param length Array length.
+	 * @return array that is filled with {@link Long#MIN_VALUE}.
+	 */
+	private static long[] filled(int length)
+	{
+		long[] array = new long[length];
+		Arrays.fill(array, Long.MIN_VALUE);
+		return array;
+	}
+
+
+	/**
+	 * @param day Epoch day.
+	 * @return ring slot for given day.
+	 */
+	private static int slotOf(long day)
+	{
+		return (int) Math.floorMod(day, (long) RING_DAYS);
+	}
+
+
+	/**
+	 * Key that orders by like change descending. Ties are ordered by ordinal.
+	 * @param likes Like change inside window.
+	 * @return ordering key.
+	 */
+	private static long keyOf(long likes)
+	{
+		return -Math.max(-Integer.MAX_VALUE, Math.min(Integer.MAX_VALUE, likes)) << 32;
+	}
+
+
+	/**
+	 * @param key Ordering key.
+	 * @return like change that is stored in key.
+	 */
+	private static long scoreOf(long key)
+	{
+		return -(key >> 32);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Length of each window in days: daily, weekly and monthly.
+	 */
+	static final int[] WINDOW_DAYS = { 1, 7, 30 };
+
+	/**
+	 * Number of days in ring buffer. It must match the longest window.
+	 */
+	private static final int RING_DAYS = 30;
+
+	/**
+	 * Current epoch day.
+	 */
+	private long day;
+
+	/**
+	 * Tree that holds one ordering per window.
+	 */
+	private final LongRankTree tree = new LongRankTree(WINDOW_DAYS.length, 16);
+
+	/**
+	 * Function that returns likes object by its ordinal.
+	 */
+	private final IntFunction<LikesObject> objectGetter;
+
+	/**
+	 * Views over each window ordering.
+	 */
+	private final RankedView[] views;
+
+	/**
+	 * Per-day like counters. Island ordinal owns {@link #RING_DAYS} consecutive elements.
+	 */
+	private int[] dayLikes = new int[16 * RING_DAYS];
+
+	/**
+	 * Epoch day that each counter belongs to.
+	 */
+	private long[] slotDay = filled(16 * RING_DAYS);
+
+	/**
+	 * Ordinals that got votes in each ring slot.
+	 */
+	private final int[][] slotVoters = new int[RING_DAYS][];
+
+	/**
+	 * Number of ordinals in each ring slot.
+	 */
+	private final int[] slotVoterCount = new int[RING_DAYS];
+
+	/**
+	 * Reusable buffer for ordering keys.
+	 */
+	private final long[] keyBuffer = new long[WINDOW_DAYS.length];
+}
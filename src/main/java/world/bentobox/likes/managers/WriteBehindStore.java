@@ -0,0 +1,358 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.IntConsumer;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+import world.bentobox.bentobox.database.Database;
+import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.database.objects.LikesObject;
+
+
+/**
+ * This class delays and batches likes object writes. Vote methods only mark object as
+ * dirty, and {@link #flush()} periodically takes snapshots of dirty objects and saves them
+ * in background thread. Object that was changed many times between two flushes is
+ * written only once.
+ * <p>
+ * All methods except background writes must be called from the main thread. Writes and
+ * deletes are executed by single thread in the order they were submitted, so older
+ * snapshot never overwrites newer one.
+ */
+class WriteBehindStore
+{
+	/**
+	 * Default constructor.
+	 * @param addon Likes addon instance.
+	 * @param database Database where objects are stored.
+	 * @param batchSize Maximal number of objects that are saved by single background task.
+	 */
+	WriteBehindStore(LikesAddon addon, Database<LikesObject> database, int batchSize)
+	{
+		this.addon = addon;
+		this.database = database;
+		this.batchSize = Math.max(1, batchSize);
+
+		this.executor = Executors.newSingleThreadExecutor(runnable -> {
+			Thread thread = new Thread(runnable, "Likes-Writer");
+			thread.setDaemon(true);
+			return thread;
+		});
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method marks given object as changed. It will be saved with next flush.
+	 * @param likesObject Object that was changed.
+	 */
+	void markDirty(LikesObject likesObject)
+	{
+		this.dirtyObjects.put(likesObject.getUniqueId(), likesObject);
+	}
+
+
+	/**
+	 * This method takes snapshots of all dirty objects and submits them to background
+	 * thread in batches.
+	 */
+	void flush()
+	{
+		this.flush(null);
+	}
+
+
+	/**
+	 * This method takes snapshots of all dirty objects and submits them to background
+	 * thread in batches. Given callback is executed in background thread after all
+	 * batches, but only if database saved every object.
+	 * @param onSaved Callback that is executed after successful save, or null.
+	 */
+	void flush(Runnable onSaved)
+	{
+		this.flush(onSaved, null);
+	}
+
+
+	/**
+	 * This method takes snapshots of all dirty objects and submits them to background
+	 * thread in batches. One of given callbacks is executed in background thread after
+	 * all batches, depending on whether database saved every object.
+	 * @param onSaved Callback that is executed after successful save, or null.
+	 * @param onFailed Callback that is executed if any object was not saved, or null.
+	 */
+	void flush(Runnable onSaved, Runnable onFailed)
+	{
+		if (this.dirtyObjects.isEmpty() && onSaved == null && onFailed == null)
+		{
+			return;
+		}
+
+		AtomicBoolean saved = new AtomicBoolean(true);
+		List<LikesObject> batch = new ArrayList<>(Math.min(this.batchSize, this.dirtyObjects.size()));
+
+		for (LikesObject likesObject : this.dirtyObjects.values())
+		{
+			batch.add(likesObject.copy());
+
+			if (batch.size() == this.batchSize)
+			{
+				this.submitSave(batch, saved);
+				batch = new ArrayList<>(Math.min(this.batchSize, this.dirtyObjects.size()));
+			}
+		}
+
+		if (!batch.isEmpty())
+		{
+			this.submitSave(batch, saved);
+		}
+
+		this.dirtyObjects.clear();
+
+		if (onSaved != null || onFailed != null)
+		{
+			this.submit(() -> {
+				Runnable callback = saved.get() ? onSaved : onFailed;
+
+				if (callback != null)
+				{
+					callback.run();
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * This method executes given task in background thread after all previously submitted
+	 * writes and deletes, so task sees database with all of them. Writes that are
+	 * submitted later wait until task is finished.
+	 * @param task Task that must be executed.
+	 */
+	void execute(Runnable task)
+	{
+		this.submit(task);
+	}
+
+
+	/**
+	 * This method deletes given objects from database in background thread after all
+	 * previously submitted writes. Pending changes of these objects are discarded.
+	 * @param likesObjects Objects that must be deleted.
+	 */
+	void delete(Collection<LikesObject> likesObjects)
+	{
+		this.delete(likesObjects, null);
+	}
+
+
+	/**
+	 * This method deletes given objects from database in background thread after all
+	 * previously submitted writes. Objects are deleted in batches, and given callback
+	 * receives number of deleted objects after each batch. Pending changes of these
+	 * objects are discarded.
+	 * @param likesObjects Objects that must be deleted.
+	 * @param onProgress Callback that is executed in background thread after each batch,
+	 * or null.
+	 */
+	void delete(Collection<LikesObject> likesObjects, IntConsumer onProgress)
+	{
+		List<LikesObject> deleted = new ArrayList<>(likesObjects);
+		deleted.forEach(likesObject -> this.dirtyObjects.remove(likesObject.getUniqueId()));
+
+		for (int from = 0; from < deleted.size(); from += this.batchSize)
+		{
+			List<LikesObject> batch = deleted.subList(from, Math.min(from + this.batchSize, deleted.size()));
+			int deletedCount = from + batch.size();
+
+			this.submit(() -> {
+				batch.forEach(this.database::deleteObject);
+
+				if (onProgress != null)
+				{
+					onProgress.accept(deletedCount);
+				}
+			});
+		}
+	}
+
+
+	/**
+	 * This method deletes all stored objects that match given filter. Objects are read
+	 * from database and deleted in batches by single background task after all
+	 * previously submitted writes, so it does not block main thread. Writes that are
+	 * submitted later wait until task is finished, so objects that are saved after this
+	 * call are not deleted. Pending changes of matching objects are discarded.
+	 * @param filter Filter of objects that must be deleted. It is used in both threads.
+	 * @param onStart Callback that receives number of matching objects in background
+	 * thread, before they are deleted, or null.
+	 * @param onProgress Callback that is executed in background thread after each batch,
+	 * or null.
+	 */
+	void deleteStored(Predicate<LikesObject> filter, IntConsumer onStart, IntConsumer onProgress)
+	{
+		this.dirtyObjects.values().removeIf(filter);
+
+		this.submit(() -> {
+			List<LikesObject> deleted = this.database.loadObjects().stream().
+				filter(filter).
+				collect(Collectors.toList());
+
+			if (onStart != null)
+			{
+				onStart.accept(deleted.size());
+			}
+
+			for (int from = 0; from < deleted.size(); from += this.batchSize)
+			{
+				int to = Math.min(from + this.batchSize, deleted.size());
+				deleted.subList(from, to).forEach(this.database::deleteObject);
+
+				if (onProgress != null)
+				{
+					onProgress.accept(to);
+				}
+			}
+		});
+	}
+
+
+	/**
+	 * This method flushes all dirty objects and waits until background thread writes
+	 * them. Store cannot be used after it is closed.
+	 * @param onSaved Callback that is executed after successful save, or null.
+	 */
+	void close(Runnable onSaved)
+	{
+		this.flush(onSaved);
+		this.executor.shutdown();
+
+		try
+		{
+			if (!this.executor.awaitTermination(SHUTDOWN_TIMEOUT, TimeUnit.SECONDS))
+			{
+				this.addon.logError("Likes data were not saved in " + SHUTDOWN_TIMEOUT + " seconds.");
+			}
+		}
+		catch (InterruptedException e)
+		{
+			Thread.currentThread().interrupt();
+			this.addon.logError("Interrupted while saving likes data.");
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Submits task that saves given snapshots.
+	 * @param batch Snapshots of objects that must be saved.
+	 * @param saved Flag that is cleared if any object is not saved.
+	 */
+	private void submitSave(List<LikesObject> batch, AtomicBoolean saved)
+	{
+		this.submit(() -> {
+			// Flag is cleared before saving, so exception also marks flush as failed.
+			boolean previous = saved.getAndSet(false);
+
+			for (LikesObject likesObject : batch)
+			{
+				if (!this.database.saveObject(likesObject))
+				{
+					previous = false;
+				}
+			}
+
+			saved.set(previous);
+		});
+	}
+
+
+	/**
+	 * Submits task to background thread. Errors are logged, so one failed batch does not
+	 * stop following ones.
+	 * @param task Task that must be executed.
+	 */
+	private void submit(Runnable task)
+	{
+		try
+		{
+			this.executor.execute(() -> {
+				try
+				{
+					task.run();
+				}
+				catch (RuntimeException e)
+				{
+					this.addon.logError("Could not save likes data: " + e.getMessage());
+				}
+			});
+		}
+		catch (RejectedExecutionException e)
+		{
+			// Store is already closed, so write must happen right now.
+			task.run();
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Likes addon instance.
+	 */
+	private final LikesAddon addon;
+
+	/**
+	 * Database where objects are stored.
+	 */
+	private final Database<LikesObject> database;
+
+	/**
+	 * Maximal number of objects that are saved by single background task.
+	 */
+	private final int batchSize;
+
+	/**
+	 * Single thread that executes writes in submission order.
+	 */
+	private final ExecutorService executor;
+
+	/**
+	 * Objects that were changed since last flush, by island id. Repeated changes of the
+	 * same island are coalesced into one entry.
+	 */
+	private final Map<String, LikesObject> dirtyObjects = new LinkedHashMap<>();
+
+	/**
+	 * Time in seconds how long shutdown waits for pending writes.
+	 */
+	private static final long SHUTDOWN_TIMEOUT = 30;
+}
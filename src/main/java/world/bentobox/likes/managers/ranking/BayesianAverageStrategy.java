@@ -0,0 +1,73 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers.ranking;
+
+
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * Ranking strategy, where rank is like ratio that is pulled towards prior ratio. Islands
+ * with few votes stay close to prior ratio, while islands with many votes get their own
+ * ratio.
+ */
+public class BayesianAverageStrategy implements RankingStrategy
+{
+	/**
+	 * Default constructor.
+	 * @param priorVotes Number of virtual votes that are added to each island.
+	 * @param priorRatio Like ratio of virtual votes.
+	 */
+	public BayesianAverageStrategy(double priorVotes, double priorRatio)
+	{
+		this.priorVotes = Math.max(0, priorVotes);
+		this.priorLikes = this.priorVotes * Math.max(0, Math.min(1, priorRatio));
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long score(long likes, long dislikes)
+	{
+		double votes = likes + dislikes + this.priorVotes;
+		return votes <= 0 ? 0 : Math.round((likes + this.priorLikes) / votes * SCALE);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Input> getInputs()
+	{
+		return INPUTS;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Inputs for this strategy.
+	 */
+	private static final Set<Input> INPUTS = EnumSet.of(Input.LIKES, Input.DISLIKES);
+
+	/**
+	 * Number of virtual votes.
+	 */
+	private final double priorVotes;
+
+	/**
+	 * Number of virtual likes.
+	 */
+	private final double priorLikes;
+}
@@ -0,0 +1,49 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers.ranking;
+
+
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * Ranking strategy, where rank is share of likes in all votes. Islands without votes get 0.
+ */
+public class LikeRatioStrategy implements RankingStrategy
+{
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long score(long likes, long dislikes)
+	{
+		long votes = likes + dislikes;
+		return votes <= 0 ? 0 : Math.round((double) likes / votes * SCALE);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Input> getInputs()
+	{
+		return INPUTS;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Inputs for this strategy.
+	 */
+	private static final Set<Input> INPUTS = EnumSet.of(Input.LIKES, Input.DISLIKES);
+}
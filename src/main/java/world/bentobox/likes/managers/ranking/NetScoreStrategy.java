@@ -0,0 +1,48 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers.ranking;
+
+
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * Default ranking strategy, where rank is likes minus dislikes.
+ */
+public class NetScoreStrategy implements RankingStrategy
+{
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long score(long likes, long dislikes)
+	{
+		return likes - dislikes;
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Input> getInputs()
+	{
+		return INPUTS;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Inputs for this strategy.
+	 */
+	private static final Set<Input> INPUTS = EnumSet.of(Input.LIKES, Input.DISLIKES);
+}
@@ -0,0 +1,58 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers.ranking;
+
+
+import java.util.Set;
+
+
+/**
+ * This interface allows to define formula that is used to calculate island rank from its
+ * like and dislike counters. Rank score is integer where larger value means better island.
+ * Strategies that work with fractions must scale result, f.e. by {@link #SCALE}.
+ * <p>
+ * Each strategy declares inputs it depends on, so rank is recalculated only when one of
+ * these inputs changes.
+ */
+public interface RankingStrategy
+{
+	/**
+	 * This method calculates rank score from given counters.
+	 * @param likes Like count.
+	 * @param dislikes Dislike count.
+	 * @return rank score, larger is better.
+	 */
+	long score(long likes, long dislikes);
+
+
+	/**
+	 * This method returns counters that are used in {@link #score(long, long)}.
+	 * @return Set of inputs for this strategy.
+	 */
+	Set<Input> getInputs();
+
+
+	/**
+	 * Scale that is used by strategies that calculate fractions between 0 and 1.
+	 */
+	long SCALE = 1000;
+
+
+// ---------------------------------------------------------------------
+// Section: Enums
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Counters that can be used by ranking strategy.
+	 */
+	enum Input
+	{
+		LIKES,
+		DISLIKES
+	}
+}
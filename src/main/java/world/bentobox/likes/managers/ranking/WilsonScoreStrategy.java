@@ -0,0 +1,84 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers.ranking;
+
+
+import java.util.EnumSet;
+import java.util.Set;
+
+
+/**
+ * Ranking strategy, where rank is lower bound of Wilson score confidence interval for
+ * like ratio. It prefers islands with many votes over islands with few votes and the
+ * same ratio, so it does not favour old islands like net score does.
+ */
+public class WilsonScoreStrategy implements RankingStrategy
+{
+	/**
+	 * Default constructor.
+	 * @param z Quantile of normal distribution, f.e. 1.96 for 95% confidence.
+	 */
+	public WilsonScoreStrategy(double z)
+	{
+		this.zSquared = z * z;
+		this.z = z;
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public long score(long likes, long dislikes)
+	{
+		double votes = likes + dislikes;
+
+		if (votes <= 0)
+		{
+			return 0;
+		}
+
+		double ratio = likes / votes;
+
+		double lowerBound = (ratio + this.zSquared / (2 * votes) -
+			this.z * Math.sqrt((ratio * (1 - ratio) + this.zSquared / (4 * votes)) / votes)) /
+			(1 + this.zSquared / votes);
+
+		return Math.round(lowerBound * SCALE);
+	}
+
+
+	/**
+	 * {@inheritDoc}
+	 */
+	@Override
+	public Set<Input> getInputs()
+	{
+		return INPUTS;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Inputs for this strategy.
+	 */
+	private static final Set<Input> INPUTS = EnumSet.of(Input.LIKES, Input.DISLIKES);
+
+	/**
+	 * Normal distribution quantile.
+	 */
+	private final double z;
+
+	/**
+	 * Squared normal distribution quantile.
+	 */
+	private final double zSquared;
+}
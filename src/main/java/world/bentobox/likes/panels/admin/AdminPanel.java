@@ -131,7 +131,7 @@ public class AdminPanel extends CommonPanel
 				description = this.user.getTranslation(Constants.DESCRIPTION + "wipe-data");
 				icon = new ItemStack(Material.TNT);
 				clickHandler = (panel, user, clickType, slot) -> {
-					this.addon.getManager().wipeData(this.world);
+					this.addon.getManager().wipeData(this.world, user);
 					return true;
 				};
 				glow = false;
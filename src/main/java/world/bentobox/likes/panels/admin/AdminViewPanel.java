@@ -11,12 +11,16 @@ import org.bukkit.Bukkit;
 import org.bukkit.Material;
 import org.bukkit.inventory.ItemStack;
 import org.eclipse.jdt.annotation.NonNull;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Set;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+import world.bentobox.bentobox.api.logs.LogEntry;
 import world.bentobox.bentobox.api.panels.PanelItem;
 import world.bentobox.bentobox.api.panels.builders.PanelBuilder;
 import world.bentobox.bentobox.api.panels.builders.PanelItemBuilder;
@@ -45,8 +49,9 @@ public class AdminViewPanel extends CommonPanel
 	{
 		super(parent);
 
-		// Create new object if it does not exist as admin is editing it.
-		this.likesObject = this.addon.getManager().getIslandLikes(island.getUniqueId(), this.world);
+		// Object is created only when admin changes it.
+		this.islandId = island.getUniqueId();
+		this.likesObject = this.addon.getManager().getIslandLikes(this.islandId, this.world);
 
 		this.likedByUsers = this.likesObject.getLikedBy().stream().
 			map(uuid -> this.addon.getPlayers().getName(uuid)).
@@ -58,9 +63,9 @@ public class AdminViewPanel extends CommonPanel
 			sorted(String::compareToIgnoreCase).
 			collect(Collectors.toList());
 
-		this.likeRank = this.addon.getManager().getSortedLikes(this.world).entryIndex(this.likesObject) + 1;
-		this.dislikeRank = this.addon.getManager().getSortedDislikes(this.world).entryIndex(this.likesObject) + 1;
-		this.overallRank = this.addon.getManager().getSortedRank(this.world).entryIndex(this.likesObject) + 1;
+		this.likeRank = this.addon.getManager().getSortedLikes(this.world).placeOf(this.likesObject) + 1;
+		this.dislikeRank = this.addon.getManager().getSortedDislikes(this.world).placeOf(this.likesObject) + 1;
+		this.overallRank = this.addon.getManager().getSortedRank(this.world).placeOf(this.likesObject) + 1;
 	}
 
 
@@ -110,6 +115,8 @@ public class AdminViewPanel extends CommonPanel
 
 		this.populateDislikers(panelBuilder);
 
+		panelBuilder.item(49, this.createButton(Button.HISTORY));
+
 		panelBuilder.item(53, this.returnButton);
 
 		// At the end we just call build method that creates and opens panel.
@@ -200,7 +207,7 @@ public class AdminViewPanel extends CommonPanel
 				description.add(this.user.getTranslation(Constants.DESCRIPTION + "overall"));
 				description.add(this.user.getTranslation(Constants.DESCRIPTION + "current-value",
 					"[value]",
-					this.likesObject.getRank() + ""));
+					this.addon.getManager().getRank(this.likesObject) + ""));
 
 				clickHandler = null;
 
@@ -299,7 +306,8 @@ public class AdminViewPanel extends CommonPanel
 									this.dislikedByUsers.remove(player.getName());
 								}
 
-								this.likesObject.addLike(player.getUniqueId());
+								this.addon.getManager().updateIslandLikes(this.getEditableObject(),
+									likesObject -> likesObject.addLike(player.getUniqueId()));
 								this.likedByUsers.add(player.getName());
 							}
 
@@ -322,7 +330,8 @@ public class AdminViewPanel extends CommonPanel
 						player -> {
 							if (player != null)
 							{
-								this.likesObject.removeLike(player.getUniqueId());
+								this.addon.getManager().updateIslandLikes(this.getEditableObject(),
+									likesObject -> likesObject.removeLike(player.getUniqueId()));
 								this.likedByUsers.remove(player.getName());
 							}
 
@@ -351,7 +360,8 @@ public class AdminViewPanel extends CommonPanel
 									this.likedByUsers.remove(player.getName());
 								}
 
-								this.likesObject.addDislike(player.getUniqueId());
+								this.addon.getManager().updateIslandLikes(this.getEditableObject(),
+									likesObject -> likesObject.addDislike(player.getUniqueId()));
 								this.dislikedByUsers.add(player.getName());
 							}
 
@@ -374,7 +384,8 @@ public class AdminViewPanel extends CommonPanel
 						player -> {
 							if (player != null)
 							{
-								this.likesObject.removeDislike(player.getUniqueId());
+								this.addon.getManager().updateIslandLikes(this.getEditableObject(),
+									likesObject -> likesObject.removeDislike(player.getUniqueId()));
 								this.dislikedByUsers.remove(player.getName());
 							}
 
@@ -385,6 +396,43 @@ public class AdminViewPanel extends CommonPanel
 
 				break;
 			}
+			case HISTORY:
+			{
+				icon = new ItemStack(Material.WRITABLE_BOOK);
+				name = this.user.getTranslation(Constants.BUTTON + "history");
+
+				int count = this.addon.getManager().getHistoryCount(this.islandId);
+				int pages = Math.max(1, (count + HISTORY_PAGE_SIZE - 1) / HISTORY_PAGE_SIZE);
+
+				description = new ArrayList<>(HISTORY_PAGE_SIZE + 2);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "history",
+					"[page]", String.valueOf(this.historyPage + 1),
+					"[pages]", String.valueOf(pages)));
+
+				this.addon.getManager().getHistory(this.islandId,
+					this.historyPage * HISTORY_PAGE_SIZE,
+					HISTORY_PAGE_SIZE).forEach(entry ->
+					description.add(this.user.getTranslation(Constants.DESCRIPTION + "history-entry",
+						"[type]", entry.getType(),
+						"[date]", HISTORY_DATE_FORMAT.format(Instant.ofEpochMilli(entry.getTimestamp())),
+						"[user]", this.getHistoryUser(entry))));
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					if (clickType.isRightClick())
+					{
+						this.historyPage = Math.max(0, this.historyPage - 1);
+					}
+					else if (this.historyPage + 1 < pages)
+					{
+						this.historyPage++;
+					}
+
+					this.build();
+					return true;
+				};
+
+				break;
+			}
 			default:
 				return null;
 		}
@@ -469,6 +517,48 @@ public class AdminViewPanel extends CommonPanel
 	}
 
 
+	/**
+	 * This method returns likes object that can be changed. Empty read-only object is
+	 * replaced with new stored object on the first change.
+	 * @return Likes object of current island.
+	 */
+	private LikesObject getEditableObject()
+	{
+		if (this.likesObject.isReadOnly())
+		{
+			this.likesObject = this.addon.getManager().getOrCreateIslandLikes(this.islandId, this.world);
+		}
+
+		return this.likesObject;
+	}
+
+
+	/**
+	 * This method returns name of player who made given history entry.
+	 * @param entry History entry.
+	 * @return Player name, or stored value if it is not player id.
+	 */
+	private String getHistoryUser(LogEntry entry)
+	{
+		Object value = entry.getData() == null ? null : entry.getData().get("user-id");
+
+		if (value == null)
+		{
+			return "";
+		}
+
+		try
+		{
+			String name = this.addon.getPlayers().getName(UUID.fromString(value.toString()));
+			return name == null || name.isEmpty() ? value.toString() : name;
+		}
+		catch (IllegalArgumentException e)
+		{
+			return value.toString();
+		}
+	}
+
+
 	/**
 	 * This method converts and returns given set with UUIDs to User list.
 	 * @param userSet Set that must be converted.
@@ -506,7 +596,9 @@ public class AdminViewPanel extends CommonPanel
 		ADD_LIKE_USER,
 		REMOVE_LIKE_USER,
 		ADD_DISLIKE_USER,
-		REMOVE_DISLIKE_USER
+		REMOVE_DISLIKE_USER,
+
+		HISTORY
 	}
 
 
@@ -515,10 +607,15 @@ public class AdminViewPanel extends CommonPanel
 // ---------------------------------------------------------------------
 
 
+	/**
+	 * This variable holds id of island that is view by user in current gui.
+	 */
+	private final String islandId;
+
 	/**
 	 * This variable holds likes object that is view by user in current gui.
 	 */
-	private final LikesObject likesObject;
+	private LikesObject likesObject;
 
 	/**
 	 * This variable stores index of current liker.
@@ -530,6 +627,11 @@ public class AdminViewPanel extends CommonPanel
 	 */
 	private int dislikeOffset;
 
+	/**
+	 * This variable stores index of current history page.
+	 */
+	private int historyPage;
+
 	/**
 	 * This list contains player names that liked current island.
 	 */
@@ -554,4 +656,15 @@ public class AdminViewPanel extends CommonPanel
 	 * This variable holds island rank by rank.
 	 */
 	private final long overallRank;
+
+	/**
+	 * Number of history entries in single page.
+	 */
+	private static final int HISTORY_PAGE_SIZE = 10;
+
+	/**
+	 * Format of history entry time.
+	 */
+	private static final DateTimeFormatter HISTORY_DATE_FORMAT =
+		DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm").withZone(ZoneId.systemDefault());
 }
@@ -142,7 +142,7 @@ public class ListIslandsPanel extends CommonPanel
 	 */
 	private PanelItem createIslandButton(Island island)
 	{
-		LikesObject likesObject = this.addon.getManager().getExistingIslandLikes(island.getUniqueId());
+		LikesObject likesObject = this.addon.getManager().getExistingIslandLikes(island.getUniqueId(), this.world);
 
 		List<String> description = new ArrayList<>();
 
@@ -155,7 +155,7 @@ public class ListIslandsPanel extends CommonPanel
 			description.add(this.user.getTranslation(Constants.DESCRIPTION + "values",
 				"[likes]", "" + likesObject.getLikes(),
 				"[dislikes]", "" + likesObject.getDislikes(),
-				"[rank]", "" + likesObject.getRank()));
+				"[rank]", "" + this.addon.getManager().getRank(likesObject)));
 		}
 
 		ImmutableSet<UUID> members = island.getMemberSet();
@@ -14,6 +14,7 @@ import org.eclipse.jdt.annotation.NonNull;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 import world.bentobox.bentobox.api.panels.PanelItem;
@@ -22,9 +23,12 @@ import world.bentobox.bentobox.api.panels.builders.PanelItemBuilder;
 import world.bentobox.bentobox.api.user.User;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.config.Settings.VIEW_MODE;
 import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.managers.RankedView;
 import world.bentobox.likes.panels.GuiUtils;
 import world.bentobox.likes.utils.Constants;
+import world.bentobox.likes.utils.Utils;
 
 
 /**
@@ -65,18 +69,10 @@ public class LikesViewPanel
 			sorted(String::compareToIgnoreCase).
 			collect(Collectors.toList());
 
-		if (this.addon.getManager().getSortedLikes(world).contains(likesObject))
-		{
-			this.likeRank = this.addon.getManager().getSortedLikes(world).entryIndex(likesObject) + 1;
-			this.dislikeRank = this.addon.getManager().getSortedDislikes(world).entryIndex(likesObject) + 1;
-			this.overallRank = this.addon.getManager().getSortedRank(world).entryIndex(likesObject) + 1;
-		}
-		else
-		{
-			this.likeRank = -1;
-			this.dislikeRank = -1;
-			this.overallRank = -1;
-		}
+		// Place is found by score, so island without likes data gets its real place too.
+		this.likeRank = this.addon.getManager().getSortedLikes(world).placeOf(likesObject) + 1;
+		this.dislikeRank = this.addon.getManager().getSortedDislikes(world).placeOf(likesObject) + 1;
+		this.overallRank = this.addon.getManager().getSortedRank(world).placeOf(likesObject) + 1;
 	}
 
 
@@ -95,7 +91,7 @@ public class LikesViewPanel
 		String permissionPrefix,
 		@NonNull Island island)
 	{
-		LikesObject likesObject = addon.getManager().getExistingIslandLikes(island.getUniqueId());
+		LikesObject likesObject = addon.getManager().getExistingIslandLikes(island.getUniqueId(), world);
 
 		if (likesObject == null)
 		{
@@ -142,6 +138,9 @@ public class LikesViewPanel
 
 		this.populateDislikers(panelBuilder);
 
+		panelBuilder.item(46, this.createButton(Button.NEIGHBOUR_MODE));
+		this.populateNeighbours(panelBuilder);
+
 		// At the end we just call build method that creates and opens panel.
 		panelBuilder.build();
 	}
@@ -230,7 +229,7 @@ public class LikesViewPanel
 				description.add(this.user.getTranslation(Constants.DESCRIPTION + "overall"));
 				description.add(this.user.getTranslation(Constants.DESCRIPTION + "current-value",
 					"[value]",
-					this.likesObject.getRank() + ""));
+					this.addon.getManager().getRank(this.likesObject) + ""));
 
 				clickHandler = null;
 
@@ -251,6 +250,37 @@ public class LikesViewPanel
 
 				break;
 			}
+			case NEIGHBOUR_MODE:
+			{
+				icon = new ItemStack(Material.COMPASS);
+				name = this.user.getTranslation(Constants.BUTTON + "neighbour-mode");
+
+				description = new ArrayList<>(VIEW_MODE.values().length + 1);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "neighbour-mode"));
+
+				for (VIEW_MODE value : VIEW_MODE.values())
+				{
+					description.add((this.neighbourMode.equals(value) ? "&2" : "&c") +
+						this.user.getTranslation(Constants.DESCRIPTION + "mode",
+							"[type]", this.user.getTranslation(Constants.TYPES + value.name().toLowerCase())));
+				}
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					if (clickType.isRightClick())
+					{
+						this.neighbourMode = Utils.getPreviousValue(VIEW_MODE.values(), this.neighbourMode);
+					}
+					else
+					{
+						this.neighbourMode = Utils.getNextValue(VIEW_MODE.values(), this.neighbourMode);
+					}
+
+					this.build();
+					return true;
+				};
+
+				break;
+			}
 			case NEXT_LIKE:
 			{
 				icon = new ItemStack(Material.OAK_SIGN);
@@ -385,6 +415,75 @@ public class LikesViewPanel
 	}
 
 
+	/**
+	 * This method populates islands that are directly above and below viewed island
+	 * in selected top into the last panel row. Viewed island is always in the middle.
+	 * @param panelBuilder PanelBuilder object.
+	 */
+	private void populateNeighbours(PanelBuilder panelBuilder)
+	{
+		RankedView sorted = this.addon.getManager().getSorted(this.world, this.neighbourMode);
+
+		int index = sorted.entryIndex(this.likesObject);
+
+		if (index < 0)
+		{
+			return;
+		}
+
+		List<LikesObject> neighbours = sorted.getNeighbours(index, NEIGHBOUR_COUNT);
+		int first = Math.max(0, index - NEIGHBOUR_COUNT);
+
+		for (int i = 0, size = neighbours.size(); i < size; i++)
+		{
+			panelBuilder.item(49 + first + i - index, this.createNeighbourButton(neighbours.get(i), first + i + 1));
+		}
+	}
+
+
+	/**
+	 * This method creates button for island in neighbours row.
+	 * @param neighbour Likes object of island.
+	 * @param place Place of island in selected top.
+	 * @return PanelItem for PanelBuilder.
+	 */
+	private PanelItem createNeighbourButton(LikesObject neighbour, int place)
+	{
+		Optional<Island> island = this.addon.getIslands().getIslandById(neighbour.getUniqueId());
+
+		List<String> description = new ArrayList<>(2);
+		description.add(this.user.getTranslation(Constants.DESCRIPTION + "top-value." + this.neighbourMode.name().toLowerCase(),
+			"[rank]", place + "",
+			"[value]", this.addon.getManager().getValue(neighbour, this.neighbourMode) + ""));
+		description.add(this.user.getTranslation(Constants.DESCRIPTION + "values",
+			"[likes]", "" + neighbour.getLikes(),
+			"[dislikes]", "" + neighbour.getDislikes(),
+			"[rank]", "" + this.addon.getManager().getRank(neighbour)));
+
+		PanelItemBuilder builder = new PanelItemBuilder().
+			description(GuiUtils.stringSplit(description, 999)).
+			glow(neighbour == this.likesObject);
+
+		if (island.isPresent() && island.get().getOwner() != null)
+		{
+			String ownerName = this.addon.getPlayers().getName(island.get().getOwner());
+
+			builder.name(this.user.getTranslation(Constants.BUTTON + "name", "[name]", ownerName)).
+				icon(ownerName);
+		}
+		else
+		{
+			builder.name(this.user.getTranslation(Constants.DESCRIPTION + "unknown")).
+				icon(this.addon.getSettings().getDefaultIcon());
+		}
+
+		PanelItem panelItem = builder.build();
+		panelItem.getItem().setAmount(Math.min(place, 64));
+
+		return panelItem;
+	}
+
+
 // ---------------------------------------------------------------------
 // Section: Enums
 // ---------------------------------------------------------------------
@@ -402,6 +501,8 @@ public class LikesViewPanel
 		OVERALL,
 		OVERALL_RANK,
 
+		NEIGHBOUR_MODE,
+
 		NEXT_LIKE,
 		PREVIOUS_LIKE,
 
@@ -439,6 +540,11 @@ public class LikesViewPanel
 	 */
 	private final LikesObject likesObject;
 
+	/**
+	 * This variable stores top type by which neighbour islands are shown.
+	 */
+	private VIEW_MODE neighbourMode = VIEW_MODE.RANK;
+
 	/**
 	 * This variable stores index of current liker.
 	 */
@@ -459,6 +565,11 @@ public class LikesViewPanel
 	 */
 	private final List<String> dislikedByUsers;
 
+	/**
+	 * Number of islands that are shown above and below viewed island.
+	 */
+	private static final int NEIGHBOUR_COUNT = 2;
+
 	/**
 	 * This variable holds island rank by likes.
 	 */
@@ -0,0 +1,366 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.panels.user;
+
+
+import org.bukkit.Material;
+import org.bukkit.World;
+import org.bukkit.inventory.ItemStack;
+import org.eclipse.jdt.annotation.NonNull;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import world.bentobox.bentobox.api.panels.PanelItem;
+import world.bentobox.bentobox.api.panels.builders.PanelBuilder;
+import world.bentobox.bentobox.api.panels.builders.PanelItemBuilder;
+import world.bentobox.bentobox.api.user.User;
+import world.bentobox.bentobox.database.objects.Island;
+import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.panels.GuiUtils;
+import world.bentobox.likes.utils.Constants;
+
+
+/**
+ * This gui shows islands that user liked and disliked in current world.
+ */
+public class MyVotesPanel
+{
+	/**
+	 * This is internal constructor. It is used internally in current class to avoid
+	 * creating objects everywhere.
+	 * @param addon Likes object.
+	 * @param user User who opens Panel.
+	 * @param world World where gui is opened
+	 * @param permissionPrefix Permission Prefix
+	 */
+	private MyVotesPanel(@NonNull LikesAddon addon,
+		@NonNull User user,
+		@NonNull World world,
+		String permissionPrefix)
+	{
+		this.addon = addon;
+		this.user = user;
+		this.world = world;
+
+		this.permissionPrefix = permissionPrefix;
+
+		this.likedIslands = this.addon.getManager().getLikedIslands(user.getUniqueId(), world);
+		this.dislikedIslands = this.addon.getManager().getDislikedIslands(user.getUniqueId(), world);
+	}
+
+
+	/**
+	 * This method is used to open UserPanel outside this class. It will be much easier
+	 * to open panel with single method call then initializing new object.
+	 * @param addon Likes Addon object
+	 * @param user User who opens panel
+	 * @param world World where gui is opened
+	 * @param permissionPrefix Permission Prefix
+	 */
+	public static void openPanel(@NonNull LikesAddon addon,
+		@NonNull User user,
+		@NonNull World world,
+		String permissionPrefix)
+	{
+		new MyVotesPanel(addon, user, world, permissionPrefix).build();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method builds panel with all user votes.
+	 */
+	private void build()
+	{
+		PanelBuilder panelBuilder = new PanelBuilder().
+			name(this.user.getTranslation(Constants.TITLE + "votes")).
+			user(this.user);
+
+		GuiUtils.fillBorder(panelBuilder, 6, Material.MAGENTA_STAINED_GLASS_PANE);
+
+		panelBuilder.item(10, this.createButton(Button.LIKED));
+		this.populateIslands(panelBuilder, this.likedIslands, this.likeOffset, 18,
+			Button.PREVIOUS_LIKE, Button.NEXT_LIKE);
+
+		panelBuilder.item(28, this.createButton(Button.DISLIKED));
+		this.populateIslands(panelBuilder, this.dislikedIslands, this.dislikeOffset, 36,
+			Button.PREVIOUS_DISLIKE, Button.NEXT_DISLIKE);
+
+		// At the end we just call build method that creates and opens panel.
+		panelBuilder.build();
+	}
+
+
+	/**
+	 * This method creates PanelItem button based on given button type.
+	 * @param button Button that must be created.
+	 * @return PanelItem object that represents given button.
+	 */
+	private PanelItem createButton(Button button)
+	{
+		ItemStack icon;
+		String name;
+		List<String> description;
+		PanelItem.ClickHandler clickHandler;
+
+		switch (button)
+		{
+			case LIKED:
+			{
+				icon = new ItemStack(Material.GOLD_INGOT);
+				name = this.user.getTranslation(Constants.BUTTON + "liked");
+
+				description = new ArrayList<>(2);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "liked"));
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "current-value",
+					"[value]",
+					this.likedIslands.size() + ""));
+
+				clickHandler = null;
+
+				break;
+			}
+			case DISLIKED:
+			{
+				icon = new ItemStack(Material.IRON_INGOT);
+				name = this.user.getTranslation(Constants.BUTTON + "disliked");
+
+				description = new ArrayList<>(2);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "disliked"));
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "current-value",
+					"[value]",
+					this.dislikedIslands.size() + ""));
+
+				clickHandler = null;
+
+				break;
+			}
+			case NEXT_LIKE:
+			{
+				icon = new ItemStack(Material.OAK_SIGN);
+				name = this.user.getTranslation(Constants.BUTTON + "next");
+				description = new ArrayList<>(1);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "liked-next"));
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					this.likeOffset++;
+					this.build();
+					return true;
+				};
+
+				break;
+			}
+			case PREVIOUS_LIKE:
+			{
+				icon = new ItemStack(Material.OAK_SIGN);
+				name = this.user.getTranslation(Constants.BUTTON + "previous");
+				description = new ArrayList<>(1);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "liked-previous"));
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					this.likeOffset--;
+					this.build();
+					return true;
+				};
+
+				break;
+			}
+			case NEXT_DISLIKE:
+			{
+				icon = new ItemStack(Material.OAK_SIGN);
+				name = this.user.getTranslation(Constants.BUTTON + "next");
+				description = new ArrayList<>(1);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "disliked-next"));
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					this.dislikeOffset++;
+					this.build();
+					return true;
+				};
+
+				break;
+			}
+			case PREVIOUS_DISLIKE:
+			{
+				icon = new ItemStack(Material.OAK_SIGN);
+				name = this.user.getTranslation(Constants.BUTTON + "previous");
+				description = new ArrayList<>(1);
+				description.add(this.user.getTranslation(Constants.DESCRIPTION + "disliked-previous"));
+
+				clickHandler = (panel, user, clickType, slot) -> {
+					this.dislikeOffset--;
+					this.build();
+					return true;
+				};
+
+				break;
+			}
+			default:
+				return null;
+		}
+
+		return new PanelItemBuilder().
+			icon(icon).
+			name(name).
+			description(GuiUtils.stringSplit(description, 999)).
+			glow(false).
+			clickHandler(clickHandler).
+			build();
+	}
+
+
+	/**
+	 * This method populates single row of islands into given panel builder.
+	 * @param panelBuilder PanelBuilder object.
+	 * @param islands Islands that must be shown in row.
+	 * @param offset Page of islands that is shown.
+	 * @param firstSlot First slot of row, where previous button is placed.
+	 * @param previous Button that opens previous page.
+	 * @param next Button that opens next page.
+	 */
+	private void populateIslands(PanelBuilder panelBuilder,
+		List<LikesObject> islands,
+		int offset,
+		int firstSlot,
+		Button previous,
+		Button next)
+	{
+		if (offset > 0)
+		{
+			panelBuilder.item(firstSlot, this.createButton(previous));
+		}
+
+		if ((offset + 1) * 7 < islands.size())
+		{
+			panelBuilder.item(firstSlot + 8, this.createButton(next));
+		}
+
+		final int startIndex = offset * 7;
+
+		for (int index = 0; index < 7 && startIndex + index < islands.size(); index++)
+		{
+			panelBuilder.item(firstSlot + 1 + index, this.createIslandButton(islands.get(startIndex + index)));
+		}
+	}
+
+
+	/**
+	 * This method creates button for voted island. Click on it opens island view panel.
+	 * @param likesObject Likes object of island.
+	 * @return PanelItem for PanelBuilder.
+	 */
+	private PanelItem createIslandButton(LikesObject likesObject)
+	{
+		Optional<Island> island = this.addon.getIslands().getIslandById(likesObject.getUniqueId());
+
+		List<String> description = new ArrayList<>(1);
+		description.add(this.user.getTranslation(Constants.DESCRIPTION + "values",
+			"[likes]", "" + likesObject.getLikes(),
+			"[dislikes]", "" + likesObject.getDislikes(),
+			"[rank]", "" + this.addon.getManager().getRank(likesObject)));
+
+		PanelItemBuilder builder = new PanelItemBuilder().
+			description(GuiUtils.stringSplit(description, 999)).
+			glow(false);
+
+		if (island.isPresent() && island.get().getOwner() != null)
+		{
+			String ownerName = this.addon.getPlayers().getName(island.get().getOwner());
+
+			builder.name(this.user.getTranslation(Constants.BUTTON + "name", "[name]", ownerName)).
+				icon(ownerName).
+				clickHandler((panel, user, clickType, slot) -> {
+					LikesViewPanel.openPanel(this.addon,
+						this.user,
+						this.world,
+						this.permissionPrefix,
+						island.get());
+					return true;
+				});
+		}
+		else
+		{
+			builder.name(this.user.getTranslation(Constants.DESCRIPTION + "unknown")).
+				icon(this.addon.getSettings().getDefaultIcon());
+		}
+
+		return builder.build();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Enums
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This enum holds all action buttons that can be added in current gui.
+	 */
+	private enum Button
+	{
+		LIKED,
+		DISLIKED,
+
+		NEXT_LIKE,
+		PREVIOUS_LIKE,
+
+		NEXT_DISLIKE,
+		PREVIOUS_DISLIKE
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+	/**
+	 * This variable allows to access addon object.
+	 */
+	private final LikesAddon addon;
+
+	/**
+	 * This variable holds user who opens panel. Without it panel cannot be opened.
+	 */
+	private final User user;
+
+	/**
+	 * This variable holds a world to which gui referee.
+	 */
+	private final World world;
+
+	/**
+	 * Permission prefix
+	 */
+	private final String permissionPrefix;
+
+	/**
+	 * This list contains islands that user liked.
+	 */
+	private final List<LikesObject> likedIslands;
+
+	/**
+	 * This list contains islands that user disliked.
+	 */
+	private final List<LikesObject> dislikedIslands;
+
+	/**
+	 * This variable stores page of liked islands.
+	 */
+	private int likeOffset;
+
+	/**
+	 * This variable stores page of disliked islands.
+	 */
+	private int dislikeOffset;
+}
@@ -95,22 +95,32 @@ public class TopLikesPanel
 
 		// Clear list each build time.
 		this.topPlayerList.clear();
+		this.topPlayerList.addAll(this.addon.getManager().getRange(this.world,
+			this.viewMode,
+			this.page * PLACEMENTS.length,
+			PLACEMENTS.length));
+
 		Material mainMaterial;
 
 		switch (this.viewMode)
 		{
 			case LIKES:
-				this.topPlayerList.addAll(this.addon.getManager().getTopByLikes(this.world));
 				mainMaterial = Material.GREEN_STAINED_GLASS_PANE;
 				break;
 			case DISLIKES:
-				this.topPlayerList.addAll(this.addon.getManager().getTopByDislikes(this.world));
 				mainMaterial = Material.RED_STAINED_GLASS_PANE;
 				break;
 			case RANK:
-				this.topPlayerList.addAll(this.addon.getManager().getTopByRank(this.world));
 				mainMaterial = Material.MAGENTA_STAINED_GLASS_PANE;
 				break;
+			case DAILY:
+			case WEEKLY:
+			case MONTHLY:
+				mainMaterial = Material.LIGHT_BLUE_STAINED_GLASS_PANE;
+				break;
+			case TRENDING:
+				mainMaterial = Material.ORANGE_STAINED_GLASS_PANE;
+				break;
 			default:
 				// This should never happen!
 				this.user.closeInventory();
@@ -149,6 +159,19 @@ public class TopLikesPanel
 
 		panelBuilder.item(8, this.createViewModeButton());
 
+		if (this.page > 0)
+		{
+			panelBuilder.item((rowCount - 1) * 9, this.createPageButton(false));
+		}
+
+		if (!this.addon.getManager().getRange(this.world,
+			this.viewMode,
+			(this.page + 1) * PLACEMENTS.length,
+			1).isEmpty())
+		{
+			panelBuilder.item(rowCount * 9 - 1, this.createPageButton(true));
+		}
+
 		this.populatePlayerButtons(panelBuilder);
 
 		// At the end we just call build method that creates and opens panel.
@@ -189,6 +212,14 @@ public class TopLikesPanel
 			case RANK:
 				builder.icon(Material.GOLD_INGOT);
 				break;
+			case DAILY:
+			case WEEKLY:
+			case MONTHLY:
+				builder.icon(Material.CLOCK);
+				break;
+			case TRENDING:
+				builder.icon(Material.BLAZE_POWDER);
+				break;
 		}
 
 		// We can modify PanelItem icon.
@@ -210,6 +241,9 @@ public class TopLikesPanel
 				this.viewMode = Utils.getNextValue(VIEW_MODE.values(), this.viewMode);
 			}
 
+			// Each top starts from the first page.
+			this.page = 0;
+
 			// Rebuild just this icon
 			this.build();
 
@@ -221,6 +255,30 @@ public class TopLikesPanel
 	}
 
 
+	/**
+	 * This method creates button that opens next or previous top page.
+	 * @param next {@code true} for next page button, {@code false} for previous page.
+	 * @return PanelItem object.
+	 */
+	private PanelItem createPageButton(boolean next)
+	{
+		List<String> description = new ArrayList<>(1);
+		description.add(this.user.getTranslation(Constants.DESCRIPTION + (next ? "next-page" : "previous-page"),
+			"[page]", String.valueOf(this.page + (next ? 2 : 0))));
+
+		return new PanelItemBuilder().
+			icon(Material.OAK_SIGN).
+			name(this.user.getTranslation(Constants.BUTTON + (next ? "next" : "previous"))).
+			description(GuiUtils.stringSplit(description, 999)).
+			clickHandler((panel, user, clickType, slot) -> {
+				this.page += next ? 1 : -1;
+				this.build();
+				return true;
+			}).
+			build();
+	}
+
+
 	/**
 	 * This method populates panel with player tops.
 	 * @param panelBuilder PanelBuilder that must be populated.
@@ -231,7 +289,8 @@ public class TopLikesPanel
 
 		for (int index = 0, size = this.topPlayerList.size(); index < size; index++)
 		{
-			panelBuilder.item(PLACEMENTS[index], this.createPlayerButton(this.topPlayerList.get(index), index + 1));
+			panelBuilder.item(PLACEMENTS[index], this.createPlayerButton(this.topPlayerList.get(index),
+				this.page * PLACEMENTS.length + index + 1));
 		}
 	}
 
@@ -250,22 +309,7 @@ public class TopLikesPanel
 		String name;
 		List<String> description = new ArrayList<>();
 
-		final long value;
-
-		switch (this.viewMode)
-		{
-			case LIKES:
-				value = likesObject.getLikes();
-				break;
-			case DISLIKES:
-				value = likesObject.getDislikes();
-				break;
-			case RANK:
-				value = likesObject.getRank();
-				break;
-			default:
-				value = 0;
-		}
+		final long value = this.addon.getManager().getValue(likesObject, this.viewMode);
 
 		description.add(this.user.getTranslation(Constants.DESCRIPTION + "top-value." + this.viewMode.name().toLowerCase(),
 			"[rank]", rank + "", "[value]", value + ""));
@@ -273,7 +317,7 @@ public class TopLikesPanel
 		description.add(this.user.getTranslation(Constants.DESCRIPTION + "values",
 			"[likes]", "" + likesObject.getLikes(),
 			"[dislikes]", "" + likesObject.getDislikes(),
-			"[rank]", "" + likesObject.getRank()));
+			"[rank]", "" + this.addon.getManager().getRank(likesObject)));
 
 		PanelItem.ClickHandler clickHandler;
 
@@ -343,7 +387,7 @@ public class TopLikesPanel
 		}
 
 		// Set rank amount
-		panelItem.getItem().setAmount(rank);
+		panelItem.getItem().setAmount(Math.min(rank, 64));
 
 		return panelItem;
 	}
@@ -383,6 +427,11 @@ public class TopLikesPanel
 	 */
 	private VIEW_MODE viewMode;
 
+	/**
+	 * This variable holds which top page is displayed.
+	 */
+	private int page;
+
 	/**
 	 * This list contains all currently displayed top players.
 	 */
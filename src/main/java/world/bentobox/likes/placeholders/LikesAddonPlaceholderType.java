@@ -11,8 +11,9 @@ package world.bentobox.likes.placeholders;
 import world.bentobox.bentobox.api.addons.GameModeAddon;
 import world.bentobox.bentobox.database.objects.Island;
 import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.config.Settings.VIEW_MODE;
 import world.bentobox.likes.database.objects.LikesObject;
-import world.bentobox.likes.utils.collections.IndexedTreeSet;
+import world.bentobox.likes.managers.RankedView;
 
 
 /**
@@ -31,7 +32,21 @@ public enum LikesAddonPlaceholderType
 	 */
 	ISLAND_LIKES_PLACE("island_likes_place", (addon, gameModeAddon, island) -> island != null ?
 		String.valueOf(LikesAddonPlaceholderType.getSortedLikes(addon, gameModeAddon).
-			entryIndex(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
+			placeOf(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
+
+	/**
+	 * This placeholder returns trending score for given island.
+	 */
+	ISLAND_TRENDING("island_trending_count", (addon, gameModeAddon, island) -> island != null ?
+		String.valueOf(addon.getManager().getValue(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island),
+			VIEW_MODE.TRENDING)) : ""),
+
+	/**
+	 * This placeholder returns island placement in trending top.
+	 */
+	ISLAND_TRENDING_PLACE("island_trending_place", (addon, gameModeAddon, island) -> island != null ?
+		String.valueOf(addon.getManager().getSorted(gameModeAddon.getDescription().getName(), VIEW_MODE.TRENDING).
+			placeOf(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
 
 	/**
 	 * This placeholder returns dislikes that is set for given island.
@@ -44,20 +59,20 @@ public enum LikesAddonPlaceholderType
 	 */
 	ISLAND_DISLIKES_PLACE("island_dislikes_place", (addon, gameModeAddon, island) -> island != null ?
 		String.valueOf(LikesAddonPlaceholderType.getSortedDislikes(addon, gameModeAddon).
-			entryIndex(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
+			placeOf(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
 
 	/**
 	 * This placeholder returns rank that is set for given island.
 	 */
 	ISLAND_RANK("island_rank_count", (addon, gameModeAddon, island) -> island != null ?
-		String.valueOf(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island).getRank()) : ""),
+		String.valueOf(addon.getManager().getRank(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
 
 	/**
 	 * This placeholder returns island rank placement by their rank count.
 	 */
 	ISLAND_RANK_PLACE("island_rank_place", (addon, gameModeAddon, island) -> island != null ?
 		String.valueOf(LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).
-			entryIndex(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
+			placeOf(LikesAddonPlaceholderType.getObject(addon, gameModeAddon, island))) : ""),
 
 // ---------------------------------------------------------------------
 // Section: Top By Likes
@@ -679,7 +694,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_1("top_rank_count_1", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(0);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -708,7 +723,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_2("top_rank_count_2", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(1);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -737,7 +752,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_3("top_rank_count_3", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(2);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -766,7 +781,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_4("top_rank_count_4", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(3);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -795,7 +810,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_5("top_rank_count_5", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(4);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -824,7 +839,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_6("top_rank_count_6", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(5);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -853,7 +868,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_7("top_rank_count_7", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(6);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -882,7 +897,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_8("top_rank_count_8", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(7);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -911,7 +926,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_9("top_rank_count_9", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(8);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	}),
 
 	/**
@@ -940,7 +955,7 @@ public enum LikesAddonPlaceholderType
 	 */
 	BY_RANK_COUNT_10("top_rank_count_10", (addon, gameModeAddon, island) -> {
 		LikesObject object = LikesAddonPlaceholderType.getSortedRank(addon, gameModeAddon).exact(9);
-		return object != null ? String.valueOf(object.getRank()) : "";
+		return object != null ? String.valueOf(addon.getManager().getRank(object)) : "";
 	});
 
 
@@ -991,7 +1006,7 @@ public enum LikesAddonPlaceholderType
 
 	/**
 	 * This method returns likes object that referees to given island object. If object does not exist,
-	 * it creates new empty object.
+	 * it returns shared read-only object with zero values.
 	 * @param addon Likes Addon instance
 	 * @param gameModeAddon GameMode addon instance
 	 * @param island Island Object instance.
@@ -1004,36 +1019,36 @@ public enum LikesAddonPlaceholderType
 
 
 	/**
-	 * This method returns IndexedTreeSet that contains ordered LikesObject by their like count.
+	 * This method returns RankedView that contains ordered LikesObject by their like count.
 	 * @param addon Likes Addon.
 	 * @param gameModeAddon Target GameMode addon.
-	 * @return IndexedTreeSet where objects are ordered by their like count.
+	 * @return RankedView where objects are ordered by their like count.
 	 */
-	private static IndexedTreeSet<LikesObject> getSortedLikes(LikesAddon addon, GameModeAddon gameModeAddon)
+	private static RankedView getSortedLikes(LikesAddon addon, GameModeAddon gameModeAddon)
 	{
 		return addon.getManager().getSortedLikes(gameModeAddon.getDescription().getName());
 	}
 
 
 	/**
-	 * This method returns IndexedTreeSet that contains ordered LikesObject by their dislike count.
+	 * This method returns RankedView that contains ordered LikesObject by their dislike count.
 	 * @param addon Likes Addon.
 	 * @param gameModeAddon Target GameMode addon.
-	 * @return IndexedTreeSet where objects are ordered by their dislike count.
+	 * @return RankedView where objects are ordered by their dislike count.
 	 */
-	private static IndexedTreeSet<LikesObject> getSortedDislikes(LikesAddon addon, GameModeAddon gameModeAddon)
+	private static RankedView getSortedDislikes(LikesAddon addon, GameModeAddon gameModeAddon)
 	{
 		return addon.getManager().getSortedDislikes(gameModeAddon.getDescription().getName());
 	}
 
 
 	/**
-	 * This method returns IndexedTreeSet that contains ordered LikesObject by their rank number.
+	 * This method returns RankedView that contains ordered LikesObject by their rank number.
 	 * @param addon Likes Addon.
 	 * @param gameModeAddon Target GameMode addon.
-	 * @return IndexedTreeSet where objects are ordered by their rank numver.
+	 * @return RankedView where objects are ordered by their rank numver.
 	 */
-	private static IndexedTreeSet<LikesObject> getSortedRank(LikesAddon addon, GameModeAddon gameModeAddon)
+	private static RankedView getSortedRank(LikesAddon addon, GameModeAddon gameModeAddon)
 	{
 		return addon.getManager().getSortedRank(gameModeAddon.getDescription().getName());
 	}
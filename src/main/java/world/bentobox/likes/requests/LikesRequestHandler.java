@@ -59,11 +59,11 @@ public class LikesRequestHandler extends AddonRequestHandler
         Map<String, Object> returnMap = new HashMap<>(8);
         returnMap.put("likes", likesObject.getLikes());
         returnMap.put("dislikes", likesObject.getDislikes());
-        returnMap.put("rank", likesObject.getRank());
+        returnMap.put("rank", this.addon.getManager().getRank(likesObject));
 
-        returnMap.put("placeByLikes", this.addon.getManager().getSortedLikes(world).entryIndex(likesObject));
-        returnMap.put("placeByDislikes", this.addon.getManager().getSortedDislikes(world).entryIndex(likesObject));
-        returnMap.put("placeByRank", this.addon.getManager().getSortedRank(world).entryIndex(likesObject));
+        returnMap.put("placeByLikes", this.addon.getManager().getSortedLikes(world).placeOf(likesObject));
+        returnMap.put("placeByDislikes", this.addon.getManager().getSortedDislikes(world).placeOf(likesObject));
+        returnMap.put("placeByRank", this.addon.getManager().getSortedRank(world).placeOf(likesObject));
 
         returnMap.put("likedBy", likesObject.getLikedBy());
         returnMap.put("dislikedBy", likesObject.getDislikedBy());
@@ -0,0 +1,122 @@
+package world.bentobox.likes.requests;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import world.bentobox.bentobox.api.addons.request.AddonRequestHandler;
+import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.config.Settings.VIEW_MODE;
+import world.bentobox.likes.database.objects.LikesObject;
+import world.bentobox.likes.managers.RankedView;
+import world.bentobox.likes.utils.Utils;
+
+
+/**
+ * This Request Handler allows other plugins to get islands that are directly above and
+ * below requested island in requested top.
+ */
+public class NeighboursRequestHandler extends AddonRequestHandler
+{
+    /**
+     * This constructor creates a new NeighboursRequestHandler instance.
+     *
+     * @param addon of type LikesAddon
+     */
+    public NeighboursRequestHandler(LikesAddon addon)
+    {
+        super("island-neighbours");
+        this.addon = addon;
+    }
+
+
+    /**
+     * @see {@link AddonRequestHandler#handle(Map)}
+     */
+    @Override
+    public Object handle(Map<String, Object> map)
+    {
+        /*
+            What we need in the map:
+
+            "world-name" -> String,
+            "island" -> String,
+            "type" -> String (optional, likes by default),
+            "count" -> Integer (optional, islands on each side, 5 by default)
+
+            What we will return:
+
+            - Empty map if invalid input or island does not have likes data in given world
+            - the map that contains:
+                "place" -> 0-based place of the first returned island,
+                "islands" -> linked map of island id's and values in top order.
+         */
+
+        if (map == null || map.isEmpty()
+            || map.get("world-name") == null || !(map.get("world-name") instanceof String)
+            || map.get("island") == null || !(map.get("island") instanceof String)
+            || Bukkit.getWorld((String) map.get("world-name")) == null)
+        {
+            return Collections.emptyMap();
+        }
+
+        World world = Bukkit.getWorld((String) map.get("world-name"));
+        LikesObject likesObject = this.addon.getManager().getExistingIslandLikes((String) map.get("island"), world);
+
+        if (likesObject == null || !Utils.getGameMode(world).equals(likesObject.getGameMode()))
+        {
+            return Collections.emptyMap();
+        }
+
+        VIEW_MODE mode = VIEW_MODE.getMode((String) map.getOrDefault("type", "likes"));
+
+        Object countValue = map.get("count");
+        int count = countValue instanceof Integer ?
+            Math.max(0, Math.min((Integer) countValue, MAX_COUNT)) : DEFAULT_COUNT;
+
+        RankedView sorted = this.addon.getManager().getSorted(likesObject.getGameMode(), mode);
+        int index = sorted.entryIndex(likesObject);
+        List<LikesObject> neighbours = sorted.getNeighbours(index, count);
+
+        if (index < 0 || neighbours.isEmpty())
+        {
+            return Collections.emptyMap();
+        }
+
+        Map<String, Long> islands = new LinkedHashMap<>(neighbours.size());
+        neighbours.forEach(neighbour ->
+            islands.put(neighbour.getUniqueId(), this.addon.getManager().getValue(neighbour, mode)));
+
+        Map<String, Object> returnMap = new HashMap<>(2);
+        returnMap.put("place", Math.max(0, index - count));
+        returnMap.put("islands", islands);
+
+        return returnMap;
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Likes addon instance.
+     */
+    private LikesAddon addon;
+
+    /**
+     * Number of islands on each side if request does not specify it.
+     */
+    private static final int DEFAULT_COUNT = 5;
+
+    /**
+     * Maximal number of islands on each side.
+     */
+    private static final int MAX_COUNT = 50;
+}
@@ -0,0 +1,94 @@
+package world.bentobox.likes.requests;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+
+import org.bukkit.Bukkit;
+import org.bukkit.World;
+
+import world.bentobox.bentobox.api.addons.request.AddonRequestHandler;
+import world.bentobox.likes.LikesAddon;
+import world.bentobox.likes.database.objects.LikesObject;
+
+
+/**
+ * This Request Handler allows other plugins to get islands that player liked and
+ * disliked in requested world.
+ */
+public class PlayerVotesRequestHandler extends AddonRequestHandler
+{
+    /**
+     * This constructor creates a new PlayerVotesRequestHandler instance.
+     *
+     * @param addon of type LikesAddon
+     */
+    public PlayerVotesRequestHandler(LikesAddon addon)
+    {
+        super("player-votes");
+        this.addon = addon;
+    }
+
+
+    /**
+     * @see {@link AddonRequestHandler#handle(Map)}
+     */
+    @Override
+    public Object handle(Map<String, Object> map)
+    {
+        /*
+            What we need in the map:
+
+            "world-name" -> String,
+            "player" -> UUID
+
+            What we will return:
+
+            - Empty map if invalid input
+            - the map that contains:
+                "liked" -> list of island id's that player liked,
+                "disliked" -> list of island id's that player disliked.
+         */
+
+        if (map == null || map.isEmpty()
+            || map.get("world-name") == null || !(map.get("world-name") instanceof String)
+            || map.get("player") == null || !(map.get("player") instanceof UUID)
+            || Bukkit.getWorld((String) map.get("world-name")) == null)
+        {
+            return Collections.emptyMap();
+        }
+
+        World world = Bukkit.getWorld((String) map.get("world-name"));
+        UUID player = (UUID) map.get("player");
+
+        Map<String, Object> returnMap = new HashMap<>(2);
+        returnMap.put("liked", this.toIds(this.addon.getManager().getLikedIslands(player, world)));
+        returnMap.put("disliked", this.toIds(this.addon.getManager().getDislikedIslands(player, world)));
+
+        return returnMap;
+    }
+
+
+    /**
+     * @param likesObjects Likes objects.
+     * @return Island id's of given objects.
+     */
+    private List<String> toIds(List<LikesObject> likesObjects)
+    {
+        return likesObjects.stream().map(LikesObject::getUniqueId).collect(Collectors.toList());
+    }
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+    /**
+     * Likes addon instance.
+     */
+    private LikesAddon addon;
+}
@@ -58,7 +58,9 @@ public class TopTenRequestHandler extends AddonRequestHandler
 
         Map<String, Long> returnMap = new LinkedHashMap<>(10);
 
-        switch (VIEW_MODE.getMode((String) map.getOrDefault("type", "likes")))
+        VIEW_MODE mode = VIEW_MODE.getMode((String) map.getOrDefault("type", "likes"));
+
+        switch (mode)
         {
             case LIKES:
                 this.addon.getManager().getTopByLikes(Bukkit.getWorld((String) map.get("world-name"))).
@@ -70,7 +72,14 @@ public class TopTenRequestHandler extends AddonRequestHandler
                 break;
             case RANK:
                 this.addon.getManager().getTopByRank(Bukkit.getWorld((String) map.get("world-name"))).
-                    forEach(likesObject -> returnMap.put(likesObject.getUniqueId(), likesObject.getRank()));
+                    forEach(likesObject -> returnMap.put(likesObject.getUniqueId(), this.addon.getManager().getRank(likesObject)));
+                break;
+            case DAILY:
+            case WEEKLY:
+            case MONTHLY:
+            case TRENDING:
+                this.addon.getManager().getTop(Bukkit.getWorld((String) map.get("world-name")), mode).
+                    forEach(likesObject -> returnMap.put(likesObject.getUniqueId(), this.addon.getManager().getValue(likesObject, mode)));
                 break;
         }
 
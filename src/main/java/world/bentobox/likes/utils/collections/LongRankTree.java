@@ -0,0 +1,812 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.utils.collections;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Order statistic tree that stores primitive {@code (long key, int ordinal)} pairs in
+ * several orderings at once. Ordinal is a small non-negative number that identifies
+ * element (f.e. island) and it is used as node address in parallel arrays, so tree does
+ * not allocate any objects per element and does not box keys.
+ * <p>
+ * Each node holds one key and one set of child links per ordering, so an element can be
+ * repositioned in all orderings with single call. In every ordering elements are sorted by
+ * ascending key and then by ascending ordinal.
+ * <p>
+ * Each ordering is a treap: node has random priority and subtree size, which allows to
+ * find element by its position and position of an element in O(log n).
+ * <p>
+ * This implementation is not synchronized.
+ */
+public class LongRankTree
+{
+	/**
+	 * Creates empty tree with given ordering count and initial ordinal capacity.
+	 * @param orderings Number of orderings that each element takes part in.
+	 * @param capacity Initial capacity.
+	 */
+	public LongRankTree(int orderings, int capacity)
+	{
+		capacity = Math.max(1, capacity);
+
+		this.orderings = orderings;
+		this.keys = new long[capacity * orderings];
+		this.left = new int[capacity * orderings];
+		this.right = new int[capacity * orderings];
+		this.weight = new int[capacity * orderings];
+		this.priority = new int[capacity];
+
+		this.roots = new int[orderings];
+		Arrays.fill(this.roots, NIL);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Public methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @return number of orderings in this tree.
+	 */
+	public int getOrderings()
+	{
+		return this.orderings;
+	}
+
+
+	/**
+	 * @return number of elements in this tree.
+	 */
+	public int size()
+	{
+		return this.roots[0] == NIL ? 0 : this.weight[this.at(this.roots[0], 0)];
+	}
+
+
+	/**
+	 * This method returns if given ordinal is stored in tree.
+	 * @param ordinal Element ordinal.
+	 * @return {@code true} if ordinal is in tree, {@code false} otherwise.
+	 */
+	public boolean contains(int ordinal)
+	{
+		return ordinal >= 0 && ordinal < this.priority.length && this.weight[this.at(ordinal, 0)] > 0;
+	}
+
+
+	/**
+	 * This method returns key that is stored for given ordinal.
+	 * @param ordering Ordering index.
+	 * @param ordinal Element ordinal.
+	 * @return key of given element.
+	 */
+	public long keyOf(int ordering, int ordinal)
+	{
+		return this.keys[this.at(ordinal, ordering)];
+	}
+
+
+	/**
+	 * This method inserts given ordinal with given keys, one key per ordering. If ordinal
+	 * is already in tree, it is repositioned in orderings which key has changed.
+	 * @param ordinal Element ordinal.
+	 * @param keys Element keys, array length must match ordering count.
+	 */
+	public void insert(int ordinal, long[] keys)
+	{
+		if (this.contains(ordinal))
+		{
+			for (int ordering = 0; ordering < this.orderings; ordering++)
+			{
+				if (this.keys[this.at(ordinal, ordering)] != keys[ordering])
+				{
+					this.roots[ordering] = this.remove(this.roots[ordering],
+						ordering,
+						this.keys[this.at(ordinal, ordering)],
+						ordinal);
+					this.insert(ordering, ordinal, keys[ordering]);
+				}
+			}
+
+			return;
+		}
+
+		this.ensureCapacity(ordinal + 1);
+		this.priority[ordinal] = this.nextPriority();
+
+		for (int ordering = 0; ordering < this.orderings; ordering++)
+		{
+			this.insert(ordering, ordinal, keys[ordering]);
+		}
+	}
+
+
+	/**
+	 * This method fills empty tree with ordinals from {@code 0} till {@code count - 1}.
+	 * Each ordering is sorted once, and treap is built from sorted sequence bottom-up
+	 * with a stack, so building costs one sort plus O(n) per ordering instead of n
+	 * separate inserts.
+	 * @param count Number of elements.
+	 * @param keys Element keys, where key of ordinal {@code o} in ordering {@code r} is
+	 * located at index {@code o * getOrderings() + r}.
+	 * @throws IllegalStateException if tree is not empty.
+	 */
+	public void build(int count, long[] keys)
+	{
+		if (this.size() > 0)
+		{
+			throw new IllegalStateException("Tree must be empty before bulk build.");
+		}
+
+		if (count == 0)
+		{
+			return;
+		}
+
+		this.ensureCapacity(count);
+		System.arraycopy(keys, 0, this.keys, 0, count * this.orderings);
+
+		for (int ordinal = 0; ordinal < count; ordinal++)
+		{
+			this.priority[ordinal] = this.nextPriority();
+		}
+
+		int[] order = new int[count];
+		int[] buffer = new int[count];
+
+		for (int ordering = 0; ordering < this.orderings; ordering++)
+		{
+			for (int ordinal = 0; ordinal < count; ordinal++)
+			{
+				order[ordinal] = ordinal;
+			}
+
+			int[] sorted = this.sortByKey(order, buffer, ordering);
+
+			if (sorted == buffer)
+			{
+				buffer = order;
+				order = sorted;
+			}
+
+			this.roots[ordering] = this.buildOrdering(order, ordering);
+		}
+	}
+
+
+	/**
+	 * This method removes given ordinal from tree.
+	 * @param ordinal Element ordinal.
+	 * @return {@code true} if element was removed, {@code false} if it was not in tree.
+	 */
+	public boolean remove(int ordinal)
+	{
+		if (!this.contains(ordinal))
+		{
+			return false;
+		}
+
+		for (int ordering = 0; ordering < this.orderings; ordering++)
+		{
+			int index = this.at(ordinal, ordering);
+
+			this.roots[ordering] = this.remove(this.roots[ordering], ordering, this.keys[index], ordinal);
+
+			this.left[index] = NIL;
+			this.right[index] = NIL;
+			this.weight[index] = 0;
+		}
+
+		return true;
+	}
+
+
+	/**
+	 * This method returns position of given ordinal in given ordering.
+	 * @param ordering Ordering index.
+	 * @param ordinal Element ordinal.
+	 * @return 0-based position of element, or -1 if element is not in tree.
+	 */
+	public int rankOf(int ordering, int ordinal)
+	{
+		if (!this.contains(ordinal))
+		{
+			return -1;
+		}
+
+		return this.countBefore(ordering, this.keys[this.at(ordinal, ordering)], ordinal);
+	}
+
+
+	/**
+	 * This method returns ordinal that is located at given position in given ordering.
+	 * @param ordering Ordering index.
+	 * @param rank 0-based position.
+	 * @return ordinal at given position, or -1 if position is out of bounds.
+	 */
+	public int select(int ordering, int rank)
+	{
+		if (rank < 0 || rank >= this.size())
+		{
+			return NIL;
+		}
+
+		int node = this.roots[ordering];
+
+		while (node != NIL)
+		{
+			int leftWeight = this.weightOf(this.left[this.at(node, ordering)], ordering);
+
+			if (rank < leftWeight)
+			{
+				node = this.left[this.at(node, ordering)];
+			}
+			else if (rank == leftWeight)
+			{
+				return node;
+			}
+			else
+			{
+				rank -= leftWeight + 1;
+				node = this.right[this.at(node, ordering)];
+			}
+		}
+
+		return NIL;
+	}
+
+
+	/**
+	 * This method writes ordinals that are located at positions from {@code offset} in
+	 * given ordering into target array. It descends to first position once and then walks
+	 * tree in order, so it costs O(log n + limit) instead of selecting each position.
+	 * @param ordering Ordering index.
+	 * @param offset 0-based position of first element.
+	 * @param target Array where ordinals must be written.
+	 * @param limit Maximal number of ordinals.
+	 * @return number of ordinals that were written.
+	 */
+	public int selectRange(int ordering, int offset, int[] target, int limit)
+	{
+		if (offset < 0 || offset >= this.size() || limit <= 0)
+		{
+			return 0;
+		}
+
+		// Stack holds nodes that follow current node in order: ancestors where
+		// search went left, and then left spine of right subtrees.
+		int stackSize = 0;
+		int node = this.roots[ordering];
+		int rank = offset;
+
+		while (node != NIL)
+		{
+			int leftWeight = this.weightOf(this.left[this.at(node, ordering)], ordering);
+
+			if (rank < leftWeight)
+			{
+				stackSize = this.push(stackSize, node);
+				node = this.left[this.at(node, ordering)];
+			}
+			else if (rank == leftWeight)
+			{
+				stackSize = this.push(stackSize, node);
+				break;
+			}
+			else
+			{
+				rank -= leftWeight + 1;
+				node = this.right[this.at(node, ordering)];
+			}
+		}
+
+		int count = 0;
+
+		while (count < limit && stackSize > 0)
+		{
+			node = this.stack[--stackSize];
+			target[count++] = node;
+
+			for (node = this.right[this.at(node, ordering)]; node != NIL; node = this.left[this.at(node, ordering)])
+			{
+				stackSize = this.push(stackSize, node);
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * This method returns number of elements which key in given ordering is smaller than
+	 * given key.
+	 * @param ordering Ordering index.
+	 * @param key Key that must be compared.
+	 * @return number of elements with smaller key.
+	 */
+	public int countLess(int ordering, long key)
+	{
+		return this.countBefore(ordering, key, Integer.MIN_VALUE);
+	}
+
+
+	/**
+	 * This method removes all elements from tree.
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.weight, 0);
+		Arrays.fill(this.roots, NIL);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Sorts ordinals by key in given ordering with bottom-up merge sort. Ordinals are
+	 * given in ascending order and sort is stable, so equal keys stay ordered by ordinal.
+	 * @param order Ordinals in ascending order.
+	 * @param buffer Temporary array of the same length.
+	 * @param ordering Ordering index.
+	 * @return array that holds sorted ordinals, either {@code order} or {@code buffer}.
+	 */
+	private int[] sortByKey(int[] order, int[] buffer, int ordering)
+	{
+		int count = order.length;
+
+		for (int width = 1; width < count; width <<= 1)
+		{
+			for (int start = 0; start < count; start += width << 1)
+			{
+				int middle = Math.min(start + width, count);
+				int end = Math.min(start + (width << 1), count);
+
+				int first = start;
+				int second = middle;
+
+				for (int index = start; index < end; index++)
+				{
+					if (second >= end || first < middle &&
+						this.keys[this.at(order[first], ordering)] <= this.keys[this.at(order[second], ordering)])
+					{
+						buffer[index] = order[first++];
+					}
+					else
+					{
+						buffer[index] = order[second++];
+					}
+				}
+			}
+
+			int[] swap = order;
+			order = buffer;
+			buffer = swap;
+		}
+
+		return order;
+	}
+
+
+	/**
+	 * Builds treap for given ordering from sorted ordinals. Right spine of built part is
+	 * kept in stack; each new node pops nodes with lower priority, which become its left
+	 * subtree. Subtree weight is final when node is popped.
+	 * @param order Ordinals sorted by key.
+	 * @param ordering Ordering index.
+	 * @return root node.
+	 */
+	private int buildOrdering(int[] order, int ordering)
+	{
+		int stackSize = 0;
+
+		for (int node : order)
+		{
+			int index = this.at(node, ordering);
+			int last = NIL;
+
+			while (stackSize > 0 && this.priority[this.stack[stackSize - 1]] < this.priority[node])
+			{
+				last = this.stack[--stackSize];
+				this.updateWeight(last, ordering);
+			}
+
+			this.left[index] = last;
+			this.right[index] = NIL;
+
+			if (stackSize > 0)
+			{
+				this.right[this.at(this.stack[stackSize - 1], ordering)] = node;
+			}
+
+			stackSize = this.push(stackSize, node);
+		}
+
+		while (stackSize > 1)
+		{
+			this.updateWeight(this.stack[--stackSize], ordering);
+		}
+
+		this.updateWeight(this.stack[0], ordering);
+
+		return this.stack[0];
+	}
+
+
+	/**
+	 * This method returns number of elements that are before given key and ordinal pair.
+	 * @param ordering Ordering index.
+	 * @param key Element key.
+	 * @param ordinal Element ordinal.
+	 * @return number of elements that are ordered before given pair.
+	 */
+	private int countBefore(int ordering, long key, int ordinal)
+	{
+		int count = 0;
+		int node = this.roots[ordering];
+
+		while (node != NIL)
+		{
+			int index = this.at(node, ordering);
+			int compare = compare(key, ordinal, this.keys[index], node);
+
+			if (compare < 0)
+			{
+				node = this.left[index];
+			}
+			else if (compare == 0)
+			{
+				return count + this.weightOf(this.left[index], ordering);
+			}
+			else
+			{
+				count += this.weightOf(this.left[index], ordering) + 1;
+				node = this.right[index];
+			}
+		}
+
+		return count;
+	}
+
+
+	/**
+	 * Inserts ordinal with given key in given ordering.
+	 * @param ordering Ordering index.
+	 * @param ordinal Element ordinal.
+	 * @param key Element key.
+	 */
+	private void insert(int ordering, int ordinal, long key)
+	{
+		int index = this.at(ordinal, ordering);
+
+		this.keys[index] = key;
+		this.left[index] = NIL;
+		this.right[index] = NIL;
+		this.weight[index] = 1;
+
+		this.roots[ordering] = this.insert(this.roots[ordering], ordering, ordinal);
+	}
+
+
+	/**
+	 * Inserts node into given subtree.
+	 * @param tree Subtree root.
+	 * @param ordering Ordering index.
+	 * @param node Node that must be inserted.
+	 * @return new subtree root.
+	 */
+	private int insert(int tree, int ordering, int node)
+	{
+		if (tree == NIL)
+		{
+			return node;
+		}
+
+		int nodeIndex = this.at(node, ordering);
+		int treeIndex = this.at(tree, ordering);
+
+		if (this.priority[node] > this.priority[tree])
+		{
+			this.split(tree, ordering, this.keys[nodeIndex], node);
+			this.left[nodeIndex] = this.splitLeft;
+			this.right[nodeIndex] = this.splitRight;
+			this.updateWeight(node, ordering);
+			return node;
+		}
+
+		if (compare(this.keys[nodeIndex], node, this.keys[treeIndex], tree) < 0)
+		{
+			this.left[treeIndex] = this.insert(this.left[treeIndex], ordering, node);
+		}
+		else
+		{
+			this.right[treeIndex] = this.insert(this.right[treeIndex], ordering, node);
+		}
+
+		this.updateWeight(tree, ordering);
+		return tree;
+	}
+
+
+	/**
+	 * Removes node with given key and ordinal from subtree.
+	 * @param tree Subtree root.
+	 * @param ordering Ordering index.
+	 * @param key Node key.
+	 * @param ordinal Node ordinal.
+	 * @return new subtree root.
+	 */
+	private int remove(int tree, int ordering, long key, int ordinal)
+	{
+		if (tree == NIL)
+		{
+			return NIL;
+		}
+
+		int treeIndex = this.at(tree, ordering);
+
+		if (tree == ordinal)
+		{
+			return this.merge(this.left[treeIndex], this.right[treeIndex], ordering);
+		}
+
+		if (compare(key, ordinal, this.keys[treeIndex], tree) < 0)
+		{
+			this.left[treeIndex] = this.remove(this.left[treeIndex], ordering, key, ordinal);
+		}
+		else
+		{
+			this.right[treeIndex] = this.remove(this.right[treeIndex], ordering, key, ordinal);
+		}
+
+		this.updateWeight(tree, ordering);
+		return tree;
+	}
+
+
+	/**
+	 * Splits subtree into nodes that are before given pair and nodes that are after it.
+	 * Results are stored in {@link #splitLeft} and {@link #splitRight}.
+	 * @param tree Subtree root.
+	 * @param ordering Ordering index.
+	 * @param key Split key.
+	 * @param ordinal Split ordinal.
+	 */
+	private void split(int tree, int ordering, long key, int ordinal)
+	{
+		if (tree == NIL)
+		{
+			this.splitLeft = NIL;
+			this.splitRight = NIL;
+			return;
+		}
+
+		int treeIndex = this.at(tree, ordering);
+
+		if (compare(this.keys[treeIndex], tree, key, ordinal) < 0)
+		{
+			this.split(this.right[treeIndex], ordering, key, ordinal);
+			this.right[treeIndex] = this.splitLeft;
+			this.updateWeight(tree, ordering);
+			this.splitLeft = tree;
+		}
+		else
+		{
+			this.split(this.left[treeIndex], ordering, key, ordinal);
+			this.left[treeIndex] = this.splitRight;
+			this.updateWeight(tree, ordering);
+			this.splitRight = tree;
+		}
+	}
+
+
+	/**
+	 * Merges two subtrees where all nodes in first are before all nodes in second.
+	 * @param first First subtree.
+	 * @param second Second subtree.
+	 * @param ordering Ordering index.
+	 * @return merged subtree root.
+	 */
+	private int merge(int first, int second, int ordering)
+	{
+		if (first == NIL)
+		{
+			return second;
+		}
+
+		if (second == NIL)
+		{
+			return first;
+		}
+
+		if (this.priority[first] > this.priority[second])
+		{
+			int firstIndex = this.at(first, ordering);
+			this.right[firstIndex] = this.merge(this.right[firstIndex], second, ordering);
+			this.updateWeight(first, ordering);
+			return first;
+		}
+		else
+		{
+			int secondIndex = this.at(second, ordering);
+			this.left[secondIndex] = this.merge(first, this.left[secondIndex], ordering);
+			this.updateWeight(second, ordering);
+			return second;
+		}
+	}
+
+
+	/**
+	 * Recalculates subtree weight for given node.
+	 * @param node Node which weight must be updated.
+	 * @param ordering Ordering index.
+	 */
+	private void updateWeight(int node, int ordering)
+	{
+		int index = this.at(node, ordering);
+		this.weight[index] = this.weightOf(this.left[index], ordering) +
+			this.weightOf(this.right[index], ordering) + 1;
+	}
+
+
+	/**
+	 * @param node Node or NIL.
+	 * @param ordering Ordering index.
+	 * @return subtree weight.
+	 */
+	private int weightOf(int node, int ordering)
+	{
+		return node == NIL ? 0 : this.weight[this.at(node, ordering)];
+	}
+
+
+	/**
+	 * @param node Node ordinal.
+	 * @param ordering Ordering index.
+	 * @return array index where node data for given ordering is stored.
+	 */
+	private int at(int node, int ordering)
+	{
+		return node * this.orderings + ordering;
+	}
+
+
+	/**
+	 * Pushes node to traversal stack.
+	 * @param stackSize Current stack size.
+	 * @param node Node that must be pushed.
+	 * @return new stack size.
+	 */
+	private int push(int stackSize, int node)
+	{
+		if (stackSize == this.stack.length)
+		{
+			this.stack = Arrays.copyOf(this.stack, this.stack.length * 2);
+		}
+
+		this.stack[stackSize] = node;
+		return stackSize + 1;
+	}
+
+
+	/**
+	 * Generates next node priority using xorshift random generator.
+	 * @return random priority.
+	 */
+	private int nextPriority()
+	{
+		int value = this.seed;
+		value ^= value << 13;
+		value ^= value >>> 17;
+		value ^= value << 5;
+		this.seed = value;
+		return value;
+	}
+
+
+	/**
+	 * This method grows all node arrays so they could hold given ordinal count.
+	 * @param capacity Required capacity.
+	 */
+	private void ensureCapacity(int capacity)
+	{
+		if (capacity <= this.priority.length)
+		{
+			return;
+		}
+
+		int newCapacity = Math.max(capacity, this.priority.length + (this.priority.length >> 1));
+
+		this.keys = Arrays.copyOf(this.keys, newCapacity * this.orderings);
+		this.left = Arrays.copyOf(this.left, newCapacity * this.orderings);
+		this.right = Arrays.copyOf(this.right, newCapacity * this.orderings);
+		this.weight = Arrays.copyOf(this.weight, newCapacity * this.orderings);
+		this.priority = Arrays.copyOf(this.priority, newCapacity);
+	}
+
+
+	/**
+	 * Compares two key and ordinal pairs.
+	 */
+	private static int compare(long key, int ordinal, long otherKey, int otherOrdinal)
+	{
+		int compare = Long.compare(key, otherKey);
+		return compare != 0 ? compare : Integer.compare(ordinal, otherOrdinal);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Value that marks missing node.
+	 */
+	private static final int NIL = -1;
+
+	/**
+	 * Number of orderings.
+	 */
+	private final int orderings;
+
+	/**
+	 * Keys of each node per ordering.
+	 */
+	private long[] keys;
+
+	/**
+	 * Left child of each node per ordering.
+	 */
+	private int[] left;
+
+	/**
+	 * Right child of each node per ordering.
+	 */
+	private int[] right;
+
+	/**
+	 * Subtree size of each node per ordering. Zero means that node is not in tree.
+	 */
+	private int[] weight;
+
+	/**
+	 * Random heap priority of each node. It is shared by all orderings.
+	 */
+	private int[] priority;
+
+	/**
+	 * Root node of each ordering.
+	 */
+	private final int[] roots;
+
+	/**
+	 * Random generator state.
+	 */
+	private int seed = 0x2545F491;
+
+	/**
+	 * Reusable stack for in order traversal.
+	 */
+	private int[] stack = new int[64];
+
+	/**
+	 * Left result of last split.
+	 */
+	private int splitLeft;
+
+	/**
+	 * Right result of last split.
+	 */
+	private int splitRight;
+}
@@ -0,0 +1,208 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.utils.collections;
+
+
+import java.util.Arrays;
+
+
+/**
+ * Histogram of element scores that answers how many elements have strictly larger score
+ * than given one. Scores in range {@code [minScore, minScore + bucketCount)} are counted in
+ * Fenwick (binary indexed) tree over score buckets, so update and query costs
+ * O(log bucketCount) and does not depend on element count. Scores outside that range are
+ * rare and are stored in overflow {@link LongRankTree} by element ordinal.
+ * <p>
+ * Caller is responsible for removing exactly the same score that was added for ordinal.
+ * <p>
+ * This implementation is not synchronized.
+ */
+public class ScoreHistogram
+{
+	/**
+	 * Creates empty histogram.
+	 * @param minScore Smallest score that is counted in buckets.
+	 * @param bucketCount Number of buckets, each bucket holds single score value.
+	 */
+	public ScoreHistogram(int minScore, int bucketCount)
+	{
+		this.minScore = minScore;
+		this.buckets = new int[bucketCount + 1];
+		this.overflow = new LongRankTree(1, 16);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Public methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * This method adds score of given element.
+	 * @param ordinal Element ordinal.
+	 * @param score Element score.
+	 */
+	public void add(int ordinal, long score)
+	{
+		int bucket = this.bucketOf(score);
+
+		if (bucket < 0)
+		{
+			// Overflow tree is ascending, so scores are negated to count larger ones.
+			this.keyBuffer[0] = -score;
+			this.overflow.insert(ordinal, this.keyBuffer);
+		}
+		else
+		{
+			this.addToBucket(bucket, 1);
+			this.bucketTotal++;
+		}
+	}
+
+
+	/**
+	 * This method removes score of given element.
+	 * @param ordinal Element ordinal.
+	 * @param score Score that was added for element.
+	 */
+	public void remove(int ordinal, long score)
+	{
+		int bucket = this.bucketOf(score);
+
+		if (bucket < 0)
+		{
+			this.overflow.remove(ordinal);
+		}
+		else
+		{
+			this.addToBucket(bucket, -1);
+			this.bucketTotal--;
+		}
+	}
+
+
+	/**
+	 * This method returns number of elements which score is strictly larger than given
+	 * score.
+	 * @param score Score that must be compared.
+	 * @return number of elements with larger score.
+	 */
+	public int countGreater(long score)
+	{
+		int count = this.overflow.countLess(0, -score);
+
+		if (score < this.minScore)
+		{
+			return count + this.bucketTotal;
+		}
+
+		if (score >= this.minScore + this.buckets.length - 1L)
+		{
+			return count;
+		}
+
+		return count + this.bucketTotal - this.prefixSum((int) (score - this.minScore));
+	}
+
+
+	/**
+	 * @return number of elements in histogram.
+	 */
+	public int size()
+	{
+		return this.bucketTotal + this.overflow.size();
+	}
+
+
+	/**
+	 * This method removes all scores from histogram.
+	 */
+	public void clear()
+	{
+		Arrays.fill(this.buckets, 0);
+		this.bucketTotal = 0;
+		this.overflow.clear();
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @param score Element score.
+	 * @return 0-based bucket index, or -1 if score must be stored in overflow tree.
+	 */
+	private int bucketOf(long score)
+	{
+		long bucket = score - this.minScore;
+		return bucket < 0 || bucket >= this.buckets.length - 1 ? -1 : (int) bucket;
+	}
+
+
+	/**
+	 * Adds given delta to bucket count.
+	 * @param bucket 0-based bucket index.
+	 * @param delta Value that must be added.
+	 */
+	private void addToBucket(int bucket, int delta)
+	{
+		for (int index = bucket + 1; index < this.buckets.length; index += index & -index)
+		{
+			this.buckets[index] += delta;
+		}
+	}
+
+
+	/**
+	 * @param bucket 0-based bucket index.
+	 * @return number of elements in buckets from 0 till given bucket inclusive.
+	 */
+	private int prefixSum(int bucket)
+	{
+		int sum = 0;
+
+		for (int index = bucket + 1; index > 0; index -= index & -index)
+		{
+			sum += this.buckets[index];
+		}
+
+		return sum;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Smallest score that is counted in buckets.
+	 */
+	private final int minScore;
+
+	/**
+	 * Fenwick tree over buckets. Index 0 is not used.
+	 */
+	private final int[] buckets;
+
+	/**
+	 * Number of elements that are counted in buckets.
+	 */
+	private int bucketTotal;
+
+	/**
+	 * Elements which score does not fit in buckets.
+	 */
+	private final LongRankTree overflow;
+
+	/**
+	 * Reusable buffer for overflow tree key.
+	 */
+	private final long[] keyBuffer = new long[1];
+}
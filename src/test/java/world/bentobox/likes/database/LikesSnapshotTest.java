@@ -0,0 +1,353 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import world.bentobox.likes.database.objects.LikesObject;
+
+
+/**
+ * Tests that likes objects survive write and read of binary snapshot in both voter
+ * formats, and that damaged snapshots are rejected.
+ */
+public class LikesSnapshotTest
+{
+	/**
+	 * Creates temporary directory for snapshot files.
+	 * @throws IOException if directory cannot be created.
+	 */
+	@Before
+	public void setUp() throws IOException
+	{
+		this.directory = Files.createTempDirectory("likes-snapshot");
+		this.file = this.directory.resolve("likes.snapshot");
+	}
+
+
+	/**
+	 * Deletes temporary directory.
+	 * @throws IOException if directory cannot be deleted.
+	 */
+	@After
+	public void tearDown() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(this.directory))
+		{
+			for (Path path : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+			{
+				Files.deleteIfExists(path);
+			}
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Tests
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Tests round trip of portable snapshot, that stores voters as UUIDs.
+	 * @throws IOException if snapshot cannot be written or read.
+	 */
+	@Test
+	public void testPortableRoundTrip() throws IOException
+	{
+		List<LikesObject> written = this.createObjects();
+		LikesSnapshot.write(this.file, written);
+
+		assertTrue(LikesSnapshot.isReadable(this.file));
+
+		List<LikesObject> read = new ArrayList<>();
+		assertEquals(written.size(), LikesSnapshot.read(this.file, read::add));
+
+		assertSameObjects(written, read);
+		assertSameObjects(written, LikesSnapshot.readParallel(this.file));
+	}
+
+
+	/**
+	 * Tests round trip of snapshot that stores voters as ids of voter dictionary.
+	 * @throws IOException if snapshot cannot be written or read.
+	 */
+	@Test
+	public void testDictionaryRoundTrip() throws IOException
+	{
+		List<LikesObject> written = this.createObjects();
+		LikesSnapshot.write(this.file, written, null, gameMode -> false);
+
+		assertTrue(LikesSnapshot.isReadable(this.file));
+		assertSameObjects(written, LikesSnapshot.readParallel(this.file));
+	}
+
+
+	/**
+	 * Tests that sections of other GameModes are skipped when snapshot is read with filter.
+	 * @throws IOException if snapshot cannot be written or read.
+	 */
+	@Test
+	public void testReadGameModeFilter() throws IOException
+	{
+		List<LikesObject> written = this.createObjects();
+		LikesSnapshot.write(this.file, written);
+
+		List<LikesObject> expected = written.stream().
+			filter(likesObject -> SKYBLOCK.equals(likesObject.getGameMode())).
+			collect(Collectors.toList());
+
+		List<LikesObject> read = new ArrayList<>();
+		LikesSnapshot.read(this.file, SKYBLOCK::equals, read::add);
+
+		assertSameObjects(expected, read);
+		assertSameObjects(expected, LikesSnapshot.readParallel(this.file, SKYBLOCK::equals));
+	}
+
+
+	/**
+	 * Tests that sections of accepted GameModes are copied from previous snapshot, and
+	 * that sections of written GameModes replace old ones.
+	 * @throws IOException if snapshot cannot be written or read.
+	 */
+	@Test
+	public void testCopySections() throws IOException
+	{
+		List<LikesObject> written = this.createObjects();
+		LikesSnapshot.write(this.file, written, null, gameMode -> false);
+
+		LikesObject changed = createObject("island-new", SKYBLOCK, 7);
+		Path next = this.directory.resolve("likes-next.snapshot");
+
+		LikesSnapshot.write(next, Arrays.asList(changed), this.file, gameMode -> true);
+
+		List<LikesObject> expected = written.stream().
+			filter(likesObject -> !SKYBLOCK.equals(likesObject.getGameMode())).
+			collect(Collectors.toList());
+		expected.add(changed);
+
+		assertSameObjects(expected, LikesSnapshot.readParallel(next));
+	}
+
+
+	/**
+	 * Tests that snapshot which was cut inside object is rejected instead of returning
+	 * partial data.
+	 * @throws IOException if snapshot cannot be written or changed.
+	 */
+	@Test
+	public void testTruncatedSnapshot() throws IOException
+	{
+		LikesSnapshot.write(this.file, this.createObjects());
+
+		try (FileChannel channel = FileChannel.open(this.file, StandardOpenOption.WRITE))
+		{
+			channel.truncate(channel.size() - 3);
+		}
+
+		try
+		{
+			LikesSnapshot.read(this.file, likesObject -> {});
+			fail("Truncated snapshot was read.");
+		}
+		catch (IOException e)
+		{
+			// Expected.
+		}
+	}
+
+
+	/**
+	 * Tests that file with unknown header is not readable.
+	 * @throws IOException if file cannot be written.
+	 */
+	@Test
+	public void testUnknownFormat() throws IOException
+	{
+		Files.write(this.file, new byte[] { 1, 2, 3, 4, 5, 6, 7, 8, 9, 10, 11, 12, 13, 14, 15, 16 });
+
+		assertFalse(LikesSnapshot.isReadable(this.file));
+	}
+
+
+	/**
+	 * Tests that unfinished portable snapshot is continued from checkpoint, and data
+	 * written after checkpoint are dropped.
+	 * @throws IOException if snapshot cannot be written or read.
+	 */
+	@Test
+	public void testResumePortable() throws IOException
+	{
+		List<LikesObject> written = this.createObjects();
+		long checkpoint;
+
+		try (LikesSnapshot.Writer writer = LikesSnapshot.openPortable(this.file))
+		{
+			writer.write(written.subList(0, 2));
+			checkpoint = writer.checkpoint();
+
+			// Slice after checkpoint is lost, as writer is not finished.
+			writer.write(written.subList(2, 3));
+		}
+
+		assertFalse(Files.exists(this.file));
+		assertTrue(LikesSnapshot.canResume(this.file, checkpoint));
+
+		try (LikesSnapshot.Writer writer = LikesSnapshot.resumePortable(this.file, checkpoint))
+		{
+			writer.write(written.subList(3, written.size()));
+			writer.finish();
+		}
+
+		List<LikesObject> expected = new ArrayList<>(written);
+		expected.remove(2);
+
+		assertSameObjects(expected, LikesSnapshot.readParallel(this.file));
+		assertFalse(LikesSnapshot.canResume(this.file, checkpoint));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * @return Objects of two GameModes and one object without GameMode.
+	 */
+	private List<LikesObject> createObjects()
+	{
+		List<LikesObject> likesObjects = new ArrayList<>();
+
+		likesObjects.add(createObject("island-1", SKYBLOCK, 3));
+		likesObjects.add(createObject("island-2", SKYBLOCK, 0));
+		likesObjects.add(createObject("island-3", ACIDISLAND, 200));
+		likesObjects.add(createObject("island-4", ACIDISLAND, 1));
+		likesObjects.add(createObject("island-5", null, 2));
+
+		return likesObjects;
+	}
+
+
+	/**
+	 * Creates object with given number of likes and dislikes, per day counters and like
+	 * times.
+	 * @param uniqueId Island id.
+	 * @param gameMode GameMode of island.
+	 * @param voters Number of voters that like island, and also number that dislike it.
+	 * @return New likes object.
+	 */
+	private static LikesObject createObject(String uniqueId, String gameMode, int voters)
+	{
+		LikesObject likesObject = new LikesObject();
+		likesObject.setUniqueId(uniqueId);
+		likesObject.setGameMode(gameMode);
+
+		for (int index = 0; index < voters; index++)
+		{
+			UUID liker = new UUID(uniqueId.hashCode(), index);
+			UUID disliker = new UUID(index, uniqueId.hashCode());
+
+			likesObject.addLike(liker);
+			likesObject.addDislike(disliker);
+			likesObject.setLikeTime(liker, TIME + index * 1000L, 0);
+			likesObject.addDailyLikes(DAY - index % 3, 1, 0);
+		}
+
+		likesObject.setJournalSequence(voters == 0 ? 0 : TIME << 8 | voters);
+
+		return likesObject;
+	}
+
+
+	/**
+	 * Checks that both lists contain objects with the same data. Order is ignored, as
+	 * parallel read returns sections in any order.
+	 * @param expected Expected objects.
+	 * @param actual Read objects.
+	 */
+	private static void assertSameObjects(List<LikesObject> expected, List<LikesObject> actual)
+	{
+		assertEquals(expected.size(), actual.size());
+
+		Map<String, LikesObject> actualObjects = new HashMap<>();
+		actual.forEach(likesObject -> actualObjects.put(likesObject.getUniqueId(), likesObject));
+
+		for (LikesObject likesObject : expected)
+		{
+			LikesObject read = actualObjects.get(likesObject.getUniqueId());
+
+			assertTrue("Missing object " + likesObject.getUniqueId(), read != null);
+			assertEquals(likesObject.getGameMode(), read.getGameMode());
+			assertEquals(likesObject.getLikes(), read.getLikes());
+			assertEquals(likesObject.getDislikes(), read.getDislikes());
+			assertEquals(likesObject.getLikedBy(), read.getLikedBy());
+			assertEquals(likesObject.getDislikedBy(), read.getDislikedBy());
+			assertEquals(likesObject.getJournalSequence(), read.getJournalSequence());
+			assertEquals(likesObject.getDailyLikes(), read.getDailyLikes());
+			assertEquals(likesObject.getLikeTimes(), read.getLikeTimes());
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Temporary directory.
+	 */
+	private Path directory;
+
+	/**
+	 * Snapshot file.
+	 */
+	private Path file;
+
+	/**
+	 * First GameMode of test objects.
+	 */
+	private static final String SKYBLOCK = "BSkyBlock";
+
+	/**
+	 * Second GameMode of test objects.
+	 */
+	private static final String ACIDISLAND = "AcidIsland";
+
+	/**
+	 * Time of the first like.
+	 */
+	private static final long TIME = 1_560_000_000_000L;
+
+	/**
+	 * Day of the first like.
+	 */
+	private static final long DAY = 18_000;
+}
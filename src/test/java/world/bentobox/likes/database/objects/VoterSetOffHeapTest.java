@@ -0,0 +1,231 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database.objects;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static world.bentobox.likes.database.objects.VoterSetTest.ARRAY_MAX;
+import static world.bentobox.likes.database.objects.VoterSetTest.CONTAINER_SIZE;
+import static world.bentobox.likes.database.objects.VoterSetTest.assertSameIds;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.TreeSet;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+
+/**
+ * Tests voter sets which large containers are stored in pooled direct buffers.
+ */
+public class VoterSetOffHeapTest
+{
+	/**
+	 * Enables off heap storage.
+	 */
+	@Before
+	public void setUp()
+	{
+		VoterSet.setOffHeap(true);
+	}
+
+
+	/**
+	 * Disables off heap storage, so other tests use heap containers.
+	 */
+	@After
+	public void tearDown()
+	{
+		VoterSet.setOffHeap(false);
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Tests
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Tests that container keeps the same voters when it moves from heap array to direct
+	 * array, to direct bitmap and back.
+	 */
+	@Test
+	public void testOffHeapConversion()
+	{
+		VoterSet voters = new VoterSet();
+		TreeSet<Integer> expected = new TreeSet<>();
+
+		int[] sizes = { DIRECT_MIN - 1, DIRECT_MIN, ARRAY_MAX, ARRAY_MAX + 1, ARRAY_MAX + 500 };
+
+		for (int size : sizes)
+		{
+			for (int id = expected.size() * 5; expected.size() < size; id += 5)
+			{
+				assertTrue(voters.addId(id));
+				expected.add(id);
+			}
+
+			assertSameIds(expected, voters);
+		}
+
+		int[] removedSizes = { ARRAY_MAX, DIRECT_MIN, DIRECT_MIN / 2, DIRECT_MIN / 2 - 1, 1, 0 };
+
+		for (int size : removedSizes)
+		{
+			while (expected.size() > size)
+			{
+				int id = expected.last();
+				assertTrue(voters.removeId(id));
+				expected.remove(id);
+			}
+
+			assertSameIds(expected, voters);
+		}
+	}
+
+
+	/**
+	 * Tests that more containers than pool can hold are allocated when pool is empty, and
+	 * that buffers which are taken from pool again do not keep values of their previous
+	 * containers.
+	 */
+	@Test
+	public void testPoolExhaustion()
+	{
+		int setCount = POOL_SIZE + 100;
+
+		// Dense bitmaps fill most bits of their buffers.
+		List<VoterSet> bitmaps = createSets(setCount, 0, ARRAY_MAX + 1000, 1);
+		List<VoterSet> arrays = createSets(setCount, CONTAINER_SIZE, DIRECT_MIN + 10, 3);
+
+		for (int index = 0; index < setCount; index += 97)
+		{
+			assertSameIds(toExpected(index, 0, ARRAY_MAX + 1000, 1), bitmaps.get(index));
+			assertSameIds(toExpected(index, CONTAINER_SIZE, DIRECT_MIN + 10, 3), arrays.get(index));
+		}
+
+		// Pool gets only part of released buffers, others are left for garbage collector.
+		bitmaps.forEach(VoterSet::clear);
+		arrays.forEach(VoterSet::clear);
+
+		// New containers reuse dirty buffers, and also allocate new ones when pool is empty.
+		List<VoterSet> reusedBitmaps = createSets(setCount, 0, ARRAY_MAX + 1, 7);
+		List<VoterSet> reusedArrays = createSets(setCount, CONTAINER_SIZE, DIRECT_MIN, 2);
+
+		for (int index = 0; index < setCount; index++)
+		{
+			assertSameIds(toExpected(index, 0, ARRAY_MAX + 1, 7), reusedBitmaps.get(index));
+			assertSameIds(toExpected(index, CONTAINER_SIZE, DIRECT_MIN, 2), reusedArrays.get(index));
+		}
+	}
+
+
+	/**
+	 * Tests that off heap containers keep working after off heap storage is disabled, and
+	 * that copies do not share buffers with original set.
+	 */
+	@Test
+	public void testDisableOffHeap()
+	{
+		VoterSet voters = new VoterSet();
+		Set<Integer> expected = new TreeSet<>();
+
+		for (int id = 0; id <= ARRAY_MAX; id++)
+		{
+			voters.addId(id);
+			expected.add(id);
+		}
+
+		VoterSet copy = new VoterSet(voters);
+		VoterSet.setOffHeap(false);
+
+		for (int id = 0; id < DIRECT_MIN; id++)
+		{
+			voters.removeId(id);
+			expected.remove(id);
+		}
+
+		assertSameIds(expected, voters);
+
+		voters.clear();
+
+		assertFalse(copy.isEmpty());
+		assertEquals(ARRAY_MAX + 1, copy.size());
+		assertTrue(copy.containsId(0));
+		assertTrue(copy.containsId(ARRAY_MAX));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Creates voter sets with single container each.
+	 * @param count Number of sets.
+	 * @param base First id of container.
+	 * @param size Number of ids in each set.
+	 * @param step Distance between ids.
+	 * @return Created sets.
+	 */
+	private static List<VoterSet> createSets(int count, int base, int size, int step)
+	{
+		List<VoterSet> sets = new ArrayList<>(count);
+
+		for (int index = 0; index < count; index++)
+		{
+			VoterSet voters = new VoterSet();
+			toExpected(index, base, size, step).forEach(voters::addId);
+			sets.add(voters);
+		}
+
+		return sets;
+	}
+
+
+	/**
+	 * @param index Index of set.
+	 * @param base First id of container.
+	 * @param size Number of ids.
+	 * @param step Distance between ids.
+	 * @return Ids of set that was created by {@link #createSets(int, int, int, int)}.
+	 */
+	private static Set<Integer> toExpected(int index, int base, int size, int step)
+	{
+		Set<Integer> ids = new TreeSet<>();
+		int offset = index % step;
+
+		for (int value = 0; value < size; value++)
+		{
+			ids.add(base + offset + value * step);
+		}
+
+		return ids;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Minimal number of values in array container that is stored off heap.
+	 */
+	private static final int DIRECT_MIN = 1024;
+
+	/**
+	 * Number of direct buffers that are kept in pool.
+	 */
+	private static final int POOL_SIZE = 1024;
+}
@@ -0,0 +1,316 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.database.objects;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PrimitiveIterator;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.UUID;
+
+import org.junit.Test;
+
+
+/**
+ * Tests that voter set keeps exactly the same voters when its containers are converted
+ * between sorted arrays and bitmaps.
+ */
+public class VoterSetTest
+{
+// ---------------------------------------------------------------------
+// Section: Tests
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Tests that container which grows over array limit becomes bitmap without losing
+	 * voters, and becomes array again when voters are removed.
+	 */
+	@Test
+	public void testArrayBitmapConversion()
+	{
+		VoterSet voters = new VoterSet();
+		Set<Integer> expected = new TreeSet<>();
+
+		// Every third id, so bitmap is sparse and array values are not sequential.
+		for (int id = 0; expected.size() <= ARRAY_MAX; id += 3)
+		{
+			assertTrue(voters.addId(id));
+			expected.add(id);
+		}
+
+		assertFalse(voters.addId(0));
+		assertSameIds(expected, voters);
+
+		// Back to array limit and below it.
+		for (int id : new ArrayList<>(expected))
+		{
+			if (expected.size() <= ARRAY_MAX - 10)
+			{
+				break;
+			}
+
+			assertTrue(voters.removeId(id));
+			expected.remove(id);
+		}
+
+		assertFalse(voters.removeId(0));
+		assertSameIds(expected, voters);
+
+		// Grow again after conversion back.
+		for (int id = 1; expected.size() <= ARRAY_MAX + 100; id += 3)
+		{
+			voters.addId(id);
+			expected.add(id);
+		}
+
+		assertSameIds(expected, voters);
+	}
+
+
+	/**
+	 * Tests that full container is stored as bitmap and every value stays reachable.
+	 */
+	@Test
+	public void testFullContainer()
+	{
+		VoterSet voters = new VoterSet();
+		Set<Integer> expected = new TreeSet<>();
+
+		for (int id = 0; id < CONTAINER_SIZE; id++)
+		{
+			voters.addId(id);
+			expected.add(id);
+		}
+
+		assertSameIds(expected, voters);
+
+		for (int id = 0; id < CONTAINER_SIZE; id += 2)
+		{
+			voters.removeId(id);
+			expected.remove(id);
+		}
+
+		assertSameIds(expected, voters);
+	}
+
+
+	/**
+	 * Tests that ids in several containers are kept in id order, and that empty
+	 * containers are removed.
+	 */
+	@Test
+	public void testSeveralContainers()
+	{
+		VoterSet voters = new VoterSet();
+		Set<Integer> expected = new TreeSet<>();
+
+		// Second container is bitmap, others are arrays.
+		int[] keys = { 5, 0, 2, Short.MAX_VALUE };
+
+		for (int key : keys)
+		{
+			int count = key == 2 ? ARRAY_MAX + 1 : 10;
+
+			for (int index = 0; index < count; index++)
+			{
+				int id = key * CONTAINER_SIZE + index * 7 % CONTAINER_SIZE;
+				voters.addId(id);
+				expected.add(id);
+			}
+		}
+
+		assertSameIds(expected, voters);
+
+		// Remove whole first array container and whole bitmap container.
+		for (int id : new ArrayList<>(expected))
+		{
+			if (id / CONTAINER_SIZE == 0 || id / CONTAINER_SIZE == 2)
+			{
+				assertTrue(voters.removeId(id));
+				expected.remove(id);
+			}
+		}
+
+		assertSameIds(expected, voters);
+
+		voters.clear();
+		assertSameIds(new TreeSet<>(), voters);
+	}
+
+
+	/**
+	 * Tests intersection size between array and bitmap containers.
+	 */
+	@Test
+	public void testIntersectionSize()
+	{
+		VoterSet bitmap = new VoterSet();
+		VoterSet array = new VoterSet();
+
+		for (int id = 0; id < ARRAY_MAX * 2; id++)
+		{
+			bitmap.addId(id);
+		}
+
+		int common = 0;
+
+		for (int id = 0; id < CONTAINER_SIZE * 2; id += 5)
+		{
+			array.addId(id);
+
+			if (id < ARRAY_MAX * 2)
+			{
+				common++;
+			}
+		}
+
+		assertEquals(common, bitmap.intersectionSize(array));
+		assertEquals(common, array.intersectionSize(bitmap));
+		assertEquals(bitmap.size(), bitmap.intersectionSize(bitmap));
+		assertEquals(0, new VoterSet().intersectionSize(bitmap));
+	}
+
+
+	/**
+	 * Tests that copy of set does not share containers with original.
+	 */
+	@Test
+	public void testCopy()
+	{
+		VoterSet voters = new VoterSet();
+
+		for (int id = 0; id <= ARRAY_MAX; id++)
+		{
+			voters.addId(id);
+		}
+
+		VoterSet copy = new VoterSet(voters);
+		Set<Integer> expected = toSet(voters);
+
+		voters.removeId(0);
+		copy.addId(CONTAINER_SIZE);
+
+		assertFalse(voters.containsId(0));
+		assertTrue(copy.containsId(0));
+		assertFalse(voters.containsId(CONTAINER_SIZE));
+
+		expected.add(CONTAINER_SIZE);
+		assertSameIds(expected, copy);
+	}
+
+
+	/**
+	 * Tests UUID methods and iterator removal, that work through voter dictionary.
+	 */
+	@Test
+	public void testUuidVoters()
+	{
+		List<UUID> uuids = new ArrayList<>();
+
+		for (int index = 0; index <= ARRAY_MAX; index++)
+		{
+			uuids.add(new UUID(0x5E7L, index));
+		}
+
+		VoterSet voters = new VoterSet(uuids);
+
+		assertEquals(uuids.size(), voters.size());
+		assertEquals(new HashSet<>(uuids), new HashSet<>(voters));
+		assertFalse(voters.contains(new UUID(0x5E7L, -1)));
+
+		Iterator<UUID> iterator = voters.iterator();
+
+		while (iterator.hasNext())
+		{
+			if (iterator.next().getLeastSignificantBits() % 2 == 0)
+			{
+				iterator.remove();
+			}
+		}
+
+		assertEquals(uuids.size() / 2, voters.size());
+		assertFalse(voters.contains(uuids.get(0)));
+		assertTrue(voters.contains(uuids.get(1)));
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Checks that set contains exactly given ids, and iterates them in id order.
+	 * @param expected Expected ids in id order.
+	 * @param voters Voter set.
+	 */
+	static void assertSameIds(Set<Integer> expected, VoterSet voters)
+	{
+		assertEquals(expected.size(), voters.size());
+		assertEquals(new ArrayList<>(expected), new ArrayList<>(toSet(voters)));
+
+		for (int id : expected)
+		{
+			assertTrue("Missing id " + id, voters.containsId(id));
+		}
+
+		for (int id : expected)
+		{
+			// Neighbours of stored ids are not stored, unless they were added.
+			if (!expected.contains(id + 1))
+			{
+				assertFalse("Unexpected id " + (id + 1), voters.containsId(id + 1));
+			}
+		}
+	}
+
+
+	/**
+	 * @param voters Voter set.
+	 * @return Ids of voter set in iteration order.
+	 */
+	static Set<Integer> toSet(VoterSet voters)
+	{
+		Set<Integer> ids = new TreeSet<>();
+		List<Integer> order = new ArrayList<>();
+
+		for (PrimitiveIterator.OfInt iterator = voters.idIterator(); iterator.hasNext();)
+		{
+			int id = iterator.nextInt();
+			order.add(id);
+			ids.add(id);
+		}
+
+		assertEquals("Ids are not iterated in order", new ArrayList<>(ids), order);
+		return ids;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Maximal number of values in array container.
+	 */
+	static final int ARRAY_MAX = 4096;
+
+	/**
+	 * Number of ids in single container.
+	 */
+	static final int CONTAINER_SIZE = 1 << 16;
+}
@@ -0,0 +1,451 @@
+//
+// Created by BONNe
+// Copyright - 2019
+//
+
+
+package world.bentobox.likes.managers;
+
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.UUID;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import world.bentobox.likes.LikesAddon;
+
+
+/**
+ * Tests replay of vote journal segments, including segments which tail was cut or
+ * damaged by crash.
+ */
+public class VoteJournalTest
+{
+	/**
+	 * Creates empty journal directory.
+	 * @throws IOException if directory cannot be created.
+	 */
+	@Before
+	public void setUp() throws IOException
+	{
+		this.directory = Files.createTempDirectory("likes-journal");
+	}
+
+
+	/**
+	 * Deletes journal directory.
+	 * @throws IOException if directory cannot be deleted.
+	 */
+	@After
+	public void tearDown() throws IOException
+	{
+		try (Stream<Path> files = Files.walk(this.directory))
+		{
+			for (Path file : files.sorted(Comparator.reverseOrder()).collect(Collectors.toList()))
+			{
+				Files.deleteIfExists(file);
+			}
+		}
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Tests
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Tests that all records of intact segment are replayed in order with their values.
+	 */
+	@Test
+	public void testReplayIntactSegment()
+	{
+		VoteJournal journal = new VoteJournal(this.addon, this.directory);
+		long first = journal.append(VoteJournal.Operation.ADD_LIKE, ISLAND, GAME_MODE, VOTER, TIME);
+		long second = journal.append(VoteJournal.Operation.REMOVE_LIKE, ISLAND, GAME_MODE, VOTER, TIME + 1);
+		long third = journal.append(VoteJournal.Operation.ADD_DISLIKE, ISLAND, null, VOTER, TIME + 2);
+		journal.rotate();
+
+		List<Record> records = this.replay();
+
+		assertEquals(3, records.size());
+		assertTrue(first < second && second < third);
+
+		assertEquals(VoteJournal.Operation.ADD_LIKE, records.get(0).operation);
+		assertEquals(ISLAND, records.get(0).islandId);
+		assertEquals(GAME_MODE, records.get(0).gameMode);
+		assertEquals(VOTER, records.get(0).voter);
+		assertEquals(TIME, records.get(0).time);
+		assertEquals(first, records.get(0).sequence);
+
+		assertEquals(VoteJournal.Operation.REMOVE_LIKE, records.get(1).operation);
+		assertEquals(second, records.get(1).sequence);
+
+		// GameMode that is not known is stored as empty string.
+		assertEquals(VoteJournal.Operation.ADD_DISLIKE, records.get(2).operation);
+		assertEquals("", records.get(2).gameMode);
+		assertEquals(third, records.get(2).sequence);
+
+		assertEquals(0, this.addon.warnings.size());
+	}
+
+
+	/**
+	 * Tests that record which was cut by crash is ignored, and records before it are
+	 * replayed.
+	 * @throws IOException if segment cannot be changed.
+	 */
+	@Test
+	public void testReplayTruncatedTail() throws IOException
+	{
+		this.writeRecords(3);
+
+		Path segment = this.getSegments().get(0);
+		long recordLength = Files.size(segment) / 3;
+
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE))
+		{
+			channel.truncate(Files.size(segment) - recordLength / 2);
+		}
+
+		assertEquals(2, this.replay().size());
+		assertEquals(1, this.addon.warnings.size());
+	}
+
+
+	/**
+	 * Tests that segment cut inside record header is handled as damaged tail.
+	 * @throws IOException if segment cannot be changed.
+	 */
+	@Test
+	public void testReplayTruncatedHeader() throws IOException
+	{
+		this.writeRecords(2);
+
+		Path segment = this.getSegments().get(0);
+		long recordLength = Files.size(segment) / 2;
+
+		try (FileChannel channel = FileChannel.open(segment, StandardOpenOption.WRITE))
+		{
+			channel.truncate(recordLength + Integer.BYTES + 1);
+		}
+
+		assertEquals(1, this.replay().size());
+		assertEquals(1, this.addon.warnings.size());
+	}
+
+
+	/**
+	 * Tests that record with wrong checksum stops replay of its segment.
+	 * @throws IOException if segment cannot be changed.
+	 */
+	@Test
+	public void testReplayCorruptTail() throws IOException
+	{
+		this.writeRecords(3);
+
+		Path segment = this.getSegments().get(0);
+		byte[] data = Files.readAllBytes(segment);
+
+		// Last byte belongs to sequence of the last record.
+		data[data.length - 1] ^= 0x55;
+		Files.write(segment, data);
+
+		assertEquals(2, this.replay().size());
+		assertEquals(1, this.addon.warnings.size());
+	}
+
+
+	/**
+	 * Tests that record with impossible length stops replay of its segment.
+	 * @throws IOException if segment cannot be changed.
+	 */
+	@Test
+	public void testReplayCorruptLength() throws IOException
+	{
+		this.writeRecords(3);
+
+		Path segment = this.getSegments().get(0);
+		byte[] data = Files.readAllBytes(segment);
+		int recordLength = data.length / 3;
+
+		// Length of the second record becomes negative.
+		data[recordLength] = (byte) 0xFF;
+		Files.write(segment, data);
+
+		assertEquals(1, this.replay().size());
+		assertEquals(1, this.addon.warnings.size());
+	}
+
+
+	/**
+	 * Tests that damaged tail of one segment does not stop replay of next segments.
+	 * @throws IOException if segment cannot be changed.
+	 */
+	@Test
+	public void testReplayContinuesWithNextSegment() throws IOException
+	{
+		VoteJournal journal = new VoteJournal(this.addon, this.directory);
+		journal.append(VoteJournal.Operation.ADD_LIKE, ISLAND, GAME_MODE, VOTER, TIME);
+		journal.append(VoteJournal.Operation.ADD_LIKE, ISLAND, GAME_MODE, VOTER, TIME + 1);
+		journal.rotate();
+		journal.append(VoteJournal.Operation.RESET, ISLAND, GAME_MODE, VOTER, TIME + 2);
+		journal.rotate();
+
+		List<Path> segments = this.getSegments();
+		assertEquals(2, segments.size());
+
+		Path first = segments.get(0);
+
+		try (FileChannel channel = FileChannel.open(first, StandardOpenOption.WRITE))
+		{
+			channel.truncate(Files.size(first) - 1);
+		}
+
+		List<Record> records = this.replay();
+
+		assertEquals(2, records.size());
+		assertEquals(VoteJournal.Operation.ADD_LIKE, records.get(0).operation);
+		assertEquals(VoteJournal.Operation.RESET, records.get(1).operation);
+	}
+
+
+	/**
+	 * Tests that journal which replayed segments continues with higher sequence and new
+	 * segment, and that replayed segments are deleted after rotation.
+	 */
+	@Test
+	public void testSequenceAfterReplay()
+	{
+		this.writeRecords(2);
+
+		VoteJournal journal = new VoteJournal(this.addon, this.directory);
+		List<Long> sequences = new ArrayList<>();
+		journal.replay((operation, islandId, gameMode, voter, time, sequence) -> sequences.add(sequence));
+
+		// Vote time is older than replayed records, so sequence must not go back.
+		long sequence = journal.append(VoteJournal.Operation.ADD_LIKE, ISLAND, GAME_MODE, VOTER, TIME - 1);
+		assertTrue(sequence > sequences.get(1));
+
+		List<Path> sealed = journal.rotate();
+		assertEquals(2, sealed.size());
+
+		journal.delete(sealed);
+		assertEquals(0, this.getSegments().size());
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Private methods
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Writes given number of like records to single segment.
+	 * @param count Number of records.
+	 */
+	private void writeRecords(int count)
+	{
+		VoteJournal journal = new VoteJournal(this.addon, this.directory);
+
+		for (int index = 0; index < count; index++)
+		{
+			journal.append(VoteJournal.Operation.ADD_LIKE, ISLAND, GAME_MODE, VOTER, TIME + index);
+		}
+
+		journal.rotate();
+	}
+
+
+	/**
+	 * Replays journal directory with new journal instance.
+	 * @return Replayed records.
+	 */
+	private List<Record> replay()
+	{
+		List<Record> records = new ArrayList<>();
+
+		new VoteJournal(this.addon, this.directory).replay((operation, islandId, gameMode, voter, time, sequence) ->
+			records.add(new Record(operation, islandId, gameMode, voter, time, sequence)));
+
+		return records;
+	}
+
+
+	/**
+	 * @return Journal segments sorted by name.
+	 */
+	private List<Path> getSegments()
+	{
+		List<Path> segments = new ArrayList<>();
+
+		try (DirectoryStream<Path> stream = Files.newDirectoryStream(this.directory))
+		{
+			stream.forEach(segments::add);
+		}
+		catch (IOException e)
+		{
+			throw new AssertionError(e);
+		}
+
+		segments.sort(Comparator.comparing(Path::toString));
+		return segments;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Classes
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Addon that collects warnings instead of sending them to server log.
+	 */
+	private static class TestAddon extends LikesAddon
+	{
+		/**
+		 * Ignores message.
+		 * @param message Message.
+		 */
+		@Override
+		public void log(String message)
+		{
+		}
+
+
+		/**
+		 * Collects warning.
+		 * @param message Warning.
+		 */
+		@Override
+		public void logWarning(String message)
+		{
+			this.warnings.add(message);
+		}
+
+
+		/**
+		 * Collects error.
+		 * @param message Error.
+		 */
+		@Override
+		public void logError(String message)
+		{
+			this.warnings.add(message);
+		}
+
+
+		/**
+		 * Collected warnings and errors.
+		 */
+		private final List<String> warnings = new ArrayList<>();
+	}
+
+
+	/**
+	 * Single replayed journal record.
+	 */
+	private static class Record
+	{
+		/**
+		 * Default constructor.
+		 * @param operation Vote operation.
+		 * @param islandId Island id.
+		 * @param gameMode GameMode of island.
+		 * @param voter Player who voted.
+		 * @param time Vote time in milliseconds.
+		 * @param sequence Sequence number of record.
+		 */
+		private Record(VoteJournal.Operation operation, String islandId, String gameMode, UUID voter, long time, long sequence)
+		{
+			this.operation = operation;
+			this.islandId = islandId;
+			this.gameMode = gameMode;
+			this.voter = voter;
+			this.time = time;
+			this.sequence = sequence;
+		}
+
+
+		/**
+		 * Vote operation.
+		 */
+		private final VoteJournal.Operation operation;
+
+		/**
+		 * Island id.
+		 */
+		private final String islandId;
+
+		/**
+		 * GameMode of island.
+		 */
+		private final String gameMode;
+
+		/**
+		 * Player who voted.
+		 */
+		private final UUID voter;
+
+		/**
+		 * Vote time in milliseconds.
+		 */
+		private final long time;
+
+		/**
+		 * Sequence number of record.
+		 */
+		private final long sequence;
+	}
+
+
+// ---------------------------------------------------------------------
+// Section: Variables
+// ---------------------------------------------------------------------
+
+
+	/**
+	 * Addon that collects warnings.
+	 */
+	private final TestAddon addon = new TestAddon();
+
+	/**
+	 * Temporary journal directory.
+	 */
+	private Path directory;
+
+	/**
+	 * Island id of written records.
+	 */
+	private static final String ISLAND = "island-1";
+
+	/**
+	 * GameMode of written records.
+	 */
+	private static final String GAME_MODE = "BSkyBlock";
+
+	/**
+	 * Voter of written records.
+	 */
+	private static final UUID VOTER = UUID.fromString("6e8b1b5c-0c1d-4b0a-9f5a-3c2d1e0f9a8b");
+
+	/**
+	 * Time of the first written record.
+	 */
+	private static final long TIME = 1_560_000_000_000L;
+}